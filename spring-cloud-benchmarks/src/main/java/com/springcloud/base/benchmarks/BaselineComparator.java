@@ -0,0 +1,184 @@
+package com.springcloud.base.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @Author: ls
+ * @Description: 基线比较
+ * 读取两份JMH JSON结果，按 基准方法+参数 匹配；
+ * 吞吐量类(thrpt)越大越好，其余模式越小越好，变差超过阈值即为回退。
+ * 基线中存在而结果中缺失、结果中存在而基线中没有的基准都视为失败，避免基线为空或过期时比较不出任何回退
+ * 基线即一次完整运行的结果文件，在基准机器上执行 {@code java -jar benchmarks.jar --write-baseline} 生成或更新
+ * <pre>
+ * java -cp benchmarks.jar com.springcloud.base.benchmarks.BaselineComparator 基线文件 结果文件 [阈值百分比]
+ * </pre>
+ * @Date: 2023/5/8 10:21
+ */
+public final class BaselineComparator {
+
+    /**
+     * 默认回退阈值 百分比
+     */
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10.0D;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("用法: BaselineComparator <基线文件> <结果文件> [阈值百分比]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Report report = compare(new File(args[0]), new File(args[1]), threshold);
+        System.out.println(report);
+        System.exit(report.hasRegressions() ? 1 : 0);
+    }
+
+    /**
+     * 比较结果与基线
+     *
+     * @param baselineFile     基线文件
+     * @param resultFile       结果文件
+     * @param thresholdPercent 回退阈值 百分比
+     * @return 比较报告
+     */
+    public static Report compare(File baselineFile, File resultFile, double thresholdPercent) throws IOException {
+        Map<String, Score> baseline = read(baselineFile);
+        Map<String, Score> results = read(resultFile);
+        Report report = new Report(thresholdPercent);
+        baseline.forEach((key, expected) -> {
+            Score actual = results.get(key);
+            if (actual == null) {
+                report.missing.add(key);
+                return;
+            }
+            // 正数表示变差的百分比
+            double change = expected.score == 0 ? 0
+                    : (expected.higherIsBetter() ? expected.score - actual.score : actual.score - expected.score) / expected.score * 100;
+            Comparison comparison = new Comparison(key, expected, actual, change);
+            if (change > thresholdPercent) {
+                report.regressions.add(comparison);
+            } else {
+                report.passed.add(comparison);
+            }
+        });
+        results.keySet().stream().filter(key -> !baseline.containsKey(key)).forEach(report.unbaselined::add);
+        return report;
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode node : OBJECT_MAPPER.readTree(file)) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText());
+            JsonNode params = node.path("params");
+            if (params.isObject()) {
+                Map<String, String> sorted = new TreeMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    sorted.put(field.getKey(), field.getValue().asText());
+                }
+                key.append(sorted);
+            }
+            JsonNode metric = node.path("primaryMetric");
+            scores.put(key.toString(), new Score(node.path("mode").asText(),
+                    metric.path("score").asDouble(), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    static final class Score {
+
+        private final String mode;
+
+        private final double score;
+
+        private final String unit;
+
+        private Score(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+
+        private boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    static final class Comparison {
+
+        private final String key;
+
+        private final Score expected;
+
+        private final Score actual;
+
+        private final double change;
+
+        private Comparison(String key, Score expected, Score actual, double change) {
+            this.key = key;
+            this.expected = expected;
+            this.actual = actual;
+            this.change = change;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s] 基线 %.3f, 当前 %.3f %s, 变差 %.2f%%",
+                    key, expected.mode, expected.score, actual.score, actual.unit, change);
+        }
+    }
+
+    /**
+     * 比较报告
+     */
+    public static final class Report {
+
+        private final double thresholdPercent;
+
+        private final List<Comparison> regressions = new ArrayList<>();
+
+        private final List<Comparison> passed = new ArrayList<>();
+
+        private final List<String> missing = new ArrayList<>();
+
+        /**
+         * 结果中存在而基线中没有的基准
+         */
+        private final List<String> unbaselined = new ArrayList<>();
+
+        private Report(double thresholdPercent) {
+            this.thresholdPercent = thresholdPercent;
+        }
+
+        public boolean hasRegressions() {
+            return !regressions.isEmpty() || !missing.isEmpty() || !unbaselined.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("基线比较，阈值 %.2f%%，通过 %d，回退 %d，缺失 %d，无基线 %d%n",
+                    thresholdPercent, passed.size(), regressions.size(), missing.size(), unbaselined.size()));
+            regressions.forEach(comparison -> builder.append("  回退 ").append(comparison).append(System.lineSeparator()));
+            missing.forEach(key -> builder.append("  缺失 ").append(key).append(System.lineSeparator()));
+            unbaselined.forEach(key -> builder.append("  无基线 ").append(key).append(System.lineSeparator()));
+            passed.forEach(comparison -> builder.append("  通过 ").append(comparison).append(System.lineSeparator()));
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.springcloud.base.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @Author: ls
+ * @Description: 基准测试入口
+ * 运行选中的基准测试，结果以JMH的JSON格式写入文件；指定基线时运行结束后与基线比较，存在回退则以非0状态退出<br>
+ * 基线为空时比较必然失败，需先在基准机器上以 --write-baseline 完整运行一次，结果写入基线文件（默认 {@link #DEFAULT_BASELINE}）而不比较
+ * <pre>
+ * java -jar benchmarks.jar [include正则...] [--out 结果文件] [--baseline 基线文件] [--threshold 百分比] [--quick] [--write-baseline]
+ * </pre>
+ * @Date: 2023/5/8 10:21
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * 默认基线文件
+     */
+    public static final String DEFAULT_BASELINE = "baseline/baseline.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<String> includes = new ArrayList<>();
+        String out = null;
+        String baseline = null;
+        double threshold = BaselineComparator.DEFAULT_THRESHOLD_PERCENT;
+        boolean quick = false;
+        boolean writeBaseline = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out":
+                    out = args[++i];
+                    break;
+                case "--baseline":
+                    baseline = args[++i];
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "--quick":
+                    quick = true;
+                    break;
+                case "--write-baseline":
+                    writeBaseline = true;
+                    break;
+                default:
+                    includes.add(args[i]);
+            }
+        }
+        if (writeBaseline && quick) {
+            System.err.println("--quick 的结果不可用于比较，不能写入基线");
+            System.exit(2);
+        }
+        if (out == null) {
+            out = "target/benchmarks/results-" + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()) + ".json";
+        }
+        File outFile = new File(out);
+        File parent = outFile.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .resultFormat(ResultFormatType.JSON)
+                .result(outFile.getPath());
+        if (includes.isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        } else {
+            includes.forEach(options::include);
+        }
+        if (quick) {
+            // 冒烟运行，只验证基准测试可执行，结果不可用于比较
+            options.forks(1).warmupIterations(1).measurementIterations(1);
+        }
+        new Runner(options.build()).run();
+        System.out.println("结果已写入 " + outFile.getAbsolutePath());
+
+        if (writeBaseline) {
+            File baselineFile = new File(baseline != null ? baseline : DEFAULT_BASELINE);
+            File baselineDir = baselineFile.getAbsoluteFile().getParentFile();
+            if (!baselineDir.exists() && !baselineDir.mkdirs()) {
+                throw new IOException("无法创建目录: " + baselineDir);
+            }
+            Files.copy(outFile.toPath(), baselineFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("基线已写入 " + baselineFile.getAbsolutePath());
+            return;
+        }
+        if (baseline != null) {
+            BaselineComparator.Report report = BaselineComparator.compare(new File(baseline), outFile, threshold);
+            System.out.println(report);
+            if (report.hasRegressions()) {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.springcloud.base.benchmarks.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springcloud.base.core.bean.BeanWrapper;
+import com.springcloud.base.core.json.JsonConfiguration;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 对象转换，编译型复制器与原 JSON 序列化往返对照
+ * 负载为带嵌套对象、集合、Map与时间字段的订单对象
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeanWrapperBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OrderEntity order;
+
+    private List<OrderEntity> orders;
+
+    @Setup
+    public void setup() {
+        JsonConfiguration.initConfiguration(objectMapper);
+        this.order = newOrder(1L);
+        this.orders = new ArrayList<>(100);
+        for (long i = 0; i < 100; i++) {
+            this.orders.add(newOrder(i));
+        }
+    }
+
+    @Benchmark
+    public OrderVo jsonCastTo() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsString(order), OrderVo.class);
+    }
+
+    @Benchmark
+    public OrderVo castTo() {
+        return BeanWrapper.castTo(order, OrderVo.class);
+    }
+
+    @Benchmark
+    public List<OrderVo> jsonArrCastTo() throws IOException {
+        List<OrderVo> result = new ArrayList<>(orders.size());
+        for (OrderEntity entity : orders) {
+            result.add(objectMapper.readValue(objectMapper.writeValueAsString(entity), OrderVo.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<OrderVo> arrCastTo() {
+        return BeanWrapper.arrCastTo(orders, OrderVo.class);
+    }
+
+    static OrderEntity newOrder(long id) {
+        OrderEntity order = new OrderEntity();
+        order.setId(id);
+        order.setOrderNo("NO" + (100000000L + id));
+        order.setAmount(new BigDecimal("1024.50"));
+        order.setStatus(2);
+        order.setCreateTime(new Date());
+        order.setUpdateTime(LocalDateTime.now());
+        order.setTags(Arrays.asList("express", "vip", "coupon"));
+        Map<String, String> attributes = new HashMap<>(8);
+        attributes.put("channel", "app");
+        attributes.put("region", "east");
+        order.setAttributes(attributes);
+        List<OrderItemEntity> items = new ArrayList<>(5);
+        for (int i = 0; i < 5; i++) {
+            OrderItemEntity item = new OrderItemEntity();
+            item.setSkuId(id * 10 + i);
+            item.setName("商品" + i);
+            item.setQuantity(i + 1);
+            item.setPrice(new BigDecimal("99.90"));
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    @Data
+    public static class OrderEntity {
+        private Long id;
+        private String orderNo;
+        private BigDecimal amount;
+        private Integer status;
+        private Date createTime;
+        private LocalDateTime updateTime;
+        private List<String> tags;
+        private Map<String, String> attributes;
+        private List<OrderItemEntity> items;
+    }
+
+    @Data
+    public static class OrderItemEntity {
+        private Long skuId;
+        private String name;
+        private Integer quantity;
+        private BigDecimal price;
+    }
+
+    @Data
+    public static class OrderVo {
+        private Long id;
+        private String orderNo;
+        private BigDecimal amount;
+        private Integer status;
+        private Date createTime;
+        private LocalDateTime updateTime;
+        private List<String> tags;
+        private Map<String, String> attributes;
+        private List<OrderItemVo> items;
+    }
+
+    @Data
+    public static class OrderItemVo {
+        private Long skuId;
+        private String name;
+        private Integer quantity;
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,82 @@
+package com.springcloud.base.benchmarks.core;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.springcloud.base.core.condition.Condition;
+import com.springcloud.base.core.condition.ConditionCo;
+import com.springcloud.base.core.condition.ConditionQueryBuilder;
+import com.springcloud.base.core.condition.MatchEnum;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 查询条件构建，负载为常见列表查询条件与2500个ID的IN查询
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionQueryBuilderBenchmark {
+
+    private OrderQueryCo query;
+
+    private OrderQueryCo largeInQuery;
+
+    @Setup
+    public void setup() {
+        this.query = new OrderQueryCo();
+        this.query.setOrderNo("NO1000");
+        this.query.setStatus(2);
+        this.query.setMinAmount(100L);
+        this.largeInQuery = new OrderQueryCo();
+        List<Long> ids = new ArrayList<>(2500);
+        for (long i = 0; i < 2500; i++) {
+            ids.add(i);
+        }
+        this.largeInQuery.setIds(ids);
+    }
+
+    @Benchmark
+    public String build() {
+        QueryWrapper<Object> wrapper = ConditionQueryBuilder.build(query);
+        return wrapper.getSqlSegment();
+    }
+
+    @Benchmark
+    public String buildLargeIn() {
+        QueryWrapper<Object> wrapper = ConditionQueryBuilder.build(largeInQuery);
+        return wrapper.getSqlSegment();
+    }
+
+    @Data
+    public static class OrderQueryCo implements ConditionCo {
+
+        @Condition(value = "order_no", match = MatchEnum.RIGHT_LIKE)
+        private String orderNo;
+
+        @Condition("status")
+        private Integer status;
+
+        @Condition(value = "amount", match = MatchEnum.GTE)
+        private Long minAmount;
+
+        @Condition(value = "id", match = MatchEnum.IN)
+        private List<Long> ids;
+    }
+}
@@ -0,0 +1,41 @@
+package com.springcloud.base.benchmarks.core;
+
+/**
+ * @Author: ls
+ * @Description: 改为无锁实现之前的雪花算法，仅作为基准测试的对照
+ * @Date: 2023/5/8 10:21
+ */
+final class LegacySnowFlowerIdGenerator {
+
+    private static final long EPOCH = 1288834974657L;
+
+    private long workerId;
+
+    private long sequence;
+
+    private long lastTime;
+
+    synchronized long nextId() {
+        long currentMillis = System.currentTimeMillis();
+        if (this.lastTime > currentMillis) {
+            throw new IllegalStateException("Clock is moving backwards");
+        }
+        if (this.lastTime == currentMillis) {
+            if (0L == (this.sequence = ++this.sequence & 4095L)) {
+                currentMillis = this.waitUntilNextTime(currentMillis);
+            }
+        } else {
+            this.sequence = 0L;
+        }
+        this.lastTime = currentMillis;
+        return currentMillis - EPOCH << 22 | workerId << 12 | this.sequence;
+    }
+
+    private long waitUntilNextTime(long lastTimestamp) {
+        long time = System.currentTimeMillis();
+        while (time <= lastTimestamp) {
+            time = System.currentTimeMillis();
+        }
+        return time;
+    }
+}
@@ -0,0 +1,196 @@
+package com.springcloud.base.benchmarks.core;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.springcloud.base.core.page.PageCountOption;
+import com.springcloud.base.core.page.PageCursor;
+import com.springcloud.base.core.page.PageReceiveModel;
+import com.springcloud.base.core.page.PageResultModel;
+import com.springcloud.base.core.page.PageUtils;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 分页查询，负载为H2内存库中500万行的订单表，按状态过滤后约125万行
+ * 比较偏移分页串行统计总数、并行统计、缓存统计、不统计与游标分页在浅页和深页下的耗时
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PageUtilsBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:page_benchmark;DB_CLOSE_DELAY=-1";
+
+    private static final int ROWS = 5_000_000;
+
+    private static final int STATUS = 1;
+
+    private static final int PAGE_LIMIT = 20;
+
+    @Param({"1", "50000"})
+    public int pageStart;
+
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+    private final ThreadLocal<Connection> connection = ThreadLocal.withInitial(this::open);
+
+    private PageReceiveModel offsetModel;
+
+    private PageReceiveModel keysetModel;
+
+    @Setup
+    public void setup() throws SQLException {
+        try (Statement statement = connection.get().createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS t_order");
+            statement.execute("CREATE TABLE t_order(id BIGINT PRIMARY KEY, status INT NOT NULL, amount BIGINT NOT NULL)");
+            statement.execute("INSERT INTO t_order SELECT X, MOD(X, 4), MOD(X * 7919, 100000) FROM SYSTEM_RANGE(1, " + ROWS + ")");
+            statement.execute("CREATE INDEX idx_order_status_id ON t_order(status, id)");
+        }
+        this.offsetModel = new PageReceiveModel();
+        this.offsetModel.setPageStart(pageStart);
+        this.offsetModel.setPageLimit(PAGE_LIMIT);
+        this.keysetModel = new PageReceiveModel();
+        this.keysetModel.setPageLimit(PAGE_LIMIT);
+        long skipped = (long) (pageStart - 1) * PAGE_LIMIT;
+        // status = 1 的第 n 行 id 为 4n - 3，游标指向前一页最后一行
+        this.keysetModel.setCursor(skipped == 0 ? null : PageCursor.encode(4 * skipped - 3));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.get().createStatement()) {
+            statement.execute("DROP TABLE t_order");
+        }
+        for (Connection opened : connections) {
+            opened.close();
+        }
+    }
+
+    @Benchmark
+    public PageResultModel<Order> offsetSerialCount() {
+        long total = count();
+        PageResultModel<Order> result = PageUtils.execute(offsetModel, PageCountOption.skip(), this::selectPage);
+        result.setTotal(total);
+        return result;
+    }
+
+    @Benchmark
+    public PageResultModel<Order> offsetParallelCount() {
+        return PageUtils.execute(offsetModel, PageCountOption.parallel(this::count), this::selectPage);
+    }
+
+    @Benchmark
+    public PageResultModel<Order> offsetCachedCount() {
+        return PageUtils.execute(offsetModel, PageCountOption.cached("t_order:status=" + STATUS, 60_000L, this::count), this::selectPage);
+    }
+
+    @Benchmark
+    public PageResultModel<Order> offsetSkipCount() {
+        return PageUtils.execute(offsetModel, PageCountOption.skip(), this::selectPage);
+    }
+
+    @Benchmark
+    public PageResultModel<Order> keyset() {
+        return PageUtils.executeKeyset(keysetModel, Long.class, Order::getId, this::selectAfter);
+    }
+
+    private IPage<Order> selectPage(IPage<Order> page) {
+        String sql = "SELECT id, status, amount FROM t_order WHERE status = ? ORDER BY id LIMIT ? OFFSET ?";
+        try (PreparedStatement statement = connection.get().prepareStatement(sql)) {
+            statement.setInt(1, STATUS);
+            statement.setLong(2, page.getSize());
+            statement.setLong(3, (page.getCurrent() - 1) * page.getSize());
+            page.setRecords(read(statement));
+            return page;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Order> selectAfter(Long lastKey, long limit) {
+        String sql = "SELECT id, status, amount FROM t_order WHERE status = ? AND id > ? ORDER BY id LIMIT ?";
+        try (PreparedStatement statement = connection.get().prepareStatement(sql)) {
+            statement.setInt(1, STATUS);
+            statement.setLong(2, lastKey != null ? lastKey : 0L);
+            statement.setLong(3, limit);
+            return read(statement);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long count() {
+        try (PreparedStatement statement = connection.get().prepareStatement("SELECT COUNT(*) FROM t_order WHERE status = ?")) {
+            statement.setInt(1, STATUS);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Order> read(PreparedStatement statement) throws SQLException {
+        List<Order> orders = new ArrayList<>(PAGE_LIMIT + 1);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                Order order = new Order();
+                order.setId(resultSet.getLong(1));
+                order.setStatus(resultSet.getInt(2));
+                order.setAmount(resultSet.getLong(3));
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * 每个线程一个连接，并行统计的总数查询与数据查询不共用连接
+     */
+    private Connection open() {
+        try {
+            Connection opened = DriverManager.getConnection(URL, "sa", "");
+            connections.add(opened);
+            return opened;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    public static class Order {
+
+        private Long id;
+
+        private Integer status;
+
+        private Long amount;
+    }
+}
@@ -0,0 +1,77 @@
+package com.springcloud.base.benchmarks.core;
+
+import com.springcloud.base.core.idengine.SnowFlowerIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: ID生成，对照改造前的 synchronized 实现
+ * 单通道受每毫秒4096个序列号限制，吞吐上限约为 4096 ops/ms，多通道与批量接口用于观察超出上限前的开销
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowFlowerIdGeneratorBenchmark {
+
+    private static final int BATCH = 64;
+
+    @Param({"1", "8"})
+    public int lanes;
+
+    private SnowFlowerIdGenerator generator;
+
+    private LegacySnowFlowerIdGenerator legacy;
+
+    @Setup
+    public void setup() {
+        this.generator = new SnowFlowerIdGenerator(lanes);
+        this.generator.initialize(1L);
+        this.legacy = new LegacySnowFlowerIdGenerator();
+    }
+
+    @Benchmark
+    public long legacyNextId() {
+        return legacy.nextId();
+    }
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] nextIds() {
+        return generator.nextIds(BATCH);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long legacyNextIdContended() {
+        return legacy.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long nextIdContended() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,82 @@
+package com.springcloud.base.benchmarks.core;
+
+import com.springcloud.base.core.tree.TreeBuilder;
+import com.springcloud.base.core.tree.TreeModel;
+import com.springcloud.base.core.tree.TreeUtils;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 树构建，负载为每个节点10个子节点的菜单树
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeUtilsBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<MenuNode> nodes;
+
+    @Setup
+    public void setup() {
+        this.nodes = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            MenuNode node = new MenuNode();
+            node.setId((long) i);
+            node.setParentId((long) (i / 10));
+            node.setName("菜单" + i);
+            node.setSort(size - i);
+            this.nodes.add(node);
+        }
+    }
+
+    @Benchmark
+    public List<MenuNode> build() {
+        return TreeUtils.build(nodes, 0L);
+    }
+
+    @Benchmark
+    public List<MenuNode> buildWithoutCopy() {
+        return TreeUtils.build(nodes, 0L, false);
+    }
+
+    @Benchmark
+    public List<MenuNode> buildSorted() {
+        return TreeBuilder.<MenuNode>create(0L)
+                .setCopy(false)
+                .setComparator(Comparator.comparing(MenuNode::getSort))
+                .build(nodes);
+    }
+
+    @Data
+    public static class MenuNode implements TreeModel<MenuNode> {
+        private Long id;
+        private Long parentId;
+        private String name;
+        private Integer sort;
+        private Collection<MenuNode> children;
+    }
+}
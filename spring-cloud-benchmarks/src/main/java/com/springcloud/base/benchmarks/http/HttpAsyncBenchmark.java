@@ -0,0 +1,112 @@
+package com.springcloud.base.benchmarks.http;
+
+import com.spring.cloud.base.http.HttpRequest;
+import com.spring.cloud.base.http.HttpResponse;
+import com.spring.cloud.base.http.engine.PooledHttpEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 聚合场景的扇出延迟，一次调用向服务端并发请求 {@link #FAN_OUT} 次，服务端每次响应前等待10ms
+ * @Date: 2023/5/23 09:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HttpAsyncBenchmark {
+
+    private static final int FAN_OUT = 32;
+
+    private static final byte[] BODY = "{\"code\":200,\"msg\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private PooledHttpEngine engine;
+
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.server.createContext("/slow", HttpAsyncBenchmark::respondSlowly);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.engine = PooledHttpEngine.create();
+        this.url = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.engine.close();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int sequential() {
+        int length = 0;
+        for (int i = 0; i < FAN_OUT; i++) {
+            try (HttpResponse response = HttpRequest.get(url).setEngine(engine).execute()) {
+                length += response.body().length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int sendAsync() {
+        final List<CompletableFuture<HttpResponse>> futures = new ArrayList<>(FAN_OUT);
+        for (int i = 0; i < FAN_OUT; i++) {
+            futures.add(HttpRequest.get(url).setEngine(engine).sendAsync());
+        }
+        int length = 0;
+        for (CompletableFuture<HttpResponse> future : futures) {
+            try (HttpResponse response = future.join()) {
+                length += response.body().length();
+            }
+        }
+        return length;
+    }
+
+    private static void respondSlowly(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(200, BODY.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(BODY);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.springcloud.base.benchmarks.http;
+
+import com.spring.cloud.base.http.HttpRequest;
+import com.spring.cloud.base.http.RangeDownloader;
+import com.spring.cloud.base.http.ResponseBodyIterator;
+import com.spring.cloud.base.http.engine.PooledHttpEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 16MB文件的下载耗时，对比读入内存、流式写出、FileChannel写出、分块迭代与分段并行下载
+ * @Date: 2023/5/24 10:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HttpDownloadBenchmark {
+
+    private static final byte[] FILE = new byte[16 * 1024 * 1024];
+
+    static {
+        new Random(1).nextBytes(FILE);
+    }
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private PooledHttpEngine engine;
+
+    private String url;
+
+    private File dir;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.server.createContext("/file.bin", HttpDownloadBenchmark::respondRange);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.engine = PooledHttpEngine.create();
+        this.url = "http://127.0.0.1:" + server.getAddress().getPort() + "/file.bin";
+        this.dir = Files.createTempDirectory("http-download").toFile();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.engine.close();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int bodyBytes() {
+        return HttpRequest.get(url).setEngine(engine).execute().bodyBytes().length;
+    }
+
+    @Benchmark
+    public long writeStream() throws IOException {
+        return HttpRequest.get(url).setEngine(engine).executeAsync()
+                .writeBody(new FileOutputStream(new File(dir, "stream.bin")), true, null);
+    }
+
+    @Benchmark
+    public long writeChannel() {
+        return HttpRequest.get(url).setEngine(engine).executeAsync().writeBody(new File(dir, "channel.bin"), null);
+    }
+
+    @Benchmark
+    public long iterate() {
+        long length = 0;
+        try (ResponseBodyIterator iterator = HttpRequest.get(url).setEngine(engine).executeAsync().bodyIterator(64 * 1024)) {
+            while (iterator.hasNext()) {
+                length += iterator.next().remaining();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long rangeParallel() {
+        return RangeDownloader.of(url).setEngine(engine).setParts(4).setMinPartSize(1024 * 1024)
+                .download(new File(dir, "range.bin")).length();
+    }
+
+    private static void respondRange(HttpExchange exchange) throws IOException {
+        final String range = exchange.getRequestHeaders().getFirst("Range");
+        int from = 0;
+        int to = FILE.length - 1;
+        if (null != range) {
+            final String[] bounds = range.substring("bytes=".length()).split("-");
+            from = Integer.parseInt(bounds[0]);
+            to = Integer.parseInt(bounds[1]);
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + to + "/" + FILE.length);
+        }
+        exchange.getResponseHeaders().set("ETag", "\"benchmark\"");
+        exchange.sendResponseHeaders(null == range ? 200 : 206, to - from + 1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(FILE, from, to - from + 1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.springcloud.base.benchmarks.http;
+
+import com.spring.cloud.base.http.HttpRequest;
+import com.spring.cloud.base.http.HttpResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: HTTP往返延迟，对端为本机回环上的JDK内置HttpServer，只衡量客户端一侧的开销
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpRequestBenchmark {
+
+    private static final byte[] SMALL_BODY = "{\"code\":200,\"msg\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] LARGE_BODY = new byte[256 * 1024];
+
+    static {
+        Arrays.fill(LARGE_BODY, (byte) 'a');
+    }
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private String baseUrl;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.server.createContext("/small", exchange -> respond(exchange, SMALL_BODY));
+        this.server.createContext("/large", exchange -> respond(exchange, LARGE_BODY));
+        this.server.createContext("/echo", exchange -> {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = readAll(in);
+            }
+            respond(exchange, body);
+        });
+        this.executor = Executors.newFixedThreadPool(16);
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public String getSmall() {
+        try (HttpResponse response = HttpRequest.get(baseUrl + "/small").execute()) {
+            return response.body();
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String getSmallContended() {
+        try (HttpResponse response = HttpRequest.get(baseUrl + "/small").execute()) {
+            return response.body();
+        }
+    }
+
+    @Benchmark
+    public byte[] getLarge() {
+        try (HttpResponse response = HttpRequest.get(baseUrl + "/large").execute()) {
+            return response.bodyBytes();
+        }
+    }
+
+    @Benchmark
+    public String postJson() {
+        try (HttpResponse response = HttpRequest.post(baseUrl + "/echo")
+                .body("{\"userName\":\"admin\",\"tenantId\":\"000000\"}", "application/json")
+                .execute()) {
+            return response.body();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int n; (n = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,104 @@
+package com.springcloud.base.benchmarks.http;
+
+import com.spring.cloud.base.http.HttpRequest;
+import com.spring.cloud.base.http.HttpResponse;
+import com.spring.cloud.base.http.engine.PooledHttpEngine;
+import com.spring.cloud.base.http.resilience.Resilience;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author: ls
+ * @Description: 长尾延迟下的平均耗时，服务端每20次请求有1次等待50ms，对比直接请求与p90后发送对冲请求
+ * @Date: 2023/5/26 09:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HttpResilienceBenchmark {
+
+    private static final byte[] BODY = "{\"code\":200,\"msg\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private PooledHttpEngine engine;
+
+    private Resilience hedged;
+
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.server.createContext("/tail", HttpResilienceBenchmark::respondWithTail);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.engine = PooledHttpEngine.create();
+        this.hedged = Resilience.create().setHedge(0.9, 2);
+        this.url = "http://127.0.0.1:" + server.getAddress().getPort() + "/tail";
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.engine.close();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int direct() {
+        try (HttpResponse response = HttpRequest.get(url).setEngine(engine).execute()) {
+            return response.body().length();
+        }
+    }
+
+    @Benchmark
+    public int hedged() {
+        try (HttpResponse response = HttpRequest.get(url).setEngine(engine).setResilience(hedged).execute()) {
+            return response.body().length();
+        }
+    }
+
+    private static void respondWithTail(HttpExchange exchange) throws IOException {
+        if (COUNTER.incrementAndGet() % 20 == 0) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        exchange.sendResponseHeaders(200, BODY.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(BODY);
+        }
+    }
+}
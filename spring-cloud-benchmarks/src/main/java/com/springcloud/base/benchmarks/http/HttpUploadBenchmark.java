@@ -0,0 +1,114 @@
+package com.springcloud.base.benchmarks.http;
+
+import com.spring.cloud.base.http.ChunkedUpload;
+import com.spring.cloud.base.http.HttpRequest;
+import com.spring.cloud.base.http.HttpResponse;
+import com.spring.cloud.base.http.engine.PooledHttpEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 32MB文件的multipart上传耗时，对比默认缓存整个请求体、Chunked流式上传与分块并行上传
+ * @Date: 2023/5/25 14:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HttpUploadBenchmark {
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private PooledHttpEngine engine;
+
+    private ChunkedUpload chunkedUpload;
+
+    private String url;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        this.server.createContext("/upload", HttpUploadBenchmark::discard);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.engine = PooledHttpEngine.create();
+        this.chunkedUpload = ChunkedUpload.create().setChunkSize(4 * 1024 * 1024).setParallelism(4);
+        this.url = "http://127.0.0.1:" + server.getAddress().getPort() + "/upload";
+        final byte[] data = new byte[32 * 1024 * 1024];
+        new Random(1).nextBytes(data);
+        this.file = File.createTempFile("http-upload", ".bin");
+        Files.write(file.toPath(), data);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.engine.close();
+        this.server.stop(0);
+        this.executor.shutdownNow();
+        this.file.delete();
+    }
+
+    @Benchmark
+    public int buffered() {
+        try (HttpResponse response = HttpRequest.post(url).setEngine(engine).form("file", file).execute()) {
+            return response.getStatus();
+        }
+    }
+
+    @Benchmark
+    public int streaming() {
+        try (HttpResponse response = HttpRequest.post(url).setEngine(engine).form("file", file)
+                .setChunkedStreamingMode(64 * 1024).execute()) {
+            return response.getStatus();
+        }
+    }
+
+    @Benchmark
+    public int chunkedParallel() {
+        try (HttpResponse response = HttpRequest.post(url).setEngine(engine).form("file", file)
+                .setChunkedUpload(chunkedUpload).execute()) {
+            return response.getStatus();
+        }
+    }
+
+    private static void discard(HttpExchange exchange) throws IOException {
+        final byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = exchange.getRequestBody()) {
+            while (in.read(buffer) != -1) {
+                // 丢弃请求体
+            }
+        }
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+    }
+}
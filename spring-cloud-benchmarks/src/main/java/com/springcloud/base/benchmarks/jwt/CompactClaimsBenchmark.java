@@ -0,0 +1,119 @@
+package com.springcloud.base.benchmarks.jwt;
+
+import com.spring.cloud.base.jwt.JWT;
+import com.spring.cloud.base.jwt.JWTSigner;
+import com.spring.cloud.base.jwt.JWTVerifier;
+import com.spring.cloud.base.jwt.utils.JWTSignerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: JSON载荷与紧凑二进制载荷的签发、解析与校验，负载为携带角色与权限列表的令牌
+ * @Date: 2023/5/18 10:05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactClaimsBenchmark {
+
+    private JWTSigner signer;
+
+    private Map<String, Object> payload;
+
+    private String jsonToken;
+
+    private String compactToken;
+
+    private JWTVerifier verifier;
+
+    @Setup
+    public void setup() {
+        this.signer = JWTSignerUtil.hs256("benchmark-secret-key-0123456789ab".getBytes(StandardCharsets.UTF_8));
+        this.payload = new HashMap<>(16);
+        this.payload.put("sub", "1651234567890000");
+        this.payload.put("userName", "admin");
+        this.payload.put("tenantId", "000000");
+        this.payload.put("deptId", 1024L);
+        final List<Map<String, Object>> roles = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Map<String, Object> role = new HashMap<>(8);
+            role.put("id", 100 + i);
+            role.put("code", "ROLE_" + i);
+            role.put("name", "role-" + i);
+            final List<Map<String, Object>> resources = new ArrayList<>();
+            for (int j = 0; j < 6; j++) {
+                final Map<String, Object> resource = new HashMap<>(8);
+                resource.put("id", i * 100 + j);
+                resource.put("parentId", i * 100);
+                resource.put("code", "sys:res:" + j);
+                resource.put("type", j % 3);
+                resource.put("showFlag", true);
+                resources.add(resource);
+            }
+            role.put("resourceInfo", resources);
+            roles.add(role);
+        }
+        this.payload.put("roleInfoList", roles);
+        final long now = System.currentTimeMillis() / 1000;
+        this.payload.put("iat", now);
+        this.payload.put("exp", now + 24 * 3600);
+        this.jsonToken = sign(false);
+        this.compactToken = sign(true);
+        this.verifier = new JWTVerifier(signer).setMaxTtl(0L);
+    }
+
+    private String sign(boolean compact) {
+        return JWT.create().setCompact(compact).addPayloads(payload).sign(signer);
+    }
+
+    @Benchmark
+    public String signJson() {
+        return sign(false);
+    }
+
+    @Benchmark
+    public String signCompact() {
+        return sign(true);
+    }
+
+    @Benchmark
+    public Object parseJson() {
+        return JWT.of(jsonToken).getPayload("roleInfoList");
+    }
+
+    @Benchmark
+    public Object parseCompact() {
+        return JWT.of(compactToken).getPayload("roleInfoList");
+    }
+
+    @Benchmark
+    public String verifyUncachedJson() {
+        verifier.invalidate(jsonToken);
+        return verifier.verify(jsonToken).getStr("userName");
+    }
+
+    @Benchmark
+    public String verifyUncachedCompact() {
+        verifier.invalidate(compactToken);
+        return verifier.verify(compactToken).getStr("userName");
+    }
+}
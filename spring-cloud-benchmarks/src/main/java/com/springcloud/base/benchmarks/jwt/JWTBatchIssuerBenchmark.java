@@ -0,0 +1,141 @@
+package com.springcloud.base.benchmarks.jwt;
+
+import com.spring.cloud.base.jwt.JWTBatchIssuer;
+import com.spring.cloud.base.jwt.JWTSigner;
+import com.spring.cloud.base.jwt.JWTUtil;
+import com.spring.cloud.base.jwt.utils.JWTSignerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 批量签发吞吐，逐个调用JWTUtil与JWTBatchIssuer对比，每次调用签发 {@link #BATCH_SIZE} 个Token
+ * @Date: 2023/5/19 10:08
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTBatchIssuerBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"HS256", "RS256"})
+    private String algorithm;
+
+    private JWTSigner signer;
+
+    private List<Map<String, Object>> payloads;
+
+    private JWTBatchIssuer sharedIssuer;
+
+    private JWTBatchIssuer perThreadIssuer;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+        if ("HS256".equals(algorithm)) {
+            final byte[] key = "benchmark-secret-key-0123456789ab".getBytes(StandardCharsets.UTF_8);
+            this.signer = JWTSignerUtil.hs256(key);
+            this.perThreadIssuer = new JWTBatchIssuer(() -> JWTSignerUtil.hs256(key));
+        } else {
+            final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            final KeyPair keyPair = generator.generateKeyPair();
+            this.signer = JWTSignerUtil.rs256(keyPair.getPrivate());
+            this.perThreadIssuer = new JWTBatchIssuer(() -> JWTSignerUtil.rs256(keyPair.getPrivate()));
+        }
+        this.sharedIssuer = new JWTBatchIssuer(signer);
+        this.payloads = new ArrayList<>(BATCH_SIZE);
+        final long now = System.currentTimeMillis() / 1000;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final Map<String, Object> payload = new HashMap<>(8);
+            payload.put("sub", "service-" + i);
+            payload.put("tenantId", "000000");
+            payload.put("scope", "internal");
+            payload.put("iat", now);
+            payload.put("exp", now + 3600);
+            this.payloads.add(payload);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long createTokenLoop() {
+        long length = 0;
+        for (Map<String, Object> payload : payloads) {
+            length += JWTUtil.createToken(payload, signer).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long issueSequential() {
+        long length = 0;
+        for (Map<String, Object> payload : payloads) {
+            length += sharedIssuer.issue(payload).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> issueAllShared() {
+        return sharedIssuer.issueAll(payloads);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> issueAllPerThread() {
+        return perThreadIssuer.issueAll(payloads);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long issueToStream() {
+        final CountingOutputStream out = new CountingOutputStream();
+        perThreadIssuer.issue(payloads.stream(), out);
+        return out.count;
+    }
+
+    /**
+     * 只统计写出的字节数，排除实际IO的影响
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.springcloud.base.benchmarks.jwt;
+
+import com.spring.cloud.base.jwt.JWT;
+import com.spring.cloud.base.jwt.JWTSigner;
+import com.spring.cloud.base.jwt.JWTUtil;
+import com.spring.cloud.base.jwt.JWTVerifier;
+import com.spring.cloud.base.jwt.LazyClaims;
+import com.spring.cloud.base.jwt.utils.JWTSignerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: JWT签发、解析与HS256校验，负载为常见的登录令牌声明
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTBenchmark {
+
+    private byte[] key;
+
+    private JWTSigner signer;
+
+    private Map<String, Object> payload;
+
+    private String token;
+
+    private JWTVerifier verifier;
+
+    @Setup
+    public void setup() {
+        this.key = "benchmark-secret-key-0123456789ab".getBytes(StandardCharsets.UTF_8);
+        this.signer = JWTSignerUtil.hs256(key);
+        this.payload = new HashMap<>(8);
+        this.payload.put("sub", "1651234567890000");
+        this.payload.put("userName", "admin");
+        this.payload.put("tenantId", "000000");
+        this.payload.put("roles", new String[]{"admin", "user"});
+        final long now = System.currentTimeMillis() / 1000;
+        this.payload.put("iat", now);
+        this.payload.put("exp", now + 24 * 3600);
+        this.token = JWTUtil.createToken(payload, signer);
+        this.verifier = new JWTVerifier(signer).setMaxTtl(0L);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return JWTUtil.createToken(payload, signer);
+    }
+
+    @Benchmark
+    public JWT parseToken() {
+        return JWTUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return JWTUtil.verify(token, signer);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean verifyContended() {
+        return JWTUtil.verify(token, signer);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String hs256Sign32Threads() {
+        return JWTUtil.createToken(payload, signer);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean hs256Verify32Threads() {
+        return JWTUtil.verify(token, signer);
+    }
+
+    @Benchmark
+    public String verifierCached() {
+        return verifier.verify(token).getStr("userName");
+    }
+
+    @Benchmark
+    public String verifierUncached() {
+        verifier.invalidate(token);
+        return verifier.verify(token).getStr("userName");
+    }
+
+    @Benchmark
+    public Object parseClaimEager() {
+        return JWTUtil.parseToken(token).getPayload("userName");
+    }
+
+    @Benchmark
+    public Object parseClaimLazy() {
+        return LazyClaims.of(token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'))).getClaim("userName");
+    }
+
+    /**
+     * 每次请求创建签名器，共享签名器线程安全之前的做法
+     */
+    @Benchmark
+    @Threads(32)
+    public boolean hs256VerifyPerRequestSigner32Threads() {
+        return JWTUtil.verify(token, JWTSignerUtil.hs256(key));
+    }
+}
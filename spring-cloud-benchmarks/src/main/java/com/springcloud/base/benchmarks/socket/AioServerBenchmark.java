@@ -0,0 +1,142 @@
+package com.springcloud.base.benchmarks.socket;
+
+import com.springcloud.base.socket.SocketConfig;
+import com.springcloud.base.socket.aio.AioServer;
+import com.springcloud.base.socket.aio.AioSession;
+import com.springcloud.base.socket.aio.SimpleIoAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: AIO服务端回显往返延迟，每个压测线程持有一条阻塞连接
+ * @Date: 2023/5/8 10:21
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AioServerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        private AioServer server;
+
+        private InetSocketAddress address;
+
+        @Setup
+        public void setup() throws IOException {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            this.address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            this.server = new AioServer(address, new SocketConfig());
+            this.server.setIoAction(new SimpleIoAction() {
+                @Override
+                public void doAction(AioSession session, ByteBuffer data) {
+                    try {
+                        while (data.hasRemaining()) {
+                            session.write(data).get();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (ExecutionException e) {
+                        session.close();
+                        return;
+                    }
+                    session.read();
+                }
+            });
+            this.server.start(false);
+        }
+
+        @TearDown
+        public void tearDown() {
+            this.server.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        @Param({"64", "1024"})
+        public int size;
+
+        private SocketChannel channel;
+
+        private ByteBuffer request;
+
+        private ByteBuffer response;
+
+        @Setup(Level.Trial)
+        public void setup(Server server) throws IOException {
+            this.channel = SocketChannel.open(server.address);
+            this.channel.socket().setTcpNoDelay(true);
+            byte[] payload = new byte[size];
+            ThreadLocalRandom.current().nextBytes(payload);
+            this.request = ByteBuffer.wrap(payload);
+            this.response = ByteBuffer.allocate(size);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            this.channel.close();
+        }
+
+        private ByteBuffer roundTrip() {
+            try {
+                request.rewind();
+                while (request.hasRemaining()) {
+                    channel.write(request);
+                }
+                response.clear();
+                while (response.hasRemaining()) {
+                    if (channel.read(response) < 0) {
+                        throw new IOException("connection closed by server");
+                    }
+                }
+                return response;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer echo(Client client) {
+        return client.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ByteBuffer echoContended(Client client) {
+        return client.roundTrip();
+    }
+}
@@ -0,0 +1,73 @@
+package com.springcloud.base.benchmarks.utils;
+
+import com.spring.cloud.base.utils.cache.Cache;
+import com.spring.cloud.base.utils.cache.CacheUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 本地缓存读写，键空间为容量的2倍，约一半请求未命中并触发淘汰
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+
+    private static final int CAPACITY = 4096;
+
+    @Param({"lru", "lfu", "fifo", "timed", "unbounded"})
+    public String type;
+
+    private Cache<Integer, String> cache;
+
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "lru":
+                this.cache = CacheUtil.newLRUCache(CAPACITY);
+                break;
+            case "lfu":
+                this.cache = CacheUtil.newLFUCache(CAPACITY);
+                break;
+            case "fifo":
+                this.cache = CacheUtil.newFIFOCache(CAPACITY);
+                break;
+            case "timed":
+                this.cache = CacheUtil.newTimedCache(60000L);
+                break;
+            default:
+                this.cache = CacheUtil.newUnboundedCache();
+        }
+        this.values = new String[CAPACITY * 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value-" + i;
+        }
+    }
+
+    @Benchmark
+    public String getOrLoad() {
+        int key = ThreadLocalRandom.current().nextInt(values.length);
+        return cache.get(key, () -> values[key]);
+    }
+}
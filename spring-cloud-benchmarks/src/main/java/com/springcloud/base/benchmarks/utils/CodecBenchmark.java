@@ -0,0 +1,154 @@
+package com.springcloud.base.benchmarks.utils;
+
+import com.spring.cloud.base.utils.base.Base64;
+import com.spring.cloud.base.utils.base.Base64Decoder;
+import com.spring.cloud.base.utils.base.Base64Encoder;
+import com.spring.cloud.base.utils.base.Base64InputStream;
+import com.spring.cloud.base.utils.base.Base64OutputStream;
+import com.spring.cloud.base.utils.utils.HexUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: Base64与Hex编解码，以JDK实现作为参照
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"64", "4096", "65536"})
+    public int size;
+
+    private byte[] data;
+
+    private String encoded;
+
+    private byte[] encodedBytes;
+
+    private String hex;
+
+    private ByteBuffer directInput;
+
+    private ByteBuffer directOutput;
+
+    private char[] charOutput;
+
+    private byte[] byteOutput;
+
+    private byte[] streamBuffer;
+
+    @Setup
+    public void setup() {
+        this.data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        this.encoded = java.util.Base64.getEncoder().encodeToString(data);
+        this.encodedBytes = encoded.getBytes();
+        this.hex = HexUtil.encodeHexStr(data);
+        this.directInput = ByteBuffer.allocateDirect(size);
+        directInput.put(data).flip();
+        this.directOutput = ByteBuffer.allocateDirect(Base64Encoder.encodedLength(size, false));
+        this.charOutput = new char[Math.max(encoded.length(), hex.length())];
+        this.byteOutput = new byte[size];
+        this.streamBuffer = new byte[8192];
+    }
+
+    @Benchmark
+    public String base64Encode() {
+        return Base64.encode(data);
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64.decode(encoded);
+    }
+
+    @Benchmark
+    public String jdkBase64Encode() {
+        return java.util.Base64.getEncoder().encodeToString(data);
+    }
+
+    @Benchmark
+    public byte[] jdkBase64Decode() {
+        return java.util.Base64.getDecoder().decode(encoded);
+    }
+
+    @Benchmark
+    public byte[] base64DecodeBytes() {
+        return Base64.decode(encodedBytes);
+    }
+
+    @Benchmark
+    public int base64EncodeIntoChars() {
+        return Base64Encoder.encode(data, 0, data.length, charOutput, 0, false);
+    }
+
+    @Benchmark
+    public int base64EncodeDirectBuffer() {
+        directOutput.clear();
+        return Base64Encoder.encode(directInput.duplicate(), directOutput, false);
+    }
+
+    @Benchmark
+    public int base64DecodeIntoArray() {
+        return Base64Decoder.decode(encoded, byteOutput, 0);
+    }
+
+    @Benchmark
+    public int base64StreamRoundTrip() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(encoded.length());
+        try (OutputStream out = new Base64OutputStream(bytes)) {
+            out.write(data);
+        }
+        int total = 0;
+        try (InputStream in = new Base64InputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (int n; (n = in.read(streamBuffer)) > 0; ) {
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public String hexEncode() {
+        return HexUtil.encodeHexStr(data);
+    }
+
+    @Benchmark
+    public int hexEncodeIntoChars() {
+        return HexUtil.encodeHex(data, 0, data.length, charOutput, 0, true);
+    }
+
+    @Benchmark
+    public byte[] hexDecode() {
+        return HexUtil.decodeHex(hex);
+    }
+
+    @Benchmark
+    public int hexDecodeIntoArray() {
+        return HexUtil.decodeHex(hex, byteOutput, 0);
+    }
+}
@@ -0,0 +1,128 @@
+package com.springcloud.base.benchmarks.utils;
+
+import com.spring.cloud.base.utils.crypto.SM2;
+import com.spring.cloud.base.utils.crypto.SymmetricCrypto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 共享加密对象在多线程下的吞吐，对比单锁与对象池
+ * @Date: 2023/5/12 10:05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoBenchmark {
+
+    private static final String AES = "AES/CBC/PKCS5Padding";
+
+    private static final ThreadLocal<ByteBuffer> OUTPUT = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(4096 + 16));
+
+    private SymmetricCrypto lockedAes;
+
+    private SymmetricCrypto pooledAes;
+
+    private SM2 lockedSm2;
+
+    private SM2 pooledSm2;
+
+    private byte[] field;
+
+    private List<byte[]> fields;
+
+    private ByteBuffer input;
+
+    @Setup
+    public void setup() {
+        final byte[] key = new byte[16];
+        final byte[] iv = new byte[16];
+        ThreadLocalRandom.current().nextBytes(key);
+        ThreadLocalRandom.current().nextBytes(iv);
+        this.lockedAes = new SymmetricCrypto(AES, key).setIv(iv);
+        this.pooledAes = new SymmetricCrypto(AES, key).setIv(iv).setPoolSize(64);
+        this.lockedSm2 = new SM2();
+        this.pooledSm2 = new SM2(lockedSm2.getPrivateKey(), lockedSm2.getPublicKey()).setPoolSize(64);
+
+        // 典型的手机号、身份证号等字段
+        this.field = "13800138000-110101199003074512".getBytes();
+        this.fields = new ArrayList<>(32);
+        for (int i = 0; i < 32; i++) {
+            fields.add(field);
+        }
+        this.input = ByteBuffer.allocateDirect(4096);
+        final byte[] data = new byte[4096];
+        ThreadLocalRandom.current().nextBytes(data);
+        input.put(data).flip();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public byte[] aesLocked16Threads() {
+        return lockedAes.encrypt(field);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public byte[] aesPooled16Threads() {
+        return pooledAes.encrypt(field);
+    }
+
+    @Benchmark
+    public List<byte[]> aesEachOf32() {
+        final List<byte[]> result = new ArrayList<>(fields.size());
+        for (byte[] data : fields) {
+            result.add(pooledAes.encrypt(data));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<byte[]> aesBatchOf32() {
+        return pooledAes.encryptAll(fields);
+    }
+
+    @Benchmark
+    public byte[] aesArray4k() {
+        final byte[] data = new byte[input.remaining()];
+        input.duplicate().get(data);
+        return pooledAes.encrypt(data);
+    }
+
+    @Benchmark
+    public int aesByteBuffer4k() {
+        final ByteBuffer output = OUTPUT.get();
+        output.clear();
+        return pooledAes.encrypt(input.duplicate(), output);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sm2SignLocked8Threads() {
+        return lockedSm2.sign(field);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sm2SignPooled8Threads() {
+        return pooledSm2.sign(field);
+    }
+}
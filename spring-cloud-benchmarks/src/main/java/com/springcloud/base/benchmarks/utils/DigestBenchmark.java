@@ -0,0 +1,84 @@
+package com.springcloud.base.benchmarks.utils;
+
+import com.spring.cloud.base.utils.crypto.DigestAlgorithm;
+import com.spring.cloud.base.utils.crypto.Digester;
+import com.spring.cloud.base.utils.crypto.ResumableDigester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 大文件摘要，对比流式读取、直接缓冲区读取与并行树形摘要
+ * @Date: 2023/5/16 10:12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DigestBenchmark {
+
+    @Param({"67108864", "268435456"})
+    public int size;
+
+    private File file;
+
+    private Digester digester;
+
+    @Setup
+    public void setup() throws IOException {
+        this.file = File.createTempFile("digest-benchmark", ".bin");
+        final byte[] data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        Files.write(file.toPath(), data);
+        this.digester = new Digester(DigestAlgorithm.SHA256);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public byte[] stream() throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return digester.digest(in);
+        }
+    }
+
+    @Benchmark
+    public byte[] channel() {
+        return digester.digest(file);
+    }
+
+    @Benchmark
+    public byte[] tree() {
+        return digester.digestTree(file);
+    }
+
+    @Benchmark
+    public byte[] resumable() {
+        final ResumableDigester resumable = new ResumableDigester(DigestAlgorithm.SHA256);
+        resumable.resume(file);
+        return resumable.digest();
+    }
+}
@@ -0,0 +1,158 @@
+package com.springcloud.base.benchmarks.utils;
+
+import com.spring.cloud.base.utils.crypto.SM2;
+import com.spring.cloud.base.utils.crypto.SM3;
+import com.spring.cloud.base.utils.crypto.SM4;
+import com.spring.cloud.base.utils.crypto.SmUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 国密算法默认模式与高性能模式的吞吐对比
+ * @Date: 2023/5/17 9:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+
+    private byte[] privateKey;
+
+    private byte[] publicKey;
+
+    private SM2 defaultSm2;
+
+    private SM2 performanceSm2;
+
+    private SM4 defaultSm4;
+
+    private SM4 pooledSm4;
+
+    private String text;
+
+    private byte[] data;
+
+    private byte[] sign;
+
+    private List<byte[]> dataList;
+
+    private List<byte[]> signList;
+
+    @Setup
+    public void setup() {
+        final SM2 sm2 = new SM2();
+        this.privateKey = sm2.getPrivateKey().getEncoded();
+        this.publicKey = sm2.getPublicKey().getEncoded();
+        this.defaultSm2 = SmUtil.sm2(privateKey, publicKey);
+        this.performanceSm2 = SmUtil.sm2Performance(privateKey, publicKey, 64);
+
+        final byte[] key = new byte[16];
+        ThreadLocalRandom.current().nextBytes(key);
+        this.defaultSm4 = SmUtil.sm4(key);
+        this.pooledSm4 = SmUtil.sm4(key, 64);
+
+        // 典型的支付报文摘要字段
+        this.text = "merchantId=100001&orderId=202305170001&amount=100.00";
+        this.data = text.getBytes();
+        this.sign = defaultSm2.sign(data);
+        this.dataList = new ArrayList<>(BATCH_SIZE);
+        this.signList = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            dataList.add(data);
+            signList.add(sign);
+        }
+    }
+
+    @Benchmark
+    public byte[] sm2SignDefault() {
+        return defaultSm2.sign(data);
+    }
+
+    @Benchmark
+    public byte[] sm2SignPerformance() {
+        return performanceSm2.sign(data);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sm2SignDefault8Threads() {
+        return defaultSm2.sign(data);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sm2SignPerformance8Threads() {
+        return performanceSm2.sign(data);
+    }
+
+    @Benchmark
+    public boolean sm2VerifyNewInstance() {
+        return SmUtil.sm2(null, publicKey).verify(data, sign);
+    }
+
+    @Benchmark
+    public boolean sm2VerifyDefault() {
+        return defaultSm2.verify(data, sign);
+    }
+
+    @Benchmark
+    public boolean sm2VerifyPerformance() {
+        return performanceSm2.verify(data, sign);
+    }
+
+    @Benchmark
+    public boolean[] sm2VerifyEachOf64() {
+        final boolean[] result = new boolean[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            result[i] = defaultSm2.verify(dataList.get(i), signList.get(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean[] sm2VerifyAllOf64() {
+        return performanceSm2.verifyAll(dataList, signList);
+    }
+
+    @Benchmark
+    public String sm3NewInstance() {
+        return new SM3().digestHex(text);
+    }
+
+    @Benchmark
+    public String sm3ThreadLocal() {
+        return SmUtil.sm3(text);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sm4Default8Threads() {
+        return defaultSm4.encrypt(data);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public byte[] sm4Pooled8Threads() {
+        return pooledSm4.encrypt(data);
+    }
+}
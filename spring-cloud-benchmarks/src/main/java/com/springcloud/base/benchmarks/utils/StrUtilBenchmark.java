@@ -0,0 +1,64 @@
+package com.springcloud.base.benchmarks.utils;
+
+import com.spring.cloud.base.utils.date.DateTime;
+import com.spring.cloud.base.utils.date.DateUtil;
+import com.spring.cloud.base.utils.str.StrUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 字符串切分与日期解析，负载为逗号分隔的100个ID以及常见格式的日期字符串
+ * @Date: 2023/5/8 10:21
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrUtilBenchmark {
+
+    private String ids;
+
+    @Setup
+    public void setup() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < 100; i++) {
+            joiner.add(String.valueOf(1651234567890000L + i));
+        }
+        this.ids = joiner.toString();
+    }
+
+    @Benchmark
+    public List<String> split() {
+        return StrUtil.split(ids, ',');
+    }
+
+    @Benchmark
+    public DateTime parseDateTime() {
+        return DateUtil.parse("2023-05-08 10:21:36");
+    }
+
+    @Benchmark
+    public DateTime parseDate() {
+        return DateUtil.parse("2023-05-08");
+    }
+
+    @Benchmark
+    public DateTime parseUtc() {
+        return DateUtil.parse("2023-05-08T10:21:36.123Z");
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapperImpl;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.*;
 
 /**
@@ -57,6 +58,8 @@ public class BeanWrapper {
 
     /**
      * 强制转化成对象
+     * 普通 JavaBean 使用 {@link CompiledBeanCopier} 直接复制，带有 Jackson 注解或不支持的类型退回 JSON 转换；
+     * 声明为 Object、接口或抽象类型的属性按引用复制，与源对象共享
      *
      * @param source 源对象
      * @param tClass 需要转换之后的对象类型
@@ -64,6 +67,13 @@ public class BeanWrapper {
      * @return 转换后的对象
      */
     public static <S, T> T castTo(S source, Class<T> tClass) {
+        if (source == null) {
+            return null;
+        }
+        CompiledBeanCopier<S, T> copier = CompiledBeanCopier.of(sourceClass(source), tClass);
+        if (copier != null) {
+            return copier.copy(source);
+        }
         String sourceJson = writeValueAsString(source);
         return readValueAsString(sourceJson, tClass);
     }
@@ -78,9 +88,20 @@ public class BeanWrapper {
      * @return 转换之后的列表
      */
     public static <S, T> List<T> arrCastTo(Collection<S> sourceList, Class<T> tClass) {
-        List<T> tList = new ArrayList<>();
+        List<T> tList = new ArrayList<>(sourceList.size());
+        Class<?> lastClass = null;
+        CompiledBeanCopier<S, T> copier = null;
         for (S s : sourceList) {
-            tList.add(castTo(s, tClass));
+            if (s == null) {
+                tList.add(null);
+                continue;
+            }
+            // 列表元素类型通常一致，复用上一个元素的复制器
+            if (s.getClass() != lastClass) {
+                lastClass = s.getClass();
+                copier = CompiledBeanCopier.of(sourceClass(s), tClass);
+            }
+            tList.add(copier != null ? copier.copy(s) : castTo(s, tClass));
         }
         return tList;
     }
@@ -156,6 +177,27 @@ public class BeanWrapper {
     }
 
 
+    /**
+     * 使用同一套 JSON 配置直接转换值，不经过字符串
+     *
+     * @param value 值
+     * @param type  目标类型
+     * @return 转换后的值
+     */
+    static Object convertValue(Object value, Type type) {
+        try {
+            return OBJECT_MAPPER.convertValue(value, OBJECT_MAPPER.constructType(type));
+        } catch (IllegalArgumentException e) {
+            log.error(e.getLocalizedMessage());
+            throw jsonException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> Class<S> sourceClass(S source) {
+        return (Class<S>) source.getClass();
+    }
+
     private static DefaultException jsonException() {
         return DefaultException.defaultException("对象转换异常");
     }
@@ -0,0 +1,341 @@
+package com.springcloud.base.core.bean;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotation;
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.spring.cloud.base.utils.LookupFactory;
+import com.spring.cloud.base.utils.map.ClassUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.ResolvableType;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @Author: ls
+ * @Description: 编译型对象复制器
+ * 每个 (源类型, 目标类型) 只解析一次属性，getter/setter/构造器通过 {@link LambdaAccessors} 生成直接调用，
+ * 嵌套对象、集合、Map、数组逐层深复制，类型不一致时交给 {@link BeanWrapper} 的 ObjectMapper 转换，
+ * 与 {@link com.springcloud.base.core.json.JsonConfiguration} 的日期格式、Long 转字符串等规则保持一致
+ * 源对象为 Map/集合/简单类型，目标类型没有无参构造，或源、目标类型（含父类与接口）带有 Jackson 注解
+ * （如 @JsonProperty、@JsonIgnore、@JsonFormat）时不支持，由调用方退回 JSON 方式，嵌套对象同样交给 ObjectMapper 转换<br>
+ * 与 JSON 往返不同，声明为 Object、接口或抽象类型的属性按引用复制，不再深复制
+ * @Date: 2023/4/6 11:34
+ */
+@Slf4j
+public final class CompiledBeanCopier<S, T> {
+
+    private static final ClassValue<Map<Class<?>, CompiledBeanCopier<?, ?>>> CACHE = new ClassValue<Map<Class<?>, CompiledBeanCopier<?, ?>>>() {
+        @Override
+        protected Map<Class<?>, CompiledBeanCopier<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(4);
+        }
+    };
+
+    /**
+     * 类型（含父类与接口）的类、字段、方法、构造器是否带有 Jackson 注解，带有时复制结果可能与 JSON 往返不一致
+     */
+    private static final ClassValue<Boolean> JACKSON_ANNOTATED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return hasJacksonAnnotation(type);
+        }
+    };
+
+    private static final CompiledBeanCopier<?, ?> UNSUPPORTED = new CompiledBeanCopier<>(null, null);
+
+    private final Supplier<T> constructor;
+
+    private final PropertyCopier[] properties;
+
+    private CompiledBeanCopier(Supplier<T> constructor, PropertyCopier[] properties) {
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    /**
+     * 获取复制器，首次调用时编译并缓存
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型
+     * @return 复制器，不支持时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> CompiledBeanCopier<S, T> of(Class<S> sourceClass, Class<T> targetClass) {
+        Map<Class<?>, CompiledBeanCopier<?, ?>> targets = CACHE.get(sourceClass);
+        CompiledBeanCopier<?, ?> copier = targets.get(targetClass);
+        if (copier == null) {
+            copier = targets.computeIfAbsent(targetClass, key -> compile(sourceClass, targetClass));
+        }
+        return copier == UNSUPPORTED ? null : (CompiledBeanCopier<S, T>) copier;
+    }
+
+    /**
+     * 复制对象
+     *
+     * @param source 源对象
+     * @return 新的目标对象
+     */
+    public T copy(S source) {
+        if (source == null) {
+            return null;
+        }
+        T target = this.constructor.get();
+        for (PropertyCopier property : this.properties) {
+            property.copy(source, target);
+        }
+        return target;
+    }
+
+    private static <S, T> CompiledBeanCopier<?, ?> compile(Class<S> sourceClass, Class<T> targetClass) {
+        if (!isBean(sourceClass) || !isBean(targetClass) || Modifier.isAbstract(targetClass.getModifiers())
+                || JACKSON_ANNOTATED.get(sourceClass) || JACKSON_ANNOTATED.get(targetClass)) {
+            return UNSUPPORTED;
+        }
+        Constructor<T> defaultConstructor;
+        try {
+            defaultConstructor = targetClass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return UNSUPPORTED;
+        }
+        try {
+            MethodHandles.Lookup targetLookup = LookupFactory.lookup(targetClass);
+            MethodHandles.Lookup sourceLookup = LookupFactory.lookup(sourceClass);
+            List<PropertyCopier> properties = new ArrayList<>();
+            for (PropertyDescriptor targetProperty : BeanUtils.getPropertyDescriptors(targetClass)) {
+                Method writeMethod = targetProperty.getWriteMethod();
+                PropertyDescriptor sourceProperty = BeanUtils.getPropertyDescriptor(sourceClass, targetProperty.getName());
+                if (writeMethod == null || sourceProperty == null || sourceProperty.getReadMethod() == null) {
+                    continue;
+                }
+                ResolvableType targetType = ResolvableType.forMethodParameter(writeMethod, 0, targetClass);
+                properties.add(new PropertyCopier(
+                        LambdaAccessors.getter(sourceLookup, sourceProperty.getReadMethod()),
+                        LambdaAccessors.setter(targetLookup, writeMethod),
+                        valueMapper(targetType),
+                        writeMethod.getParameterTypes()[0].isPrimitive()));
+            }
+            return new CompiledBeanCopier<>(LambdaAccessors.constructor(targetLookup, defaultConstructor), properties.toArray(new PropertyCopier[0]));
+        } catch (Throwable e) {
+            log.debug("无法编译对象复制器 {} -> {}: {}", sourceClass.getName(), targetClass.getName(), e.getLocalizedMessage());
+            return UNSUPPORTED;
+        }
+    }
+
+    /**
+     * 按目标属性类型生成取值映射，运行期只按值的实际类型走对应分支
+     */
+    private static Function<Object, Object> valueMapper(ResolvableType targetType) {
+        Class<?> targetClass = targetType.resolve(Object.class);
+        if (targetClass == Object.class) {
+            return Function.identity();
+        }
+        if (ClassUtil.isSimpleValueType(targetClass)) {
+            return value -> {
+                if (ClassUtil.isAssignable(targetClass, value.getClass())) {
+                    return value instanceof Date ? ((Date) value).clone() : value;
+                }
+                return convert(targetClass, value);
+            };
+        }
+        if (targetClass.isArray()) {
+            Class<?> componentClass = targetClass.getComponentType();
+            Function<Object, Object> componentMapper = valueMapper(targetType.getComponentType());
+            return value -> {
+                Collection<?> elements = value instanceof Collection ? (Collection<?>) value : null;
+                int length = elements != null ? elements.size() : value.getClass().isArray() ? Array.getLength(value) : -1;
+                if (length < 0) {
+                    return convert(targetClass, value);
+                }
+                Object array = Array.newInstance(componentClass, length);
+                if (elements != null) {
+                    int i = 0;
+                    for (Object element : elements) {
+                        if (element != null) {
+                            Array.set(array, i, componentMapper.apply(element));
+                        }
+                        i++;
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        Object element = Array.get(value, i);
+                        if (element != null) {
+                            Array.set(array, i, componentMapper.apply(element));
+                        }
+                    }
+                }
+                return array;
+            };
+        }
+        if (Collection.class.isAssignableFrom(targetClass)) {
+            Supplier<Collection<Object>> collectionFactory = collectionFactory(targetClass);
+            Function<Object, Object> elementMapper = valueMapper(targetType.asCollection().getGeneric(0));
+            return value -> {
+                if (!(value instanceof Collection)) {
+                    return convert(targetType.getType(), value);
+                }
+                Collection<Object> collection = collectionFactory.get();
+                for (Object element : (Collection<?>) value) {
+                    collection.add(element == null ? null : elementMapper.apply(element));
+                }
+                return collection;
+            };
+        }
+        if (Map.class.isAssignableFrom(targetClass)) {
+            ResolvableType mapType = targetType.asMap();
+            Function<Object, Object> keyMapper = valueMapper(mapType.getGeneric(0));
+            Function<Object, Object> valueMapper = valueMapper(mapType.getGeneric(1));
+            return value -> {
+                if (!(value instanceof Map) || !targetClass.isAssignableFrom(LinkedHashMap.class)) {
+                    return convert(targetType.getType(), value);
+                }
+                Map<Object, Object> map = new LinkedHashMap<>(((Map<?, ?>) value).size() * 4 / 3 + 1);
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    map.put(entry.getKey() == null ? null : keyMapper.apply(entry.getKey()),
+                            entry.getValue() == null ? null : valueMapper.apply(entry.getValue()));
+                }
+                return map;
+            };
+        }
+        if (targetClass.isInterface() || Modifier.isAbstract(targetClass.getModifiers())) {
+            return Function.identity();
+        }
+        return value -> {
+            CompiledBeanCopier<Object, ?> copier = of(castClass(value.getClass()), targetClass);
+            return copier != null ? copier.copy(value) : convert(targetClass, value);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> collectionClass) {
+        if (collectionClass.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        }
+        if (collectionClass.isAssignableFrom(LinkedHashSet.class)) {
+            return LinkedHashSet::new;
+        }
+        if (collectionClass.isAssignableFrom(TreeSet.class) && SortedSet.class.isAssignableFrom(collectionClass)) {
+            return TreeSet::new;
+        }
+        if (Set.class.isAssignableFrom(collectionClass) && collectionClass.isInterface()) {
+            return LinkedHashSet::new;
+        }
+        return () -> (Collection<Object>) BeanUtils.instantiateClass(collectionClass);
+    }
+
+    /**
+     * 类型不一致的值使用同一套 JSON 配置转换，结果与原 JSON 往返一致，
+     * 如 LocalDateTime 转为 yyyy-MM-dd HH:mm:ss，Date 转为毫秒数，Long 转为字符串
+     */
+    private static Object convert(Type type, Object value) {
+        return BeanWrapper.convertValue(value, type);
+    }
+
+    private static boolean isBean(Class<?> clazz) {
+        return !clazz.isPrimitive()
+                && !clazz.isArray()
+                && !clazz.isEnum()
+                && !ClassUtil.isSimpleValueType(clazz)
+                && !Collection.class.isAssignableFrom(clazz)
+                && !Map.class.isAssignableFrom(clazz)
+                && clazz != Object.class;
+    }
+
+    private static boolean hasJacksonAnnotation(Class<?> type) {
+        if (type == null || type == Object.class) {
+            return false;
+        }
+        if (isJacksonAnnotated(type) || isJacksonAnnotated(type.getDeclaredFields())
+                || isJacksonAnnotated(type.getDeclaredMethods()) || isJacksonAnnotated(type.getDeclaredConstructors())) {
+            return true;
+        }
+        for (Class<?> anInterface : type.getInterfaces()) {
+            if (JACKSON_ANNOTATED.get(anInterface)) {
+                return true;
+            }
+        }
+        return type.getSuperclass() != null && JACKSON_ANNOTATED.get(type.getSuperclass());
+    }
+
+    private static boolean isJacksonAnnotated(AnnotatedElement... elements) {
+        for (AnnotatedElement element : elements) {
+            if (isJacksonAnnotated(element.getAnnotations())) {
+                return true;
+            }
+            if (element instanceof Executable) {
+                for (Annotation[] parameterAnnotations : ((Executable) element).getParameterAnnotations()) {
+                    if (isJacksonAnnotated(parameterAnnotations)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isJacksonAnnotated(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (annotationType.isAnnotationPresent(JacksonAnnotation.class)
+                    || annotationType.isAnnotationPresent(JacksonAnnotationsInside.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<Object> castClass(Class<?> clazz) {
+        return (Class<Object>) clazz;
+    }
+
+    private static final class PropertyCopier {
+
+        private final Function<Object, Object> getter;
+
+        private final BiConsumer<Object, Object> setter;
+
+        private final Function<Object, Object> mapper;
+
+        private final boolean primitive;
+
+        private PropertyCopier(Function<Object, Object> getter, BiConsumer<Object, Object> setter,
+                               Function<Object, Object> mapper, boolean primitive) {
+            this.getter = getter;
+            this.setter = setter;
+            this.mapper = mapper;
+            this.primitive = primitive;
+        }
+
+        private void copy(Object source, Object target) {
+            Object value = this.getter.apply(source);
+            if (value != null) {
+                this.setter.accept(target, this.mapper.apply(value));
+            } else if (!this.primitive) {
+                this.setter.accept(target, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.springcloud.base.core.bean;
+
+import com.springcloud.base.core.exception.DefaultException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @Author: ls
+ * @Description: 通过 LambdaMetafactory 把构造器、getter、setter 绑定为函数接口，调用开销与直接调用相当
+ * 无法生成 lambda 时退回 MethodHandle 调用
+ * @Date: 2023/4/6 11:34
+ */
+@Slf4j
+public final class LambdaAccessors {
+
+    private LambdaAccessors() {
+    }
+
+    /**
+     * 无参构造器
+     *
+     * @param lookup      对目标类有私有访问权限的 lookup
+     * @param constructor 构造器
+     * @return 构造函数
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> constructor(MethodHandles.Lookup lookup, Constructor<T> constructor) throws Throwable {
+        MethodHandle handle = lookup.unreflectConstructor(constructor);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), handle, MethodType.methodType(constructor.getDeclaringClass()));
+            return (Supplier<T>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+            return () -> (T) invoke(() -> generic.invokeExact());
+        }
+    }
+
+    /**
+     * 取值方法
+     *
+     * @param lookup 对目标类有私有访问权限的 lookup
+     * @param method getter
+     * @return 取值函数
+     */
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> getter(MethodHandles.Lookup lookup, Method method) throws Throwable {
+        MethodHandle handle = lookup.unreflect(method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle,
+                    MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> invoke(() -> generic.invokeExact(bean));
+        }
+    }
+
+    /**
+     * 赋值方法
+     *
+     * @param lookup 对目标类有私有访问权限的 lookup
+     * @param method setter
+     * @return 赋值函数
+     */
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Method method) throws Throwable {
+        MethodHandle handle = lookup.unreflect(method);
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class), handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> invoke(() -> {
+                generic.invokeExact(bean, value);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 字段取值，字段没有 getter 时使用
+     *
+     * @param lookup 对目标类有私有访问权限的 lookup
+     * @param field  字段
+     * @return 取值函数
+     */
+    public static Function<Object, Object> getter(MethodHandles.Lookup lookup, Field field) throws Throwable {
+        MethodHandle generic = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> invoke(() -> generic.invokeExact(bean));
+    }
+
+    private static Class<?> wrap(Class<?> clazz) {
+        return MethodType.methodType(clazz).wrap().returnType();
+    }
+
+    private static Object invoke(Invocation invocation) {
+        try {
+            return invocation.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            log.error(e.getLocalizedMessage());
+            throw DefaultException.defaultException("属性访问异常");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+
+        Object invoke() throws Throwable;
+    }
+}
@@ -0,0 +1,441 @@
+package com.springcloud.base.core.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.spring.cloud.base.utils.cache.CacheUtil;
+import com.spring.cloud.base.utils.cache.LRUCache;
+import com.springcloud.base.core.exception.DefaultException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @Author: ls
+ * @Description: 二级缓存
+ * 读取顺序为本地缓存、redis、加载器；同一个key并发未命中时只有一个线程读取redis和执行加载器，其余线程等待其结果
+ * 本地缓存存活超过提前刷新时间后命中，会在后台重新加载，调用方继续拿到当前值
+ * 写入、删除时通过redis发布订阅通知其他节点删除本地缓存
+ * 加载和提前刷新的结果只在redis中的值仍是加载前读到的值时写入，避免覆盖其他节点在加载期间写入的新值；
+ * 加载期间本地缓存被删除、写入或收到失效通知时，加载结果不写入本地缓存，避免旧值在失效之后重新放回本地
+ * 本地缓存使用 {@link LRUCache}，按条目存活时间过期，超出容量时淘汰最近最少使用的条目
+ * 本地缓存直接返回同一个对象，调用方不应修改返回值
+ * @Date: 2023/4/11 10:12
+ */
+@Slf4j
+public class NearCache {
+
+    /**
+     * 本地缓存中的空值
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * redis中空值的JSON
+     */
+    private static final String NULL_JSON = "null";
+
+    /**
+     * 失效计数的分段数，不同key可能共用一个计数，只会多跳过几次本地写入
+     */
+    private static final int GENERATION_STRIPES = 64;
+
+    /**
+     * redis中的值与加载前读到的值一致时才写入
+     */
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1 else return 0 end",
+            Long.class);
+
+    private final String name;
+
+    private final NearCacheSpec spec;
+
+    private final NearCacheManager manager;
+
+    private final NearCacheMetrics metrics;
+
+    private final LRUCache<String, LocalEntry> localStore;
+
+    /**
+     * 按key分段的本地失效计数，加载前读取，写入本地缓存后计数变化说明加载期间发生过失效
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    NearCache(String name, NearCacheSpec spec, NearCacheManager manager) {
+        this.name = name;
+        this.spec = spec;
+        this.manager = manager;
+        this.localStore = CacheUtil.newLRUCache(spec.getMaximumSize());
+        this.metrics = new NearCacheMetrics(this.localStore::stats);
+    }
+
+    /**
+     * 读取缓存，不加载
+     *
+     * @param key  key
+     * @param type 值类型，用于从redis反序列化
+     * @return 缓存值，不存在或缓存的是空值时返回null
+     */
+    public <T> T get(String key, Type type) {
+        return this.get(key, type, null);
+    }
+
+    /**
+     * 读取缓存，未命中时加载
+     *
+     * @param key    key
+     * @param type   值类型，用于从redis反序列化
+     * @param loader 加载器，为null时不加载
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Type type, Callable<? extends T> loader) {
+        LocalEntry entry = this.localStore.get(key);
+        if (entry != null) {
+            this.metrics.recordLocalHit();
+            if (loader != null && entry.refreshAt <= System.currentTimeMillis()) {
+                this.refresh(key, type, loader);
+            }
+            return entry.value == NULL_VALUE ? null : (T) entry.value;
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = this.loading.putIfAbsent(key, future);
+        if (existing != null) {
+            this.metrics.recordCoalesced();
+            return (T) this.join(key, existing, loader);
+        }
+        try {
+            Object value = this.loadRemote(key, type, loader);
+            future.complete(value);
+            return (T) value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 写入缓存并通知其他节点删除本地缓存
+     *
+     * @param key   key
+     * @param value 值
+     */
+    public void put(String key, Object value) {
+        this.writeRemote(key, value);
+        this.invalidateGeneration(key);
+        this.writeLocal(key, value);
+        this.manager.publish(this.name, key);
+    }
+
+    /**
+     * 删除缓存并通知其他节点
+     *
+     * @param key key
+     */
+    public void evict(String key) {
+        this.manager.getStringRedisTemplate().delete(this.remoteKey(key));
+        this.invalidateGeneration(key);
+        this.localStore.remove(key);
+        this.manager.publish(this.name, key);
+    }
+
+    /**
+     * 清空缓存并通知其他节点
+     */
+    public void clear() {
+        ScanOptions options = ScanOptions.scanOptions().match(this.remoteKey("") + "*").count(256).build();
+        this.manager.getStringRedisTemplate().execute((RedisCallback<Void>) connection -> {
+            List<byte[]> keys = new ArrayList<>(256);
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(cursor.next());
+                    if (keys.size() >= 256) {
+                        this.delete(connection, keys);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("关闭redis游标异常", e);
+            }
+            this.delete(connection, keys);
+            return null;
+        });
+        this.invalidateGeneration(null);
+        this.localStore.clear();
+        this.manager.publish(this.name, null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public NearCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 本地缓存条数
+     *
+     * @return 条数
+     */
+    public int localSize() {
+        return this.localStore.size();
+    }
+
+    /**
+     * 收到其他节点的通知，只删除本地缓存
+     */
+    void invalidateLocal(String key) {
+        this.metrics.recordInvalidation();
+        this.invalidateGeneration(key);
+        if (key == null) {
+            this.localStore.clear();
+        } else {
+            this.localStore.remove(key);
+        }
+    }
+
+    private Object loadRemote(String key, Type type, Callable<?> loader) {
+        long generation = this.generation(key);
+        String json = this.manager.getStringRedisTemplate().opsForValue().get(this.remoteKey(key));
+        if (json != null) {
+            this.metrics.recordRemoteHit();
+            Object value = NULL_JSON.equals(json) ? null : this.readValue(json, type);
+            this.writeLocal(key, value, generation);
+            return value;
+        }
+        this.metrics.recordMiss();
+        if (loader == null) {
+            return null;
+        }
+        return this.loadAndWrite(key, type, null, loader, generation);
+    }
+
+    /**
+     * 执行加载器，redis中的值在加载期间未被其他节点改变时写入，否则以redis中的新值为准
+     *
+     * @param expected   加载前redis中的值，不存在为null
+     * @param generation 读取redis前的本地失效计数
+     */
+    private Object loadAndWrite(String key, Type type, String expected, Callable<?> loader, long generation) {
+        Object value = this.load(key, loader);
+        if (!this.writeRemoteIfUnchanged(key, expected, value)) {
+            String json = this.manager.getStringRedisTemplate().opsForValue().get(this.remoteKey(key));
+            if (json != null) {
+                value = NULL_JSON.equals(json) ? null : this.readValue(json, type);
+            }
+        }
+        this.writeLocal(key, value, generation);
+        return value;
+    }
+
+    private Object load(String key, Callable<?> loader) {
+        long start = System.nanoTime();
+        try {
+            Object value = loader.call();
+            this.metrics.recordLoadSuccess(System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException | Error e) {
+            this.metrics.recordLoadFailure(System.nanoTime() - start);
+            throw e;
+        } catch (Exception e) {
+            this.metrics.recordLoadFailure(System.nanoTime() - start);
+            throw new Cache.ValueRetrievalException(key, loader, e);
+        }
+    }
+
+    /**
+     * 后台刷新，与并发加载共用同一个等待表，同一个key同时只有一次加载
+     */
+    private void refresh(String key, Type type, Callable<?> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (this.loading.putIfAbsent(key, future) != null) {
+            return;
+        }
+        try {
+            this.manager.getRefreshExecutor().execute(() -> {
+                try {
+                    long generation = this.generation(key);
+                    String expected = this.manager.getStringRedisTemplate().opsForValue().get(this.remoteKey(key));
+                    Object value = this.loadAndWrite(key, type, expected, loader, generation);
+                    this.metrics.recordRefresh();
+                    future.complete(value);
+                } catch (Throwable e) {
+                    log.warn("缓存提前刷新失败 {}:{}", this.name, key, e);
+                    future.cancel(false);
+                } finally {
+                    this.loading.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.loading.remove(key, future);
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 等待其他线程的加载结果；其他线程的后台刷新失败时改为自己加载
+     */
+    private Object join(String key, CompletableFuture<Object> future, Callable<?> loader) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new Cache.ValueRetrievalException(key, loader, cause);
+        } catch (CancellationException e) {
+            return loader == null ? null : this.load(key, loader);
+        }
+    }
+
+    private void writeLocal(String key, Object value) {
+        long ttl = value == null ? this.spec.getNullTtlMillis() : this.spec.getLocalTtlMillis();
+        if (ttl <= 0) {
+            this.localStore.remove(key);
+            return;
+        }
+        double ratio = this.spec.getRefreshAheadRatio();
+        long refreshAt = ratio > 0 && ratio < 1 && value != null ? System.currentTimeMillis() + (long) (ttl * ratio) : Long.MAX_VALUE;
+        this.localStore.put(key, new LocalEntry(value == null ? NULL_VALUE : value, refreshAt), ttl);
+    }
+
+    /**
+     * 写入加载结果，写入后失效计数已变化时撤回
+     * 失效方先增加计数再删除本地缓存，删除早于本次写入时写入后一定能看到计数变化
+     *
+     * @param generation 读取redis前的本地失效计数
+     */
+    private void writeLocal(String key, Object value, long generation) {
+        if (this.generation(key) != generation) {
+            return;
+        }
+        this.writeLocal(key, value);
+        if (this.generation(key) != generation) {
+            this.localStore.remove(key);
+        }
+    }
+
+    private long generation(String key) {
+        return this.generations.get(this.stripe(key));
+    }
+
+    /**
+     * 增加失效计数，须在删除或写入本地缓存之前调用
+     *
+     * @param key key，为null时增加所有分段
+     */
+    private void invalidateGeneration(String key) {
+        if (key == null) {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                this.generations.incrementAndGet(i);
+            }
+        } else {
+            this.generations.incrementAndGet(this.stripe(key));
+        }
+    }
+
+    private int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private void writeRemote(String key, Object value) {
+        long ttl = value == null ? this.spec.getNullTtlMillis() : this.spec.getRemoteTtlMillis();
+        if (ttl <= 0) {
+            return;
+        }
+        String json = value == null ? NULL_JSON : this.writeValue(value);
+        this.manager.getStringRedisTemplate().opsForValue().set(this.remoteKey(key), json, ttl, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param expected 期望的当前值，为null时要求key不存在
+     * @return 是否写入，无需写入redis时也返回true
+     */
+    private boolean writeRemoteIfUnchanged(String key, String expected, Object value) {
+        long ttl = value == null ? this.spec.getNullTtlMillis() : this.spec.getRemoteTtlMillis();
+        if (ttl <= 0) {
+            return true;
+        }
+        String json = value == null ? NULL_JSON : this.writeValue(value);
+        if (expected == null) {
+            Boolean written = this.manager.getStringRedisTemplate().opsForValue()
+                    .setIfAbsent(this.remoteKey(key), json, ttl, TimeUnit.MILLISECONDS);
+            return written != null && written;
+        }
+        Long written = this.manager.getStringRedisTemplate().execute(COMPARE_AND_SET_SCRIPT,
+                Collections.singletonList(this.remoteKey(key)), expected, json, String.valueOf(ttl));
+        return written != null && written == 1L;
+    }
+
+    private String remoteKey(String key) {
+        return NearCacheManager.CACHE_PREFIX + this.name + ":" + key;
+    }
+
+    private void delete(RedisConnection connection, List<byte[]> keys) {
+        if (!keys.isEmpty()) {
+            connection.del(keys.toArray(new byte[0][]));
+            keys.clear();
+        }
+    }
+
+    private String writeValue(Object value) {
+        try {
+            return this.manager.getObjectMapper().writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error(e.getLocalizedMessage());
+            throw DefaultException.defaultException("缓存序列化异常");
+        }
+    }
+
+    private Object readValue(String json, Type type) {
+        try {
+            return this.manager.getObjectMapper().readValue(json, this.manager.getObjectMapper().constructType(type));
+        } catch (IOException e) {
+            log.error(e.getLocalizedMessage());
+            throw DefaultException.defaultException("缓存反序列化异常");
+        }
+    }
+
+    /**
+     * 本地缓存条目，过期由本地缓存按存活时间处理
+     */
+    private static final class LocalEntry {
+
+        private final Object value;
+
+        private final long refreshAt;
+
+        private LocalEntry(Object value, long refreshAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.springcloud.base.core.cache;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * @Author: ls
+ * @Description: 匹配带有 {@link NearCacheable} 或 {@link NearCacheEvict} 的方法
+ * @Date: 2023/4/11 10:12
+ */
+public class NearCacheAdvisor extends StaticMethodMatcherPointcutAdvisor {
+
+    private static final long serialVersionUID = 1L;
+
+    public NearCacheAdvisor(NearCacheInterceptor nearCacheInterceptor) {
+        super(nearCacheInterceptor);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        return AnnotatedElementUtils.hasAnnotation(specificMethod, NearCacheable.class)
+                || AnnotatedElementUtils.hasAnnotation(specificMethod, NearCacheEvict.class);
+    }
+}
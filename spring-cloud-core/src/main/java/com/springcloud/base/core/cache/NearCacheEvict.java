@@ -0,0 +1,35 @@
+package com.springcloud.base.core.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @Author: ls
+ * @Description: 方法执行成功后删除二级缓存
+ * @Date: 2023/4/11 10:12
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface NearCacheEvict {
+
+    /**
+     * 缓存名称
+     */
+    String name();
+
+    /**
+     * key的SpEL表达式，规则同 {@link NearCacheable#key()}
+     */
+    String key() default "";
+
+    /**
+     * 是否清空整个缓存
+     */
+    boolean allEntries() default false;
+}
@@ -0,0 +1,93 @@
+package com.springcloud.base.core.cache;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cache.Cache;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: ls
+ * @Description: {@link NearCacheable} 与 {@link NearCacheEvict} 的方法拦截
+ * @Date: 2023/4/11 10:12
+ */
+public class NearCacheInterceptor implements MethodInterceptor {
+
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final NearCacheManager nearCacheManager;
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public NearCacheInterceptor(NearCacheManager nearCacheManager) {
+        this.nearCacheManager = nearCacheManager;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        NearCacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, NearCacheable.class);
+        NearCacheEvict evict = AnnotatedElementUtils.findMergedAnnotation(method, NearCacheEvict.class);
+
+        Object result;
+        if (cacheable != null) {
+            NearCache cache = this.nearCacheManager.getCache(cacheable.name());
+            String key = this.key(cacheable.key(), method, invocation.getArguments());
+            try {
+                result = cache.get(key, method.getGenericReturnType(), () -> {
+                    try {
+                        return invocation.proceed();
+                    } catch (Exception | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new UndeclaredThrowableException(e);
+                    }
+                });
+            } catch (Cache.ValueRetrievalException e) {
+                throw e.getCause();
+            } catch (UndeclaredThrowableException e) {
+                throw e.getUndeclaredThrowable();
+            }
+        } else {
+            result = invocation.proceed();
+        }
+
+        if (evict != null) {
+            NearCache cache = this.nearCacheManager.getCache(evict.name());
+            if (evict.allEntries()) {
+                cache.clear();
+            } else {
+                cache.evict(this.key(evict.key(), method, invocation.getArguments()));
+            }
+        }
+        return result;
+    }
+
+    private String key(String expression, Method method, Object[] args) {
+        if (!StringUtils.hasText(expression)) {
+            if (args.length == 0) {
+                return "";
+            }
+            return args.length == 1 ? String.valueOf(args[0]) : Arrays.deepToString(args);
+        }
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, method, args, PARAMETER_NAME_DISCOVERER);
+        Object value = this.expressions.computeIfAbsent(expression, PARSER::parseExpression).getValue(context);
+        return String.valueOf(value);
+    }
+}
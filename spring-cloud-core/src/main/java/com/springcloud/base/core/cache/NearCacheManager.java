@@ -0,0 +1,162 @@
+package com.springcloud.base.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+import com.springcloud.base.core.json.JsonConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 二级缓存管理
+ * 按名称创建 {@link NearCache}，持有失效通知的订阅与后台刷新线程池，同一应用共用一个实例即可
+ * 通知内容为 发送节点\n缓存名称\nK+key，最后一段为空表示清空，节点忽略自己发出的通知
+ * @Date: 2023/4/11 10:12
+ */
+@Slf4j
+public class NearCacheManager implements DisposableBean {
+
+    static final String CACHE_PREFIX = "_NEAR_CACHE:";
+
+    static final String INVALIDATE_CHANNEL = "_NEAR_CACHE_INVALIDATE";
+
+    private static final String SEPARATOR = "\n";
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final NearCacheSpec defaultSpec;
+
+    private final Map<String, NearCacheSpec> specs;
+
+    private final ConcurrentMap<String, NearCache> caches = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public NearCacheManager(StringRedisTemplate stringRedisTemplate) {
+        this(stringRedisTemplate, new NearCacheSpec(), Collections.emptyMap());
+    }
+
+    /**
+     * @param stringRedisTemplate redis
+     * @param defaultSpec         默认参数
+     * @param specs               按缓存名称单独指定的参数
+     */
+    public NearCacheManager(StringRedisTemplate stringRedisTemplate, NearCacheSpec defaultSpec, Map<String, NearCacheSpec> specs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.defaultSpec = defaultSpec;
+        this.specs = specs;
+        JsonConfiguration.initConfiguration(this.objectMapper);
+        int processors = Runtime.getRuntime().availableProcessors();
+        // 刷新任务被拒绝时直接丢弃，条目过期后会重新加载
+        this.refreshExecutor = new ThreadPoolExecutor(1, Math.max(processors, 2), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1024),
+                ThreadFactoryBuilder.create().setNamePrefix("near-cache-refresh-").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(stringRedisTemplate.getConnectionFactory());
+        this.listenerContainer.addMessageListener(
+                (message, pattern) -> this.onInvalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATE_CHANNEL));
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    /**
+     * 获取缓存，不存在时创建
+     *
+     * @param name 缓存名称
+     * @return 缓存
+     */
+    public NearCache getCache(String name) {
+        NearCache cache = this.caches.get(name);
+        if (cache == null) {
+            cache = this.caches.computeIfAbsent(name, key -> new NearCache(key, this.specs.getOrDefault(key, this.defaultSpec), this));
+        }
+        return cache;
+    }
+
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(this.caches.keySet());
+    }
+
+    /**
+     * 所有缓存的统计
+     *
+     * @return 缓存名称 -> 统计
+     */
+    public Map<Object, Object> info() {
+        Map<Object, Object> info = new HashMap<>(this.caches.size() * 4 / 3 + 1);
+        this.caches.forEach((name, cache) -> {
+            Map<Object, Object> metrics = cache.getMetrics().info();
+            metrics.put("localSize", cache.localSize());
+            info.put(name, metrics);
+        });
+        return info;
+    }
+
+    StringRedisTemplate getStringRedisTemplate() {
+        return stringRedisTemplate;
+    }
+
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    ExecutorService getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    /**
+     * 发布失效通知
+     *
+     * @param name 缓存名称
+     * @param key  key，为null时表示清空
+     */
+    void publish(String name, String key) {
+        try {
+            this.stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL,
+                    this.instanceId + SEPARATOR + name + SEPARATOR + (key == null ? "" : "K" + key));
+        } catch (Exception e) {
+            log.warn("发布缓存失效通知失败 {}:{}", name, key, e);
+        }
+    }
+
+    private void onInvalidate(String body) {
+        String[] parts = body.split(SEPARATOR, 3);
+        if (parts.length != 3 || this.instanceId.equals(parts[0])) {
+            return;
+        }
+        NearCache cache = this.caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts[2].isEmpty() ? null : parts[2].substring(1));
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.refreshExecutor.shutdownNow();
+        this.listenerContainer.destroy();
+    }
+}
@@ -0,0 +1,148 @@
+package com.springcloud.base.core.cache;
+
+import com.spring.cloud.base.utils.cache.CacheStats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * @Author: ls
+ * @Description: 二级缓存统计
+ * 本地缓存的淘汰与过期次数取自本地缓存自身的统计
+ * @Date: 2023/4/11 10:12
+ */
+public class NearCacheMetrics {
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loadSuccesses = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final LongAdder loadNanos = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private final Supplier<CacheStats> localStats;
+
+    NearCacheMetrics(Supplier<CacheStats> localStats) {
+        this.localStats = localStats;
+    }
+
+    void recordLocalHit() {
+        this.localHits.increment();
+    }
+
+    void recordRemoteHit() {
+        this.remoteHits.increment();
+    }
+
+    void recordMiss() {
+        this.misses.increment();
+    }
+
+    void recordLoadSuccess(long nanos) {
+        this.loadSuccesses.increment();
+        this.loadNanos.add(nanos);
+    }
+
+    void recordLoadFailure(long nanos) {
+        this.loadFailures.increment();
+        this.loadNanos.add(nanos);
+    }
+
+    void recordCoalesced() {
+        this.coalesced.increment();
+    }
+
+    void recordRefresh() {
+        this.refreshes.increment();
+    }
+
+    void recordInvalidation() {
+        this.invalidations.increment();
+    }
+
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccesses.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    public long getTotalLoadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(loadNanos.sum());
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getEvictionCount() {
+        return localStats.get().getEvictionCount();
+    }
+
+    public long getExpirationCount() {
+        return localStats.get().getExpiredCount();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * 命中率，本地与redis命中都计入
+     *
+     * @return 命中率
+     */
+    public double getHitRate() {
+        long hits = getLocalHitCount() + getRemoteHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 1.0D : (double) hits / requests;
+    }
+
+    public Map<Object, Object> info() {
+        Map<Object, Object> info = new HashMap<>(16);
+        info.put("localHitCount", getLocalHitCount());
+        info.put("remoteHitCount", getRemoteHitCount());
+        info.put("missCount", getMissCount());
+        info.put("hitRate", getHitRate());
+        info.put("loadSuccessCount", getLoadSuccessCount());
+        info.put("loadFailureCount", getLoadFailureCount());
+        info.put("totalLoadMillis", getTotalLoadMillis());
+        info.put("coalescedCount", getCoalescedCount());
+        info.put("refreshCount", getRefreshCount());
+        info.put("evictionCount", getEvictionCount());
+        info.put("expirationCount", getExpirationCount());
+        info.put("invalidationCount", getInvalidationCount());
+        return info;
+    }
+}
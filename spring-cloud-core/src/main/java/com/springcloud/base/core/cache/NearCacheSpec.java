@@ -0,0 +1,41 @@
+package com.springcloud.base.core.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @Author: ls
+ * @Description: 二级缓存参数
+ * @Date: 2023/4/11 10:12
+ */
+@Getter
+@Setter
+public class NearCacheSpec {
+
+    /**
+     * 本地缓存最大条数，按最近最少使用淘汰
+     */
+    private int maximumSize = 10000;
+
+    /**
+     * 本地缓存过期时间 毫秒
+     */
+    private long localTtlMillis = 60000L;
+
+    /**
+     * redis缓存过期时间 毫秒
+     */
+    private long remoteTtlMillis = 600000L;
+
+    /**
+     * 空值缓存时间 毫秒，小于等于0时不缓存空值
+     */
+    private long nullTtlMillis = 30000L;
+
+    /**
+     * 提前刷新比例，本地缓存存活时间超过 localTtlMillis * refreshAheadRatio 后命中时异步刷新
+     * 小于等于0或大于等于1时不提前刷新
+     */
+    private double refreshAheadRatio = 0.8D;
+
+}
@@ -0,0 +1,32 @@
+package com.springcloud.base.core.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @Author: ls
+ * @Description: 方法结果使用二级缓存
+ * 值按方法的泛型返回类型从redis反序列化
+ * @Date: 2023/4/11 10:12
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface NearCacheable {
+
+    /**
+     * 缓存名称
+     */
+    String name();
+
+    /**
+     * key的SpEL表达式，参数可用 #参数名 或 #p0 引用
+     * 为空时使用全部参数拼接
+     */
+    String key() default "";
+}
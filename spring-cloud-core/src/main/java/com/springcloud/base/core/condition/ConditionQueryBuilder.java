@@ -0,0 +1,148 @@
+package com.springcloud.base.core.condition;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Author: ls
+ * @Date: 2023/4/10
+ * @Description: 根据 {@link Condition} 注解把查询对象转换为 MyBatis-Plus 查询条件
+ * 值为null、空字符串、空集合的字段不参与查询；IN/NOT_IN 超过 {@link #IN_CHUNK_SIZE} 个值时自动分段
+ **/
+public class ConditionQueryBuilder {
+
+    /**
+     * IN 单段最大值个数，兼容 Oracle 的 1000 个限制
+     */
+    public static final int IN_CHUNK_SIZE = 1000;
+
+    /**
+     * 创建查询条件
+     *
+     * @param conditionCo 查询对象
+     * @param <T>         实体类型
+     * @return 查询条件
+     */
+    public static <T> QueryWrapper<T> build(ConditionCo conditionCo) {
+        return apply(conditionCo, new QueryWrapper<>());
+    }
+
+    /**
+     * 在已有查询条件上追加
+     *
+     * @param conditionCo 查询对象
+     * @param wrapper     查询条件
+     * @param <T>         实体类型
+     * @param <W>         查询条件类型
+     * @return 查询条件
+     */
+    public static <T, W extends AbstractWrapper<T, String, W>> W apply(ConditionCo conditionCo, W wrapper) {
+        if (conditionCo == null) {
+            return wrapper;
+        }
+        for (ConditionQueryPlan.ConditionField field : ConditionQueryPlan.of(conditionCo.getClass()).getFields()) {
+            Object value = field.getValue(conditionCo);
+            if (isEmpty(value)) {
+                continue;
+            }
+            String column = field.getColumn();
+            switch (field.getMatch()) {
+                case GT:
+                    wrapper.gt(column, value);
+                    break;
+                case LT:
+                    wrapper.lt(column, value);
+                    break;
+                case GTE:
+                    wrapper.ge(column, value);
+                    break;
+                case LTE:
+                    wrapper.le(column, value);
+                    break;
+                case LIKE:
+                    wrapper.like(column, value);
+                    break;
+                case LEFT_LIKE:
+                    wrapper.likeLeft(column, value);
+                    break;
+                case RIGHT_LIKE:
+                    wrapper.likeRight(column, value);
+                    break;
+                case IN:
+                    in(wrapper, column, toList(value), false);
+                    break;
+                case NOT_IN:
+                    in(wrapper, column, toList(value), true);
+                    break;
+                default:
+                    wrapper.eq(column, value);
+            }
+        }
+        return wrapper;
+    }
+
+    /**
+     * IN 分段为 (col in (..) or col in (..))，NOT IN 分段为 col not in (..) and col not in (..)
+     */
+    private static <T, W extends AbstractWrapper<T, String, W>> void in(W wrapper, String column, List<?> values, boolean not) {
+        if (values.size() <= IN_CHUNK_SIZE) {
+            if (not) {
+                wrapper.notIn(column, values);
+            } else {
+                wrapper.in(column, values);
+            }
+            return;
+        }
+        if (not) {
+            for (int from = 0; from < values.size(); from += IN_CHUNK_SIZE) {
+                wrapper.notIn(column, values.subList(from, Math.min(from + IN_CHUNK_SIZE, values.size())));
+            }
+            return;
+        }
+        wrapper.and(nested -> {
+            for (int from = 0; from < values.size(); from += IN_CHUNK_SIZE) {
+                if (from > 0) {
+                    nested.or();
+                }
+                nested.in(column, values.subList(from, Math.min(from + IN_CHUNK_SIZE, values.size())));
+            }
+        });
+    }
+
+    private static List<?> toList(Object value) {
+        if (value instanceof List) {
+            return (List<?>) value;
+        }
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(Array.get(value, i));
+            }
+            return list;
+        }
+        return Collections.singletonList(value);
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value == null) {
+            return true;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() == 0;
+        }
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).isEmpty();
+        }
+        return value.getClass().isArray() && Array.getLength(value) == 0;
+    }
+}
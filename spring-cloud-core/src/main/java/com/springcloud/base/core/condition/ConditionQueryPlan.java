@@ -0,0 +1,127 @@
+package com.springcloud.base.core.condition;
+
+import com.spring.cloud.base.utils.LookupFactory;
+import com.springcloud.base.core.bean.LambdaAccessors;
+import com.springcloud.base.core.exception.DefaultException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @Author: ls
+ * @Date: 2023/4/10
+ * @Description: 查询对象的查询计划
+ * 每个 {@link ConditionCo} 类型只扫描一次字段，记录列名、匹配方式与预编译的取值函数
+ **/
+@Slf4j
+public final class ConditionQueryPlan {
+
+    private static final ClassValue<ConditionQueryPlan> CACHE = new ClassValue<ConditionQueryPlan>() {
+        @Override
+        protected ConditionQueryPlan computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final List<ConditionField> fields;
+
+    private ConditionQueryPlan(List<ConditionField> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * 获取查询计划，首次调用时扫描并缓存
+     *
+     * @param conditionClass 查询对象类型
+     * @return 查询计划
+     */
+    public static ConditionQueryPlan of(Class<? extends ConditionCo> conditionClass) {
+        return CACHE.get(conditionClass);
+    }
+
+    public List<ConditionField> getFields() {
+        return fields;
+    }
+
+    /**
+     * 扫描字段，父类字段在前；有 getter 时优先使用 getter
+     */
+    private static ConditionQueryPlan compile(Class<?> conditionClass) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = conditionClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        List<ConditionField> fields = new ArrayList<>();
+        try {
+            for (Class<?> declaringClass : hierarchy) {
+                MethodHandles.Lookup lookup = LookupFactory.lookup(declaringClass);
+                for (Field field : declaringClass.getDeclaredFields()) {
+                    Condition condition = field.getAnnotation(Condition.class);
+                    if (condition == null || Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    PropertyDescriptor property = BeanUtils.getPropertyDescriptor(conditionClass, field.getName());
+                    Function<Object, Object> accessor = property != null && property.getReadMethod() != null
+                            ? LambdaAccessors.getter(LookupFactory.lookup(conditionClass), property.getReadMethod())
+                            : LambdaAccessors.getter(lookup, field);
+                    fields.add(new ConditionField(field.getName(), condition.value(), condition.match(), accessor));
+                }
+            }
+        } catch (Throwable e) {
+            log.error(e.getLocalizedMessage());
+            throw DefaultException.defaultException("查询条件解析异常: " + conditionClass.getName());
+        }
+        return new ConditionQueryPlan(fields);
+    }
+
+    /**
+     * 查询字段
+     */
+    public static final class ConditionField {
+
+        private final String name;
+
+        private final String column;
+
+        private final MatchEnum match;
+
+        private final Function<Object, Object> accessor;
+
+        private ConditionField(String name, String column, MatchEnum match, Function<Object, Object> accessor) {
+            this.name = name;
+            this.column = column;
+            this.match = match;
+            this.accessor = accessor;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public MatchEnum getMatch() {
+            return match;
+        }
+
+        /**
+         * 读取字段值
+         *
+         * @param conditionCo 查询对象
+         * @return 字段值
+         */
+        public Object getValue(ConditionCo conditionCo) {
+            return accessor.apply(conditionCo);
+        }
+    }
+}
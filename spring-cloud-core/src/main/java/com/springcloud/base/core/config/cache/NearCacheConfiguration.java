@@ -0,0 +1,40 @@
+package com.springcloud.base.core.config.cache;
+
+import com.springcloud.base.core.cache.NearCacheAdvisor;
+import com.springcloud.base.core.cache.NearCacheInterceptor;
+import com.springcloud.base.core.cache.NearCacheManager;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * @Author: ls
+ * @Date: 2023/4/11
+ * @Description: 二级缓存配置，注册 {@link NearCacheManager} 与注解拦截
+ * 拦截器以基础设施角色注册，无需引入aspectj即可被自动代理
+ * 需要 common.near-cache.enable=true 开启，开启后依赖 {@link StringRedisTemplate} 并订阅失效通知
+ **/
+@Configuration
+@ConditionalOnProperty(
+        prefix = "common.near-cache",
+        name = {"enable"},
+        havingValue = "true"
+)
+@Import({NearCacheProperties.class})
+public class NearCacheConfiguration {
+
+    @Bean
+    public NearCacheManager nearCacheManager(StringRedisTemplate stringRedisTemplate, NearCacheProperties nearCacheProperties) {
+        return new NearCacheManager(stringRedisTemplate, nearCacheProperties.getDefaults(), nearCacheProperties.getCaches());
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public NearCacheAdvisor nearCacheAdvisor(NearCacheManager nearCacheManager) {
+        return new NearCacheAdvisor(new NearCacheInterceptor(nearCacheManager));
+    }
+}
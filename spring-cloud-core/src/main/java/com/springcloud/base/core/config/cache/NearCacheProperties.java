@@ -0,0 +1,41 @@
+package com.springcloud.base.core.config.cache;
+
+import com.springcloud.base.core.cache.NearCacheSpec;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Date: 2023/4/11
+ * @Description: 二级缓存配置
+ **/
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "common.near-cache")
+public class NearCacheProperties {
+
+    /**
+     * 是否开启二级缓存
+     * 默认false
+     */
+    private boolean enable;
+
+    /**
+     * 默认参数
+     */
+    @NestedConfigurationProperty
+    private NearCacheSpec defaults = new NearCacheSpec();
+
+    /**
+     * 按缓存名称单独指定的参数
+     */
+    private Map<String, NearCacheSpec> caches = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,62 @@
+package com.springcloud.base.core.config.idengine;
+
+import com.springcloud.base.core.idengine.HostWorkerIdAssigner;
+import com.springcloud.base.core.idengine.IdGen;
+import com.springcloud.base.core.idengine.RandomWorkerIdAssigner;
+import com.springcloud.base.core.idengine.RedisWorkerIdAssigner;
+import com.springcloud.base.core.idengine.StaticWorkerIdAssigner;
+import com.springcloud.base.core.idengine.WorkerIdAssigner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * @Author: ls
+ * @Date: 2023/4/10
+ * @Description: ID生成器配置，按配置选择 workerId 分配方式并注入 {@link IdGen}
+ * 停机时由生成器等待已发出的时间戳被时钟追上后释放 workerId
+ **/
+@Slf4j
+@Configuration
+@Import({IdEngineProperties.class})
+public class IdEngineConfiguration implements DisposableBean {
+
+    @Value("${spring.application.name:application}")
+    private String applicationName;
+
+    @Bean(destroyMethod = "")
+    public WorkerIdAssigner workerIdAssigner(IdEngineProperties idEngineProperties,
+                                             ObjectProvider<StringRedisTemplate> stringRedisTemplate) {
+        WorkerIdAssigner workerIdAssigner;
+        switch (idEngineProperties.getAssigner()) {
+            case "static":
+                workerIdAssigner = new StaticWorkerIdAssigner(idEngineProperties.getWorkerId());
+                break;
+            case "redis":
+                String namespace = StringUtils.hasText(idEngineProperties.getNamespace())
+                        ? idEngineProperties.getNamespace() : this.applicationName;
+                workerIdAssigner = new RedisWorkerIdAssigner(stringRedisTemplate.getObject(), namespace,
+                        idEngineProperties.getLeaseMillis());
+                break;
+            case "host":
+                workerIdAssigner = new HostWorkerIdAssigner();
+                break;
+            default:
+                workerIdAssigner = new RandomWorkerIdAssigner();
+        }
+        IdGen.initialize(workerIdAssigner);
+        log.info("ID生成器初始化完成 {}", IdGen.getIdEngine().info());
+        return workerIdAssigner;
+    }
+
+    @Override
+    public void destroy() {
+        IdGen.getIdEngine().release();
+    }
+}
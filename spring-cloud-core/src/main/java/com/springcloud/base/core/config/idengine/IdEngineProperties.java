@@ -0,0 +1,42 @@
+package com.springcloud.base.core.config.idengine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Author: ls
+ * @Date: 2023/4/10
+ * @Description: ID生成器配置
+ **/
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "common.id-engine")
+public class IdEngineProperties {
+
+    /**
+     * workerId 分配方式
+     * random 随机分配，static 使用 workerId 配置，redis 通过租约分配，host 根据本机地址低 10 位推导
+     * 默认random，集群部署推荐 redis；host 仅适用于所有实例处于同一 /22 网段的环境
+     */
+    private String assigner = "random";
+
+    /**
+     * assigner 为 static 时使用的 workerId
+     */
+    private long workerId;
+
+    /**
+     * assigner 为 redis 时的命名空间，同一命名空间内 workerId 互斥
+     * 默认取 spring.application.name
+     */
+    private String namespace;
+
+    /**
+     * assigner 为 redis 时的租期 毫秒，须大于生成器时间戳可领先时钟的毫秒数（默认 1000）
+     */
+    private long leaseMillis = 60000L;
+
+}
@@ -0,0 +1,66 @@
+package com.springcloud.base.core.idengine;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Enumeration;
+
+/**
+ * @Author: ls
+ * @Description: 根据本机地址推导 workerId
+ * 优先取非回路 IPv4 地址的低 10 位，同一 /22 网段内不会重复；没有 IPv4 地址时退化为 MAC 地址散列
+ * 只在所有实例处于同一 /22 网段时可用，k8s 等按节点划分 /24 pod 网段的环境下不同节点的 pod 会得到相同 workerId，
+ * 此时应使用 {@link RedisWorkerIdAssigner}
+ * @Date: 2023/4/10 09:53
+ */
+public class HostWorkerIdAssigner implements WorkerIdAssigner {
+
+    private static final int WORKER_ID_MASK = 0x3FF;
+
+    @Override
+    public long assignWorkerId() {
+        try {
+            InetAddress address = localAddress();
+            if (address instanceof Inet4Address) {
+                byte[] ip = address.getAddress();
+                return ((ip[2] & 0xFF) << 8 | (ip[3] & 0xFF)) & WORKER_ID_MASK;
+            }
+            NetworkInterface networkInterface = null == address ? null : NetworkInterface.getByInetAddress(address);
+            byte[] mac = null == networkInterface ? null : networkInterface.getHardwareAddress();
+            if (null != mac) {
+                return Arrays.hashCode(mac) & WORKER_ID_MASK;
+            }
+        } catch (SocketException | UnknownHostException e) {
+            throw new IllegalStateException("can't derive worker id from local address", e);
+        }
+        throw new IllegalStateException("can't derive worker id from local address");
+    }
+
+    /**
+     * 获取本机网卡地址，规则与 NetUtil.getLocalhost 一致：
+     * 非回路 IPv4 地址中优先取非局域网地址，否则取第一个局域网地址，最后退回 {@link InetAddress#getLocalHost()}
+     */
+    private static InetAddress localAddress() throws SocketException, UnknownHostException {
+        InetAddress siteLocal = null;
+        Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+        while (null != interfaces && interfaces.hasMoreElements()) {
+            Enumeration<InetAddress> addresses = interfaces.nextElement().getInetAddresses();
+            while (addresses.hasMoreElements()) {
+                InetAddress address = addresses.nextElement();
+                if (address.isLoopbackAddress() || !(address instanceof Inet4Address)) {
+                    continue;
+                }
+                if (!address.isSiteLocalAddress()) {
+                    return address;
+                }
+                if (null == siteLocal) {
+                    siteLocal = address;
+                }
+            }
+        }
+        return null != siteLocal ? siteLocal : InetAddress.getLocalHost();
+    }
+}
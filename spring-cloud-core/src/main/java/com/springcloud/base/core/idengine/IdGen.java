@@ -1,10 +1,9 @@
 package com.springcloud.base.core.idengine;
 
-import com.spring.cloud.base.utils.crypto.RandomUtil;
-
 /**
  * @Author: ls
  * @Description: 获取唯一ID
+ * 默认随机分配 workerId，集群部署应通过 {@link #initialize(WorkerIdAssigner)} 替换为 redis 租约或固定配置
  * @Date: 2023/1/28 11:10
  */
 public class IdGen {
@@ -14,7 +13,7 @@ public class IdGen {
     static {
 
         SNOW_FLOWER_ID_GENERATOR = new SnowFlowerIdGenerator();
-        SNOW_FLOWER_ID_GENERATOR.initialize(RandomUtil.randomInt(0, 1024));
+        SNOW_FLOWER_ID_GENERATOR.initialize(new RandomWorkerIdAssigner());
     }
 
     public static Long nextId() {
@@ -25,4 +24,13 @@ public class IdGen {
         return SNOW_FLOWER_ID_GENERATOR;
     }
 
+    /**
+     * 更换 workerId 分配方式
+     *
+     * @param workerIdAssigner workerId 分配器
+     */
+    public static void initialize(WorkerIdAssigner workerIdAssigner) {
+        SNOW_FLOWER_ID_GENERATOR.initialize(workerIdAssigner);
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.springcloud.base.core.idengine;
+
+import com.spring.cloud.base.utils.crypto.RandomUtil;
+
+/**
+ * @Author: ls
+ * @Description: 随机分配 workerId，单机或实例较少时使用
+ * 集群部署时实例越多碰撞概率越大，应改用 {@link RedisWorkerIdAssigner}
+ * @Date: 2023/4/10 09:53
+ */
+public class RandomWorkerIdAssigner implements WorkerIdAssigner {
+
+    private static final int WORKER_ID_MAX_VALUE = 1024;
+
+    @Override
+    public long assignWorkerId() {
+        return RandomUtil.randomInt(0, WORKER_ID_MAX_VALUE);
+    }
+}
@@ -0,0 +1,250 @@
+package com.springcloud.base.core.idengine;
+
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+import com.spring.cloud.base.utils.crypto.RandomUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * @Author: ls
+ * @Description: 基于 redis 租约分配 workerId
+ * 每个 workerId 对应一个带过期时间的 key，后台线程按租期的 1/3 续约
+ * 续约时发现 workerId 已被其他实例占用会立即重新抢占并通知生成器，抢占不到时通知生成器停止发号
+ * redis 不可用时续约失败，距上次成功续约超过 租期 - 时间戳领先上限 后停止发号，保证租约过期前发出的时间戳都已落后于时钟
+ * 停机释放时不立即删除 key，而是保留时间戳领先上限的时长，其他实例接手时不会与已发出的时间戳重叠
+ * @Date: 2023/4/10 14:41
+ */
+@Slf4j
+public class RedisWorkerIdAssigner implements WorkerIdAssigner {
+
+    private static final String WORKER_ID_KEY = "_ID_ENGINE_WORKER:";
+
+    private static final long WORKER_ID_MAX_VALUE = 1024L;
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final String namespace;
+
+    private final long leaseMillis;
+
+    /**
+     * 本实例持有租约的标识
+     */
+    private final String token = UUID.randomUUID().toString();
+
+    private final ScheduledExecutorService renewExecutor;
+
+    private ScheduledFuture<?> renewFuture;
+
+    private volatile long workerId = -1;
+
+    private volatile LongConsumer workerIdListener;
+
+    private volatile long maxLeadMillis = SnowFlowerIdGenerator.DEFAULT_MAX_BORROW_MILLIS;
+
+    /**
+     * 租约可用于发号的截止时间 nanoTime，按发出续约命令前的时间计算，不晚于 redis 中 key 的过期时间
+     */
+    private volatile long validUntilNanos;
+
+    /**
+     * @param stringRedisTemplate redis
+     * @param namespace           命名空间，一般为应用名，同一命名空间内 workerId 互斥
+     * @param leaseMillis         租期 毫秒，必须大于生成器的时间戳领先上限
+     */
+    public RedisWorkerIdAssigner(StringRedisTemplate stringRedisTemplate, String namespace, long leaseMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.namespace = namespace;
+        this.leaseMillis = leaseMillis;
+        this.validUntilNanos = System.nanoTime();
+        this.renewExecutor = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("id-engine-lease-").setDaemon(true).build());
+    }
+
+    @Override
+    public synchronized long assignWorkerId() {
+        if (this.workerId >= 0) {
+            return this.workerId;
+        }
+        return this.acquire(-1);
+    }
+
+    /**
+     * 旧 workerId 不立即删除，而是把租期延长回拨的时长，保证其他实例接手前已越过本实例用过的时间段
+     */
+    @Override
+    public synchronized long reassignWorkerId(long oldWorkerId, long backwardsMillis) {
+        this.cancelRenew();
+        this.stringRedisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(this.key(oldWorkerId)),
+                this.token, String.valueOf(this.leaseMillis + backwardsMillis));
+        this.workerId = -1;
+        return this.acquire(oldWorkerId);
+    }
+
+    @Override
+    public void setWorkerIdListener(LongConsumer listener) {
+        this.workerIdListener = listener;
+    }
+
+    /**
+     * @param maxLeadMillis 毫秒，必须小于租期
+     */
+    @Override
+    public void setMaxLeadMillis(long maxLeadMillis) {
+        if (maxLeadMillis < 0 || maxLeadMillis >= this.leaseMillis) {
+            throw new IllegalArgumentException(String.format(
+                    "max lead must be between 0 and lease %d milliseconds, current max lead %d", this.leaseMillis, maxLeadMillis));
+        }
+        this.maxLeadMillis = maxLeadMillis;
+    }
+
+    @Override
+    public boolean isWorkerIdValid() {
+        return System.nanoTime() - this.validUntilNanos < 0;
+    }
+
+    /**
+     * 保留 workerId 直到已发出的时间戳都落后于时钟，之后由 redis 过期删除
+     */
+    @Override
+    public synchronized void release() {
+        this.cancelRenew();
+        if (this.workerId >= 0) {
+            this.validUntilNanos = System.nanoTime();
+            long maxLeadMillis = this.maxLeadMillis;
+            if (maxLeadMillis > 0) {
+                this.stringRedisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(this.key(this.workerId)),
+                        this.token, String.valueOf(maxLeadMillis));
+            } else {
+                this.stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(this.key(this.workerId)), this.token);
+            }
+            this.workerId = -1;
+        }
+        this.renewExecutor.shutdown();
+    }
+
+    /**
+     * 从随机位置开始依次抢占空闲 workerId
+     *
+     * @param exclude 不参与抢占的 workerId
+     * @return workerId
+     */
+    private long acquire(long exclude) {
+        long start = RandomUtil.randomInt(0, (int) WORKER_ID_MAX_VALUE);
+        for (long i = 0; i < WORKER_ID_MAX_VALUE; i++) {
+            long candidate = (start + i) % WORKER_ID_MAX_VALUE;
+            if (candidate == exclude) {
+                continue;
+            }
+            long sentAt = System.nanoTime();
+            Boolean acquired = this.stringRedisTemplate.opsForValue()
+                    .setIfAbsent(this.key(candidate), this.token, this.leaseMillis, TimeUnit.MILLISECONDS);
+            if (acquired != null && acquired) {
+                log.info("获取workerId租约成功 namespace:{} workerId:{}", this.namespace, candidate);
+                this.renewed(sentAt);
+                this.workerId = candidate;
+                long period = Math.max(this.leaseMillis / 3, 1);
+                this.renewFuture = this.renewExecutor.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("no free worker id in namespace " + this.namespace);
+    }
+
+    private void renew() {
+        long current = this.workerId;
+        if (current < 0) {
+            this.takeover(current);
+            return;
+        }
+        try {
+            long sentAt = System.nanoTime();
+            Long renewed = this.stringRedisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(this.key(current)),
+                    this.token, String.valueOf(this.leaseMillis));
+            if (renewed != null && renewed != 0) {
+                this.renewed(sentAt);
+                return;
+            }
+            // 租约已过期，尝试原样找回
+            sentAt = System.nanoTime();
+            Boolean acquired = this.stringRedisTemplate.opsForValue()
+                    .setIfAbsent(this.key(current), this.token, this.leaseMillis, TimeUnit.MILLISECONDS);
+            if (acquired != null && acquired) {
+                this.renewed(sentAt);
+            } else {
+                log.error("workerId租约丢失且已被其他实例占用 namespace:{} workerId:{}", this.namespace, current);
+                this.takeover(current);
+            }
+        } catch (Exception e) {
+            log.warn("workerId续约失败 namespace:{} workerId:{}", this.namespace, current, e);
+        }
+    }
+
+    /**
+     * 续约成功，可发号到 发出命令时间 + 租期 - 时间戳领先上限
+     *
+     * @param sentAt 发出命令前的 nanoTime
+     */
+    private void renewed(long sentAt) {
+        this.validUntilNanos = sentAt + TimeUnit.MILLISECONDS.toNanos(this.leaseMillis - this.maxLeadMillis);
+    }
+
+    /**
+     * 租约被其他实例占用后重新抢占，抢占不到时通知生成器停止发号，并按续约周期继续重试
+     * 在锁外回调，避免与生成器回拨时持有的锁交叉
+     *
+     * @param lost 丢失的 workerId，-1 表示上一次重新抢占失败
+     */
+    private void takeover(long lost) {
+        Long next = this.reacquire(lost);
+        LongConsumer listener = this.workerIdListener;
+        if (next != null && listener != null) {
+            listener.accept(next);
+        }
+    }
+
+    private synchronized Long reacquire(long lost) {
+        if (this.workerId != lost || this.renewExecutor.isShutdown()) {
+            return null;
+        }
+        this.cancelRenew();
+        this.workerId = -1;
+        try {
+            return this.acquire(lost);
+        } catch (Exception e) {
+            log.error("workerId重新抢占失败，停止发号 namespace:{}", this.namespace, e);
+            long period = Math.max(this.leaseMillis / 3, 1);
+            this.renewFuture = this.renewExecutor.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+            return -1L;
+        }
+    }
+
+    private void cancelRenew() {
+        if (this.renewFuture != null) {
+            this.renewFuture.cancel(false);
+            this.renewFuture = null;
+        }
+    }
+
+    private String key(long workerId) {
+        return WORKER_ID_KEY + this.namespace + ":" + workerId;
+    }
+}
@@ -4,77 +4,317 @@ import com.google.common.base.Preconditions;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @Author: ls
  * @Description: 雪花算法
+ * 无锁实现：每条通道把 (时间戳 - EPOCH) 与序列号打包进一个 long，通过 CAS 推进；
+ * 当前毫秒序列号用尽时直接进位借用下一毫秒，不再自旋等待时钟
  * @Date: 2023/4/10 09:53
  */
-@SuppressWarnings("all")
 public class SnowFlowerIdGenerator {
 
     /**
      * Start time intercept (Thu, 04 Nov 2010 01:42:54 GMT)
      */
     public static final long EPOCH = 1288834974657L;
-    
+
     private static final long SEQUENCE_BITS = 12L;
-    
+
     private static final long WORKER_ID_BITS = 10L;
-    
+
     private static final long SEQUENCE_MASK = 4095L;
-    
+
     private static final long WORKER_ID_LEFT_SHIFT_BITS = 12L;
-    
+
     private static final long TIMESTAMP_LEFT_SHIFT_BITS = 22L;
-    
+
     private static final long WORKER_ID_MAX_VALUE = 1024L;
-    private long workerId;
-    private long sequence;
-    private long lastTime;
-    private long currentId;
-
-
-    public synchronized long nextId() {
-        long currentMillis = System.currentTimeMillis();
-        Preconditions.checkState(this.lastTime <= currentMillis,
-                "Clock is moving backwards, last time is %d milliseconds, current time is %d milliseconds",
-                new Object[]{this.lastTime, currentMillis});
-        if (this.lastTime == currentMillis) {
-            if (0L == (this.sequence = ++this.sequence & 4095L)) {
-                currentMillis = this.waitUntilNextTime(currentMillis);
-            }
-        } else {
-            this.sequence = 0L;
+
+    /**
+     * 分配器丢失 workerId 后的占位
+     */
+    private static final long NO_WORKER_ID = -1L;
+
+    /**
+     * 最大通道数，每条通道至少保留 16 个序列号
+     */
+    private static final int MAX_LANES = 256;
+
+    /**
+     * 默认允许逻辑时钟领先系统时钟的毫秒数
+     */
+    public static final long DEFAULT_MAX_BORROW_MILLIS = 1000L;
+
+    /**
+     * 通道状态在数组中的间隔，避免不同通道落在同一缓存行
+     */
+    private static final int PADDING = 16;
+
+    private final int lanes;
+
+    private final int laneMask;
+
+    /**
+     * 每条通道可用的序列号位数
+     */
+    private final long laneSequenceBits;
+
+    /**
+     * workerId 与通道状态一起发布，重新分配 workerId 时整体替换，避免新旧 workerId 与时间线交错
+     */
+    private volatile Worker worker;
+
+    private volatile WorkerIdAssigner workerIdAssigner;
+
+    private volatile long maxBorrowMillis = DEFAULT_MAX_BORROW_MILLIS;
+
+    public SnowFlowerIdGenerator() {
+        this(1);
+    }
+
+    /**
+     * 分条带模式，序列号位按通道均分，线程按ID散列到各自通道，互不竞争
+     * 同一通道内ID单调递增，跨通道仅保证唯一
+     *
+     * @param lanes 通道数，必须为2的幂且不超过256
+     */
+    public SnowFlowerIdGenerator(int lanes) {
+        if (lanes <= 0 || lanes > MAX_LANES || (lanes & (lanes - 1)) != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "lanes must be a power of 2 between 1 and %d, current lanes %d", MAX_LANES, lanes));
         }
+        this.lanes = lanes;
+        this.laneMask = lanes - 1;
+        this.laneSequenceBits = SEQUENCE_BITS - Integer.numberOfTrailingZeros(lanes);
+        this.worker = new Worker(0L, lanes);
+    }
 
-        this.lastTime = currentMillis;
-        this.currentId = currentMillis - EPOCH << 22 | workerId << 12 | this.sequence;
+    public long nextId() {
+        int lane = currentLane();
+        for (; ; ) {
+            Worker current = this.worker;
+            long packed = reserve(current, lane, 1);
+            if (packed >= 0) {
+                return compose(current, lane, packed);
+            }
+        }
+    }
 
-        return currentId;
+    /**
+     * 按通道每毫秒容量分段预留连续序列号，每段一次 CAS
+     * 批量超出借用上限时分摊到后续毫秒，等待时钟而不是把逻辑时钟推到上限之外
+     *
+     * @param n 数量
+     * @return 按生成顺序排列的ID
+     */
+    public long[] nextIds(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be greater than 0, current n " + n);
+        }
+        int lane = currentLane();
+        int chunk = 1 << laneSequenceBits;
+        long[] ids = new long[n];
+        int filled = 0;
+        while (filled < n) {
+            int size = Math.min(chunk, n - filled);
+            Worker current = this.worker;
+            long last = reserve(current, lane, size);
+            if (last < 0) {
+                continue;
+            }
+            for (int i = 0; i < size; i++) {
+                ids[filled + i] = compose(current, lane, last - (size - 1 - i));
+            }
+            filled += size;
+        }
+        return ids;
     }
 
     public Map<Object, Object> info() {
         Map<Object, Object> info = new HashMap<>(4);
-        info.put("currentId", currentId);
-        info.put("workerId", workerId);
+        Worker current = this.worker;
+        info.put("currentId", compose(current, 0, current.states.get(0)));
+        info.put("workerId", current.workerId);
+        info.put("lanes", lanes);
         return info;
     }
 
-    public void initialize(long workerId) {
-        if (workerId > WORKER_ID_MAX_VALUE || workerId < 0) {
+    /**
+     * 使用相同 workerId 重新初始化时沿用当前通道状态，保留已借用的时间，避免ID被再次发放
+     *
+     * @param workerId workerId
+     */
+    public synchronized void initialize(long workerId) {
+        if (workerId >= WORKER_ID_MAX_VALUE || workerId < 0) {
             throw new IllegalArgumentException(String.format(
                     "worker Id can't be greater than %d or less than 0, current workId %d",
-                    WORKER_ID_MAX_VALUE, workerId));
+                    WORKER_ID_MAX_VALUE - 1, workerId));
+        }
+        if (this.worker.workerId == workerId) {
+            return;
         }
-        this.workerId = workerId;
+        this.worker = new Worker(workerId, lanes);
     }
 
-    private long waitUntilNextTime(long lastTimestamp) {
-        long time = System.currentTimeMillis();
-        while (time <= lastTimestamp) {
-            time = System.currentTimeMillis();
+    /**
+     * 通过分配器获取 workerId，时钟回拨超出可借用范围时会向分配器重新申请
+     *
+     * @param workerIdAssigner workerId 分配器
+     */
+    public synchronized void initialize(WorkerIdAssigner workerIdAssigner) {
+        workerIdAssigner.setMaxLeadMillis(this.maxBorrowMillis);
+        this.initialize(workerIdAssigner.assignWorkerId());
+        this.workerIdAssigner = workerIdAssigner;
+        workerIdAssigner.setWorkerIdListener(workerId -> this.onWorkerIdChanged(workerIdAssigner, workerId));
+    }
+
+    /**
+     * 停止发号并释放 workerId
+     * 先等待时钟越过已发出的最大时间戳再交给分配器释放，重启后或其他实例使用同一 workerId 时不会与已发出的ID重叠
+     */
+    public synchronized void release() {
+        Worker released = this.worker;
+        this.worker = new Worker(NO_WORKER_ID, lanes);
+        // 切换前读到旧 worker 的线程可能仍在预留，重新扫描直到没有更晚的时间戳
+        for (long last = this.lastTime(released); ; ) {
+            long ahead = last - (System.currentTimeMillis() - EPOCH);
+            if (ahead >= 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead + 1));
+                continue;
+            }
+            long rescanned = this.lastTime(released);
+            if (rescanned == last) {
+                break;
+            }
+            last = rescanned;
+        }
+        WorkerIdAssigner assigner = this.workerIdAssigner;
+        this.workerIdAssigner = null;
+        if (assigner != null) {
+            assigner.release();
+        }
+    }
+
+    /**
+     * 设置逻辑时钟最多可以领先系统时钟的毫秒数
+     * 时钟小幅回拨或序列号借用都在此范围内吸收；借用达到上限时休眠等待时钟，时钟一次回拨超过上限才视为时钟回拨
+     * 停机时应调用 {@link #release()}，等待领先部分被时钟追上后再释放 workerId；
+     * 未经 release 直接重启且沿用同一 workerId（static、host 分配）时，两次运行之间须间隔超过此时长
+     *
+     * @param maxBorrowMillis 毫秒
+     */
+    public synchronized void setMaxBorrowMillis(long maxBorrowMillis) {
+        if (this.workerIdAssigner != null) {
+            this.workerIdAssigner.setMaxLeadMillis(maxBorrowMillis);
+        }
+        this.maxBorrowMillis = maxBorrowMillis;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * 推进通道状态
+     *
+     * @param worker 当前 worker
+     * @param lane   通道
+     * @param n      需要的序列号数量
+     * @return 预留段中最后一个打包值，workerId 已被替换时返回 -1
+     */
+    private long reserve(Worker worker, int lane, int n) {
+        Preconditions.checkState(worker.workerId != NO_WORKER_ID, "worker id is released, or its lease is lost and no worker id is available");
+        WorkerIdAssigner assigner = this.workerIdAssigner;
+        Preconditions.checkState(assigner == null || assigner.isWorkerIdValid(), "worker id lease is expired and can't be renewed");
+        AtomicLongArray states = worker.states;
+        int index = lane * PADDING;
+        for (; ; ) {
+            long current = states.get(index);
+            long currentMillis = System.currentTimeMillis() - EPOCH;
+            long lastTime = current >>> laneSequenceBits;
+            if (lastTime - currentMillis > maxBorrowMillis) {
+                this.reassign(worker, lastTime, currentMillis);
+                return -1;
+            }
+            // 序列号溢出时自然进位到下一毫秒
+            long next = currentMillis > lastTime ? (currentMillis << laneSequenceBits) + n - 1 : current + n;
+            long ahead = (next >>> laneSequenceBits) - currentMillis;
+            if (ahead > maxBorrowMillis) {
+                // 借用达到上限说明生成速度超过时钟，休眠到时钟追上
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead - maxBorrowMillis));
+                continue;
+            }
+            if (states.compareAndSet(index, current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 分配器发现 workerId 被其他实例占用，-1 表示没有可用 workerId，发号失败直到再次分配
+     */
+    private synchronized void onWorkerIdChanged(WorkerIdAssigner source, long workerId) {
+        if (source != this.workerIdAssigner) {
+            return;
+        }
+        if (workerId < 0) {
+            this.worker = new Worker(NO_WORKER_ID, lanes);
+            return;
+        }
+        this.initialize(workerId);
+    }
+
+    /**
+     * 时钟回拨，没有分配器时保持原有的异常行为
+     */
+    private synchronized void reassign(Worker observed, long lastTime, long currentMillis) {
+        if (observed != this.worker) {
+            return;
+        }
+        Preconditions.checkState(this.workerIdAssigner != null,
+                "Clock is moving backwards, last time is %s milliseconds, current time is %s milliseconds",
+                lastTime + EPOCH, currentMillis + EPOCH);
+        long newWorkerId = this.workerIdAssigner.reassignWorkerId(observed.workerId, lastTime - currentMillis);
+        Preconditions.checkState(newWorkerId != observed.workerId,
+                "Clock is moving backwards and worker id can't be reassigned, last time is %s milliseconds, current time is %s milliseconds",
+                lastTime + EPOCH, currentMillis + EPOCH);
+        this.initialize(newWorkerId);
+    }
+
+    private long lastTime(Worker worker) {
+        long last = 0;
+        for (int lane = 0; lane < lanes; lane++) {
+            last = Math.max(last, worker.states.get(lane * PADDING) >>> laneSequenceBits);
+        }
+        return last;
+    }
+
+    private long compose(Worker worker, int lane, long packed) {
+        long time = packed >>> laneSequenceBits;
+        long sequence = ((long) lane << laneSequenceBits) | (packed & (SEQUENCE_MASK >>> (SEQUENCE_BITS - laneSequenceBits)));
+        return time << TIMESTAMP_LEFT_SHIFT_BITS | worker.workerId << WORKER_ID_LEFT_SHIFT_BITS | sequence;
+    }
+
+    private int currentLane() {
+        return lanes == 1 ? 0 : (int) (Thread.currentThread().getId() & laneMask);
+    }
+
+    private static final class Worker {
+
+        private final long workerId;
+
+        /**
+         * 通道状态：(时间戳 - EPOCH) << laneSequenceBits | 通道内序列号
+         */
+        private final AtomicLongArray states;
+
+        private Worker(long workerId, int lanes) {
+            this.workerId = workerId;
+            this.states = new AtomicLongArray(lanes * PADDING);
         }
-        return time;
     }
 }
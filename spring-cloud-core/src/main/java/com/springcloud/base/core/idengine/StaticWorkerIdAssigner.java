@@ -0,0 +1,20 @@
+package com.springcloud.base.core.idengine;
+
+/**
+ * @Author: ls
+ * @Description: 固定 workerId，一般来自配置文件
+ * @Date: 2023/4/10 09:53
+ */
+public class StaticWorkerIdAssigner implements WorkerIdAssigner {
+
+    private final long workerId;
+
+    public StaticWorkerIdAssigner(long workerId) {
+        this.workerId = workerId;
+    }
+
+    @Override
+    public long assignWorkerId() {
+        return workerId;
+    }
+}
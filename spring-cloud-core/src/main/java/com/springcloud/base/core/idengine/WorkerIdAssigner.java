@@ -0,0 +1,65 @@
+package com.springcloud.base.core.idengine;
+
+import java.util.function.LongConsumer;
+
+/**
+ * @Author: ls
+ * @Description: 雪花算法 workerId 分配器
+ * @Date: 2023/4/10 09:53
+ */
+public interface WorkerIdAssigner {
+
+    /**
+     * 分配 workerId
+     *
+     * @return workerId 0 ~ 1023
+     */
+    long assignWorkerId();
+
+    /**
+     * 时钟回拨超出可借用范围时重新分配 workerId
+     * 默认实现无法更换，返回原值后由生成器按时钟回拨处理
+     *
+     * @param oldWorkerId     当前使用的 workerId
+     * @param backwardsMillis 回拨的毫秒数
+     * @return 新的 workerId
+     */
+    default long reassignWorkerId(long oldWorkerId, long backwardsMillis) {
+        return oldWorkerId;
+    }
+
+    /**
+     * 注册 workerId 变更回调，分配器发现 workerId 已被其他实例占用时通过回调通知生成器
+     * 回调参数为 -1 表示暂时没有可用的 workerId，生成器应停止发号直到再次回调
+     * 默认实现的 workerId 不会被动变更，忽略回调
+     *
+     * @param listener 回调
+     */
+    default void setWorkerIdListener(LongConsumer listener) {
+    }
+
+    /**
+     * 设置生成器发出的时间戳最多领先系统时钟的毫秒数
+     * 有租期的分配器据此提前停止发号并在释放后继续保留 workerId，保证其他实例接手时已越过本实例发出的时间戳
+     *
+     * @param maxLeadMillis 毫秒
+     */
+    default void setMaxLeadMillis(long maxLeadMillis) {
+    }
+
+    /**
+     * 当前 workerId 是否仍可用于发号，生成器每次发号前检查
+     * 默认实现的 workerId 不会过期
+     *
+     * @return 是否可用
+     */
+    default boolean isWorkerIdValid() {
+        return true;
+    }
+
+    /**
+     * 释放占用的 workerId
+     */
+    default void release() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.springcloud.base.core.page;
+
+import java.util.List;
+
+/**
+ * @Author: ls
+ * @Description: 游标分页回调
+ * 实现方按排序键查询 {@code where key > lastKey order by key limit limit}
+ * @Date: 2023/1/28 11:01
+ */
+@FunctionalInterface
+public interface KeysetExecuteCallback<S, K> {
+
+    /**
+     * 查询下一页
+     *
+     * @param lastKey 上一页最后一条数据的排序键，第一页为null
+     * @param limit   查询条数
+     * @return 数据
+     */
+    List<S> execute(K lastKey, long limit);
+}
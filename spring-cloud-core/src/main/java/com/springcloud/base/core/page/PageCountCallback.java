@@ -0,0 +1,17 @@
+package com.springcloud.base.core.page;
+
+/**
+ * @Author: ls
+ * @Description: 分页总数查询回调
+ * @Date: 2023/1/28 11:01
+ */
+@FunctionalInterface
+public interface PageCountCallback {
+
+    /**
+     * 查询总条数
+     *
+     * @return 总条数
+     */
+    long count();
+}
@@ -0,0 +1,173 @@
+package com.springcloud.base.core.page;
+
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 分页总数统计方式
+ * 并行统计在独立线程中执行，事务、数据源切换等线程上下文不会传递给总数查询
+ * @Date: 2023/1/28 11:01
+ */
+public class PageCountOption {
+
+    /**
+     * 总数未统计
+     */
+    public static final long UNKNOWN_TOTAL = -1L;
+
+    private static final PageCountOption SEARCH_COUNT = new PageCountOption(Mode.SEARCH_COUNT, null, null, 0L);
+
+    private static final PageCountOption SKIP = new PageCountOption(Mode.SKIP, null, null, 0L);
+
+    /**
+     * 缓存条数上限，超出时先清理过期条目
+     */
+    private static final int MAX_CACHED_COUNTS = 1024;
+
+    private static final Map<String, CachedCount> CACHED_COUNTS = new ConcurrentHashMap<>();
+
+    private final Mode mode;
+
+    private final PageCountCallback countCallback;
+
+    private final String cacheKey;
+
+    private final long ttlMillis;
+
+    private PageCountOption(Mode mode, PageCountCallback countCallback, String cacheKey, long ttlMillis) {
+        this.mode = mode;
+        this.countCallback = countCallback;
+        this.cacheKey = cacheKey;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 由 MyBatis-Plus 分页插件在数据查询前统计，游标分页下不统计
+     *
+     * @return 统计方式
+     */
+    public static PageCountOption searchCount() {
+        return SEARCH_COUNT;
+    }
+
+    /**
+     * 不统计总数，total 为 {@link #UNKNOWN_TOTAL}
+     *
+     * @return 统计方式
+     */
+    public static PageCountOption skip() {
+        return SKIP;
+    }
+
+    /**
+     * 与数据查询并行统计
+     *
+     * @param countCallback 总数查询
+     * @return 统计方式
+     */
+    public static PageCountOption parallel(PageCountCallback countCallback) {
+        return new PageCountOption(Mode.PARALLEL, countCallback, null, 0L);
+    }
+
+    /**
+     * 总数按key缓存，未命中时与数据查询并行统计
+     *
+     * @param cacheKey      缓存key，一般由查询条件拼接
+     * @param ttlMillis     缓存时间 毫秒
+     * @param countCallback 总数查询
+     * @return 统计方式
+     */
+    public static PageCountOption cached(String cacheKey, long ttlMillis, PageCountCallback countCallback) {
+        return new PageCountOption(Mode.CACHED, countCallback, cacheKey, ttlMillis);
+    }
+
+    /**
+     * 是否交给分页插件统计
+     *
+     * @return 是否交给分页插件统计
+     */
+    boolean isSearchCount() {
+        return this.mode == Mode.SEARCH_COUNT;
+    }
+
+    /**
+     * 开始统计，需要并行时立即提交到统计线程池
+     *
+     * @return 总数，不统计时为 {@link #UNKNOWN_TOTAL}
+     */
+    CompletableFuture<Long> start() {
+        switch (this.mode) {
+            case PARALLEL:
+                return CompletableFuture.supplyAsync(this.countCallback::count, CountExecutorHolder.EXECUTOR);
+            case CACHED:
+                long now = System.currentTimeMillis();
+                CachedCount cachedCount = CACHED_COUNTS.get(this.cacheKey);
+                if (cachedCount != null && cachedCount.expireAt > now) {
+                    return CompletableFuture.completedFuture(cachedCount.total);
+                }
+                return CompletableFuture.supplyAsync(this.countCallback::count, CountExecutorHolder.EXECUTOR)
+                        .thenApply(total -> {
+                            this.cache(total);
+                            return total;
+                        });
+            default:
+                return CompletableFuture.completedFuture(UNKNOWN_TOTAL);
+        }
+    }
+
+    private void cache(long total) {
+        long now = System.currentTimeMillis();
+        if (CACHED_COUNTS.size() >= MAX_CACHED_COUNTS) {
+            Iterator<CachedCount> iterator = CACHED_COUNTS.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expireAt <= now) {
+                    iterator.remove();
+                }
+            }
+            if (CACHED_COUNTS.size() >= MAX_CACHED_COUNTS) {
+                CACHED_COUNTS.clear();
+            }
+        }
+        CACHED_COUNTS.put(this.cacheKey, new CachedCount(total, now + this.ttlMillis));
+    }
+
+    private enum Mode {
+
+        SEARCH_COUNT, SKIP, PARALLEL, CACHED
+    }
+
+    private static final class CachedCount {
+
+        private final long total;
+
+        private final long expireAt;
+
+        private CachedCount(long total, long expireAt) {
+            this.total = total;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 统计线程池，首次并行统计时创建；队列满时由调用线程执行，退化为串行
+     */
+    private static final class CountExecutorHolder {
+
+        private static final Executor EXECUTOR = new ThreadPoolExecutor(
+                Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * 2,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(256),
+                ThreadFactoryBuilder.create().setNamePrefix("page-count-").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,63 @@
+package com.springcloud.base.core.page;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springcloud.base.core.exception.DefaultException;
+import com.springcloud.base.core.json.JsonConfiguration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * @Author: ls
+ * @Description: 游标分页的游标编码，排序键序列化为JSON后做 URL 安全的 Base64 编码
+ * 组合排序键可使用数组、List或简单对象
+ * @Date: 2023/1/28 11:01
+ */
+@Slf4j
+public class PageCursor {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        JsonConfiguration.initConfiguration(PageCursor.OBJECT_MAPPER);
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param key 排序键
+     * @return 游标
+     */
+    public static String encode(Object key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(key));
+        } catch (IOException e) {
+            log.error(e.getLocalizedMessage());
+            throw DefaultException.defaultException("分页游标编码异常");
+        }
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor   游标
+     * @param keyClass 排序键类型
+     * @param <K>      排序键类型
+     * @return 排序键，游标为空时返回null
+     */
+    public static <K> K decode(String cursor, Class<K> keyClass) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), keyClass);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("分页游标解码失败:{}", cursor);
+            throw DefaultException.defaultException("分页游标无效");
+        }
+    }
+}
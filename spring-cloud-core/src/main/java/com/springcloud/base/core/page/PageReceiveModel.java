@@ -17,6 +17,9 @@ public class PageReceiveModel {
     @ApiModelProperty("每页展示条数")
     private Integer pageLimit;
 
+    @ApiModelProperty("游标，游标分页时传入上一页返回的nextCursor，第一页不传")
+    private String cursor;
+
     public Integer getPageStart() {
         return pageStart != null ? pageStart : 1;
     }
@@ -32,4 +35,12 @@ public class PageReceiveModel {
     public void setPageLimit(Integer pageLimit) {
         this.pageLimit = pageLimit;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
 }
@@ -29,6 +29,9 @@ public class PageResultModel<T> implements Serializable {
     @ApiModelProperty("数据")
     private List<T> data;
 
+    @ApiModelProperty("下一页游标，游标分页时返回，没有下一页时为空")
+    private String nextCursor;
+
     public PageResultModel() {
     }
 
@@ -60,6 +63,7 @@ public class PageResultModel<T> implements Serializable {
         prm.setSize(this.getSize());
         prm.setData(this.getData());
         prm.setCurrent(this.current);
+        prm.setNextCursor(this.nextCursor);
         return prm;
     }
 }
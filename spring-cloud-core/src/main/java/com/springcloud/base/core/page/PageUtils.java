@@ -5,7 +5,11 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.springcloud.base.core.bean.BeanWrapper;
 import com.springcloud.base.core.bean.ObjectCastHandler;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 /**
  * @Author: ls
@@ -68,6 +72,7 @@ public class PageUtils {
         pageResult.setCurrent(page.getCurrent());
         pageResult.setSize(page.getSize());
         pageResult.setTotal(page.getTotal());
+        pageResult.setNextCursor(page.getNextCursor());
         List<T> tList = BeanWrapper.arrCastTo(page.getData(), tClass);
         pageResult.setData(tList);
         return pageResult;
@@ -87,6 +92,7 @@ public class PageUtils {
         pageResult.setCurrent(page.getCurrent());
         pageResult.setSize(page.getSize());
         pageResult.setTotal(page.getTotal());
+        pageResult.setNextCursor(page.getNextCursor());
 
         List<T> tList = BeanWrapper.arrCastTo(page.getData(), tClass, objectCastHandler);
         pageResult.setData(tList);
@@ -131,4 +137,92 @@ public class PageUtils {
     public static <S> PageResultModel<S> execute(PageReceiveModel pageReceiveModel, PageExecuteCallback<S> executeCallback) {
         return execute(pageReceiveModel != null ? pageReceiveModel.getPageStart() : 1L, pageReceiveModel != null ? pageReceiveModel.getPageLimit() : 15L, executeCallback);
     }
+
+    /**
+     * 直接封装SQL执行过程，指定总数统计方式
+     * 非 {@link PageCountOption#searchCount()} 时关闭分页插件的总数查询，由统计方式决定并行、跳过或缓存
+     *
+     * @param pageReceiveModel 分页对象
+     * @param countOption      总数统计方式
+     * @param executeCallback  回调函数
+     * @param <S>              泛型对象
+     * @return 封装好的分页对象
+     */
+    public static <S> PageResultModel<S> execute(PageReceiveModel pageReceiveModel, PageCountOption countOption, PageExecuteCallback<S> executeCallback) {
+        if (countOption.isSearchCount()) {
+            return execute(pageReceiveModel, executeCallback);
+        }
+        Page<S> page = new Page<>();
+        page.setCurrent(pageReceiveModel != null ? pageReceiveModel.getPageStart() : 1L);
+        page.setSize(pageReceiveModel != null ? pageReceiveModel.getPageLimit() : 15L);
+        page.setSearchCount(false);
+
+        CompletableFuture<Long> total = countOption.start();
+        IPage<S> iPage = executeCallback.execute(page);
+
+        PageResultModel<S> pageResult = new PageResultModel<>();
+        pageResult.setCurrent(page.getCurrent());
+        pageResult.setSize(page.getSize());
+        pageResult.setTotal(join(total));
+        pageResult.setData(iPage.getRecords());
+
+        return pageResult;
+    }
+
+    /**
+     * 游标分页，按排序键定位下一页，不受页码深度影响
+     * 多查询一条判断是否还有下一页，有则返回 nextCursor；总数默认不统计
+     *
+     * @param pageReceiveModel 分页对象，cursor 为上一页返回的 nextCursor
+     * @param keyClass         排序键类型
+     * @param keyExtractor     从数据中取排序键
+     * @param executeCallback  回调函数
+     * @param <S>              泛型对象
+     * @param <K>              排序键类型
+     * @return 封装好的分页对象
+     */
+    public static <S, K> PageResultModel<S> executeKeyset(PageReceiveModel pageReceiveModel, Class<K> keyClass,
+                                                          Function<S, K> keyExtractor, KeysetExecuteCallback<S, K> executeCallback) {
+        return executeKeyset(pageReceiveModel, PageCountOption.skip(), keyClass, keyExtractor, executeCallback);
+    }
+
+    /**
+     * 游标分页，指定总数统计方式
+     *
+     * @param pageReceiveModel 分页对象，cursor 为上一页返回的 nextCursor
+     * @param countOption      总数统计方式
+     * @param keyClass         排序键类型
+     * @param keyExtractor     从数据中取排序键
+     * @param executeCallback  回调函数
+     * @param <S>              泛型对象
+     * @param <K>              排序键类型
+     * @return 封装好的分页对象
+     */
+    public static <S, K> PageResultModel<S> executeKeyset(PageReceiveModel pageReceiveModel, PageCountOption countOption, Class<K> keyClass,
+                                                          Function<S, K> keyExtractor, KeysetExecuteCallback<S, K> executeCallback) {
+        long limit = pageReceiveModel != null ? pageReceiveModel.getPageLimit() : 15L;
+        K lastKey = PageCursor.decode(pageReceiveModel != null ? pageReceiveModel.getCursor() : null, keyClass);
+
+        CompletableFuture<Long> total = countOption.start();
+        List<S> records = executeCallback.execute(lastKey, limit + 1);
+
+        PageResultModel<S> pageResult = new PageResultModel<>();
+        pageResult.setSize(limit);
+        if (records.size() > limit) {
+            records = new ArrayList<>(records.subList(0, (int) limit));
+            pageResult.setNextCursor(PageCursor.encode(keyExtractor.apply(records.get(records.size() - 1))));
+        }
+        pageResult.setTotal(join(total));
+        pageResult.setData(records);
+
+        return pageResult;
+    }
+
+    private static long join(CompletableFuture<Long> total) {
+        try {
+            return total.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
 }
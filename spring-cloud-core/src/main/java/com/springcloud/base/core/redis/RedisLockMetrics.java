@@ -0,0 +1,101 @@
+package com.springcloud.base.core.redis;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: ls
+ * @Description: redis锁统计，等待时间与持有时间单位为毫秒
+ * @Date: 2023/4/10 14:41
+ */
+public class RedisLockMetrics {
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder timeout = new LongAdder();
+
+    private final LongAdder renewed = new LongAdder();
+
+    private final LongAdder lost = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    private final LongAdder holdNanos = new LongAdder();
+
+    private final LongAccumulator maxHoldNanos = new LongAccumulator(Math::max, 0L);
+
+    void recordAcquired(long waitNanos) {
+        this.acquired.increment();
+        this.waitNanos.add(waitNanos);
+        this.maxWaitNanos.accumulate(waitNanos);
+    }
+
+    void recordTimeout(long waitNanos) {
+        this.timeout.increment();
+        this.waitNanos.add(waitNanos);
+        this.maxWaitNanos.accumulate(waitNanos);
+    }
+
+    void recordReleased(long holdNanos) {
+        this.holdNanos.add(holdNanos);
+        this.maxHoldNanos.accumulate(holdNanos);
+    }
+
+    void recordRenewed() {
+        this.renewed.increment();
+    }
+
+    void recordLost() {
+        this.lost.increment();
+    }
+
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeout.sum();
+    }
+
+    public long getRenewedCount() {
+        return renewed.sum();
+    }
+
+    public long getLostCount() {
+        return lost.sum();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    public long getTotalHoldMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(holdNanos.sum());
+    }
+
+    public long getMaxHoldMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxHoldNanos.get());
+    }
+
+    public Map<Object, Object> info() {
+        Map<Object, Object> info = new HashMap<>(16);
+        info.put("acquiredCount", getAcquiredCount());
+        info.put("timeoutCount", getTimeoutCount());
+        info.put("renewedCount", getRenewedCount());
+        info.put("lostCount", getLostCount());
+        info.put("totalWaitMillis", getTotalWaitMillis());
+        info.put("maxWaitMillis", getMaxWaitMillis());
+        info.put("totalHoldMillis", getTotalHoldMillis());
+        info.put("maxHoldMillis", getMaxHoldMillis());
+        return info;
+    }
+}
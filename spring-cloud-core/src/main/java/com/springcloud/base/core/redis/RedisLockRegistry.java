@@ -0,0 +1,149 @@
+package com.springcloud.base.core.redis;
+
+import com.google.common.collect.MapMaker;
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * @Author: ls
+ * @Description: redis可重入锁的注册中心
+ * 持有续约线程与释放通知的订阅，同一应用共用一个实例即可
+ * 释放锁时向 {@link #RELEASE_CHANNEL} 发布锁的key，本地等待该key的线程被立即唤醒，不再按固定间隔轮询
+ * @Date: 2023/4/10 14:41
+ */
+public class RedisLockRegistry implements DisposableBean {
+
+    static final String REDIS_LOCK = "_REDIS_LOCK:";
+
+    static final String RELEASE_CHANNEL = "_REDIS_LOCK_RELEASE";
+
+    /**
+     * 默认租期 毫秒
+     */
+    public static final long DEFAULT_LEASE_MILLIS = 30000L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final long leaseMillis;
+
+    private final RedisLockMetrics metrics = new RedisLockMetrics();
+
+    private final ScheduledExecutorService watchdog;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * 使用中的锁实例，不再被引用后自动回收，保证同一个key的重入作用于同一实例
+     */
+    private final ConcurrentMap<String, RedisReentrantLock> locks = new MapMaker().weakValues().makeMap();
+
+    /**
+     * redis key -> 本地等待该 key 的线程
+     */
+    private final Map<String, Set<RedisReentrantLock.Waiter>> waiters = new ConcurrentHashMap<>();
+
+    public RedisLockRegistry(StringRedisTemplate stringRedisTemplate) {
+        this(stringRedisTemplate, DEFAULT_LEASE_MILLIS);
+    }
+
+    /**
+     * @param stringRedisTemplate redis
+     * @param leaseMillis         租期 毫秒，持有期间由看门狗按租期的 1/3 续约
+     */
+    public RedisLockRegistry(StringRedisTemplate stringRedisTemplate, long leaseMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.leaseMillis = leaseMillis;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.create().setNamePrefix("redis-lock-watchdog-").setDaemon(true).build());
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(stringRedisTemplate.getConnectionFactory());
+        this.listenerContainer.addMessageListener(
+                (message, pattern) -> this.signal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RELEASE_CHANNEL));
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    /**
+     * 获取锁
+     *
+     * @param lockKey 锁的关键字
+     * @return 锁
+     */
+    public RedisReentrantLock getLock(String lockKey) {
+        return this.getMultiLock(lockKey);
+    }
+
+    /**
+     * 获取多key锁，所有key在一个脚本中同时加锁，要么全部成功要么全部失败
+     * redis集群下所有key需落在同一个slot，可使用 {xxx} 形式的hash tag
+     *
+     * @param lockKeys 锁的关键字
+     * @return 锁
+     */
+    public RedisReentrantLock getMultiLock(String... lockKeys) {
+        String[] keys = Arrays.stream(lockKeys).distinct().sorted().map(key -> REDIS_LOCK + key).toArray(String[]::new);
+        return this.locks.computeIfAbsent(String.join("\n", keys), key -> new RedisReentrantLock(this, keys));
+    }
+
+    public RedisLockMetrics getMetrics() {
+        return metrics;
+    }
+
+    StringRedisTemplate getStringRedisTemplate() {
+        return stringRedisTemplate;
+    }
+
+    long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    ScheduledExecutorService getWatchdog() {
+        return watchdog;
+    }
+
+    void register(List<String> keys, RedisReentrantLock.Waiter waiter) {
+        for (String key : keys) {
+            this.waiters.compute(key, (k, set) -> {
+                Set<RedisReentrantLock.Waiter> current = set != null ? set : ConcurrentHashMap.newKeySet();
+                current.add(waiter);
+                return current;
+            });
+        }
+    }
+
+    void unregister(List<String> keys, RedisReentrantLock.Waiter waiter) {
+        for (String key : keys) {
+            this.waiters.computeIfPresent(key, (k, set) -> {
+                set.remove(waiter);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private void signal(String key) {
+        Set<RedisReentrantLock.Waiter> set = this.waiters.get(key);
+        if (set != null) {
+            set.forEach(RedisReentrantLock.Waiter::signal);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.watchdog.shutdownNow();
+        this.listenerContainer.destroy();
+    }
+}
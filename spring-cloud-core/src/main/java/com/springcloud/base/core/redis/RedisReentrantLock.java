@@ -0,0 +1,302 @@
+package com.springcloud.base.core.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @Author: ls
+ * @Description: redis可重入锁
+ * 同一实例内由本地 {@link ReentrantLock} 负责重入与本地排队，只有第一次加锁和最后一次解锁访问redis；
+ * 持有期间看门狗按租期的 1/3 续约，等待时订阅释放通知，收到通知、到达剩余租期或最多等待 {@link #MAX_PARK_MILLIS} 后再次尝试，
+ * 通知丢失（如订阅连接断开）时等待者也能及时重试
+ * 实例通过 {@link RedisLockRegistry#getLock(String)} 获取，同一个key在使用期间返回同一实例
+ * @Date: 2023/4/10 14:41
+ */
+@Slf4j
+public class RedisReentrantLock implements Lock {
+
+    /**
+     * 所有key都不存在时一起加锁，返回nil；否则返回第一个被占用key的剩余毫秒数
+     */
+    private static final DefaultRedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do " +
+                    "if redis.call('exists', KEYS[i]) == 1 then return redis.call('pttl', KEYS[i]) end " +
+                    "end " +
+                    "for i = 1, #KEYS do redis.call('set', KEYS[i], ARGV[1], 'px', ARGV[2]) end " +
+                    "return nil", Long.class);
+
+    private static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do " +
+                    "if redis.call('get', KEYS[i]) ~= ARGV[1] then return 0 end " +
+                    "end " +
+                    "for i = 1, #KEYS do redis.call('pexpire', KEYS[i], ARGV[2]) end " +
+                    "return 1", Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "local released = 0 " +
+                    "for i = 1, #KEYS do " +
+                    "if redis.call('get', KEYS[i]) == ARGV[1] then " +
+                    "redis.call('del', KEYS[i]) " +
+                    "redis.call('publish', ARGV[2], KEYS[i]) " +
+                    "released = released + 1 " +
+                    "end " +
+                    "end " +
+                    "return released", Long.class);
+
+    /**
+     * 每次等待的上限，避免错过释放通知后等到租期结束，key没有过期时间时同样适用
+     */
+    private static final long MAX_PARK_MILLIS = 100L;
+
+    private final RedisLockRegistry registry;
+
+    private final List<String> keys;
+
+    private final ReentrantLock local = new ReentrantLock();
+
+    /**
+     * 以下字段只由持有本地锁的线程写入，看门狗线程读取
+     */
+    private volatile String token;
+
+    private long acquiredNanos;
+
+    private volatile ScheduledFuture<?> renewal;
+
+    RedisReentrantLock(RedisLockRegistry registry, String... keys) {
+        this.registry = registry;
+        this.keys = Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * 获取锁，直到成功为止，等待期间的中断会在获取后恢复
+     */
+    @Override
+    public void lock() {
+        boolean interrupted = false;
+        for (; ; ) {
+            try {
+                this.acquire(-1L, false);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        this.acquire(-1L, true);
+    }
+
+    /**
+     * 只尝试一次，不等待
+     */
+    @Override
+    public boolean tryLock() {
+        try {
+            return this.acquire(0L, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        return this.acquire(Math.max(unit.toNanos(time), 0L), true);
+    }
+
+    /**
+     * 在指定时间点之前尝试获取锁
+     *
+     * @param deadlineMillis 截止时间 毫秒时间戳
+     * @return 是否获取成功
+     */
+    public boolean tryLockUntil(long deadlineMillis) throws InterruptedException {
+        return this.tryLock(deadlineMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 解锁，最后一次解锁时释放redis并通知等待者
+     */
+    @Override
+    public void unlock() {
+        if (!this.local.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException("当前线程未持有锁: " + this.keys);
+        }
+        try {
+            if (this.local.getHoldCount() == 1) {
+                this.release();
+            }
+        } finally {
+            this.local.unlock();
+        }
+    }
+
+    /**
+     * 不支持
+     */
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return this.local.isHeldByCurrentThread();
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    /**
+     * @param timeoutNanos 等待时间，小于0时一直等待
+     */
+    private boolean acquire(long timeoutNanos, boolean interruptible) throws InterruptedException {
+        long start = System.nanoTime();
+        if (!this.lockLocal(timeoutNanos, interruptible)) {
+            this.registry.getMetrics().recordTimeout(System.nanoTime() - start);
+            return false;
+        }
+        if (this.local.getHoldCount() > 1) {
+            return true;
+        }
+        boolean acquired = false;
+        try {
+            acquired = this.acquireRemote(start, timeoutNanos);
+        } finally {
+            if (!acquired) {
+                this.local.unlock();
+            }
+        }
+        long waitNanos = System.nanoTime() - start;
+        if (!acquired) {
+            this.registry.getMetrics().recordTimeout(waitNanos);
+            return false;
+        }
+        this.registry.getMetrics().recordAcquired(waitNanos);
+        this.acquiredNanos = System.nanoTime();
+        long period = Math.max(this.registry.getLeaseMillis() / 3, 1L);
+        this.renewal = this.registry.getWatchdog().scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private boolean lockLocal(long timeoutNanos, boolean interruptible) throws InterruptedException {
+        if (timeoutNanos < 0) {
+            if (interruptible) {
+                this.local.lockInterruptibly();
+            } else {
+                this.local.lock();
+            }
+            return true;
+        }
+        return timeoutNanos == 0 ? this.local.tryLock() : this.local.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean acquireRemote(long start, long timeoutNanos) throws InterruptedException {
+        String candidate = UUID.randomUUID().toString();
+        String lease = String.valueOf(this.registry.getLeaseMillis());
+        Long ttl = this.registry.getStringRedisTemplate().execute(ACQUIRE, this.keys, candidate, lease);
+        if (ttl == null) {
+            this.token = candidate;
+            return true;
+        }
+        Waiter waiter = new Waiter();
+        // 先登记再重试，避免两次尝试之间的释放通知丢失
+        this.registry.register(this.keys, waiter);
+        try {
+            for (; ; ) {
+                ttl = this.registry.getStringRedisTemplate().execute(ACQUIRE, this.keys, candidate, lease);
+                if (ttl == null) {
+                    this.token = candidate;
+                    return true;
+                }
+                long parkMillis = ttl >= 0 ? Math.min(Math.max(ttl, 1L), MAX_PARK_MILLIS) : ttl == -1 ? MAX_PARK_MILLIS : 0L;
+                if (timeoutNanos >= 0) {
+                    long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    parkMillis = Math.min(parkMillis, Math.max(TimeUnit.NANOSECONDS.toMillis(remainingNanos), 1L));
+                }
+                if (parkMillis > 0) {
+                    waiter.await(parkMillis);
+                }
+            }
+        } finally {
+            this.registry.unregister(this.keys, waiter);
+        }
+    }
+
+    private void renew() {
+        String current = this.token;
+        if (current == null) {
+            return;
+        }
+        try {
+            Long renewed = this.registry.getStringRedisTemplate().execute(RENEW, this.keys, current,
+                    String.valueOf(this.registry.getLeaseMillis()));
+            if (renewed != null && renewed == 1L) {
+                this.registry.getMetrics().recordRenewed();
+            } else if (current.equals(this.token)) {
+                log.warn("redis锁续约失败，锁已丢失key:{}", this.keys);
+                this.registry.getMetrics().recordLost();
+                this.cancelRenewal();
+            }
+        } catch (Exception e) {
+            log.warn("redis锁续约异常key:{}", this.keys, e);
+        }
+    }
+
+    private void release() {
+        this.cancelRenewal();
+        String current = this.token;
+        this.token = null;
+        this.registry.getMetrics().recordReleased(System.nanoTime() - this.acquiredNanos);
+        this.registry.getStringRedisTemplate().execute(RELEASE, this.keys, current, RedisLockRegistry.RELEASE_CHANNEL);
+    }
+
+    private void cancelRenewal() {
+        ScheduledFuture<?> future = this.renewal;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 等待释放通知，通知先于等待到达时不会丢失
+     */
+    static final class Waiter {
+
+        private boolean signalled;
+
+        synchronized void signal() {
+            this.signalled = true;
+            this.notifyAll();
+        }
+
+        synchronized void await(long millis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + millis;
+            long remaining = millis;
+            while (!this.signalled && remaining > 0) {
+                this.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            this.signalled = false;
+        }
+    }
+}
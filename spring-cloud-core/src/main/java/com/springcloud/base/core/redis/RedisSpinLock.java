@@ -1,20 +1,20 @@
 package com.springcloud.base.core.redis;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.connection.ReturnType;
-import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.util.StringUtils;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Objects;
+import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 /**
  * @Author: ls
  * @Description: 自旋锁
+ * 需要等待、重入或自动续约时使用 {@link RedisLockRegistry}
  * @Date: 2023/4/10 14:41
  */
 @Slf4j
@@ -28,6 +28,12 @@ public class RedisSpinLock {
 
     public static final StringRedisSerializer UTF_8 = new StringRedisSerializer(StandardCharsets.UTF_8);
 
+    /**
+     * 脚本只加载一次，之后通过 EVALSHA 执行
+     */
+    private static final DefaultRedisScript<Long> UN_LOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
     /**
      * 锁的关键字
      */
@@ -120,15 +126,7 @@ public class RedisSpinLock {
      */
     public void unLock() {
         if (StringUtils.hasText(this.redisLockValue)) {
-            String luaScript = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
-            stringRedisTemplate.execute((RedisCallback<Boolean>) connection -> {
-                connection.eval(Objects.requireNonNull(UTF_8.serialize(luaScript)),
-                        ReturnType.INTEGER,
-                        1,
-                        UTF_8.serialize(this.redisLockKey),
-                        UTF_8.serialize(this.redisLockValue));
-                return true;
-            });
+            stringRedisTemplate.execute(UN_LOCK, Collections.singletonList(this.redisLockKey), this.redisLockValue);
         }
     }
 
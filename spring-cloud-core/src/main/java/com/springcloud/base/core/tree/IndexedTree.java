@@ -0,0 +1,179 @@
+package com.springcloud.base.core.tree;
+
+import com.springcloud.base.core.exception.DefaultException;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: 带索引的树，支持单个节点的新增、移动、删除而不重建整棵树
+ * 节点的子节点集合与索引共用同一个列表，修改索引即修改树；最大层级限制只在构建时生效
+ * 非线程安全
+ * @Date: 2023/1/28 11:04
+ */
+public class IndexedTree<MODEL extends TreeModel<MODEL>> {
+
+    private final Serializable root;
+
+    private final Comparator<? super MODEL> comparator;
+
+    private final Map<Serializable, MODEL> byId;
+
+    /**
+     * 父级ID -> 子节点列表，父级不存在的孤儿节点也保留在这里，父级加入后自动挂载
+     */
+    private final Map<Serializable, List<MODEL>> byParent;
+
+    /**
+     * 节点ID -> 加入树时的父级ID，移动前调用方可能已修改节点上的父级ID
+     */
+    private final Map<Serializable, Serializable> parentOf;
+
+    IndexedTree(Serializable root, Comparator<? super MODEL> comparator,
+                Map<Serializable, MODEL> byId, Map<Serializable, List<MODEL>> byParent) {
+        this.root = root;
+        this.comparator = comparator;
+        this.byId = byId;
+        this.byParent = byParent;
+        this.parentOf = new HashMap<>(byId.size() * 4 / 3 + 1);
+        for (MODEL node : byId.values()) {
+            this.parentOf.put(node.getId(), node.getParentId());
+        }
+    }
+
+    /**
+     * 获取根节点列表
+     *
+     * @return 根节点列表
+     */
+    public List<MODEL> getRoots() {
+        return this.byParent.get(this.root);
+    }
+
+    /**
+     * 获取节点
+     *
+     * @param id 节点ID
+     * @return 节点，不存在时返回null
+     */
+    public MODEL getNode(Serializable id) {
+        return this.byId.get(id);
+    }
+
+    /**
+     * 新增节点
+     *
+     * @param node 节点
+     */
+    public void add(MODEL node) {
+        if (this.byId.containsKey(node.getId())) {
+            throw DefaultException.defaultException("树节点ID重复: " + node.getId());
+        }
+        this.byId.put(node.getId(), node);
+        List<MODEL> children = this.byParent.get(node.getId());
+        if (children != null) {
+            node.setChildren(children);
+        }
+        this.attach(node);
+    }
+
+    /**
+     * 移动节点，节点的父级ID需已修改为新的父级
+     * 传入新的对象时会替换原节点并保留其子节点
+     *
+     * @param node 节点
+     */
+    public void move(MODEL node) {
+        MODEL previous = this.byId.get(node.getId());
+        if (previous == null) {
+            throw DefaultException.defaultException("树节点不存在: " + node.getId());
+        }
+        for (Serializable current = node.getParentId(); current != null && !current.equals(this.root); ) {
+            if (current.equals(node.getId())) {
+                throw DefaultException.defaultException("树节点存在循环引用: " + node.getId());
+            }
+            current = this.parentOf.get(current);
+        }
+        this.detach(previous);
+        if (previous != node) {
+            this.byId.put(node.getId(), node);
+            List<MODEL> children = this.byParent.get(node.getId());
+            if (children != null) {
+                node.setChildren(children);
+            }
+        }
+        this.attach(node);
+    }
+
+    /**
+     * 删除节点及其所有子节点
+     *
+     * @param id 节点ID
+     * @return 被删除的节点，不存在时返回null
+     */
+    public MODEL remove(Serializable id) {
+        MODEL node = this.byId.get(id);
+        if (node == null) {
+            return null;
+        }
+        this.detach(node);
+        Deque<Serializable> pending = new ArrayDeque<>();
+        pending.push(id);
+        while (!pending.isEmpty()) {
+            Serializable current = pending.pop();
+            this.byId.remove(current);
+            this.parentOf.remove(current);
+            List<MODEL> children = this.byParent.remove(current);
+            if (children != null) {
+                for (MODEL child : children) {
+                    pending.push(child.getId());
+                }
+            }
+        }
+        return node;
+    }
+
+    private void attach(MODEL node) {
+        Serializable parentId = node.getParentId();
+        this.parentOf.put(node.getId(), parentId);
+        if (parentId == null) {
+            return;
+        }
+        List<MODEL> siblings = this.byParent.get(parentId);
+        if (siblings == null) {
+            siblings = new ArrayList<>();
+            this.byParent.put(parentId, siblings);
+            MODEL parent = this.byId.get(parentId);
+            if (parent != null) {
+                parent.setChildren(siblings);
+            }
+        }
+        if (this.comparator == null) {
+            siblings.add(node);
+        } else {
+            int index = Collections.binarySearch(siblings, node, this.comparator);
+            siblings.add(index < 0 ? -index - 1 : index, node);
+        }
+    }
+
+    private void detach(MODEL node) {
+        List<MODEL> siblings = this.byParent.get(this.parentOf.get(node.getId()));
+        if (siblings != null) {
+            // 按引用删除，避免 equals 相同的其他节点被误删
+            for (int i = 0; i < siblings.size(); i++) {
+                if (siblings.get(i) == node) {
+                    siblings.remove(i);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.springcloud.base.core.tree;
+
+import com.springcloud.base.core.bean.BeanWrapper;
+import com.springcloud.base.core.exception.DefaultException;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @Author: ls
+ * @Description: 树形结构构造器
+ * 先按父级ID建立索引，再从根节点逐层挂载子节点，整体 O(n)
+ * 节点数达到并行阈值时，复制、分组、排序与逐层挂载都在 ForkJoin 公共池中并行执行
+ * @Date: 2023/1/28 11:04
+ */
+public class TreeBuilder<MODEL extends TreeModel<MODEL>> {
+
+    /**
+     * 根节点的父级ID
+     */
+    private final Serializable root;
+
+    /**
+     * 是否先复制节点，默认true，与 {@link TreeUtils#build(Collection, Serializable)} 原有行为一致
+     */
+    private boolean copy = true;
+
+    /**
+     * 同级节点排序
+     */
+    private Comparator<? super MODEL> comparator;
+
+    /**
+     * 最大层级，根节点为第1层，默认不限制
+     */
+    private int maxDepth = Integer.MAX_VALUE;
+
+    /**
+     * 节点数达到该值时并行构建，默认不并行
+     */
+    private int parallelThreshold = Integer.MAX_VALUE;
+
+    private TreeBuilder(Serializable root) {
+        this.root = root;
+    }
+
+    /**
+     * 创建{@code TreeBuilder}
+     *
+     * @param root 根节点的父级ID
+     * @return {@code TreeBuilder}
+     */
+    public static <MODEL extends TreeModel<MODEL>> TreeBuilder<MODEL> create(Serializable root) {
+        return new TreeBuilder<>(root);
+    }
+
+    /**
+     * 设置是否先复制节点，关闭后直接在传入的节点上挂载子节点
+     *
+     * @param copy 是否复制
+     * @return this
+     */
+    public TreeBuilder<MODEL> setCopy(boolean copy) {
+        this.copy = copy;
+        return this;
+    }
+
+    /**
+     * 设置同级节点排序
+     *
+     * @param comparator 排序
+     * @return this
+     */
+    public TreeBuilder<MODEL> setComparator(Comparator<? super MODEL> comparator) {
+        this.comparator = comparator;
+        return this;
+    }
+
+    /**
+     * 设置最大层级，超出层级的节点不会挂载
+     *
+     * @param maxDepth 最大层级
+     * @return this
+     */
+    public TreeBuilder<MODEL> setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * 设置并行构建的节点数阈值
+     *
+     * @param parallelThreshold 节点数阈值
+     * @return this
+     */
+    public TreeBuilder<MODEL> setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+        return this;
+    }
+
+    /**
+     * 构建树
+     *
+     * @param treeNodes 传入的树节点列表
+     * @return 根节点列表
+     */
+    public List<MODEL> build(Collection<MODEL> treeNodes) {
+        return this.buildIndexed(treeNodes).getRoots();
+    }
+
+    /**
+     * 构建可增量维护的树
+     *
+     * @param treeNodes 传入的树节点列表
+     * @return 带索引的树
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedTree<MODEL> buildIndexed(Collection<MODEL> treeNodes) {
+        boolean parallel = treeNodes.size() >= this.parallelThreshold;
+
+        List<MODEL> nodes = this.copy
+                ? stream(treeNodes, parallel).map(node -> (MODEL) BeanWrapper.castTo(node, node.getClass())).collect(Collectors.toList())
+                : new ArrayList<>(treeNodes);
+
+        Map<Serializable, MODEL> byId = new HashMap<>(nodes.size() * 4 / 3 + 1);
+        for (MODEL node : nodes) {
+            if (byId.put(node.getId(), node) != null) {
+                throw DefaultException.defaultException("树节点ID重复: " + node.getId());
+            }
+        }
+
+        Map<Serializable, List<MODEL>> byParent = stream(nodes, parallel)
+                .filter(node -> node.getParentId() != null)
+                .collect(Collectors.groupingBy(TreeModel::getParentId, LinkedHashMap::new, Collectors.toList()));
+        if (this.comparator != null) {
+            stream(byParent.values(), parallel).forEach(children -> children.sort(this.comparator));
+        }
+
+        List<MODEL> roots = byParent.computeIfAbsent(this.root, key -> new ArrayList<>());
+        Set<Serializable> visited = parallel ? ConcurrentHashMap.newKeySet(nodes.size()) : new HashSet<>(nodes.size() * 4 / 3 + 1);
+
+        List<MODEL> level = roots;
+        for (int depth = 1; !level.isEmpty() && depth < this.maxDepth; depth++) {
+            level = stream(level, parallel && level.size() > 1)
+                    .flatMap(node -> {
+                        if (!visited.add(node.getId())) {
+                            throw DefaultException.defaultException("树节点存在循环引用: " + node.getId());
+                        }
+                        List<MODEL> children = byParent.get(node.getId());
+                        if (children == null) {
+                            return Stream.empty();
+                        }
+                        node.setChildren(children);
+                        return children.stream();
+                    })
+                    .collect(Collectors.toList());
+        }
+
+        if (this.maxDepth == Integer.MAX_VALUE && visited.size() < nodes.size()) {
+            checkCycle(byId, visited);
+        }
+        return new IndexedTree<>(this.root, this.comparator, byId, byParent);
+    }
+
+    /**
+     * 未挂载的节点沿父级链向上查找，回到当前链路上的节点即为循环引用
+     * 父级不存在的孤儿节点与原有行为一致，直接忽略
+     */
+    private static <MODEL extends TreeModel<MODEL>> void checkCycle(Map<Serializable, MODEL> byId, Set<Serializable> visited) {
+        Set<Serializable> resolved = new HashSet<>(visited);
+        for (Serializable id : byId.keySet()) {
+            Set<Serializable> path = new HashSet<>();
+            Serializable current = id;
+            while (current != null && !resolved.contains(current) && byId.containsKey(current)) {
+                if (!path.add(current)) {
+                    throw DefaultException.defaultException("树节点存在循环引用: " + current);
+                }
+                current = byId.get(current).getParentId();
+            }
+            resolved.addAll(path);
+        }
+    }
+
+    private static <E> Stream<E> stream(Collection<E> collection, boolean parallel) {
+        return parallel ? collection.parallelStream() : collection.stream();
+    }
+}
@@ -1,11 +1,8 @@
 package com.springcloud.base.core.tree;
 
-import com.springcloud.base.core.bean.BeanWrapper;
-import lombok.SneakyThrows;
-
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -16,38 +13,37 @@ import java.util.List;
 public class TreeUtils {
 
     /**
-     * 两层循环实现建树
+     * 按父级ID索引建树，节点会先复制一份
      *
      * @param treeNodes 传入的树节点列表
+     * @param root      根节点的父级ID
      * @return 树形结构
      */
-    @SneakyThrows
-    @SuppressWarnings("unchecked")
     public static <PK extends Serializable, MODEL extends TreeModel<MODEL>> List<MODEL> build(Collection<MODEL> treeNodes, PK root) {
+        return TreeBuilder.<MODEL>create(root).build(treeNodes);
+    }
 
-        List<MODEL> trees = new ArrayList<>();
-        List<MODEL> caches = new ArrayList<>();
-
-        for (MODEL treeNode : treeNodes) {
-            MODEL cacheModel = (MODEL) BeanWrapper.castTo(treeNode, treeNode.getClass());
-            caches.add(cacheModel);
-        }
-
-        for (MODEL treeNode : caches) {
-
-            if (root.equals(treeNode.getParentId())) {
-                trees.add(treeNode);
-            }
+    /**
+     * 按父级ID索引建树
+     *
+     * @param treeNodes 传入的树节点列表
+     * @param root      根节点的父级ID
+     * @param copy      是否先复制节点，为false时直接在传入的节点上挂载子节点
+     * @return 树形结构
+     */
+    public static <PK extends Serializable, MODEL extends TreeModel<MODEL>> List<MODEL> build(Collection<MODEL> treeNodes, PK root, boolean copy) {
+        return TreeBuilder.<MODEL>create(root).setCopy(copy).build(treeNodes);
+    }
 
-            for (MODEL it : caches) {
-                if (it.getParentId().equals(treeNode.getId())) {
-                    if (treeNode.getChildren() == null) {
-                        treeNode.setChildren(new ArrayList<>());
-                    }
-                    treeNode.getChildren().add(it);
-                }
-            }
-        }
-        return trees;
+    /**
+     * 按父级ID索引建树，同级节点排序
+     *
+     * @param treeNodes  传入的树节点列表
+     * @param root       根节点的父级ID
+     * @param comparator 同级节点排序
+     * @return 树形结构
+     */
+    public static <PK extends Serializable, MODEL extends TreeModel<MODEL>> List<MODEL> build(Collection<MODEL> treeNodes, PK root, Comparator<? super MODEL> comparator) {
+        return TreeBuilder.<MODEL>create(root).setComparator(comparator).build(treeNodes);
     }
 }
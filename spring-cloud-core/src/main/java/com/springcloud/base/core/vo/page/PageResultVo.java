@@ -25,6 +25,7 @@ public class PageResultVo<T> extends PageResultModel<T> implements Vo {
         pageResultVo.setCurrent(pageResultModel.getCurrent());
         pageResultVo.setSize(pageResultModel.getSize());
         pageResultVo.setTotal(pageResultModel.getTotal());
+        pageResultVo.setNextCursor(pageResultModel.getNextCursor());
         return pageResultVo;
     }
 }
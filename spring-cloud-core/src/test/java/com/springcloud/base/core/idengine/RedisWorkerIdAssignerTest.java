@@ -0,0 +1,208 @@
+package com.springcloud.base.core.idengine;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: ls
+ * @Description: redis 租约分配 workerId，基于 embedded redis
+ * @Date: 2023/4/10 14:41
+ */
+class RedisWorkerIdAssignerTest {
+
+    private static final String NAMESPACE = "test";
+
+    private static final long LEASE_MILLIS = 300L;
+
+    private static int port;
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final List<WorkerIdAssigner> assigners = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void releaseAll() {
+        assigners.forEach(WorkerIdAssigner::release);
+        stringRedisTemplate.delete(stringRedisTemplate.keys("_ID_ENGINE_WORKER:*"));
+    }
+
+    @Test
+    void assignsDistinctWorkerIdsAndReleasesThem() {
+        RedisWorkerIdAssigner first = newAssigner();
+        RedisWorkerIdAssigner second = newAssigner();
+        long firstId = first.assignWorkerId();
+        long secondId = second.assignWorkerId();
+
+        assertNotEquals(firstId, secondId);
+        assertEquals(firstId, first.assignWorkerId());
+        assertTrue(stringRedisTemplate.hasKey(key(firstId)));
+
+        first.setMaxLeadMillis(100);
+        first.release();
+        // 保留到已发出的时间戳都落后于时钟
+        assertTrue(stringRedisTemplate.hasKey(key(firstId)));
+        assertTrue(stringRedisTemplate.getExpire(key(firstId), TimeUnit.MILLISECONDS) <= 100);
+        assertTrue(stringRedisTemplate.hasKey(key(secondId)));
+        assertTrue(waitFor(() -> !stringRedisTemplate.hasKey(key(firstId))));
+    }
+
+    @Test
+    void rejectsLeadNotShorterThanLease() {
+        RedisWorkerIdAssigner assigner = newAssigner();
+        SnowFlowerIdGenerator generator = new SnowFlowerIdGenerator();
+
+        assertThrows(IllegalArgumentException.class, () -> generator.initialize(assigner));
+    }
+
+    @Test
+    void stopsGeneratingWhenLeaseCannotBeRenewed() throws InterruptedException {
+        LettuceConnectionFactory unreliable = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", port));
+        unreliable.afterPropertiesSet();
+        RedisWorkerIdAssigner assigner = new RedisWorkerIdAssigner(new StringRedisTemplate(unreliable), NAMESPACE, LEASE_MILLIS);
+        SnowFlowerIdGenerator generator = newGenerator(assigner);
+        generator.nextId();
+
+        // redis 不可达，续约持续失败
+        unreliable.destroy();
+        long start = System.currentTimeMillis();
+
+        assertTrue(waitFor(() -> {
+            try {
+                generator.nextId();
+                return false;
+            } catch (IllegalStateException e) {
+                return true;
+            }
+        }));
+        assertTrue(System.currentTimeMillis() - start <= LEASE_MILLIS);
+    }
+
+    @Test
+    void renewKeepsLeaseAlive() throws InterruptedException {
+        RedisWorkerIdAssigner assigner = newAssigner();
+        long workerId = assigner.assignWorkerId();
+
+        Thread.sleep(LEASE_MILLIS * 3);
+
+        assertTrue(stringRedisTemplate.hasKey(key(workerId)));
+    }
+
+    @Test
+    void switchesWorkerIdWhenLeaseIsTakenByAnotherInstance() throws InterruptedException {
+        RedisWorkerIdAssigner assigner = newAssigner();
+        SnowFlowerIdGenerator generator = newGenerator(assigner);
+        long original = workerIdOf(generator.nextId());
+
+        stringRedisTemplate.opsForValue().set(key(original), "another-instance");
+
+        assertTrue(waitFor(() -> workerIdOf(generator.nextId()) != original));
+        assertEquals("another-instance", stringRedisTemplate.opsForValue().get(key(original)));
+    }
+
+    @Test
+    void stopsGeneratingWhenNoWorkerIdIsAvailable() throws InterruptedException {
+        RedisWorkerIdAssigner assigner = newAssigner();
+        SnowFlowerIdGenerator generator = newGenerator(assigner);
+        long original = workerIdOf(generator.nextId());
+
+        for (long i = 0; i < 1024; i++) {
+            stringRedisTemplate.opsForValue().set(key(i), "another-instance");
+        }
+
+        assertTrue(waitFor(() -> {
+            try {
+                generator.nextId();
+                return false;
+            } catch (IllegalStateException e) {
+                return true;
+            }
+        }));
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        long freed = (original + 1) % 1024;
+        stringRedisTemplate.delete(key(freed));
+
+        assertTrue(waitFor(() -> {
+            try {
+                return workerIdOf(generator.nextId()) == freed;
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        }));
+    }
+
+    private RedisWorkerIdAssigner newAssigner() {
+        RedisWorkerIdAssigner assigner = new RedisWorkerIdAssigner(stringRedisTemplate, NAMESPACE, LEASE_MILLIS);
+        assigners.add(assigner);
+        return assigner;
+    }
+
+    /**
+     * 时间戳领先上限须小于租期
+     */
+    private static SnowFlowerIdGenerator newGenerator(RedisWorkerIdAssigner assigner) {
+        SnowFlowerIdGenerator generator = new SnowFlowerIdGenerator();
+        generator.setMaxBorrowMillis(LEASE_MILLIS / 6);
+        generator.initialize(assigner);
+        return generator;
+    }
+
+    private static String key(long workerId) {
+        return "_ID_ENGINE_WORKER:" + NAMESPACE + ":" + workerId;
+    }
+
+    private static long workerIdOf(long id) {
+        return (id >> 12) & 0x3FF;
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + LEASE_MILLIS * 10;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,503 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.http.exception.HttpException;
+import com.spring.cloud.base.utils.Assert;
+import com.spring.cloud.base.utils.exception.IORuntimeException;
+import com.spring.cloud.base.utils.file.FileResource;
+import com.spring.cloud.base.utils.interf.StreamProgress;
+import com.spring.cloud.base.utils.map.Resource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author: ls
+ * @Description: 大文件分块并行上传
+ * 表单中只有一个文件且文件大于分块大小时，按分块大小切分文件，每块与表单中的其它字段组成一个multipart/form-data请求，
+ * 并附加上传ID（{@link #FIELD_UPLOAD_ID}）、块序号（{@link #FIELD_CHUNK}，从0开始）、总块数（{@link #FIELD_CHUNKS}）、
+ * 分块大小（{@link #FIELD_CHUNK_SIZE}）与文件大小（{@link #FIELD_TOTAL_SIZE}）字段，由服务端按上传ID与序号合并<br>
+ * <b>这是本项目自定义的协议，需要服务端配合</b>：普通的文件上传接口会把每块当作一个独立的文件，
+ * 服务端需按上述字段合并，可直接使用 {@link ChunkedUploadAssembler}，或按相同约定自行实现：
+ * 每块写入文件的 块序号×分块大小 位置，重复收到的分块覆盖写入，收到全部块后完成上传并响应；表单中的其它字段随每块重复发送<br>
+ * 除最后一块外各块并行上传，全部成功后再上传最后一块，最后一块的响应即整个请求的响应，服务端收到最后一块时即可合并<br>
+ * 分块读入池化的直接内存缓冲区，所有使用此实例的上传共用一个池，同时上传的分块数不超过并行数，
+ * 内存占用不超过“并行数 × 分块大小”，与文件大小无关；失败的分块单独重试，不影响其它分块
+ * <pre>
+ * HttpRequest.post(url)
+ *     .form("file", new File("/data/big.zip"))
+ *     .setChunkedUpload(ChunkedUpload.create().setParallelism(8))
+ *     .execute();
+ * </pre>
+ * @Date: 2023/5/25 14:20
+ */
+public class ChunkedUpload {
+
+    /**
+     * 默认分块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    /**
+     * 默认并行数
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * 上传ID字段，同一文件的各分块相同
+     */
+    public static final String FIELD_UPLOAD_ID = "uploadId";
+    /**
+     * 块序号字段，从0开始
+     */
+    public static final String FIELD_CHUNK = "chunk";
+    /**
+     * 总块数字段
+     */
+    public static final String FIELD_CHUNKS = "chunks";
+    /**
+     * 分块大小字段，除最后一块外每块的字节数
+     */
+    public static final String FIELD_CHUNK_SIZE = "chunkSize";
+    /**
+     * 文件大小字段
+     */
+    public static final String FIELD_TOTAL_SIZE = "totalSize";
+
+    /**
+     * 请求未设置Chunked模式时分块请求使用的块大小，也是写出分块时的复制缓冲大小
+     */
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    private int retries = 2;
+
+    private Executor executor;
+
+    private StreamProgress progress;
+
+    private BufferPool pool;
+
+    /**
+     * 创建默认的分块上传
+     *
+     * @return ChunkedUpload
+     */
+    public static ChunkedUpload create() {
+        return new ChunkedUpload();
+    }
+
+    /**
+     * 设置分块大小，文件不大于此值时不分块
+     *
+     * @param chunkSize 分块大小，单位：字节
+     * @return this
+     */
+    public ChunkedUpload setChunkSize(int chunkSize) {
+        Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * 设置并行数，即同时上传的最大分块数与缓冲区个数
+     *
+     * @param parallelism 并行数
+     * @return this
+     */
+    public ChunkedUpload setParallelism(int parallelism) {
+        Assert.isTrue(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * 设置每块失败后的重试次数，连接或读写错误，以及408、429与5xx状态码时重试<br>
+     * 请求的容错配置（{@link HttpRequest#setResilience}）不作用于各分块，分块只按此次数重试
+     *
+     * @param retries 重试次数
+     * @return this
+     */
+    public ChunkedUpload setRetries(int retries) {
+        this.retries = Math.max(0, retries);
+        return this;
+    }
+
+    /**
+     * 设置上传各分块的执行器
+     *
+     * @param executor 执行器，{@code null}表示使用请求的异步执行器
+     * @return this
+     * @see HttpConfig#setAsyncExecutor(Executor)
+     */
+    public ChunkedUpload setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * 设置进度，每块上传成功后回调，回调不会并发执行
+     *
+     * @param progress 进度
+     * @return this
+     */
+    public ChunkedUpload setProgress(StreamProgress progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * 表单是否需要分块上传
+     *
+     * @param form 表单
+     * @return 是否只有一个文件且文件大于分块大小
+     */
+    boolean isChunked(Map<String, Object> form) {
+        return null != fileEntry(form);
+    }
+
+    /**
+     * 分块上传表单
+     *
+     * @param request 请求
+     * @param config  请求的配置
+     * @param isAsync 最后一块是否异步读取响应
+     * @return 最后一块的响应
+     * @throws HttpException 任一分块重试后仍失败
+     */
+    HttpResponse upload(HttpRequest request, HttpConfig config, boolean isAsync) throws HttpException {
+        final Map.Entry<String, Object> fileEntry = fileEntry(request.form());
+        Assert.notNull(fileEntry, "Form has no file to upload in chunks");
+        final FileResource resource = (FileResource) fileEntry.getValue();
+        final Executor executor = null != this.executor ? this.executor
+                : null != config.asyncExecutor ? config.asyncExecutor : HttpGlobalConfig.getAsyncExecutor();
+        final int blockSize = config.blockSize > 0 ? config.blockSize : BLOCK_SIZE;
+        try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            return new Upload(this, request, blockSize, fileEntry.getKey(), resource, channel).run(executor, isAsync);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+    }
+
+    /**
+     * 获取缓冲池，分块大小或并行数变化后重新创建
+     */
+    private synchronized BufferPool pool() {
+        if (null == pool || pool.bufferSize != chunkSize || pool.capacity != parallelism) {
+            pool = new BufferPool(chunkSize, parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * 查找唯一的文件表单项
+     *
+     * @return 文件表单项，没有文件、有多个文件资源或文件不大于分块大小时返回{@code null}
+     */
+    private Map.Entry<String, Object> fileEntry(Map<String, Object> form) {
+        if (null == form) {
+            return null;
+        }
+        Map.Entry<String, Object> found = null;
+        for (Map.Entry<String, Object> entry : form.entrySet()) {
+            if (entry.getValue() instanceof Resource) {
+                if (null != found || false == entry.getValue() instanceof FileResource) {
+                    return null;
+                }
+                found = entry;
+            }
+        }
+        if (null == found || ((FileResource) found.getValue()).getFile().length() <= chunkSize) {
+            return null;
+        }
+        return found;
+    }
+
+    /**
+     * 一次分块上传
+     */
+    private static final class Upload {
+
+        private final HttpRequest request;
+
+        private final int blockSize;
+
+        private final String fieldName;
+
+        private final String fileName;
+
+        private final FileChannel channel;
+
+        private final long length;
+
+        private final int chunkSize;
+
+        private final int chunks;
+
+        private final int parallelism;
+
+        private final int retries;
+
+        private final StreamProgress progress;
+
+        private final BufferPool pool;
+
+        private final String uploadId = UUID.randomUUID().toString().replace("-", "");
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final AtomicLong uploaded = new AtomicLong();
+
+        private volatile boolean failed;
+
+        Upload(ChunkedUpload config, HttpRequest request, int blockSize, String fieldName, FileResource resource, FileChannel channel) throws IOException {
+            this.request = request;
+            this.blockSize = blockSize;
+            this.fieldName = fieldName;
+            this.fileName = resource.getName();
+            this.channel = channel;
+            this.length = channel.size();
+            this.pool = config.pool();
+            this.chunkSize = pool.bufferSize;
+            this.chunks = (int) ((length + chunkSize - 1) / chunkSize);
+            this.parallelism = pool.capacity;
+            this.retries = config.retries;
+            this.progress = config.progress;
+        }
+
+        HttpResponse run(Executor executor, boolean isAsync) {
+            if (null != progress) {
+                progress.start();
+            }
+            final int workers = Math.min(parallelism, chunks - 1);
+            final List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(CompletableFuture.runAsync(this::work, executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof HttpException ? (HttpException) cause : new HttpException(cause);
+            }
+            // 其它分块都已成功，最后一块的响应作为整个请求的响应
+            final HttpResponse response = send(chunks - 1, isAsync);
+            if (null != progress) {
+                progress.finish();
+            }
+            return response;
+        }
+
+        /**
+         * 依次领取并上传分块，直到只剩最后一块或有分块失败
+         */
+        private void work() {
+            int chunk;
+            while (false == failed && (chunk = next.getAndIncrement()) < chunks - 1) {
+                try {
+                    send(chunk, true).close();
+                } catch (RuntimeException e) {
+                    failed = true;
+                    throw e;
+                }
+            }
+        }
+
+        private HttpResponse send(int chunk, boolean isAsync) {
+            final ByteBuffer buffer = pool.acquire();
+            try {
+                read(chunk, buffer);
+                for (int attempt = 0; ; attempt++) {
+                    final HttpResponse response;
+                    try {
+                        response = chunkRequest(chunk, buffer).execute(isAsync);
+                    } catch (HttpException | IORuntimeException e) {
+                        if (attempt >= retries || failed) {
+                            throw e;
+                        }
+                        continue;
+                    }
+                    if (response.isOk()) {
+                        reportProgress(uploaded.addAndGet(buffer.remaining()));
+                        return response;
+                    }
+                    final int status = response.getStatus();
+                    response.close();
+                    if (attempt >= retries || failed || false == isRetryable(status)) {
+                        throw new HttpException("Upload chunk [{}/{}] of [{}] failed with status code: [{}]", chunk, chunks, fileName, status);
+                    }
+                }
+            } finally {
+                pool.release(buffer);
+            }
+        }
+
+        /**
+         * 按位置读取分块，多个分块可以并发读同一个通道
+         */
+        private void read(int chunk, ByteBuffer buffer) {
+            final long position = (long) chunk * chunkSize;
+            buffer.clear();
+            buffer.limit((int) Math.min(chunkSize, length - position));
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new EOFException("File [" + fileName + "] truncated at position " + (position + buffer.position()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new IORuntimeException(e);
+            }
+            buffer.flip();
+        }
+
+        private HttpRequest chunkRequest(int chunk, ByteBuffer buffer) {
+            final HttpRequest part = request.derive()
+                    .form(FIELD_UPLOAD_ID, uploadId)
+                    .form(FIELD_CHUNK, String.valueOf(chunk))
+                    .form(FIELD_CHUNKS, String.valueOf(chunks))
+                    .form(FIELD_CHUNK_SIZE, String.valueOf(chunkSize))
+                    .form(FIELD_TOTAL_SIZE, String.valueOf(length));
+            for (Map.Entry<String, Object> entry : request.form().entrySet()) {
+                if (false == fieldName.equals(entry.getKey())) {
+                    part.form(entry.getKey(), entry.getValue());
+                }
+            }
+            // 流方式上传，连接不再缓存一份分块内容
+            return part.form(fieldName, new ChunkResource(fileName, buffer)).setChunkedStreamingMode(blockSize);
+        }
+
+        private void reportProgress(long progressSize) {
+            if (null != progress) {
+                synchronized (progress) {
+                    progress.progress(length, progressSize);
+                }
+            }
+        }
+
+        private static boolean isRetryable(int status) {
+            return HttpStatus.HTTP_CLIENT_TIMEOUT == status || HttpStatus.HTTP_TOO_MANY_REQUESTS == status || status >= HttpStatus.HTTP_INTERNAL_ERROR;
+        }
+    }
+
+    /**
+     * 分块内容，从缓冲区写出，重试时可重复写出
+     */
+    private static final class ChunkResource implements Resource {
+
+        private final String name;
+
+        private final ByteBuffer buffer;
+
+        ChunkResource(String name, ByteBuffer buffer) {
+            this.name = name;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public URL getUrl() {
+            return null;
+        }
+
+        @Override
+        public InputStream getStream() {
+            final ByteBuffer source = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return source.hasRemaining() ? source.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (false == source.hasRemaining()) {
+                        return -1;
+                    }
+                    final int n = Math.min(len, source.remaining());
+                    source.get(b, off, n);
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IORuntimeException {
+            final ByteBuffer source = buffer.duplicate();
+            final byte[] scratch = new byte[Math.min(BLOCK_SIZE, source.remaining())];
+            try {
+                while (source.hasRemaining()) {
+                    final int n = Math.min(scratch.length, source.remaining());
+                    source.get(scratch, 0, n);
+                    out.write(scratch, 0, n);
+                }
+            } catch (IOException e) {
+                throw new IORuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * 直接内存缓冲池，缓冲区按需创建，最多创建 capacity 个，用尽时等待归还
+     */
+    private static final class BufferPool {
+
+        private final int bufferSize;
+
+        private final int capacity;
+
+        private final BlockingQueue<ByteBuffer> free;
+
+        private final AtomicInteger created = new AtomicInteger();
+
+        BufferPool(int bufferSize, int capacity) {
+            this.bufferSize = bufferSize;
+            this.capacity = capacity;
+            this.free = new ArrayBlockingQueue<>(capacity);
+        }
+
+        ByteBuffer acquire() {
+            final ByteBuffer buffer = free.poll();
+            if (null != buffer) {
+                return buffer;
+            }
+            if (created.incrementAndGet() <= capacity) {
+                return ByteBuffer.allocateDirect(bufferSize);
+            }
+            created.decrementAndGet();
+            try {
+                return free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HttpException(e);
+            }
+        }
+
+        void release(ByteBuffer buffer) {
+            buffer.clear();
+            free.offer(buffer);
+        }
+    }
+}
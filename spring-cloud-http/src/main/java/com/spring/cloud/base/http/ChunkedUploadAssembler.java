@@ -0,0 +1,380 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.utils.Assert;
+import com.spring.cloud.base.utils.str.StrUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * @Author: ls
+ * @Description: 分块上传的服务端合并，与 {@link ChunkedUpload} 配合使用
+ * 作为 {@link SimpleServer#addAction(String, Action)} 的处理器，按 {@link ChunkedUpload} 的分块字段将各块写入工作目录下
+ * 以上传ID命名的文件的对应位置，同一分块重复上传时覆盖写入；所有分块到齐后文件改名并回调 {@link CompleteHandler}，
+ * 由回调写出的响应即客户端收到的整个请求的响应，其余分块响应200<br>
+ * 不含分块字段的请求（文件不大于分块大小时客户端不分块）直接保存文件后回调；超过过期时间未完成的上传在之后的请求中清理<br>
+ * 总块数超过上限的请求响应413，未完成的上传数达到上限时新的上传响应503，已开始的上传不受影响
+ * <pre>
+ * new SimpleServer(8080)
+ *     .addAction("/upload", new ChunkedUploadAssembler(new File("/data/upload"), "file",
+ *         (request, response, form, file) -> response.write("OK")))
+ *     .start();
+ * </pre>
+ * @Date: 2023/5/25 14:20
+ */
+public class ChunkedUploadAssembler implements Action {
+
+    /**
+     * 默认未完成上传的过期时间，单位：毫秒
+     */
+    public static final long DEFAULT_EXPIRE = 60 * 60 * 1000L;
+    /**
+     * 默认单个上传的最大块数
+     */
+    public static final int DEFAULT_MAX_CHUNKS = 10000;
+    /**
+     * 默认同时进行的最大上传数
+     */
+    public static final int DEFAULT_MAX_ASSEMBLIES = 1000;
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final File workDir;
+
+    private final String fieldName;
+
+    private final CompleteHandler handler;
+
+    private final Map<String, Assembly> assemblies = new ConcurrentHashMap<>();
+
+    private UploadSetting uploadSetting = new UploadSetting();
+
+    private long expire = DEFAULT_EXPIRE;
+
+    private int maxChunks = DEFAULT_MAX_CHUNKS;
+
+    private int maxAssemblies = DEFAULT_MAX_ASSEMBLIES;
+
+    /**
+     * 构造
+     *
+     * @param workDir   工作目录，分块写入此目录，合并后的文件也在此目录中
+     * @param fieldName 文件字段名，与客户端表单中的文件字段名一致
+     * @param handler   上传完成的回调
+     */
+    public ChunkedUploadAssembler(File workDir, String fieldName, CompleteHandler handler) {
+        Assert.notNull(workDir, "workDir must not be null");
+        Assert.notBlank(fieldName, "fieldName must not be blank");
+        Assert.notNull(handler, "handler must not be null");
+        this.workDir = workDir;
+        this.fieldName = fieldName;
+        this.handler = handler;
+    }
+
+    /**
+     * 设置解析每个请求的上传设定，分块较大时应设置临时目录与内存阈值
+     *
+     * @param uploadSetting 上传设定
+     * @return this
+     */
+    public ChunkedUploadAssembler setUploadSetting(UploadSetting uploadSetting) {
+        Assert.notNull(uploadSetting, "uploadSetting must not be null");
+        this.uploadSetting = uploadSetting;
+        return this;
+    }
+
+    /**
+     * 设置未完成上传的过期时间，最后一次收到分块后超过此时间的上传被清理
+     *
+     * @param expire 过期时间，单位：毫秒
+     * @return this
+     */
+    public ChunkedUploadAssembler setExpire(long expire) {
+        Assert.isTrue(expire > 0, "expire must be positive");
+        this.expire = expire;
+        return this;
+    }
+
+    /**
+     * 设置单个上传的最大块数，与客户端的分块大小共同决定可上传的最大文件
+     *
+     * @param maxChunks 最大块数
+     * @return this
+     */
+    public ChunkedUploadAssembler setMaxChunks(int maxChunks) {
+        Assert.isTrue(maxChunks > 0, "maxChunks must be positive");
+        this.maxChunks = maxChunks;
+        return this;
+    }
+
+    /**
+     * 设置同时进行的最大上传数，即已收到分块但未完成且未过期的上传数
+     *
+     * @param maxAssemblies 最大上传数
+     * @return this
+     */
+    public ChunkedUploadAssembler setMaxAssemblies(int maxAssemblies) {
+        Assert.isTrue(maxAssemblies > 0, "maxAssemblies must be positive");
+        this.maxAssemblies = maxAssemblies;
+        return this;
+    }
+
+    @Override
+    public void doAction(HttpServerRequest request, HttpServerResponse response) throws IOException {
+        purgeExpired(System.currentTimeMillis());
+        if (false == request.isMultipart()) {
+            response.sendError(HttpStatus.HTTP_BAD_REQUEST, "multipart/form-data required");
+            return;
+        }
+        final MultipartFormData form = request.parseMultipart(uploadSetting);
+        final UploadFile upload = form.getFile(fieldName);
+        if (null == upload) {
+            response.sendError(HttpStatus.HTTP_BAD_REQUEST, "Missing file field: " + fieldName);
+            return;
+        }
+        if (null == form.getParam(ChunkedUpload.FIELD_UPLOAD_ID)) {
+            // 未分块，直接保存
+            final File file = new File(mkdirs(), UUID.randomUUID().toString().replace("-", ""));
+            upload.write(file);
+            handler.onComplete(request, response, form, file);
+            return;
+        }
+
+        final Chunk chunk;
+        try {
+            chunk = Chunk.of(form);
+        } catch (IllegalArgumentException e) {
+            upload.delete();
+            response.sendError(HttpStatus.HTTP_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (chunk.chunks > maxChunks) {
+            upload.delete();
+            response.sendError(HttpStatus.HTTP_ENTITY_TOO_LARGE,
+                    StrUtil.format("Upload of {} chunks exceeds the limit of {}", chunk.chunks, maxChunks));
+            return;
+        }
+        if (upload.size() != chunk.length()) {
+            upload.delete();
+            response.sendError(HttpStatus.HTTP_BAD_REQUEST,
+                    StrUtil.format("Chunk {} size {} does not match expected {}", chunk.index, upload.size(), chunk.length()));
+            return;
+        }
+
+        final Assembly assembly = assembly(chunk);
+        if (null == assembly) {
+            upload.delete();
+            response.sendError(HttpStatus.HTTP_UNAVAILABLE, "Too many uploads in progress");
+            return;
+        }
+        final File file;
+        // 分块内容已由解析表单读入内存或临时文件，锁内只有本地写入，避免写入与合并、清理并发
+        synchronized (assembly) {
+            if (assembly.done || false == assembly.matches(chunk)) {
+                upload.delete();
+                response.sendError(HttpStatus.HTTP_CONFLICT, "Upload " + chunk.uploadId + " does not match previous chunks");
+                return;
+            }
+            final File part = new File(mkdirs(), chunk.uploadId + PART_SUFFIX);
+            write(upload, part, chunk.position());
+            assembly.received.set(chunk.index);
+            assembly.touchedAt = System.currentTimeMillis();
+            if (assembly.received.cardinality() < chunk.chunks) {
+                response.sendOk();
+                return;
+            }
+            assembly.done = true;
+            assemblies.remove(chunk.uploadId, assembly);
+            file = new File(workDir, chunk.uploadId);
+            Files.move(part.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        handler.onComplete(request, response, form, file);
+    }
+
+    /**
+     * 获取上传的合并状态，新的上传在未完成的上传数达到上限时返回{@code null}<br>
+     * 只有新建时加锁，保证上限准确，已开始的上传直接获取
+     */
+    private Assembly assembly(Chunk chunk) {
+        final Assembly existing = assemblies.get(chunk.uploadId);
+        if (null != existing) {
+            return existing;
+        }
+        synchronized (assemblies) {
+            if (assemblies.size() >= maxAssemblies && false == assemblies.containsKey(chunk.uploadId)) {
+                return null;
+            }
+            return assemblies.computeIfAbsent(chunk.uploadId, key -> new Assembly(chunk));
+        }
+    }
+
+    /**
+     * 将分块写入文件的指定位置，写入后删除分块的临时文件
+     */
+    private static void write(UploadFile upload, File part, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(part.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             InputStream in = upload.getFileInputStream()) {
+            final byte[] buffer = new byte[64 * 1024];
+            long offset = position;
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                final ByteBuffer source = ByteBuffer.wrap(buffer, 0, n);
+                while (source.hasRemaining()) {
+                    offset += channel.write(source, offset);
+                }
+            }
+        } finally {
+            upload.delete();
+        }
+    }
+
+    private File mkdirs() throws IOException {
+        if (false == workDir.isDirectory() && false == workDir.mkdirs() && false == workDir.isDirectory()) {
+            throw new IOException("Can not create directory: " + workDir);
+        }
+        return workDir;
+    }
+
+    private void purgeExpired(long now) {
+        for (Iterator<Map.Entry<String, Assembly>> iterator = assemblies.entrySet().iterator(); iterator.hasNext(); ) {
+            final Map.Entry<String, Assembly> entry = iterator.next();
+            final Assembly assembly = entry.getValue();
+            synchronized (assembly) {
+                if (false == assembly.done && now - assembly.touchedAt > expire) {
+                    assembly.done = true;
+                    iterator.remove();
+                    new File(workDir, entry.getKey() + PART_SUFFIX).delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * 上传完成的回调
+     */
+    @FunctionalInterface
+    public interface CompleteHandler {
+
+        /**
+         * 所有分块到齐并合并后调用，在收到最后一个分块的请求中执行，写出的响应即客户端收到的响应
+         *
+         * @param request  收到最后一个分块的请求
+         * @param response 响应
+         * @param form     最后一个分块的表单，包含客户端表单中的其它字段
+         * @param file     合并后的文件，位于工作目录，由回调负责移走或删除
+         * @throws IOException IO异常
+         */
+        void onComplete(HttpServerRequest request, HttpServerResponse response, MultipartFormData form, File file) throws IOException;
+    }
+
+    /**
+     * 一个分块请求的分块字段
+     */
+    private static final class Chunk {
+
+        private final String uploadId;
+
+        private final int index;
+
+        private final int chunks;
+
+        private final long chunkSize;
+
+        private final long totalSize;
+
+        private Chunk(String uploadId, int index, int chunks, long chunkSize, long totalSize) {
+            this.uploadId = uploadId;
+            this.index = index;
+            this.chunks = chunks;
+            this.chunkSize = chunkSize;
+            this.totalSize = totalSize;
+        }
+
+        private static Chunk of(MultipartFormData form) {
+            final String uploadId = form.getParam(ChunkedUpload.FIELD_UPLOAD_ID);
+            if (false == UPLOAD_ID.matcher(uploadId).matches()) {
+                throw new IllegalArgumentException("Invalid " + ChunkedUpload.FIELD_UPLOAD_ID + ": " + uploadId);
+            }
+            final Chunk chunk = new Chunk(uploadId,
+                    (int) parse(form, ChunkedUpload.FIELD_CHUNK, Integer.MAX_VALUE),
+                    (int) parse(form, ChunkedUpload.FIELD_CHUNKS, Integer.MAX_VALUE),
+                    parse(form, ChunkedUpload.FIELD_CHUNK_SIZE, Long.MAX_VALUE),
+                    parse(form, ChunkedUpload.FIELD_TOTAL_SIZE, Long.MAX_VALUE));
+            if (chunk.chunks <= 0 || chunk.index >= chunk.chunks || chunk.chunkSize <= 0
+                    || chunk.chunks - 1 > (Long.MAX_VALUE - 1) / chunk.chunkSize
+                    || chunk.totalSize <= (chunk.chunks - 1) * chunk.chunkSize
+                    || chunk.totalSize - (chunk.chunks - 1) * chunk.chunkSize > chunk.chunkSize) {
+                throw new IllegalArgumentException(StrUtil.format("Invalid chunk {}/{} of size {}/{}",
+                        chunk.index, chunk.chunks, chunk.chunkSize, chunk.totalSize));
+            }
+            return chunk;
+        }
+
+        /**
+         * 解析非负整数字段，超出范围的值视为无效，不截断
+         */
+        private static long parse(MultipartFormData form, String name, long max) {
+            final String value = form.getParam(name);
+            try {
+                final long parsed = Long.parseLong(value);
+                if (parsed >= 0 && parsed <= max) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // 与超出范围一样处理
+            }
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+
+        private long position() {
+            return index * chunkSize;
+        }
+
+        private long length() {
+            return Math.min(chunkSize, totalSize - position());
+        }
+    }
+
+    /**
+     * 一次上传的合并状态
+     */
+    private static final class Assembly {
+
+        private final int chunks;
+
+        private final long chunkSize;
+
+        private final long totalSize;
+
+        private final BitSet received;
+
+        private long touchedAt = System.currentTimeMillis();
+
+        private boolean done;
+
+        private Assembly(Chunk chunk) {
+            this.chunks = chunk.chunks;
+            this.chunkSize = chunk.chunkSize;
+            this.totalSize = chunk.totalSize;
+            this.received = new BitSet(chunk.chunks);
+        }
+
+        private boolean matches(Chunk chunk) {
+            return chunks == chunk.chunks && chunkSize == chunk.chunkSize && totalSize == chunk.totalSize;
+        }
+    }
+}
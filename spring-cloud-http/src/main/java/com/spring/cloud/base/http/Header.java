@@ -117,6 +117,30 @@ public enum Header {
      * ETag
      */
     ETAG("ETag"),
+    /**
+     * 资源的最后修改时间
+     */
+    LAST_MODIFIED("Last-Modified"),
+    /**
+     * 请求实体的一部分，如 bytes=0-1023
+     */
+    RANGE("Range"),
+    /**
+     * 资源未变化时才按Range返回部分内容，否则返回完整内容，值为ETag或Last-Modified
+     */
+    IF_RANGE("If-Range"),
+    /**
+     * 部分内容在完整实体中的位置，如 bytes 0-1023/4096
+     */
+    CONTENT_RANGE("Content-Range"),
+    /**
+     * 服务端是否支持Range请求
+     */
+    ACCEPT_RANGES("Accept-Ranges"),
+    /**
+     * 服务端过载或限流时建议的重试等待时间，秒数或HTTP日期
+     */
+    RETRY_AFTER("Retry-After"),
     /**
      * 重定向指示到的URL
      */
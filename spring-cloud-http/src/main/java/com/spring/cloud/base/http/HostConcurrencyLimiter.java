@@ -0,0 +1,128 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.utils.Assert;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: ls
+ * @Description: 按目标主机限制异步请求的并发数
+ * 与 {@link java.util.concurrent.Semaphore} 不同，没有许可时任务进入该主机的等待队列而不阻塞线程，
+ * 有请求结束时按先进先出取出下一个任务，在归还许可的线程中启动；任务只负责把请求交给执行器，不应阻塞<br>
+ * 多个请求共用同一个实例才能起到限流作用，可通过 HttpGlobalConfig#setMaxConcurrentPerHost 设置全局实例
+ * @Date: 2023/5/23 09:40
+ */
+public class HostConcurrencyLimiter {
+
+    private final int maxPerHost;
+
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * 构造
+     *
+     * @param maxPerHost 每个主机的最大并发数
+     */
+    public HostConcurrencyLimiter(int maxPerHost) {
+        Assert.isTrue(maxPerHost > 0, "maxPerHost must be positive");
+        this.maxPerHost = maxPerHost;
+    }
+
+    /**
+     * 获取每个主机的最大并发数
+     *
+     * @return 最大并发数
+     */
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    /**
+     * 获取主机正在执行的请求数
+     *
+     * @param host 主机，格式为 scheme://host:port
+     * @return 正在执行的请求数
+     */
+    public int getActive(String host) {
+        final HostState state = hosts.get(host);
+        return null == state ? 0 : state.active();
+    }
+
+    /**
+     * 获取主机等待执行的请求数
+     *
+     * @param host 主机，格式为 scheme://host:port
+     * @return 等待执行的请求数
+     */
+    public int getQueued(String host) {
+        final HostState state = hosts.get(host);
+        return null == state ? 0 : state.queued();
+    }
+
+    /**
+     * 提交任务，有许可时立即启动，否则排队；任务结束后必须调用 {@link #release(String)}
+     *
+     * @param host  主机
+     * @param start 启动任务，不应阻塞
+     */
+    void submit(String host, Runnable start) {
+        final HostState state = hosts.computeIfAbsent(host, key -> new HostState());
+        if (state.acquireOrEnqueue(start, maxPerHost)) {
+            start.run();
+        }
+    }
+
+    /**
+     * 任务结束，许可交给下一个等待的任务
+     *
+     * @param host 主机
+     */
+    void release(String host) {
+        final HostState state = hosts.get(host);
+        if (null == state) {
+            return;
+        }
+        final Runnable next = state.releaseOrPoll();
+        if (null != next) {
+            next.run();
+        }
+    }
+
+    /**
+     * 单个主机的许可与等待队列
+     */
+    private static final class HostState {
+
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+        private int active;
+
+        synchronized boolean acquireOrEnqueue(Runnable task, int max) {
+            if (active < max) {
+                active++;
+                return true;
+            }
+            waiting.add(task);
+            return false;
+        }
+
+        synchronized Runnable releaseOrPoll() {
+            final Runnable next = waiting.poll();
+            if (null == next) {
+                active--;
+            }
+            return next;
+        }
+
+        synchronized int active() {
+            return active;
+        }
+
+        synchronized int queued() {
+            return waiting.size();
+        }
+    }
+}
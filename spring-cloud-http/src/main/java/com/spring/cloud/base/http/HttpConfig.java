@@ -1,6 +1,8 @@
 package com.spring.cloud.base.http;
 
+import com.spring.cloud.base.http.engine.HttpEngine;
 import com.spring.cloud.base.http.global.GlobalInterceptor;
+import com.spring.cloud.base.http.resilience.Resilience;
 import com.spring.cloud.base.http.utils.SSLUtil;
 import com.spring.cloud.base.utils.Assert;
 
@@ -8,6 +10,7 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.util.concurrent.Executor;
 
 /**
  * @Author: ls
@@ -95,6 +98,36 @@ public class HttpConfig {
      */
     boolean followRedirectsCookie;
 
+    /**
+     * HTTP传输引擎
+     */
+    HttpEngine engine = HttpGlobalConfig.getEngine();
+
+    /**
+     * 异步请求执行器，{@code null}表示使用全局执行器
+     */
+    Executor asyncExecutor;
+
+    /**
+     * 异步请求的主机并发限制，{@code null}表示不限制
+     */
+    HostConcurrencyLimiter hostLimiter = HttpGlobalConfig.getHostLimiter();
+
+    /**
+     * 异步请求的总超时，包括排队、连接、发送与读取响应，单位：毫秒，0或小于0表示不限制
+     */
+    long callTimeout;
+
+    /**
+     * 大文件分块并行上传，{@code null}表示不分块
+     */
+    ChunkedUpload chunkedUpload;
+
+    /**
+     * 容错配置，{@code null}表示不启用
+     */
+    Resilience resilience = HttpGlobalConfig.getResilience();
+
     /**
      * 设置超时，单位：毫秒<br>
      * 超时包括：
@@ -314,4 +347,106 @@ public class HttpConfig {
         this.followRedirectsCookie = followRedirectsCookie;
         return this;
     }
+
+    /**
+     * 设置HTTP传输引擎
+     *
+     * @param engine 引擎，{@code null}表示使用全局引擎
+     * @return this
+     * @see HttpGlobalConfig#setEngine(HttpEngine)
+     */
+    public HttpConfig setEngine(HttpEngine engine) {
+        this.engine = null == engine ? HttpGlobalConfig.getEngine() : engine;
+        return this;
+    }
+
+    /**
+     * 设置异步请求执行器
+     *
+     * @param asyncExecutor 执行器，{@code null}表示使用全局执行器
+     * @return this
+     * @see HttpGlobalConfig#setAsyncExecutor(Executor)
+     */
+    public HttpConfig setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
+    /**
+     * 设置异步请求的主机并发限制，多个请求共用同一个实例才能限制并发
+     *
+     * @param hostLimiter 主机并发限制，{@code null}表示不限制
+     * @return this
+     */
+    public HttpConfig setHostLimiter(HostConcurrencyLimiter hostLimiter) {
+        this.hostLimiter = hostLimiter;
+        return this;
+    }
+
+    /**
+     * 设置异步请求的总超时，超时后Future以{@link java.util.concurrent.TimeoutException}结束并断开连接
+     *
+     * @param milliseconds 超时毫秒数，0或小于0表示不限制
+     * @return this
+     */
+    public HttpConfig setCallTimeout(long milliseconds) {
+        this.callTimeout = milliseconds;
+        return this;
+    }
+
+    /**
+     * 设置大文件分块并行上传，表单中只有一个文件且大于分块大小时，按分块分别上传
+     *
+     * @param chunkedUpload 分块上传，{@code null}表示不分块
+     * @return this
+     * @see ChunkedUpload
+     */
+    public HttpConfig setChunkedUpload(ChunkedUpload chunkedUpload) {
+        this.chunkedUpload = chunkedUpload;
+        return this;
+    }
+
+    /**
+     * 设置容错配置，包括重试、熔断、隔离、对冲请求与延迟统计
+     *
+     * @param resilience 容错配置，{@code null}表示不启用
+     * @return this
+     * @see HttpGlobalConfig#setResilience(Resilience)
+     */
+    public HttpConfig setResilience(Resilience resilience) {
+        this.resilience = resilience;
+        return this;
+    }
+
+    /**
+     * 复制配置，拦截器链为副本，修改副本不影响当前配置
+     *
+     * @return 新的配置
+     */
+    HttpConfig copy() {
+        final HttpConfig copy = new HttpConfig();
+        copy.connectionTimeout = this.connectionTimeout;
+        copy.readTimeout = this.readTimeout;
+        copy.isDisableCache = this.isDisableCache;
+        copy.maxRedirectCount = this.maxRedirectCount;
+        copy.proxy = this.proxy;
+        copy.hostnameVerifier = this.hostnameVerifier;
+        copy.ssf = this.ssf;
+        copy.blockSize = this.blockSize;
+        copy.ignoreEOFError = this.ignoreEOFError;
+        copy.decodeUrl = this.decodeUrl;
+        copy.requestInterceptors.clear();
+        this.requestInterceptors.forEach(copy.requestInterceptors::addChain);
+        copy.responseInterceptors.clear();
+        this.responseInterceptors.forEach(copy.responseInterceptors::addChain);
+        copy.interceptorOnRedirect = this.interceptorOnRedirect;
+        copy.followRedirectsCookie = this.followRedirectsCookie;
+        copy.engine = this.engine;
+        copy.asyncExecutor = this.asyncExecutor;
+        copy.hostLimiter = this.hostLimiter;
+        copy.callTimeout = this.callTimeout;
+        copy.chunkedUpload = this.chunkedUpload;
+        copy.resilience = this.resilience;
+        return copy;
+    }
 }
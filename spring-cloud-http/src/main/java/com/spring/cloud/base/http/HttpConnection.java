@@ -1,5 +1,7 @@
 package com.spring.cloud.base.http;
 
+import com.spring.cloud.base.http.engine.HttpEngine;
+import com.spring.cloud.base.http.engine.UrlConnectionEngine;
 import com.spring.cloud.base.http.exception.HttpException;
 import com.spring.cloud.base.http.utils.HttpUtil;
 import com.spring.cloud.base.utils.utils.URLUtil;
@@ -30,6 +32,7 @@ public class HttpConnection {
 
     private final URL url;
     private final Proxy proxy;
+    private final HttpEngine engine;
     private HttpURLConnection conn;
 
     /**
@@ -54,6 +57,18 @@ public class HttpConnection {
         return new HttpConnection(url, proxy);
     }
 
+    /**
+     * 创建HttpConnection
+     *
+     * @param url    URL
+     * @param proxy  代理，无代理传{@code null}
+     * @param engine 传输引擎，{@code null}表示使用JDK的{@link HttpURLConnection}
+     * @return HttpConnection
+     */
+    public static HttpConnection create(URL url, Proxy proxy, HttpEngine engine) {
+        return new HttpConnection(url, proxy, engine);
+    }
+
     /**
      * 构造HttpConnection
      *
@@ -61,8 +76,20 @@ public class HttpConnection {
      * @param proxy 代理
      */
     public HttpConnection(URL url, Proxy proxy) {
+        this(url, proxy, HttpGlobalConfig.getEngine());
+    }
+
+    /**
+     * 构造HttpConnection
+     *
+     * @param url    URL
+     * @param proxy  代理
+     * @param engine 传输引擎，{@code null}表示使用JDK的{@link HttpURLConnection}
+     */
+    public HttpConnection(URL url, Proxy proxy, HttpEngine engine) {
         this.url = url;
         this.proxy = proxy;
+        this.engine = null == engine ? UrlConnectionEngine.INSTANCE : engine;
 
         // 初始化Http连接
         initConn();
@@ -492,22 +519,7 @@ public class HttpConnection {
      * @return {@link HttpURLConnection}，https返回{@link HttpsURLConnection}
      */
     private HttpURLConnection openHttp() throws IOException {
-        final URLConnection conn = openConnection();
-        if (false == conn instanceof HttpURLConnection) {
-            // 防止其它协议造成的转换异常
-            throw new HttpException("'{}' of URL [{}] is not a http connection, make sure URL is format for http.", conn.getClass().getName(), this.url);
-        }
-        return (HttpURLConnection) conn;
-    }
-
-    /**
-     * 建立连接
-     *
-     * @return {@link URLConnection}
-     * @throws IOException IO异常
-     */
-    private URLConnection openConnection() throws IOException {
-        return (null == this.proxy) ? url.openConnection() : url.openConnection(this.proxy);
+        return this.engine.open(this.url, this.proxy);
     }
 
     /**
@@ -70,6 +70,20 @@ public class HttpDownloader {
         return requestDownload(url, timeout).writeBody(targetFileOrDir, tempFileSuffix, streamProgress);
     }
 
+    /**
+     * 分段并行下载远程文件，服务端支持Range时多个连接同时下载，失败后再次调用可从断点继续
+     *
+     * @param url             请求的url
+     * @param targetFileOrDir 目标文件或目录，当为目录时，取响应头或URL中的文件名
+     * @param parts           分段数，即最大并行连接数
+     * @param streamProgress  进度条
+     * @return 文件
+     * @see RangeDownloader
+     */
+    public static File downloadFileParallel(String url, File targetFileOrDir, int parts, StreamProgress streamProgress) {
+        return RangeDownloader.of(url).setParts(parts).setProgress(streamProgress).download(targetFileOrDir);
+    }
+
     /**
      * 下载远程文件，返回文件
      *
@@ -1,7 +1,11 @@
 package com.spring.cloud.base.http;
 
+import com.spring.cloud.base.http.engine.HttpEngine;
+import com.spring.cloud.base.http.engine.UrlConnectionEngine;
 import com.spring.cloud.base.http.exception.HttpException;
 import com.spring.cloud.base.http.global.GlobalCookieManager;
+import com.spring.cloud.base.http.global.GlobalThreadPool;
+import com.spring.cloud.base.http.resilience.Resilience;
 import com.spring.cloud.base.utils.utils.ArrayUtil;
 import com.spring.cloud.base.utils.base.ReflectUtil;
 import com.spring.cloud.base.utils.crypto.RandomUtil;
@@ -11,6 +15,7 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.net.CookieManager;
 import java.net.HttpURLConnection;
+import java.util.concurrent.Executor;
 
 import static com.spring.cloud.base.utils.base.ReflectUtil.getFieldValue;
 
@@ -36,6 +41,10 @@ public class HttpGlobalConfig implements Serializable {
     private static int maxRedirectCount = 0;
     private static boolean ignoreEOFError = true;
     private static boolean decodeUrl = false;
+    private static HttpEngine engine = UrlConnectionEngine.INSTANCE;
+    private static Executor asyncExecutor;
+    private static HostConcurrencyLimiter hostLimiter;
+    private static Resilience resilience;
 
     /**
      * 获取全局默认的超时时长
@@ -150,6 +159,82 @@ public class HttpGlobalConfig implements Serializable {
         decodeUrl = customDecodeUrl;
     }
 
+    /**
+     * 获取全局默认的HTTP传输引擎
+     *
+     * @return {@link HttpEngine}
+     */
+    public static HttpEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * 设置全局默认的HTTP传输引擎，只影响之后创建的请求
+     *
+     * @param customEngine 引擎，{@code null}表示使用JDK的{@link HttpURLConnection}
+     */
+    synchronized public static void setEngine(HttpEngine customEngine) {
+        engine = null == customEngine ? UrlConnectionEngine.INSTANCE : customEngine;
+    }
+
+    /**
+     * 获取全局默认的异步请求执行器，未设置时运行时支持虚拟线程则使用虚拟线程，否则使用{@link GlobalThreadPool}
+     *
+     * @return {@link Executor}
+     */
+    synchronized public static Executor getAsyncExecutor() {
+        if (null == asyncExecutor) {
+            final Executor virtualExecutor = GlobalThreadPool.createVirtualThreadExecutor();
+            asyncExecutor = null == virtualExecutor ? GlobalThreadPool.getExecutor() : virtualExecutor;
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * 设置全局默认的异步请求执行器
+     *
+     * @param customExecutor 执行器，{@code null}表示恢复默认
+     */
+    synchronized public static void setAsyncExecutor(Executor customExecutor) {
+        asyncExecutor = customExecutor;
+    }
+
+    /**
+     * 获取全局的主机并发限制，未设置时返回{@code null}
+     *
+     * @return {@link HostConcurrencyLimiter}
+     */
+    public static HostConcurrencyLimiter getHostLimiter() {
+        return hostLimiter;
+    }
+
+    /**
+     * 设置异步请求每个主机的最大并发数，所有默认配置的请求共用，只影响之后创建的请求
+     *
+     * @param maxPerHost 每个主机的最大并发数，0或小于0表示不限制
+     */
+    synchronized public static void setMaxConcurrentPerHost(int maxPerHost) {
+        hostLimiter = maxPerHost > 0 ? new HostConcurrencyLimiter(maxPerHost) : null;
+    }
+
+    /**
+     * 获取全局的容错配置，未设置时返回{@code null}
+     *
+     * @return {@link Resilience}
+     */
+    public static Resilience getResilience() {
+        return resilience;
+    }
+
+    /**
+     * 设置全局的容错配置，所有默认配置的请求共用，只影响之后创建的请求
+     *
+     * @param customResilience 容错配置，{@code null}表示不启用
+     */
+    synchronized public static void setResilience(Resilience customResilience) {
+        resilience = customResilience;
+    }
+
     /**
      * 获取Cookie管理器，用于自定义Cookie管理
      *
@@ -1,8 +1,10 @@
 package com.spring.cloud.base.http;
 
+import com.spring.cloud.base.http.engine.HttpEngine;
 import com.spring.cloud.base.http.exception.HttpException;
 import com.spring.cloud.base.http.global.GlobalCookieManager;
 import com.spring.cloud.base.http.global.GlobalHeaders;
+import com.spring.cloud.base.http.resilience.Resilience;
 import com.spring.cloud.base.http.utils.HttpUtil;
 import com.spring.cloud.base.utils.*;
 import com.spring.cloud.base.utils.crypto.ObjectUtil;
@@ -22,6 +24,8 @@ import java.net.*;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -224,6 +228,10 @@ public class HttpRequest extends HttpBase<HttpRequest> {
      * 重定向次数计数器，内部使用
      */
     private int redirectCount;
+    /**
+     * GET请求的表单参数是否已附加到URL，重复执行时不再附加
+     */
+    private boolean isUrlParamsMerged;
 
     /**
      * 构造，URL编码默认使用UTF-8
@@ -935,6 +943,67 @@ public class HttpRequest extends HttpBase<HttpRequest> {
         return this;
     }
 
+    /**
+     * 设置HTTP传输引擎
+     *
+     * @param engine 引擎，{@code null}表示使用全局引擎
+     * @return this
+     * @see HttpGlobalConfig#setEngine(HttpEngine)
+     */
+    public HttpRequest setEngine(HttpEngine engine) {
+        config.setEngine(engine);
+        return this;
+    }
+
+    /**
+     * 设置异步请求执行器
+     *
+     * @param executor 执行器，{@code null}表示使用全局执行器
+     * @return this
+     * @see #sendAsync()
+     */
+    public HttpRequest setAsyncExecutor(Executor executor) {
+        config.setAsyncExecutor(executor);
+        return this;
+    }
+
+    /**
+     * 设置异步请求的总超时
+     *
+     * @param milliseconds 超时毫秒数，0或小于0表示不限制
+     * @return this
+     * @see #sendAsync()
+     */
+    public HttpRequest setCallTimeout(long milliseconds) {
+        config.setCallTimeout(milliseconds);
+        return this;
+    }
+
+    /**
+     * 设置大文件分块并行上传，通过{@link #form(String, File)}加入的文件大于分块大小时，分块分别上传<br>
+     * 需要服务端按 {@link ChunkedUpload} 的分块字段合并，例如使用 {@link ChunkedUploadAssembler}，普通上传接口不能使用
+     *
+     * @param chunkedUpload 分块上传，{@code null}表示不分块
+     * @return this
+     * @see ChunkedUpload
+     */
+    public HttpRequest setChunkedUpload(ChunkedUpload chunkedUpload) {
+        config.setChunkedUpload(chunkedUpload);
+        return this;
+    }
+
+    /**
+     * 设置容错配置，包括重试、熔断、隔离、对冲请求与延迟统计
+     *
+     * @param resilience 容错配置，{@code null}表示不启用
+     * @return this
+     * @see HttpGlobalConfig#setResilience(Resilience)
+     */
+    public HttpRequest setResilience(Resilience resilience) {
+        config.setResilience(resilience);
+        return this;
+    }
+
     /**
      * 设置是否rest模式<br>
      * rest模式下get请求不会把参数附加到URL之后
@@ -1020,6 +1089,22 @@ public class HttpRequest extends HttpBase<HttpRequest> {
         return this.execute(true);
     }
 
+    /**
+     * 异步执行请求，立即返回<br>
+     * 请求在执行器中发送并读取完整的响应内容，请求与响应拦截器也在执行器中执行，调用线程不会阻塞；
+     * 通过{@link CompletableFuture#cancel(boolean)}取消或超时后断开连接。请求完成前不应再修改此请求对象
+     *
+     * @return 响应的{@link CompletableFuture}
+     * @see HttpConfig#setAsyncExecutor(Executor)
+     * @see HttpConfig#setHostLimiter(HostConcurrencyLimiter)
+     * @see HttpConfig#setCallTimeout(long)
+     */
+    public CompletableFuture<HttpResponse> sendAsync() {
+        final Executor executor = null == config.asyncExecutor ? HttpGlobalConfig.getAsyncExecutor() : config.asyncExecutor;
+        final String host = null == config.hostLimiter ? null : host();
+        return new AsyncCall(this, executor, config.hostLimiter, host).start(config.callTimeout);
+    }
+
     /**
      * 执行Reuqest请求
      *
@@ -1027,9 +1112,47 @@ public class HttpRequest extends HttpBase<HttpRequest> {
      * @return this
      */
     public HttpResponse execute(boolean isAsync) {
+        if (null != config.chunkedUpload && isMultipart() && config.chunkedUpload.isChunked(this.form)) {
+            return config.chunkedUpload.upload(this, config, isAsync);
+        }
+        if (null != config.resilience) {
+            final String host = host();
+            final Executor executor = null == config.asyncExecutor ? HttpGlobalConfig.getAsyncExecutor() : config.asyncExecutor;
+            return new ResilientCall(this, config.resilience, executor, host, method + " " + host + url.getPathStr()).execute(isAsync);
+        }
+        return executeOnce(isAsync);
+    }
+
+    /**
+     * 执行一次请求，不经过分块上传与容错处理
+     *
+     * @param isAsync 是否异步
+     * @return 响应
+     */
+    HttpResponse executeOnce(boolean isAsync) {
         return doExecute(isAsync, config.requestInterceptors, config.responseInterceptors);
     }
 
+    /**
+     * 创建URL、方法、头信息、Cookie与编码相同的新请求，不含表单，配置为副本且不再分块上传与容错处理，
+     * 由调用方决定重试，避免派生请求的重试与调用方的重试叠加<br>
+     * 新请求与当前请求共用URL对象，GET请求应先附加参数再派生
+     *
+     * @return 新请求
+     */
+    HttpRequest derive() {
+        final HttpRequest request = new HttpRequest(this.url)
+                .method(this.method)
+                .header(this.headers, true)
+                .charset(this.charset)
+                .httpVersion(this.httpVersion)
+                .setConfig(this.config.copy().setChunkedUpload(null).setResilience(null));
+        request.cookie = this.cookie;
+        request.isRest = this.isRest;
+        request.isUrlParamsMerged = this.isUrlParamsMerged;
+        return request;
+    }
+
     /**
      * 执行Request请求后，对响应内容后续处理<br>
      * 处理结束后关闭连接
@@ -1182,7 +1305,7 @@ public class HttpRequest extends HttpBase<HttpRequest> {
         this.httpConnection = HttpConnection
                 // issue#I50NHQ
                 // 在生成正式URL前，设置自定义编码
-                .create(this.url.setCharset(this.charset).toURL(this.urlHandler), config.proxy)//
+                .create(this.url.setCharset(this.charset).toURL(this.urlHandler), config.proxy, config.engine)//
                 .setConnectTimeout(config.connectionTimeout)//
                 .setReadTimeout(config.readTimeout)//
                 .setMethod(this.method)//
@@ -1208,13 +1331,24 @@ public class HttpRequest extends HttpBase<HttpRequest> {
         }
     }
 
+    /**
+     * 获取目标主机，用于按主机限流与熔断
+     *
+     * @return 主机，格式为 scheme://host:port
+     */
+    private String host() {
+        return url.getSchemeWithDefault() + "://" + url.getHost() + ":" + url.getPortWithDefault();
+    }
+
     /**
      * 对于GET请求将参数加到URL中<br>
      * 此处不对URL中的特殊字符做单独编码<br>
-     * 对于非rest的GET请求，且处于重定向时，参数丢弃
+     * 对于非rest的GET请求，且处于重定向时，参数丢弃<br>
+     * 重复执行同一请求（如重试）时参数只附加一次
      */
-    private void urlWithParamIfGet() {
-        if (Method.GET.equals(method) && false == this.isRest && this.redirectCount <= 0) {
+    void urlWithParamIfGet() {
+        if (Method.GET.equals(method) && false == this.isRest && this.redirectCount <= 0 && false == this.isUrlParamsMerged) {
+            this.isUrlParamsMerged = true;
             UrlQuery query = this.url.getQuery();
             if (null == query) {
                 query = new UrlQuery();
@@ -15,7 +15,12 @@ import com.spring.cloud.base.utils.utils.URLUtil;
 
 import java.io.*;
 import java.net.HttpCookie;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map.Entry;
 
@@ -26,6 +31,11 @@ import java.util.Map.Entry;
  */
 public class HttpResponse extends HttpBase<HttpResponse> implements Closeable {
 
+    /**
+     * 写出到文件时每次传输的最大字节数，同时也是进度回调的间隔
+     */
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+
     /**
      * Http配置
      */
@@ -229,6 +239,28 @@ public class HttpResponse extends HttpBase<HttpResponse> implements Closeable {
         return null == this.body ? null : this.body.getStream();
     }
 
+    /**
+     * 以{@link java.nio.ByteBuffer}分块迭代响应内容，每次调用next时才从连接读取，调用方处理速度决定读取速度<br>
+     * gzip与deflate编码的响应边读取边解压，不缓存完整内容；读取结束或关闭迭代器时关闭响应<br>
+     * 应在异步模式（executeAsync）下使用，同步模式下迭代内存中的响应内容
+     *
+     * @param bufferSize 每块最大字节数
+     * @return {@link ResponseBodyIterator}
+     */
+    public ResponseBodyIterator bodyIterator(int bufferSize) {
+        return new ResponseBodyIterator(this, bufferSize);
+    }
+
+    /**
+     * 以{@link java.nio.ByteBuffer}分块迭代响应内容，每块最大8KB
+     *
+     * @return {@link ResponseBodyIterator}
+     * @see #bodyIterator(int)
+     */
+    public ResponseBodyIterator bodyIterator() {
+        return bodyIterator(IoUtil.DEFAULT_BUFFER_SIZE);
+    }
+
     /**
      * 获取响应流字节码<br>
      * 此方法会转为同步模式
@@ -305,7 +337,7 @@ public class HttpResponse extends HttpBase<HttpResponse> implements Closeable {
         Assert.notNull(targetFileOrDir, "[targetFileOrDir] must be not null!");
 
         final File outFile = completeFileNameFromHeader(targetFileOrDir);
-        return writeBody(FileUtil.getOutputStream(outFile), true, streamProgress);
+        return transferBody(outFile, streamProgress);
     }
 
     /**
@@ -366,7 +398,7 @@ public class HttpResponse extends HttpBase<HttpResponse> implements Closeable {
         Assert.notNull(targetFileOrDir, "[targetFileOrDir] must be not null!");
 
         final File outFile = completeFileNameFromHeader(targetFileOrDir);
-        writeBody(FileUtil.getOutputStream(outFile), true, streamProgress);
+        transferBody(outFile, streamProgress);
 
         return outFile;
     }
@@ -585,11 +617,93 @@ public class HttpResponse extends HttpBase<HttpResponse> implements Closeable {
         }
 
         final long contentLength = contentLength();
-        final FastByteArrayOutputStream out = new FastByteArrayOutputStream((int) contentLength);
+        if (contentLength >= 0 && contentLength < Integer.MAX_VALUE) {
+            // 长度已知时直接读入数组，避免缓冲区扩容与复制
+            this.body = new BytesResource(readFully(in, (int) contentLength, this.config.ignoreEOFError));
+            return;
+        }
+        final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
         copyBody(in, out, contentLength, null, this.config.ignoreEOFError);
         this.body = new BytesResource(out.toByteArray());
     }
 
+    /**
+     * 读取指定长度的内容，流提前结束时返回已读取的部分
+     *
+     * @param in               输入流
+     * @param length           长度
+     * @param isIgnoreEOFError 是否忽略EOF错误
+     * @return 内容
+     */
+    private static byte[] readFully(InputStream in, int length, boolean isIgnoreEOFError) {
+        final byte[] bytes = new byte[length];
+        int offset = 0;
+        try {
+            for (int n; offset < length && (n = in.read(bytes, offset, length - offset)) != -1; ) {
+                offset += n;
+            }
+        } catch (IOException e) {
+            if (false == (isIgnoreEOFError && isEOFError(e))) {
+                throw new IORuntimeException(e);
+            }
+        }
+        return offset == length ? bytes : Arrays.copyOf(bytes, offset);
+    }
+
+    /**
+     * 通过{@link FileChannel}将响应内容写出到文件，写出后关闭响应
+     *
+     * @param outFile        文件
+     * @param streamProgress 进度，每传输{@link #TRANSFER_SIZE}回调一次
+     * @return 写出的字节数
+     */
+    private long transferBody(File outFile, StreamProgress streamProgress) {
+        FileUtil.mkParentDirs(outFile);
+        final long contentLength = contentLength();
+        long position = 0;
+        try (FileChannel channel = FileChannel.open(outFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final InputStream in = bodyStream();
+            if (null == in) {
+                return 0;
+            }
+            if (null != streamProgress) {
+                streamProgress.start();
+            }
+            final ReadableByteChannel source = Channels.newChannel(in);
+            try {
+                for (long n; (n = channel.transferFrom(source, position, TRANSFER_SIZE)) > 0; ) {
+                    position += n;
+                    if (null != streamProgress) {
+                        streamProgress.progress(contentLength, position);
+                    }
+                }
+            } catch (IOException e) {
+                if (false == (this.config.ignoreEOFError && isEOFError(e))) {
+                    throw e;
+                }
+            }
+            if (null != streamProgress) {
+                streamProgress.finish();
+            }
+            return position;
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        } finally {
+            IoUtil.close(this);
+        }
+    }
+
+    /**
+     * 是否为HTTP流提前结束的错误
+     *
+     * @param e 异常
+     * @return 是否为EOF错误
+     */
+    private static boolean isEOFError(Throwable e) {
+        return e instanceof EOFException || StrUtil.containsIgnoreCase(e.getMessage(), "Premature EOF");
+    }
+
     /**
      * 将响应内容写出到{@link OutputStream}<br>
      * 异步模式下直接读取Http流写出，同步模式下将存储在内存中的响应内容写出<br>
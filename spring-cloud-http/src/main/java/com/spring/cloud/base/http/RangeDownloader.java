@@ -0,0 +1,560 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.http.engine.HttpEngine;
+import com.spring.cloud.base.http.exception.HttpException;
+import com.spring.cloud.base.http.utils.HttpUtil;
+import com.spring.cloud.base.utils.Assert;
+import com.spring.cloud.base.utils.exception.IORuntimeException;
+import com.spring.cloud.base.utils.interf.StreamProgress;
+import com.spring.cloud.base.utils.str.StrUtil;
+import com.spring.cloud.base.utils.utils.FileUtil;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author: ls
+ * @Description: 分段并行下载，支持断点续传
+ * 先用 Range: bytes=0-0 探测文件大小与是否支持Range，支持时将文件分为多段，每段一个连接并行下载，
+ * 按位置直接写入同一个临时文件；不支持时退化为单连接下载<br>
+ * 下载中的文件为“目标文件名.download”，进度保存在“目标文件名.download.meta”中，失败后再次下载同一URL时，
+ * 服务端返回的ETag或Last-Modified未变化则从保存的位置继续，否则重新下载；完成后重命名为目标文件
+ * <pre>
+ * RangeDownloader.of(url).setParts(8).download(new File("/data"));
+ * </pre>
+ * @Date: 2023/5/24 10:30
+ */
+public class RangeDownloader {
+
+    /**
+     * 默认分段数
+     */
+    public static final int DEFAULT_PARTS = 4;
+    /**
+     * 默认最小分段大小，文件较小时减少分段数
+     */
+    public static final long DEFAULT_MIN_PART_SIZE = 4 * 1024 * 1024L;
+
+    private static final String TEMP_SUFFIX = ".download";
+
+    private static final String META_SUFFIX = ".download.meta";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 每段每下载此字节数保存一次进度
+     */
+    private static final long CHECKPOINT_SIZE = 4 * 1024 * 1024L;
+
+    private final String url;
+
+    private int parts = DEFAULT_PARTS;
+
+    private long minPartSize = DEFAULT_MIN_PART_SIZE;
+
+    private int retries = 2;
+
+    private int timeout = -1;
+
+    private HttpEngine engine;
+
+    private Executor executor;
+
+    private StreamProgress progress;
+
+    /**
+     * 创建分段下载
+     *
+     * @param url 下载地址
+     * @return RangeDownloader
+     */
+    public static RangeDownloader of(String url) {
+        return new RangeDownloader(url);
+    }
+
+    /**
+     * 构造
+     *
+     * @param url 下载地址
+     */
+    public RangeDownloader(String url) {
+        Assert.notBlank(url, "[url] is blank !");
+        this.url = url;
+    }
+
+    /**
+     * 设置分段数，即最大并行连接数
+     *
+     * @param parts 分段数
+     * @return this
+     */
+    public RangeDownloader setParts(int parts) {
+        Assert.isTrue(parts > 0, "parts must be positive");
+        this.parts = parts;
+        return this;
+    }
+
+    /**
+     * 设置最小分段大小
+     *
+     * @param minPartSize 最小分段大小，单位：字节
+     * @return this
+     */
+    public RangeDownloader setMinPartSize(long minPartSize) {
+        this.minPartSize = Math.max(1, minPartSize);
+        return this;
+    }
+
+    /**
+     * 设置每段失败后从断点重试的次数
+     *
+     * @param retries 重试次数
+     * @return this
+     */
+    public RangeDownloader setRetries(int retries) {
+        this.retries = Math.max(0, retries);
+        return this;
+    }
+
+    /**
+     * 设置连接和读取超时
+     *
+     * @param timeout 超时，单位毫秒，-1表示默认超时
+     * @return this
+     */
+    public RangeDownloader setTimeout(int timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * 设置传输引擎
+     *
+     * @param engine 引擎，{@code null}表示使用全局引擎
+     * @return this
+     */
+    public RangeDownloader setEngine(HttpEngine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    /**
+     * 设置下载各分段的执行器
+     *
+     * @param executor 执行器，{@code null}表示使用 {@link HttpGlobalConfig#getAsyncExecutor()}
+     * @return this
+     */
+    public RangeDownloader setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * 设置进度，各分段的进度合并后回调，回调不会并发执行
+     *
+     * @param progress 进度
+     * @return this
+     */
+    public RangeDownloader setProgress(StreamProgress progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * 下载
+     *
+     * @param targetFileOrDir 目标文件或目录，当为目录时，取响应头或URL中的文件名
+     * @return 下载的文件
+     * @throws HttpException 下载失败，已下载的部分保留，可再次调用继续下载
+     */
+    public File download(File targetFileOrDir) throws HttpException {
+        Assert.notNull(targetFileOrDir, "[targetFileOrDir] must be not null!");
+        final HttpResponse probe = request(0, 0, null).executeAsync();
+        final File target;
+        final long length;
+        final String validator;
+        try {
+            if (HttpStatus.HTTP_REQUESTED_RANGE_NOT_SATISFIABLE == probe.getStatus()) {
+                // 空文件无法满足 bytes=0-0
+                probe.close();
+                return downloadSingle(targetFileOrDir);
+            }
+            if (false == probe.isOk()) {
+                throw new HttpException("Server response error with status code: [{}]", probe.getStatus());
+            }
+            target = probe.completeFileNameFromHeader(targetFileOrDir);
+            length = HttpStatus.HTTP_PARTIAL == probe.getStatus() ? parseLength(probe.header(Header.CONTENT_RANGE)) : -1;
+            if (length < 0) {
+                // 不支持Range或长度未知，单连接下载
+                probe.writeBody(target, TEMP_SUFFIX, progress);
+                return target;
+            }
+            validator = validator(probe);
+        } finally {
+            probe.close();
+        }
+
+        final File temp = new File(target.getParentFile(), target.getName() + TEMP_SUFFIX);
+        final File metaFile = new File(target.getParentFile(), target.getName() + META_SUFFIX);
+        Plan plan = temp.exists() ? Plan.load(metaFile, url, length, validator) : null;
+        final boolean resume = null != plan;
+        if (null == plan) {
+            plan = Plan.create(url, length, validator, partCount(length));
+        }
+        FileUtil.mkParentDirs(temp);
+        try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (false == resume) {
+                channel.truncate(0);
+            }
+            downloadParts(plan, channel, metaFile);
+        } catch (IOException e) {
+            throw new HttpException(e);
+        }
+        FileUtil.del(metaFile);
+        FileUtil.rename(temp, target.getName(), true);
+        return target;
+    }
+
+    private File downloadSingle(File targetFileOrDir) {
+        final HttpRequest request = HttpUtil.createGet(url, true).timeout(timeout);
+        if (null != engine) {
+            request.setEngine(engine);
+        }
+        final HttpResponse response = request.executeAsync();
+        if (false == response.isOk()) {
+            response.close();
+            throw new HttpException("Server response error with status code: [{}]", response.getStatus());
+        }
+        final File target = response.completeFileNameFromHeader(targetFileOrDir);
+        response.writeBody(target, TEMP_SUFFIX, progress);
+        return target;
+    }
+
+    private void downloadParts(Plan plan, FileChannel channel, File metaFile) {
+        final AtomicLong downloaded = new AtomicLong(plan.downloaded());
+        if (null != progress) {
+            progress.start();
+        }
+        final Executor executor = null == this.executor ? HttpGlobalConfig.getAsyncExecutor() : this.executor;
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            final int part = i;
+            if (false == plan.isDone(part)) {
+                futures.add(CompletableFuture.runAsync(() -> downloadPart(plan, part, channel, metaFile, downloaded), executor));
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            final HttpException failure = cause instanceof HttpException ? (HttpException) cause : new HttpException(cause);
+            // 保存进度以便续传，保存失败时保留原始异常
+            try {
+                checkpoint(plan, channel, metaFile);
+            } catch (IOException | IORuntimeException saveError) {
+                failure.addSuppressed(saveError);
+            }
+            throw failure;
+        }
+        if (null != progress) {
+            progress.finish();
+        }
+    }
+
+    private void downloadPart(Plan plan, int part, FileChannel channel, File metaFile, AtomicLong downloaded) {
+        final long end = plan.end(part);
+        for (int attempt = 0; ; attempt++) {
+            final long from = plan.position(part);
+            if (from > end) {
+                return;
+            }
+            try (HttpResponse response = request(from, end, plan.validator).executeAsync()) {
+                if (HttpStatus.HTTP_PARTIAL != response.getStatus()) {
+                    // If-Range不匹配时返回200，说明文件已变化
+                    throw new HttpException("Expect partial content for range [{}-{}] but got status: [{}]", from, end, response.getStatus());
+                }
+                final String contentRange = response.header(Header.CONTENT_RANGE);
+                final long[] range = parseContentRange(contentRange);
+                if (null == range || range[0] != from || range[1] != end || range[2] != plan.length) {
+                    throw new HttpException("Unexpected Content-Range: [{}] for range [{}-{}/{}]", contentRange, from, end, plan.length);
+                }
+                transfer(response.bodyStream(), channel, plan, part, metaFile, downloaded);
+                return;
+            } catch (HttpException | IORuntimeException e) {
+                if (attempt >= retries || false == isRetryable(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void transfer(InputStream in, FileChannel channel, Plan plan, int part, File metaFile, AtomicLong downloaded) {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final ByteBuffer view = ByteBuffer.wrap(buffer);
+        final long end = plan.end(part);
+        long position = plan.position(part);
+        long sinceCheckpoint = 0;
+        try {
+            while (position <= end) {
+                final int n = in.read(buffer, 0, (int) Math.min(buffer.length, end - position + 1));
+                if (n == -1) {
+                    throw new EOFException("Premature EOF at position " + position + " of range ending at " + end);
+                }
+                view.clear();
+                view.limit(n);
+                while (view.hasRemaining()) {
+                    // 按位置写入，多个分段可以并发写同一个通道
+                    position += channel.write(view, position);
+                }
+                plan.advance(part, position);
+                reportProgress(plan.length, downloaded.addAndGet(n));
+                sinceCheckpoint += n;
+                if (sinceCheckpoint >= CHECKPOINT_SIZE) {
+                    checkpoint(plan, channel, metaFile);
+                    sinceCheckpoint = 0;
+                }
+            }
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    /**
+     * 保存进度，先取进度再将已写入的数据刷到磁盘，保证保存的进度不超过已落盘的数据，断电后续传不会留下空洞
+     */
+    private static void checkpoint(Plan plan, FileChannel channel, File metaFile) throws IOException {
+        final long[] positions = plan.positions();
+        channel.force(false);
+        plan.save(metaFile, positions);
+    }
+
+    private void reportProgress(long total, long progressSize) {
+        final StreamProgress progress = this.progress;
+        if (null != progress) {
+            synchronized (progress) {
+                progress.progress(total, progressSize);
+            }
+        }
+    }
+
+    private HttpRequest request(long from, long to, String validator) {
+        final HttpRequest request = HttpUtil.createGet(url, true)
+                .timeout(timeout)
+                .header(Header.RANGE, "bytes=" + from + "-" + to)
+                // 压缩后的内容无法按原始字节分段
+                .header(Header.ACCEPT_ENCODING, "identity");
+        if (null != validator) {
+            request.header(Header.IF_RANGE, validator);
+        }
+        if (null != engine) {
+            request.setEngine(engine);
+        }
+        return request;
+    }
+
+    private int partCount(long length) {
+        final long count = (length + minPartSize - 1) / minPartSize;
+        return (int) Math.max(1, Math.min(parts, count));
+    }
+
+    /**
+     * 响应异常为读取中断或连接错误时重试，状态码错误不重试
+     */
+    private static boolean isRetryable(RuntimeException e) {
+        return e instanceof IORuntimeException || e.getCause() instanceof IOException;
+    }
+
+    /**
+     * 从 Content-Range: bytes 0-0/12345 中解析完整长度
+     *
+     * @return 长度，未知时返回-1
+     */
+    private static long parseLength(String contentRange) {
+        final long[] range = parseContentRange(contentRange);
+        return null == range ? -1 : range[2];
+    }
+
+    /**
+     * 解析 Content-Range: bytes 0-99/12345
+     *
+     * @return 开始位置、结束位置（含）与完整长度，完整长度未知（*）时为-1；格式错误时返回null
+     */
+    private static long[] parseContentRange(String contentRange) {
+        if (null == contentRange || false == contentRange.startsWith("bytes ")) {
+            return null;
+        }
+        final String value = contentRange.substring("bytes ".length()).trim();
+        final int dash = value.indexOf('-');
+        final int slash = value.indexOf('/');
+        if (dash <= 0 || slash < dash) {
+            return null;
+        }
+        try {
+            final long start = Long.parseLong(value.substring(0, dash).trim());
+            final long end = Long.parseLong(value.substring(dash + 1, slash).trim());
+            final String total = value.substring(slash + 1).trim();
+            final long length = "*".equals(total) ? -1 : Long.parseLong(total);
+            if (start < 0 || end < start || (length >= 0 && end >= length)) {
+                return null;
+            }
+            return new long[]{start, end, length};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取用于If-Range与续传校验的强校验值，弱ETag不能用于If-Range
+     */
+    private static String validator(HttpResponse response) {
+        final String etag = response.header(Header.ETAG);
+        if (StrUtil.isNotBlank(etag) && false == etag.startsWith("W/")) {
+            return etag;
+        }
+        final String lastModified = response.header(Header.LAST_MODIFIED);
+        return StrUtil.isBlank(lastModified) ? null : lastModified;
+    }
+
+    /**
+     * 分段计划与进度
+     */
+    private static final class Plan {
+
+        private final String url;
+
+        private final long length;
+
+        private final String validator;
+
+        private final long[] starts;
+
+        private final long[] ends;
+
+        /**
+         * 每段下一个要下载的位置
+         */
+        private final long[] positions;
+
+        private Plan(String url, long length, String validator, int size) {
+            this.url = url;
+            this.length = length;
+            this.validator = validator;
+            this.starts = new long[size];
+            this.ends = new long[size];
+            this.positions = new long[size];
+        }
+
+        static Plan create(String url, long length, String validator, int size) {
+            final Plan plan = new Plan(url, length, validator, size);
+            final long partSize = (length + size - 1) / size;
+            for (int i = 0; i < size; i++) {
+                plan.starts[i] = i * partSize;
+                plan.ends[i] = Math.min(length, (i + 1) * partSize) - 1;
+                plan.positions[i] = plan.starts[i];
+            }
+            return plan;
+        }
+
+        /**
+         * 读取保存的进度，URL、长度与校验值一致时才可续传；没有校验值时无法确认文件未变化，不续传
+         */
+        static Plan load(File metaFile, String url, long length, String validator) {
+            if (null == validator || false == metaFile.isFile()) {
+                return null;
+            }
+            final Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(metaFile)) {
+                properties.load(in);
+                if (false == url.equals(properties.getProperty("url"))
+                        || false == String.valueOf(length).equals(properties.getProperty("length"))
+                        || false == validator.equals(properties.getProperty("validator"))) {
+                    return null;
+                }
+                final int size = Integer.parseInt(properties.getProperty("parts"));
+                final Plan plan = new Plan(url, length, validator, size);
+                for (int i = 0; i < size; i++) {
+                    final String[] values = properties.getProperty("part." + i).split(",");
+                    plan.starts[i] = Long.parseLong(values[0]);
+                    plan.ends[i] = Long.parseLong(values[1]);
+                    plan.positions[i] = Long.parseLong(values[2]);
+                }
+                return plan;
+            } catch (IOException | RuntimeException e) {
+                // 进度文件损坏，重新下载
+                return null;
+            }
+        }
+
+        /**
+         * 保存进度
+         *
+         * @param metaFile  进度文件
+         * @param positions 各段已落盘的位置，见 {@link #positions()}
+         */
+        synchronized void save(File metaFile, long[] positions) {
+            if (null == validator) {
+                return;
+            }
+            final Properties properties = new Properties();
+            properties.setProperty("url", url);
+            properties.setProperty("length", String.valueOf(length));
+            properties.setProperty("validator", validator);
+            properties.setProperty("parts", String.valueOf(starts.length));
+            for (int i = 0; i < starts.length; i++) {
+                properties.setProperty("part." + i, starts[i] + "," + ends[i] + "," + positions[i]);
+            }
+            try (OutputStream out = new FileOutputStream(metaFile)) {
+                properties.store(out, null);
+            } catch (IOException e) {
+                throw new IORuntimeException(e);
+            }
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        long end(int part) {
+            return ends[part];
+        }
+
+        synchronized long[] positions() {
+            return positions.clone();
+        }
+
+        synchronized long position(int part) {
+            return positions[part];
+        }
+
+        synchronized void advance(int part, long position) {
+            positions[part] = position;
+        }
+
+        synchronized boolean isDone(int part) {
+            return positions[part] > ends[part];
+        }
+
+        synchronized long downloaded() {
+            long downloaded = 0;
+            for (int i = 0; i < starts.length; i++) {
+                downloaded += positions[i] - starts[i];
+            }
+            return downloaded;
+        }
+    }
+}
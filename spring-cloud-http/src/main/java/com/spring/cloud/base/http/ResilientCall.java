@@ -0,0 +1,276 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.http.exception.BulkheadFullException;
+import com.spring.cloud.base.http.exception.CircuitBreakerOpenException;
+import com.spring.cloud.base.http.exception.HttpException;
+import com.spring.cloud.base.http.resilience.Bulkhead;
+import com.spring.cloud.base.http.resilience.CircuitBreaker;
+import com.spring.cloud.base.http.resilience.LatencyHistogram;
+import com.spring.cloud.base.http.resilience.Resilience;
+import com.spring.cloud.base.http.resilience.RetryBudget;
+import com.spring.cloud.base.http.resilience.RetryPolicy;
+import com.spring.cloud.base.http.resilience.RouteLatency;
+import com.spring.cloud.base.utils.exception.IORuntimeException;
+import com.spring.cloud.base.utils.str.StrUtil;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author: ls
+ * @Description: 按 {@link Resilience} 执行一次请求，包括重试、熔断、隔离、对冲与延迟统计
+ * 同一请求对象按顺序重复执行，请求拦截器每次尝试都会执行；对冲时并发的两个请求均从原请求派生
+ * @Date: 2023/5/26 09:30
+ */
+final class ResilientCall {
+
+    /**
+     * 路由的延迟样本少于此数时不对冲
+     */
+    private static final int HEDGE_MIN_SAMPLES = 20;
+
+    private final HttpRequest request;
+
+    private final Resilience resilience;
+
+    private final Executor executor;
+
+    private final String host;
+
+    private final String route;
+
+    /**
+     * 构造
+     *
+     * @param request    请求
+     * @param resilience 容错配置
+     * @param executor   请求的异步执行器，对冲未单独指定执行器时使用
+     * @param host       主机，格式为 scheme://host:port
+     * @param route      路由，格式为“方法 scheme://host:port/path”
+     */
+    ResilientCall(HttpRequest request, Resilience resilience, Executor executor, String host, String route) {
+        this.request = request;
+        this.resilience = resilience;
+        this.executor = null == resilience.getHedgeExecutor() ? executor : resilience.getHedgeExecutor();
+        this.host = host;
+        this.route = route;
+    }
+
+    /**
+     * 执行请求，失败时按重试策略重试
+     *
+     * @param isAsync 是否异步读取响应
+     * @return 最后一次尝试的响应
+     * @throws HttpException 重试后仍失败，或被熔断、隔离拒绝
+     */
+    HttpResponse execute(boolean isAsync) throws HttpException {
+        final RetryPolicy retryPolicy = resilience.getRetryPolicy();
+        final RetryBudget retryBudget = resilience.getRetryBudget();
+        final int maxAttempts = null == retryPolicy || false == retryPolicy.isRetryable(request.getMethod()) ? 1 : retryPolicy.getMaxAttempts();
+        if (null != retryBudget) {
+            retryBudget.onRequest();
+        }
+        for (int attempt = 1; ; attempt++) {
+            final HttpResponse response;
+            try {
+                response = attempt(isAsync);
+            } catch (CircuitBreakerOpenException | BulkheadFullException e) {
+                throw e;
+            } catch (HttpException | IORuntimeException e) {
+                if (attempt >= maxAttempts || false == tryRetry(retryBudget)) {
+                    throw e;
+                }
+                sleep(retryPolicy.backoff(attempt));
+                continue;
+            }
+            if (attempt >= maxAttempts || false == retryPolicy.isRetryable(response.getStatus()) || false == tryRetry(retryBudget)) {
+                return response;
+            }
+            final long delay = Math.max(retryPolicy.backoff(attempt), retryAfter(response, retryPolicy.getMaxDelay()));
+            response.close();
+            sleep(delay);
+        }
+    }
+
+    /**
+     * 一次尝试，依次经过隔离与熔断，完成后记录延迟与结果
+     */
+    private HttpResponse attempt(boolean isAsync) {
+        final Bulkhead bulkhead = resilience.getBulkhead();
+        if (null != bulkhead && false == bulkhead.tryAcquire(host)) {
+            throw new BulkheadFullException("Bulkhead is full for host [{}], max concurrent: [{}]", host, bulkhead.getMaxConcurrent());
+        }
+        try {
+            final CircuitBreaker circuitBreaker = resilience.getCircuitBreaker();
+            if (null != circuitBreaker && false == circuitBreaker.tryAcquire(host)) {
+                throw new CircuitBreakerOpenException("Circuit breaker is open for host [{}]", host);
+            }
+            final long start = System.nanoTime();
+            HttpResponse response = null;
+            try {
+                response = isHedgeable() ? executeHedged(isAsync) : request.executeOnce(isAsync);
+                return response;
+            } finally {
+                final RouteLatency routeLatency = resilience.getRouteLatency();
+                if (null != routeLatency && null != response) {
+                    routeLatency.record(route, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+                if (null != circuitBreaker) {
+                    if (null == response || response.getStatus() >= HttpStatus.HTTP_INTERNAL_ERROR) {
+                        circuitBreaker.onFailure(host);
+                    } else {
+                        circuitBreaker.onSuccess(host);
+                    }
+                }
+            }
+        } finally {
+            if (null != bulkhead) {
+                bulkhead.release(host);
+            }
+        }
+    }
+
+    private boolean isHedgeable() {
+        return resilience.getHedgePercentile() > 0 && null != resilience.getRouteLatency()
+                && (Method.GET == request.getMethod() || Method.HEAD == request.getMethod());
+    }
+
+    /**
+     * 原请求超过路由的百分位延迟仍未返回时发送对冲请求，取先返回的响应，断开另一个；
+     * 结果确定后才返回或开始执行的请求不再使用，其响应直接关闭
+     */
+    private HttpResponse executeHedged(boolean isAsync) {
+        final LatencyHistogram histogram = resilience.getRouteLatency().getHistogram(route);
+        if (null == histogram || histogram.getCount() < HEDGE_MIN_SAMPLES) {
+            return request.executeOnce(isAsync);
+        }
+        final long delay = Math.max(resilience.getHedgeMinDelay(),
+                TimeUnit.MICROSECONDS.toMillis(histogram.getPercentile(resilience.getHedgePercentile())));
+        // 先合并GET参数，并发的两个请求都从原请求派生，共用URL，原请求可继续用于重试
+        request.urlWithParamIfGet();
+        final HttpRequest primary = request.derive();
+        final CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        final AtomicReference<HttpRequest> winner = new AtomicReference<>();
+        final AtomicInteger running = new AtomicInteger(1);
+        HttpRequest hedge = null;
+        try {
+            launch(primary, true, isAsync, result, winner, running, null);
+            try {
+                return result.get(delay, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                final Bulkhead bulkhead = resilience.getBulkhead();
+                // 等待超时与此处之间原请求可能已返回
+                if (false == result.isDone() && (null == bulkhead || bulkhead.tryAcquire(host))) {
+                    hedge = request.derive();
+                    running.incrementAndGet();
+                    // 对冲请求的许可在其执行结束后归还，而不是结果确定时，落败的对冲请求在断开前仍占用许可
+                    launch(hedge, false, isAsync, result, winner, running, null == bulkhead ? null : () -> bulkhead.release(host));
+                }
+                return result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new HttpException(cause);
+        } finally {
+            // 异常退出时结果可能仍未完成，之后返回的响应无人读取，需由执行线程关闭
+            result.cancel(false);
+            abortLoser(primary, winner.get());
+            abortLoser(hedge, winner.get());
+        }
+    }
+
+    /**
+     * 在执行器中发送一个请求，先返回的响应作为结果
+     *
+     * @param onFinish 请求执行结束、排队期间被跳过或被执行器拒绝后调用，可以为{@code null}
+     */
+    private void launch(HttpRequest attempt, boolean isPrimary, boolean isAsync, CompletableFuture<HttpResponse> result,
+                        AtomicReference<HttpRequest> winner, AtomicInteger running, Runnable onFinish) {
+        final Runnable task = () -> {
+            try {
+                if (result.isDone()) {
+                    // 排队期间结果已确定，不再发送
+                    running.decrementAndGet();
+                    return;
+                }
+                final HttpResponse response = attempt.executeOnce(isAsync);
+                if (false == winner.compareAndSet(null, attempt) || false == result.complete(response)) {
+                    response.close();
+                }
+            } catch (Throwable e) {
+                // 所有请求都失败时才失败
+                if (0 == running.decrementAndGet()) {
+                    result.completeExceptionally(e);
+                }
+            } finally {
+                if (null != onFinish) {
+                    onFinish.run();
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (isPrimary) {
+                // 执行器已满时在当前线程执行原请求，不对冲
+                task.run();
+            } else {
+                running.decrementAndGet();
+                if (null != onFinish) {
+                    onFinish.run();
+                }
+            }
+        }
+    }
+
+    private static void abortLoser(HttpRequest attempt, HttpRequest winner) {
+        if (null != attempt && attempt != winner) {
+            final HttpConnection connection = attempt.getConnection();
+            if (null != connection) {
+                connection.disconnectQuietly();
+            }
+        }
+    }
+
+    private static boolean tryRetry(RetryBudget retryBudget) {
+        return null == retryBudget || retryBudget.tryRetry();
+    }
+
+    /**
+     * 解析秒数形式的Retry-After，HTTP日期形式忽略
+     *
+     * @return 等待时间，单位：毫秒，不超过上限，没有时为0
+     */
+    private static long retryAfter(HttpResponse response, long maxDelay) {
+        final String retryAfter = response.header(Header.RETRY_AFTER);
+        if (StrUtil.isBlank(retryAfter)) {
+            return 0;
+        }
+        try {
+            return Math.min(maxDelay, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.utils.exception.IORuntimeException;
+import com.spring.cloud.base.utils.str.StrUtil;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * @Author: ls
+ * @Description: 响应内容分块迭代器，按需从连接读取，调用方不取下一块时不会继续读取
+ * 为减少内存分配，每次返回的{@link ByteBuffer}复用同一个缓冲区，只在下次调用 {@link #hasNext()} 或 {@link #next()} 前有效，
+ * 需要保留时应自行复制；读取结束、出错或调用 {@link #close()} 后关闭响应
+ * @Date: 2023/5/24 10:30
+ */
+public class ResponseBodyIterator implements Iterator<ByteBuffer>, Closeable {
+
+    /**
+     * 尚未读取下一块
+     */
+    private static final int UNKNOWN = -2;
+
+    private final HttpResponse response;
+
+    private final InputStream in;
+
+    private final byte[] buffer;
+
+    private final ByteBuffer view;
+
+    private final boolean ignoreEOFError;
+
+    private int pending = UNKNOWN;
+
+    private boolean closed;
+
+    /**
+     * 构造
+     *
+     * @param response   响应
+     * @param bufferSize 每块最大字节数
+     */
+    ResponseBodyIterator(HttpResponse response, int bufferSize) {
+        this.response = response;
+        this.in = response.bodyStream();
+        this.buffer = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buffer);
+        this.ignoreEOFError = response.config.ignoreEOFError;
+        if (null == this.in) {
+            close();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (pending == UNKNOWN) {
+            fill();
+        }
+        return pending > 0;
+    }
+
+    @Override
+    public ByteBuffer next() {
+        if (false == hasNext()) {
+            throw new NoSuchElementException();
+        }
+        view.clear();
+        view.limit(pending);
+        pending = UNKNOWN;
+        return view;
+    }
+
+    /**
+     * 关闭响应，未读取的内容被丢弃
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = -1;
+        response.close();
+    }
+
+    private void fill() {
+        int n;
+        try {
+            do {
+                n = in.read(buffer, 0, buffer.length);
+            } while (n == 0);
+        } catch (IOException e) {
+            close();
+            if (ignoreEOFError && (e instanceof EOFException || StrUtil.containsIgnoreCase(e.getMessage(), "Premature EOF"))) {
+                return;
+            }
+            throw new IORuntimeException(e);
+        }
+        if (n == -1) {
+            close();
+            return;
+        }
+        pending = n;
+    }
+}
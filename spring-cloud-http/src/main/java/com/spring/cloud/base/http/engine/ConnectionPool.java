@@ -0,0 +1,379 @@
+package com.spring.cloud.base.http.engine;
+
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author: ls
+ * @Description: HTTP/1.1连接池
+ * 每个路由与全部路由分别限制同时使用的连接数，超出时等待，最长等待时间单独配置，与连接超时无关；
+ * 空闲连接按后进先出复用，超过空闲时间或服务端Keep-Alive指定时间的连接由后台线程关闭<br>
+ * 借出的连接跟踪其使用者，使用者未归还连接（响应体未读完也未关闭）即被回收时，由后台线程关闭连接并归还许可
+ * @Date: 2023/5/22 10:15
+ */
+final class ConnectionPool {
+
+    /**
+     * 检查未归还连接的间隔，毫秒
+     */
+    private static final long RECLAIM_PERIOD = 1000L;
+
+    private final Map<Route, RoutePool> routes = new ConcurrentHashMap<>();
+
+    private final int maxTotal;
+
+    private final int maxPerRoute;
+
+    private final long idleTimeout;
+
+    private final long validateAfterInactivity;
+
+    private final long leaseTimeout;
+
+    private final Semaphore totalPermits;
+
+    private final AtomicInteger totalPending = new AtomicInteger();
+
+    private final AtomicLong created = new AtomicLong();
+
+    private final AtomicLong reused = new AtomicLong();
+
+    private final AtomicLong closed = new AtomicLong();
+
+    /**
+     * 借出中的连接，持有引用以保证使用者被回收时引用能进入队列
+     */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    private final ReferenceQueue<Object> abandoned = new ReferenceQueue<>();
+
+    private volatile ScheduledExecutorService evictor;
+
+    private volatile boolean shutdown;
+
+    /**
+     * 构造
+     *
+     * @param maxTotal                全部路由最多同时使用的连接数
+     * @param maxPerRoute             每个路由最多同时使用的连接数
+     * @param idleTimeout             空闲连接保留时间，毫秒
+     * @param validateAfterInactivity 空闲超过该时间的连接在复用前检查是否已被关闭，毫秒
+     * @param leaseTimeout            等待可用连接的最长时间，毫秒，不大于0表示一直等待
+     */
+    ConnectionPool(int maxTotal, int maxPerRoute, long idleTimeout, long validateAfterInactivity, long leaseTimeout) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.idleTimeout = idleTimeout;
+        this.validateAfterInactivity = validateAfterInactivity;
+        this.leaseTimeout = leaseTimeout;
+        this.totalPermits = new Semaphore(maxTotal, true);
+    }
+
+    /**
+     * 获取连接，优先复用空闲连接
+     *
+     * @param route          路由
+     * @param connectTimeout 连接超时，不大于0表示不超时
+     * @param forceNew       是否强制新建连接，用于复用的连接失效后重试
+     * @param owner          使用者，使用者未归还连接即被回收时连接由连接池回收
+     * @return 连接
+     * @throws IOException IO异常，等待超时时抛出 {@link SocketTimeoutException}
+     */
+    PooledConnection lease(Route route, int connectTimeout, boolean forceNew, Object owner) throws IOException {
+        if (shutdown) {
+            throw new IOException("Connection pool has been shut down");
+        }
+        final RoutePool pool = routes.computeIfAbsent(route, key -> new RoutePool(maxPerRoute));
+        acquire(pool);
+        try {
+            PooledConnection connection = false == forceNew ? pool.pollIdle(this) : null;
+            if (null != connection) {
+                connection.reused = true;
+                reused.incrementAndGet();
+                pool.reused.incrementAndGet();
+            } else {
+                connection = PooledConnection.connect(route, connectTimeout);
+                created.incrementAndGet();
+                pool.created.incrementAndGet();
+            }
+            connection.lease = new Lease(owner, connection, abandoned);
+            leases.add(connection.lease);
+            ensureEvictor();
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            pool.permits.release();
+            totalPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接
+     *
+     * @param connection 连接
+     * @param reusable   是否可复用，不可复用时直接关闭
+     */
+    void release(PooledConnection connection, boolean reusable) {
+        final Lease lease = connection.lease;
+        connection.lease = null;
+        if (null != lease) {
+            lease.clear();
+            if (false == leases.remove(lease)) {
+                // 已被回收，许可已归还
+                return;
+            }
+        }
+        final RoutePool pool = routes.get(connection.route);
+        try {
+            if (reusable && false == shutdown && null != pool && pool.offerIdle(connection, maxPerRoute)) {
+                ensureEvictor();
+            } else {
+                discard(connection);
+            }
+        } finally {
+            if (null != pool) {
+                pool.permits.release();
+            }
+            totalPermits.release();
+        }
+    }
+
+    /**
+     * 全部路由的统计
+     *
+     * @return {@link PoolStats}
+     */
+    PoolStats stats() {
+        int idle = 0;
+        int pending = totalPending.get();
+        for (RoutePool pool : routes.values()) {
+            idle += pool.idleCount();
+        }
+        return new PoolStats(maxTotal - totalPermits.availablePermits(), idle, pending, maxTotal,
+                created.get(), reused.get(), closed.get());
+    }
+
+    /**
+     * 每个路由的统计
+     *
+     * @return 路由与统计，路由格式为scheme://host:port
+     */
+    Map<String, PoolStats> routeStats() {
+        final Map<String, PoolStats> result = new LinkedHashMap<>();
+        for (Map.Entry<Route, RoutePool> entry : routes.entrySet()) {
+            final RoutePool pool = entry.getValue();
+            result.put(entry.getKey().toString(), new PoolStats(maxPerRoute - pool.permits.availablePermits(),
+                    pool.idleCount(), pool.pending.get(), maxPerRoute, pool.created.get(), pool.reused.get(), pool.closed.get()));
+        }
+        return result;
+    }
+
+    /**
+     * 关闭所有空闲连接，之后归还的连接直接关闭
+     */
+    void shutdown() {
+        shutdown = true;
+        final ScheduledExecutorService evictor = this.evictor;
+        if (null != evictor) {
+            evictor.shutdownNow();
+        }
+        for (RoutePool pool : routes.values()) {
+            pool.evict(this, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 关闭过期的空闲连接
+     *
+     * @param now 当前时间
+     */
+    void evictExpired(long now) {
+        for (RoutePool pool : routes.values()) {
+            pool.evict(this, now);
+        }
+    }
+
+    /**
+     * 回收使用者已被回收但未归还的连接，关闭连接并归还许可
+     *
+     * @return 回收的连接数
+     */
+    int reclaimAbandoned() {
+        int count = 0;
+        Reference<?> reference;
+        while (null != (reference = abandoned.poll())) {
+            final Lease lease = (Lease) reference;
+            if (leases.remove(lease)) {
+                final PooledConnection connection = lease.connection;
+                connection.lease = null;
+                discard(connection);
+                final RoutePool pool = routes.get(connection.route);
+                if (null != pool) {
+                    pool.permits.release();
+                }
+                totalPermits.release();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void acquire(RoutePool pool) throws IOException {
+        reclaimAbandoned();
+        pool.pending.incrementAndGet();
+        totalPending.incrementAndGet();
+        try {
+            final long deadline = leaseTimeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeout) : 0;
+            if (false == tryAcquire(pool.permits, deadline)) {
+                throw new SocketTimeoutException("Timeout waiting for connection to route, max per route: " + maxPerRoute);
+            }
+            if (false == tryAcquire(totalPermits, deadline)) {
+                pool.permits.release();
+                throw new SocketTimeoutException("Timeout waiting for connection from pool, max total: " + maxTotal);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for connection", e);
+        } finally {
+            pool.pending.decrementAndGet();
+            totalPending.decrementAndGet();
+        }
+    }
+
+    private static boolean tryAcquire(Semaphore permits, long deadline) throws InterruptedException {
+        if (deadline == 0) {
+            permits.acquire();
+            return true;
+        }
+        return permits.tryAcquire(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    private void discard(PooledConnection connection) {
+        connection.close();
+        closed.incrementAndGet();
+        final RoutePool pool = routes.get(connection.route);
+        if (null != pool) {
+            pool.closed.incrementAndGet();
+        }
+    }
+
+    private boolean isExpired(PooledConnection connection, long now) {
+        return now - connection.idleSince >= idleTimeout || (connection.expireAt > 0 && now >= connection.expireAt);
+    }
+
+    private void ensureEvictor() {
+        if (null == evictor) {
+            synchronized (this) {
+                if (null == evictor && false == shutdown) {
+                    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                            ThreadFactoryBuilder.create().setNamePrefix("http-pool-evictor-").setDaemon(true).build());
+                    final long period = Math.max(idleTimeout / 2, 1000L);
+                    executor.scheduleWithFixedDelay(() -> evictExpired(System.currentTimeMillis()), period, period, TimeUnit.MILLISECONDS);
+                    executor.scheduleWithFixedDelay(this::reclaimAbandoned, RECLAIM_PERIOD, RECLAIM_PERIOD, TimeUnit.MILLISECONDS);
+                    evictor = executor;
+                }
+            }
+        }
+    }
+
+    /**
+     * 借出记录，使用者被回收后进入引用队列
+     */
+    static final class Lease extends PhantomReference<Object> {
+
+        private final PooledConnection connection;
+
+        private Lease(Object owner, PooledConnection connection, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * 单个路由的连接
+     */
+    private static final class RoutePool {
+
+        private final Semaphore permits;
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final AtomicLong created = new AtomicLong();
+
+        private final AtomicLong reused = new AtomicLong();
+
+        private final AtomicLong closed = new AtomicLong();
+
+        private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+        private RoutePool(int maxPerRoute) {
+            this.permits = new Semaphore(maxPerRoute, true);
+        }
+
+        private PooledConnection pollIdle(ConnectionPool owner) {
+            final long now = System.currentTimeMillis();
+            while (true) {
+                final PooledConnection connection;
+                synchronized (idle) {
+                    connection = idle.pollFirst();
+                }
+                if (null == connection) {
+                    return null;
+                }
+                if (owner.isExpired(connection, now)
+                        || (now - connection.idleSince >= owner.validateAfterInactivity && connection.isStale())) {
+                    owner.discard(connection);
+                    continue;
+                }
+                return connection;
+            }
+        }
+
+        private boolean offerIdle(PooledConnection connection, int maxIdle) {
+            connection.idleSince = System.currentTimeMillis();
+            synchronized (idle) {
+                if (idle.size() >= maxIdle) {
+                    return false;
+                }
+                idle.offerFirst(connection);
+                return true;
+            }
+        }
+
+        private void evict(ConnectionPool owner, long now) {
+            synchronized (idle) {
+                for (Iterator<PooledConnection> iterator = idle.iterator(); iterator.hasNext(); ) {
+                    final PooledConnection connection = iterator.next();
+                    if (now == Long.MAX_VALUE || owner.isExpired(connection, now)) {
+                        iterator.remove();
+                        owner.discard(connection);
+                    }
+                }
+            }
+        }
+
+        private int idleCount() {
+            synchronized (idle) {
+                return idle.size();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.spring.cloud.base.http.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+
+/**
+ * @Author: ls
+ * @Description: HTTP传输引擎，负责为每次请求打开连接
+ * 引擎返回标准的 {@link HttpURLConnection}，请求的设置、发送与响应的读取方式不变，
+ * 因此 HttpConnection、HttpResponse 以及Cookie、编码等处理对所有引擎一致<br>
+ * 可通过 HttpGlobalConfig#setEngine 全局设置，或通过 HttpRequest#setEngine 为单个请求设置
+ * @Date: 2023/5/22 10:15
+ */
+public interface HttpEngine extends Closeable {
+
+    /**
+     * 打开连接，此时不发送任何数据
+     *
+     * @param url   URL
+     * @param proxy 代理，无代理传{@code null}
+     * @return {@link HttpURLConnection}，https时返回 {@link javax.net.ssl.HttpsURLConnection}
+     * @throws IOException IO异常
+     */
+    HttpURLConnection open(URL url, Proxy proxy) throws IOException;
+
+    /**
+     * 获取引擎名称
+     *
+     * @return 名称
+     */
+    String getName();
+
+    /**
+     * 关闭引擎，释放持有的连接，默认无操作
+     */
+    @Override
+    default void close() {
+    }
+}
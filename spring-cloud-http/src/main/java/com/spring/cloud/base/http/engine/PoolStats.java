@@ -0,0 +1,110 @@
+package com.spring.cloud.base.http.engine;
+
+import java.io.Serializable;
+
+/**
+ * @Author: ls
+ * @Description: 连接池统计，某一时刻的快照
+ * @Date: 2023/5/22 10:15
+ */
+public class PoolStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int leased;
+    private final int idle;
+    private final int pending;
+    private final int max;
+    private final long created;
+    private final long reused;
+    private final long closed;
+
+    /**
+     * 构造
+     *
+     * @param leased  使用中的连接数
+     * @param idle    空闲连接数
+     * @param pending 等待连接的请求数
+     * @param max     最大连接数
+     * @param created 累计创建的连接数
+     * @param reused  累计复用连接的次数
+     * @param closed  累计关闭的连接数，包括过期淘汰与异常关闭
+     */
+    public PoolStats(int leased, int idle, int pending, int max, long created, long reused, long closed) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+        this.created = created;
+        this.reused = reused;
+        this.closed = closed;
+    }
+
+    /**
+     * 使用中的连接数
+     *
+     * @return 连接数
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * 空闲连接数
+     *
+     * @return 连接数
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * 等待连接的请求数
+     *
+     * @return 请求数
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * 最大连接数
+     *
+     * @return 连接数
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * 累计创建的连接数
+     *
+     * @return 连接数
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * 累计复用连接的次数
+     *
+     * @return 次数
+     */
+    public long getReused() {
+        return reused;
+    }
+
+    /**
+     * 累计关闭的连接数，包括过期淘汰与异常关闭
+     *
+     * @return 连接数
+     */
+    public long getClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats[leased=" + leased + ", idle=" + idle + ", pending=" + pending + ", max=" + max
+                + ", created=" + created + ", reused=" + reused + ", closed=" + closed + ']';
+    }
+}
@@ -0,0 +1,142 @@
+package com.spring.cloud.base.http.engine;
+
+import com.spring.cloud.base.http.DefaultSSLInfo;
+import com.spring.cloud.base.utils.crypto.ObjectUtil;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+/**
+ * @Author: ls
+ * @Description: 连接池中的一个HTTP/1.1连接
+ * @Date: 2023/5/22 10:15
+ */
+final class PooledConnection {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    final Route route;
+
+    final Socket socket;
+
+    final BufferedInputStream in;
+
+    final BufferedOutputStream out;
+
+    /**
+     * 最后一次归还的时间
+     */
+    long idleSince;
+
+    /**
+     * 服务端通过Keep-Alive头指定的过期时间，0表示未指定
+     */
+    long expireAt;
+
+    /**
+     * 是否为复用的连接，复用的连接可能已被服务端关闭
+     */
+    boolean reused;
+
+    /**
+     * 借出记录，空闲时为null
+     */
+    volatile ConnectionPool.Lease lease;
+
+    private PooledConnection(Route route, Socket socket) throws IOException {
+        this.route = route;
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+    }
+
+    /**
+     * 建立连接，https时完成握手并校验域名
+     *
+     * @param route          路由
+     * @param connectTimeout 连接超时，不大于0表示不超时
+     * @return 连接
+     * @throws IOException IO异常
+     */
+    static PooledConnection connect(Route route, int connectTimeout) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(route.host, route.port), Math.max(connectTimeout, 0));
+            if (route.https) {
+                final SSLSocketFactory ssf = ObjectUtil.defaultIfNull(route.ssf, DefaultSSLInfo.DEFAULT_SSF);
+                final SSLSocket sslSocket = (SSLSocket) ssf.createSocket(socket, route.host, route.port, true);
+                socket = sslSocket;
+                if (connectTimeout > 0) {
+                    sslSocket.setSoTimeout(connectTimeout);
+                }
+                sslSocket.startHandshake();
+                final HostnameVerifier verifier = ObjectUtil.defaultIfNull(route.hostnameVerifier, DefaultSSLInfo.TRUST_ANY_HOSTNAME_VERIFIER);
+                if (false == verifier.verify(route.host, sslSocket.getSession())) {
+                    throw new SSLPeerUnverifiedException("Hostname " + route.host + " not verified");
+                }
+            }
+            return new PooledConnection(route, socket);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+    }
+
+    /**
+     * 设置读取超时
+     *
+     * @param readTimeout 读取超时，不大于0表示不超时
+     * @throws IOException IO异常
+     */
+    void setReadTimeout(int readTimeout) throws IOException {
+        socket.setSoTimeout(Math.max(readTimeout, 0));
+    }
+
+    /**
+     * 检查空闲连接是否已被服务端关闭，通过1毫秒的读取探测，连接正常时读取超时
+     *
+     * @return 是否不可用
+     */
+    boolean isStale() {
+        if (socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            return true;
+        }
+        try {
+            final int timeout = socket.getSoTimeout();
+            try {
+                socket.setSoTimeout(1);
+                // 读到结尾说明已被关闭，空闲时读到数据说明连接状态异常，都不可复用
+                in.read();
+                return true;
+            } finally {
+                socket.setSoTimeout(timeout);
+            }
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    void close() {
+        closeQuietly(socket);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignore) {
+            // ignore
+        }
+    }
+}
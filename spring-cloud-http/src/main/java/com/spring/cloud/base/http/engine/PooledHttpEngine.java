@@ -0,0 +1,131 @@
+package com.spring.cloud.base.http.engine;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: 带连接池的HTTP/1.1引擎
+ * 与JDK的Keep-Alive缓存相比，连接数有上限（总数与每个目标），超出时等待可用连接，最长等待 {@link #DEFAULT_LEASE_TIMEOUT}；
+ * 空闲连接按后进先出复用并定期清理，空闲超过一定时间的连接复用前检查是否已被服务端关闭<br>
+ * 响应体读完或关闭、或断开连接时连接归还连接池；未关闭的响应被回收后，其连接由连接池关闭并释放<br>
+ * 使用代理或非http协议时交给JDK处理；引擎不再使用时应调用 {@link #close()} 关闭所有连接
+ * <pre>
+ * HttpGlobalConfig.setEngine(PooledHttpEngine.create());
+ * </pre>
+ * @Date: 2023/5/22 10:15
+ */
+public class PooledHttpEngine implements HttpEngine {
+
+    /**
+     * 默认最大连接数
+     */
+    public static final int DEFAULT_MAX_TOTAL = 256;
+    /**
+     * 默认每个目标（协议、主机与端口）的最大连接数
+     */
+    public static final int DEFAULT_MAX_PER_ROUTE = 64;
+    /**
+     * 默认空闲连接保留时间，单位：毫秒
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 60 * 1000L;
+    /**
+     * 默认空闲多久后复用前检查连接，单位：毫秒
+     */
+    public static final long DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000L;
+    /**
+     * 默认等待可用连接的最长时间，单位：毫秒
+     */
+    public static final long DEFAULT_LEASE_TIMEOUT = 30 * 1000L;
+
+    private final ConnectionPool pool;
+
+    /**
+     * 使用默认参数创建引擎
+     *
+     * @return PooledHttpEngine
+     */
+    public static PooledHttpEngine create() {
+        return new PooledHttpEngine(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * 构造
+     *
+     * @param maxTotal    最大连接数
+     * @param maxPerRoute 每个目标的最大连接数
+     * @param idleTimeout 空闲连接保留时间，单位：毫秒
+     */
+    public PooledHttpEngine(int maxTotal, int maxPerRoute, long idleTimeout) {
+        this(maxTotal, maxPerRoute, idleTimeout, DEFAULT_VALIDATE_AFTER_INACTIVITY);
+    }
+
+    /**
+     * 构造
+     *
+     * @param maxTotal                最大连接数
+     * @param maxPerRoute             每个目标的最大连接数
+     * @param idleTimeout             空闲连接保留时间，单位：毫秒
+     * @param validateAfterInactivity 空闲超过此时间的连接复用前检查是否可用，单位：毫秒，0表示每次检查
+     */
+    public PooledHttpEngine(int maxTotal, int maxPerRoute, long idleTimeout, long validateAfterInactivity) {
+        this(maxTotal, maxPerRoute, idleTimeout, validateAfterInactivity, DEFAULT_LEASE_TIMEOUT);
+    }
+
+    /**
+     * 构造
+     *
+     * @param maxTotal                最大连接数
+     * @param maxPerRoute             每个目标的最大连接数
+     * @param idleTimeout             空闲连接保留时间，单位：毫秒
+     * @param validateAfterInactivity 空闲超过此时间的连接复用前检查是否可用，单位：毫秒，0表示每次检查
+     * @param leaseTimeout            等待可用连接的最长时间，超时抛出 {@link java.net.SocketTimeoutException}，单位：毫秒，不大于0表示一直等待
+     */
+    public PooledHttpEngine(int maxTotal, int maxPerRoute, long idleTimeout, long validateAfterInactivity, long leaseTimeout) {
+        this.pool = new ConnectionPool(maxTotal, maxPerRoute, idleTimeout, validateAfterInactivity, leaseTimeout);
+    }
+
+    @Override
+    public HttpURLConnection open(URL url, Proxy proxy) throws IOException {
+        final String protocol = url.getProtocol();
+        if ((null != proxy && Proxy.Type.DIRECT != proxy.type())
+                || (false == "http".equalsIgnoreCase(protocol) && false == "https".equalsIgnoreCase(protocol))) {
+            return UrlConnectionEngine.INSTANCE.open(url, proxy);
+        }
+        return new PooledHttpURLConnection(url, pool);
+    }
+
+    @Override
+    public String getName() {
+        return "Pooled";
+    }
+
+    /**
+     * 获取连接池统计
+     *
+     * @return {@link PoolStats}
+     */
+    public PoolStats getStats() {
+        return pool.stats();
+    }
+
+    /**
+     * 获取每个目标的连接统计，键为目标，如https://example.com:443
+     *
+     * @return 目标与统计
+     */
+    public Map<String, PoolStats> getRouteStats() {
+        return pool.routeStats();
+    }
+
+    /**
+     * 关闭所有空闲连接，之后不能再打开连接，正在使用的连接在归还时关闭
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,894 @@
+package com.spring.cloud.base.http.engine;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: 基于连接池的HTTP/1.1连接，实现 {@link HttpURLConnection} 的请求与响应语义
+ * 请求体默认缓存在内存中，读取响应时与请求头一起发送，设置了固定长度或Chunked模式时直接写出到连接；
+ * 响应体读取到结尾或关闭时连接归还连接池，未读完的响应体在关闭时尝试读完，超过64KB时关闭连接<br>
+ * 复用的连接在发送请求或读取状态行时失败（通常为服务端已关闭空闲连接），且请求体可重发时，使用新连接重试一次；
+ * 非幂等请求（POST、PATCH等）只在请求未完整写出时重试，避免服务端已处理的请求被重复执行<br>
+ * 与JDK一致，请求方法、请求头与请求路径中不允许出现换行等控制字符，避免拼接出额外的请求头或请求<br>
+ * 非线程安全，与 {@link HttpURLConnection} 一致每个请求使用一个实例
+ * @Date: 2023/5/22 10:15
+ */
+final class PooledHttpURLConnection extends HttpsURLConnection {
+
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private static final int DRAIN_LIMIT = 64 * 1024;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    /**
+     * 请求方法与请求头名称允许的字符，见RFC 7230 token
+     */
+    private static final String TOKEN_SYMBOLS = "!#$%&'*+-.^_`|~";
+
+    private final ConnectionPool pool;
+
+    private Route route;
+
+    private PooledConnection connection;
+
+    private SSLSession session;
+
+    /**
+     * 连接时的请求头快照
+     */
+    private Map<String, List<String>> requestHeaders;
+
+    private ByteArrayOutputStream bufferedBody;
+
+    private OutputStream streamingBody;
+
+    private boolean requestSent;
+
+    private boolean responseRead;
+
+    private boolean responseStarted;
+
+    private IOException failure;
+
+    private String statusLine;
+
+    private final List<String> headerKeys = new ArrayList<>();
+
+    private final List<String> headerValues = new ArrayList<>();
+
+    private Map<String, List<String>> headerFields;
+
+    private InputStream body;
+
+    private boolean keepAlive;
+
+    PooledHttpURLConnection(URL url, ConnectionPool pool) {
+        super(url);
+        this.pool = pool;
+    }
+
+    /**
+     * 与JDK不同，允许任意方法名，包括PATCH
+     */
+    @Override
+    public void setRequestMethod(String method) throws ProtocolException {
+        if (connected) {
+            throw new ProtocolException("Can't reset method: already connected");
+        }
+        if (false == isToken(method)) {
+            throw new ProtocolException("Invalid HTTP method: " + method);
+        }
+        this.method = method;
+    }
+
+    @Override
+    public void setRequestProperty(String key, String value) {
+        checkMessageHeader(key, value);
+        super.setRequestProperty(key, value);
+    }
+
+    @Override
+    public void addRequestProperty(String key, String value) {
+        checkMessageHeader(key, value);
+        super.addRequestProperty(key, value);
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (connected) {
+            return;
+        }
+        checkRequestTarget(url.getFile());
+        // 连接后不能再读取请求头
+        this.requestHeaders = new LinkedHashMap<>(getRequestProperties());
+        this.route = new Route(url, getSSLSocketFactory(), getHostnameVerifier());
+        lease(false);
+        connected = true;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (false == doOutput) {
+            throw new ProtocolException("cannot write to a URLConnection if doOutput=false - call setDoOutput(true)");
+        }
+        if (responseRead) {
+            throw new ProtocolException("Cannot write output after reading input.");
+        }
+        if (null != streamingBody) {
+            return streamingBody;
+        }
+        if (null != bufferedBody) {
+            return bufferedBody;
+        }
+        connect();
+        final long fixedLength = fixedContentLengthLong != -1 ? fixedContentLengthLong : fixedContentLength;
+        if (fixedLength >= 0 || chunkLength > 0) {
+            try {
+                writeHead(fixedLength, fixedLength < 0);
+            } catch (IOException e) {
+                releaseConnection(false);
+                throw e;
+            }
+            requestSent = true;
+            streamingBody = fixedLength >= 0
+                    ? new FixedLengthOutputStream(connection.out, fixedLength)
+                    : new ChunkedOutputStream(connection.out, chunkLength);
+            return streamingBody;
+        }
+        bufferedBody = new ByteArrayOutputStream();
+        return bufferedBody;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (false == doInput) {
+            throw new ProtocolException("Cannot read from URLConnection if doInput=false (call setDoInput(true))");
+        }
+        readResponse();
+        if (responseCode >= HTTP_BAD_REQUEST) {
+            if (responseCode == HTTP_NOT_FOUND || responseCode == HTTP_GONE) {
+                throw new FileNotFoundException(url.toString());
+            }
+            throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+        }
+        return body;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        if (responseRead && null == failure && responseCode >= HTTP_BAD_REQUEST) {
+            return body;
+        }
+        return null;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        readResponse();
+        return responseCode;
+    }
+
+    @Override
+    public String getResponseMessage() throws IOException {
+        readResponse();
+        return responseMessage;
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        if (false == readResponseQuietly() || null == name) {
+            return null;
+        }
+        for (int i = headerKeys.size() - 1; i >= 0; i--) {
+            if (name.equalsIgnoreCase(headerKeys.get(i))) {
+                return headerValues.get(i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        if (false == readResponseQuietly()) {
+            return Collections.emptyMap();
+        }
+        if (null == headerFields) {
+            final Map<String, List<String>> fields = new LinkedHashMap<>();
+            fields.put(null, Collections.singletonList(statusLine));
+            for (int i = 0; i < headerKeys.size(); i++) {
+                fields.computeIfAbsent(headerKeys.get(i), key -> new ArrayList<>(1)).add(headerValues.get(i));
+            }
+            fields.replaceAll((key, values) -> Collections.unmodifiableList(values));
+            headerFields = Collections.unmodifiableMap(fields);
+        }
+        return headerFields;
+    }
+
+    @Override
+    public String getHeaderField(int n) {
+        if (false == readResponseQuietly()) {
+            return null;
+        }
+        if (n == 0) {
+            return statusLine;
+        }
+        return n > 0 && n <= headerValues.size() ? headerValues.get(n - 1) : null;
+    }
+
+    @Override
+    public String getHeaderFieldKey(int n) {
+        if (false == readResponseQuietly()) {
+            return null;
+        }
+        return n > 0 && n <= headerKeys.size() ? headerKeys.get(n - 1) : null;
+    }
+
+    /**
+     * 关闭未归还的连接，可在其它线程中调用以中止正在进行的请求
+     */
+    @Override
+    public void disconnect() {
+        // 未归还说明响应体未读完或请求失败，连接不可复用
+        releaseConnection(false);
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    @Override
+    public String getCipherSuite() {
+        return sslSession().getCipherSuite();
+    }
+
+    @Override
+    public Certificate[] getLocalCertificates() {
+        return sslSession().getLocalCertificates();
+    }
+
+    @Override
+    public Certificate[] getServerCertificates() throws SSLPeerUnverifiedException {
+        return sslSession().getPeerCertificates();
+    }
+
+    private SSLSession sslSession() {
+        if (null == session) {
+            throw new IllegalStateException("connection not yet open or not https");
+        }
+        return session;
+    }
+
+    private void lease(boolean forceNew) throws IOException {
+        this.connection = pool.lease(route, getConnectTimeout(), forceNew, this);
+        try {
+            this.connection.setReadTimeout(getReadTimeout());
+        } catch (IOException e) {
+            releaseConnection(false);
+            throw e;
+        }
+        if (connection.socket instanceof SSLSocket) {
+            this.session = ((SSLSocket) connection.socket).getSession();
+        }
+    }
+
+    private boolean readResponseQuietly() {
+        try {
+            readResponse();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 发送请求（如未发送）并读取响应头，只执行一次
+     */
+    private void readResponse() throws IOException {
+        if (responseRead) {
+            if (null != failure) {
+                throw failure;
+            }
+            return;
+        }
+        responseRead = true;
+        try {
+            connect();
+            if (null != streamingBody) {
+                // 结束请求体，Chunked模式写出结尾块
+                streamingBody.close();
+            }
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    if (false == requestSent) {
+                        sendRequest();
+                    }
+                    readResponseHead();
+                    break;
+                } catch (IOException e) {
+                    final PooledConnection current = connection;
+                    final boolean retry = attempt == 0 && null != current && current.reused && null == streamingBody
+                            && false == responseStarted && false == e instanceof SocketTimeoutException
+                            && (isIdempotent() || false == requestSent);
+                    releaseConnection(false);
+                    if (false == retry) {
+                        throw e;
+                    }
+                    requestSent = false;
+                    lease(true);
+                }
+            }
+        } catch (IOException e) {
+            releaseConnection(false);
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * 请求方法是否幂等，幂等请求在请求已发出后仍可重试
+     *
+     * @return 是否幂等
+     */
+    private boolean isIdempotent() {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || "TRACE".equals(method) || "PUT".equals(method) || "DELETE".equals(method);
+    }
+
+    private void sendRequest() throws IOException {
+        final byte[] content = null == bufferedBody ? null : bufferedBody.toByteArray();
+        long contentLength = -1;
+        if (null != content) {
+            contentLength = content.length;
+        } else if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)) {
+            contentLength = 0;
+        }
+        writeHead(contentLength, false);
+        if (null != content) {
+            connection.out.write(content);
+        }
+        connection.out.flush();
+        requestSent = true;
+    }
+
+    /**
+     * 写出请求行与请求头，Host、Content-Length与Transfer-Encoding由连接自动生成
+     *
+     * @param contentLength 请求体长度，-1表示无
+     * @param chunked       是否为Chunked模式
+     */
+    private void writeHead(long contentLength, boolean chunked) throws IOException {
+        final String file = url.getFile();
+        final StringBuilder head = new StringBuilder(256);
+        head.append(method).append(' ').append(file.isEmpty() ? "/" : file).append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(route.hostHeader()).append("\r\n");
+        for (Map.Entry<String, List<String>> entry : requestHeaders.entrySet()) {
+            final String name = entry.getKey();
+            if (null == name || "Host".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name)
+                    || "Transfer-Encoding".equalsIgnoreCase(name)) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                head.append(name).append(": ").append(null == value ? "" : value).append("\r\n");
+            }
+        }
+        if (chunked) {
+            head.append("Transfer-Encoding: chunked\r\n");
+        } else if (contentLength >= 0) {
+            head.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        head.append("\r\n");
+        connection.out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void readResponseHead() throws IOException {
+        final InputStream in = connection.in;
+        responseStarted = false;
+        while (true) {
+            headerKeys.clear();
+            headerValues.clear();
+            final String line = readLine(in);
+            if (null == line) {
+                throw new EOFException("Unexpected end of stream from " + route);
+            }
+            responseStarted = true;
+            parseStatusLine(line);
+            for (String header; null != (header = readLine(in)) && false == header.isEmpty(); ) {
+                final int colon = header.indexOf(':');
+                if (colon <= 0) {
+                    continue;
+                }
+                headerKeys.add(header.substring(0, colon).trim());
+                headerValues.add(header.substring(colon + 1).trim());
+            }
+            // 跳过100 Continue等临时响应
+            if (responseCode >= 100 && responseCode < 200 && responseCode != 101) {
+                continue;
+            }
+            break;
+        }
+        initBody();
+    }
+
+    private void parseStatusLine(String line) throws IOException {
+        if (false == line.startsWith("HTTP/")) {
+            throw new ProtocolException("Invalid status line: " + line);
+        }
+        final int codeStart = line.indexOf(' ');
+        if (codeStart < 0 || line.length() < codeStart + 4) {
+            throw new ProtocolException("Invalid status line: " + line);
+        }
+        try {
+            responseCode = Integer.parseInt(line.substring(codeStart + 1, codeStart + 4));
+        } catch (NumberFormatException e) {
+            throw new ProtocolException("Invalid status line: " + line);
+        }
+        responseMessage = line.length() > codeStart + 5 ? line.substring(codeStart + 5) : "";
+        statusLine = line;
+    }
+
+    private void initBody() {
+        final boolean http10 = statusLine.startsWith("HTTP/1.0");
+        final String responseConnection = getHeaderField("Connection");
+        final String requestConnection = requestHeader("Connection");
+        if ("close".equalsIgnoreCase(responseConnection) || "close".equalsIgnoreCase(requestConnection)) {
+            keepAlive = false;
+        } else {
+            keepAlive = false == http10 || "keep-alive".equalsIgnoreCase(responseConnection);
+        }
+        if (keepAlive) {
+            applyKeepAliveTimeout(getHeaderField("Keep-Alive"));
+        }
+
+        if ("HEAD".equals(method) || responseCode == HTTP_NO_CONTENT || responseCode == HTTP_NOT_MODIFIED
+                || (responseCode >= 100 && responseCode < 200)) {
+            body = new BodyInputStream(0);
+            return;
+        }
+        final String transferEncoding = getHeaderField("Transfer-Encoding");
+        if (null != transferEncoding && transferEncoding.toLowerCase().endsWith("chunked")) {
+            body = new BodyInputStream(BodyInputStream.CHUNKED);
+            return;
+        }
+        long length = -1;
+        final String contentLength = getHeaderField("Content-Length");
+        if (null != contentLength) {
+            try {
+                length = Long.parseLong(contentLength);
+            } catch (NumberFormatException ignore) {
+                // 按读取到连接关闭处理
+            }
+        }
+        if (length < 0) {
+            keepAlive = false;
+            length = BodyInputStream.UNTIL_CLOSE;
+        }
+        body = new BodyInputStream(length);
+    }
+
+    /**
+     * 服务端通过 Keep-Alive: timeout=5 指定空闲连接保留时间
+     */
+    private void applyKeepAliveTimeout(String keepAliveHeader) {
+        if (null == keepAliveHeader) {
+            return;
+        }
+        for (String param : keepAliveHeader.split(",")) {
+            final String[] pair = param.trim().split("=", 2);
+            if (pair.length == 2 && "timeout".equalsIgnoreCase(pair[0].trim())) {
+                try {
+                    final long seconds = Long.parseLong(pair[1].trim());
+                    // 提前1秒过期，避免与服务端关闭的时刻竞争
+                    connection.expireAt = System.currentTimeMillis() + Math.max(seconds - 1, 0) * 1000L;
+                } catch (NumberFormatException ignore) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private String requestHeader(String name) {
+        for (Map.Entry<String, List<String>> entry : requestHeaders.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && false == entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 归还连接，只执行一次；{@link #disconnect()} 可能在其它线程中调用以中止请求
+     */
+    private synchronized void releaseConnection(boolean reusable) {
+        final PooledConnection connection = this.connection;
+        if (null != connection) {
+            this.connection = null;
+            pool.release(connection, reusable);
+        }
+    }
+
+    /**
+     * 校验请求头，名称必须为token，值中不允许出现除制表符外的控制字符；
+     * 与JDK不同，不允许值中以换行加空白折行，RFC 7230已禁止发送折行的请求头
+     *
+     * @throws IllegalArgumentException 包含非法字符
+     */
+    private static void checkMessageHeader(String key, String value) {
+        if (null == key) {
+            // 交给父类抛出NullPointerException
+            return;
+        }
+        if (false == isToken(key)) {
+            throw new IllegalArgumentException("Illegal character(s) in message header field: " + key);
+        }
+        if (null == value) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if ((c < ' ' && c != '\t') || c == 0x7f) {
+                throw new IllegalArgumentException("Illegal character(s) in message header value: " + value);
+            }
+        }
+    }
+
+    /**
+     * 校验请求路径，不允许空白与控制字符，否则请求行会被拆分
+     *
+     * @throws MalformedURLException 包含非法字符
+     */
+    private static void checkRequestTarget(String target) throws MalformedURLException {
+        for (int i = 0; i < target.length(); i++) {
+            final char c = target.charAt(i);
+            if (c <= ' ' || c == 0x7f) {
+                throw new MalformedURLException("Illegal character in URL: " + target);
+            }
+        }
+    }
+
+    private static boolean isToken(String value) {
+        if (null == value || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (false == ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || TOKEN_SYMBOLS.indexOf(c) >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取一行，不含行尾的CRLF
+     *
+     * @return 行，流结束时返回null
+     */
+    private static String readLine(InputStream in) throws IOException {
+        final StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                final int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new ProtocolException("Header line too long");
+            }
+            line.append((char) b);
+        }
+        if (line.length() > 0) {
+            throw new EOFException("Unexpected end of stream in header line");
+        }
+        return null;
+    }
+
+    /**
+     * 响应体，读取到结尾时归还连接
+     */
+    private final class BodyInputStream extends InputStream {
+
+        private static final long CHUNKED = -2;
+
+        private static final long UNTIL_CLOSE = -3;
+
+        private final InputStream in;
+
+        private final boolean chunked;
+
+        private final boolean untilClose;
+
+        /**
+         * 当前块或固定长度中剩余的字节数
+         */
+        private long remaining;
+
+        /**
+         * 是否已读取过块，之后的块长度行前有上一块数据的CRLF
+         */
+        private boolean chunkStarted;
+
+        private boolean eof;
+
+        private boolean closed;
+
+        private BodyInputStream(long length) {
+            this.in = connection.in;
+            this.chunked = length == CHUNKED;
+            this.untilClose = length == UNTIL_CLOSE;
+            this.remaining = length >= 0 ? length : 0;
+            if (length == 0) {
+                finish();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            return readBody(b, off, len);
+        }
+
+        private int readBody(byte[] b, int off, int len) throws IOException {
+            if (eof) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (untilClose) {
+                final int n = in.read(b, off, len);
+                if (n == -1) {
+                    finish();
+                }
+                return n;
+            }
+            if (chunked && remaining == 0 && false == nextChunk()) {
+                return -1;
+            }
+            final int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n == -1) {
+                throw new EOFException("Premature EOF");
+            }
+            remaining -= n;
+            if (remaining == 0 && false == chunked) {
+                finish();
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (closed || eof) {
+                return 0;
+            }
+            final int available = in.available();
+            return untilClose ? available : (int) Math.min(available, remaining);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (eof) {
+                return;
+            }
+            // 读完剩余的少量数据以便复用连接
+            if (false == untilClose) {
+                try {
+                    final byte[] buffer = new byte[4096];
+                    long drained = 0;
+                    while (drained <= DRAIN_LIMIT) {
+                        final int n = readBody(buffer, 0, buffer.length);
+                        if (n == -1) {
+                            break;
+                        }
+                        drained += n;
+                    }
+                } catch (IOException ignore) {
+                    // 按不可复用处理
+                }
+            }
+            if (false == eof) {
+                releaseConnection(false);
+            }
+        }
+
+        /**
+         * 读取下一个块的长度，最后一块时读取尾部头并结束
+         *
+         * @return 是否还有数据
+         */
+        private boolean nextChunk() throws IOException {
+            if (chunkStarted) {
+                // 上一块数据后的CRLF
+                final String end = readLine(in);
+                if (null == end || false == end.isEmpty()) {
+                    throw new ProtocolException("Invalid chunk end");
+                }
+            }
+            chunkStarted = true;
+            final String sizeLine = readLine(in);
+            if (null == sizeLine) {
+                throw new EOFException("Premature EOF");
+            }
+            final int extension = sizeLine.indexOf(';');
+            try {
+                remaining = Long.parseLong((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new ProtocolException("Invalid chunk size: " + sizeLine);
+            }
+            if (remaining == 0) {
+                // 忽略尾部头
+                for (String trailer; null != (trailer = readLine(in)) && false == trailer.isEmpty(); ) {
+                    // ignore
+                }
+                finish();
+                return false;
+            }
+            return true;
+        }
+
+        private void finish() {
+            eof = true;
+            releaseConnection(keepAlive && false == untilClose);
+        }
+    }
+
+    /**
+     * 固定长度的请求体，关闭时不关闭连接
+     */
+    private static final class FixedLengthOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        private long remaining;
+
+        private boolean closed;
+
+        private FixedLengthOutputStream(OutputStream out, long length) {
+            this.out = out;
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (len > remaining) {
+                throw new IOException("too many bytes written");
+            }
+            out.write(b, off, len);
+            remaining -= len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (remaining > 0) {
+                throw new IOException("insufficient data written");
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Chunked模式的请求体，关闭时写出结尾块，不关闭连接
+     */
+    private static final class ChunkedOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        private final byte[] buffer;
+
+        private int count;
+
+        private boolean closed;
+
+        private ChunkedOutputStream(OutputStream out, int chunkSize) {
+            this.out = out;
+            this.buffer = new byte[chunkSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            while (len > 0) {
+                final int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == buffer.length) {
+                    writeChunk();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeChunk();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writeChunk();
+            out.write('0');
+            out.write(CRLF);
+            out.write(CRLF);
+            out.flush();
+        }
+
+        private void writeChunk() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            out.write(Integer.toHexString(count).getBytes(StandardCharsets.ISO_8859_1));
+            out.write(CRLF);
+            out.write(buffer, 0, count);
+            out.write(CRLF);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.spring.cloud.base.http.engine;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSocketFactory;
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * @Author: ls
+ * @Description: 连接路由，协议、主机、端口相同且SSL设置相同的请求共用连接
+ * @Date: 2023/5/22 10:15
+ */
+final class Route {
+
+    final boolean https;
+
+    /**
+     * 主机，IPv6地址不带方括号
+     */
+    final String host;
+
+    final int port;
+
+    final SSLSocketFactory ssf;
+
+    final HostnameVerifier hostnameVerifier;
+
+    private final int hash;
+
+    Route(URL url, SSLSocketFactory ssf, HostnameVerifier hostnameVerifier) {
+        this.https = "https".equalsIgnoreCase(url.getProtocol());
+        final String host = url.getHost().toLowerCase(Locale.ROOT);
+        // URL中的IPv6地址带方括号，连接、SSL与域名校验使用不带方括号的地址
+        this.host = host.length() > 1 && host.charAt(0) == '[' && host.charAt(host.length() - 1) == ']'
+                ? host.substring(1, host.length() - 1) : host;
+        this.port = url.getPort() < 0 ? url.getDefaultPort() : url.getPort();
+        this.ssf = this.https ? ssf : null;
+        this.hostnameVerifier = this.https ? hostnameVerifier : null;
+        int hash = Boolean.hashCode(https);
+        hash = 31 * hash + host.hashCode();
+        hash = 31 * hash + port;
+        hash = 31 * hash + System.identityHashCode(this.ssf);
+        hash = 31 * hash + System.identityHashCode(this.hostnameVerifier);
+        this.hash = hash;
+    }
+
+    /**
+     * Host请求头，默认端口时省略
+     *
+     * @return Host
+     */
+    String hostHeader() {
+        final String host = authorityHost();
+        return port == (https ? 443 : 80) ? host : host + ':' + port;
+    }
+
+    /**
+     * 用于Host请求头与路由名称的主机，IPv6地址加方括号
+     */
+    private String authorityHost() {
+        return host.indexOf(':') >= 0 ? '[' + host + ']' : host;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (false == o instanceof Route) {
+            return false;
+        }
+        final Route route = (Route) o;
+        return https == route.https && port == route.port && host.equals(route.host)
+                && ssf == route.ssf && hostnameVerifier == route.hostnameVerifier;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return (https ? "https://" : "http://") + authorityHost() + ':' + port;
+    }
+}
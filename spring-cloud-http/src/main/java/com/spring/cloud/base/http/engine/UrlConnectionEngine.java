@@ -0,0 +1,36 @@
+package com.spring.cloud.base.http.engine;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * @Author: ls
+ * @Description: 基于JDK {@link HttpURLConnection} 的引擎，默认引擎
+ * 连接复用由JDK内部的Keep-Alive缓存决定，无法控制连接数与空闲时间
+ * @Date: 2023/5/22 10:15
+ */
+public class UrlConnectionEngine implements HttpEngine {
+
+    /**
+     * 单例
+     */
+    public static final UrlConnectionEngine INSTANCE = new UrlConnectionEngine();
+
+    @Override
+    public HttpURLConnection open(URL url, Proxy proxy) throws IOException {
+        final URLConnection conn = (null == proxy) ? url.openConnection() : url.openConnection(proxy);
+        if (false == conn instanceof HttpURLConnection) {
+            // 防止其它协议造成的转换异常
+            throw new IOException("'" + conn.getClass().getName() + "' of URL [" + url + "] is not a http connection, make sure URL is format for http.");
+        }
+        return (HttpURLConnection) conn;
+    }
+
+    @Override
+    public String getName() {
+        return "URLConnection";
+    }
+}
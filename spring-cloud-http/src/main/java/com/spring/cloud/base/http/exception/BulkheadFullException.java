@@ -0,0 +1,14 @@
+package com.spring.cloud.base.http.exception;
+
+/**
+ * @Author: ls
+ * @Description: 目标主机的并发数已满，请求未发送
+ * @Date: 2023/5/26 09:30
+ */
+public class BulkheadFullException extends HttpException {
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String messageTemplate, Object... params) {
+        super(messageTemplate, params);
+    }
+}
@@ -0,0 +1,14 @@
+package com.spring.cloud.base.http.exception;
+
+/**
+ * @Author: ls
+ * @Description: 目标主机熔断打开，请求未发送
+ * @Date: 2023/5/26 09:30
+ */
+public class CircuitBreakerOpenException extends HttpException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitBreakerOpenException(String messageTemplate, Object... params) {
+        super(messageTemplate, params);
+    }
+}
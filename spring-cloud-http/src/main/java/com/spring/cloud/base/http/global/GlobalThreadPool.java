@@ -1,10 +1,14 @@
 package com.spring.cloud.base.http.global;
 
 import com.spring.cloud.base.utils.ExecutorBuilder;
+import com.spring.cloud.base.utils.base.ReflectUtil;
 import com.spring.cloud.base.utils.exception.UtilException;
 
+import java.lang.reflect.Method;
+
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 /**
@@ -91,4 +95,23 @@ public class GlobalThreadPool {
     public static Future<?> submit(Runnable runnable) {
         return executor.submit(runnable);
     }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器，运行时不支持虚拟线程（JDK 21以下）时返回{@code null}<br>
+     * 适合执行阻塞IO的任务，如异步Http请求
+     *
+     * @return {@link ExecutorService}，不支持时返回{@code null}
+     */
+    public static ExecutorService createVirtualThreadExecutor() {
+        final Method method = ReflectUtil.getPublicMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+        if (null == method) {
+            return null;
+        }
+        try {
+            return ReflectUtil.invokeStatic(method);
+        } catch (UtilException e) {
+            // 预览版本未开启等情况
+            return null;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.spring.cloud.base.http.resilience;
+
+import com.spring.cloud.base.utils.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 按目标主机隔离同步请求的并发数，一个主机变慢时占用的线程数有上限，不拖垮其它主机的调用
+ * 没有许可时最多等待 maxWait 毫秒，仍没有则拒绝；异步请求的排队限流见 HostConcurrencyLimiter<br>
+ * 多个请求共用同一个实例才能起到隔离作用
+ * @Date: 2023/5/26 09:30
+ */
+public class Bulkhead {
+
+    private final int maxConcurrent;
+
+    private final long maxWait;
+
+    private final Map<String, Semaphore> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * 构造
+     *
+     * @param maxConcurrent 每个主机的最大并发数
+     * @param maxWait       没有许可时的最长等待时间，单位：毫秒，0表示不等待
+     */
+    public Bulkhead(int maxConcurrent, long maxWait) {
+        Assert.isTrue(maxConcurrent > 0, "maxConcurrent must be positive");
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = Math.max(0, maxWait);
+    }
+
+    /**
+     * 获取每个主机的最大并发数
+     *
+     * @return 最大并发数
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 获取主机剩余的许可数
+     *
+     * @param host 主机，格式为 scheme://host:port
+     * @return 剩余的许可数
+     */
+    public int getAvailable(String host) {
+        final Semaphore semaphore = hosts.get(host);
+        return null == semaphore ? maxConcurrent : semaphore.availablePermits();
+    }
+
+    /**
+     * 获取许可，最多等待 maxWait 毫秒；获取成功后必须调用 {@link #release(String)} 归还
+     *
+     * @param host 主机，格式为 scheme://host:port
+     * @return 是否获取成功，等待时线程被中断也返回{@code false}
+     */
+    public boolean tryAcquire(String host) {
+        final Semaphore semaphore = semaphore(host);
+        try {
+            return maxWait > 0 ? semaphore.tryAcquire(maxWait, TimeUnit.MILLISECONDS) : semaphore.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 归还许可
+     *
+     * @param host 主机，格式为 scheme://host:port
+     */
+    public void release(String host) {
+        semaphore(host).release();
+    }
+
+    private Semaphore semaphore(String host) {
+        return hosts.computeIfAbsent(host, key -> new Semaphore(maxConcurrent));
+    }
+}
@@ -0,0 +1,241 @@
+package com.spring.cloud.base.http.resilience;
+
+import com.spring.cloud.base.utils.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: ls
+ * @Description: 按目标主机熔断
+ * 每个主机统计最近 windowSize 次请求，请求数不少于 minimumCalls 且失败率达到 failureRateThreshold 时打开熔断，
+ * 打开期间直接拒绝请求；经过 openDuration 后进入半开状态，放行 halfOpenCalls 次试探请求，全部成功则关闭，任一失败则重新打开<br>
+ * 多个请求共用同一个实例才能起到熔断作用
+ * @Date: 2023/5/26 09:30
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        /**
+         * 关闭，正常放行
+         */
+        CLOSED,
+        /**
+         * 打开，拒绝请求
+         */
+        OPEN,
+        /**
+         * 半开，放行有限的试探请求
+         */
+        HALF_OPEN
+    }
+
+    private final Map<String, HostCircuit> hosts = new ConcurrentHashMap<>();
+
+    private double failureRateThreshold = 0.5;
+
+    private int windowSize = 20;
+
+    private int minimumCalls = 10;
+
+    private long openDuration = 10000;
+
+    private int halfOpenCalls = 3;
+
+    /**
+     * 创建默认的熔断器：最近20次请求中至少10次且失败率达到50%时打开10秒，半开时试探3次
+     *
+     * @return CircuitBreaker
+     */
+    public static CircuitBreaker create() {
+        return new CircuitBreaker();
+    }
+
+    /**
+     * 设置打开熔断的失败率
+     *
+     * @param failureRateThreshold 失败率，(0, 1]
+     * @return this
+     */
+    public CircuitBreaker setFailureRateThreshold(double failureRateThreshold) {
+        Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1, "failureRateThreshold must be in (0, 1]");
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * 设置统计窗口，只影响之后首次请求的主机
+     *
+     * @param windowSize   统计的最近请求数
+     * @param minimumCalls 计算失败率所需的最少请求数
+     * @return this
+     */
+    public CircuitBreaker setWindow(int windowSize, int minimumCalls) {
+        Assert.isTrue(windowSize > 0 && minimumCalls > 0 && minimumCalls <= windowSize, "Invalid window: [{}, {}]", windowSize, minimumCalls);
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * 设置打开状态的持续时间
+     *
+     * @param openDuration 持续时间，单位：毫秒
+     * @return this
+     */
+    public CircuitBreaker setOpenDuration(long openDuration) {
+        this.openDuration = Math.max(0, openDuration);
+        return this;
+    }
+
+    /**
+     * 设置半开状态放行的试探请求数
+     *
+     * @param halfOpenCalls 试探请求数
+     * @return this
+     */
+    public CircuitBreaker setHalfOpenCalls(int halfOpenCalls) {
+        Assert.isTrue(halfOpenCalls > 0, "halfOpenCalls must be positive");
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+    /**
+     * 获取主机的熔断状态，打开时间已过但尚无请求时仍为打开
+     *
+     * @param host 主机，格式为 scheme://host:port
+     * @return 熔断状态
+     */
+    public State getState(String host) {
+        final HostCircuit circuit = hosts.get(host);
+        return null == circuit ? State.CLOSED : circuit.state();
+    }
+
+    /**
+     * 请求前调用，判断是否放行；放行后必须以 {@link #onSuccess(String)} 或 {@link #onFailure(String)} 报告结果
+     *
+     * @param host 主机，格式为 scheme://host:port
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String host) {
+        return circuit(host).tryAcquire();
+    }
+
+    /**
+     * 报告请求成功
+     *
+     * @param host 主机，格式为 scheme://host:port
+     */
+    public void onSuccess(String host) {
+        circuit(host).record(false);
+    }
+
+    /**
+     * 报告请求失败
+     *
+     * @param host 主机，格式为 scheme://host:port
+     */
+    public void onFailure(String host) {
+        circuit(host).record(true);
+    }
+
+    private HostCircuit circuit(String host) {
+        return hosts.computeIfAbsent(host, key -> new HostCircuit(windowSize));
+    }
+
+    /**
+     * 单个主机的熔断状态
+     */
+    private final class HostCircuit {
+
+        /**
+         * 最近请求是否失败的环形缓冲
+         */
+        private final boolean[] window;
+
+        private int index;
+
+        private int calls;
+
+        private int failures;
+
+        private State state = State.CLOSED;
+
+        private long openedAt;
+
+        private int trials;
+
+        private int trialSuccesses;
+
+        HostCircuit(int windowSize) {
+            this.window = new boolean[windowSize];
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (State.OPEN == state) {
+                if (System.currentTimeMillis() - openedAt < openDuration) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trials = 0;
+                trialSuccesses = 0;
+            }
+            if (State.HALF_OPEN == state) {
+                if (trials >= halfOpenCalls) {
+                    return false;
+                }
+                trials++;
+            }
+            return true;
+        }
+
+        synchronized void record(boolean failed) {
+            if (State.HALF_OPEN == state) {
+                if (failed) {
+                    open();
+                } else if (++trialSuccesses >= halfOpenCalls) {
+                    close();
+                }
+                return;
+            }
+            if (State.OPEN == state) {
+                // 打开前已放行的请求
+                return;
+            }
+            if (calls == window.length) {
+                if (window[index]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            window[index] = failed;
+            if (failed) {
+                failures++;
+            }
+            index = (index + 1) % window.length;
+            if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            index = 0;
+            calls = 0;
+            failures = 0;
+        }
+    }
+}
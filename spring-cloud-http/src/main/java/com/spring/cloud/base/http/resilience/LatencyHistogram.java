@@ -0,0 +1,137 @@
+package com.spring.cloud.base.http.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: ls
+ * @Description: 延迟直方图，单位：微秒
+ * 对数线性分桶：小于16微秒每微秒一个桶，之后每个2的幂区间再均分为16个桶，相对误差不超过1/16；
+ * 桶数固定，记录无锁且不分配内存，可在请求线程中直接调用
+ * @Date: 2023/5/26 09:30
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 最大记录约2^40微秒（约12天），超出的计入最后一个桶
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一次延迟
+     *
+     * @param micros 延迟，单位：微秒，小于0按0记录
+     */
+    public void record(long micros) {
+        final long value = Math.max(0, micros);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * 获取记录数
+     *
+     * @return 记录数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 获取平均延迟
+     *
+     * @return 平均延迟，单位：微秒，没有记录时为0
+     */
+    public long getMean() {
+        final long count = getCount();
+        return 0 == count ? 0 : sum.sum() / count;
+    }
+
+    /**
+     * 获取最大延迟
+     *
+     * @return 最大延迟，单位：微秒
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * 获取百分位延迟，取所在桶的上界，不超过最大延迟
+     *
+     * @param percentile 百分位，(0, 1]，如0.99
+     * @return 延迟，单位：微秒，没有记录时为0
+     */
+    public long getPercentile(double percentile) {
+        final long total = getCount();
+        if (0 == total) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Math.min(1, percentile) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 清空记录
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", mean=" + getMean() + "us, p50=" + getPercentile(0.5) + "us, p90=" + getPercentile(0.9)
+                + "us, p99=" + getPercentile(0.99) + "us, max=" + getMax() + "us";
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && value >= 2L << MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long sub = index % SUB_BUCKETS;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
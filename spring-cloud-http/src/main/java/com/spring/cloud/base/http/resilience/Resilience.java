@@ -0,0 +1,201 @@
+package com.spring.cloud.base.http.resilience;
+
+import com.spring.cloud.base.utils.Assert;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @Author: ls
+ * @Description: 请求的容错配置，组合重试、重试预算、熔断、隔离、对冲请求与按路由的延迟统计，未设置的部分不生效
+ * 每次尝试依次经过隔离与熔断，失败后按重试策略与预算决定是否重试；熔断与隔离拒绝的请求不重试<br>
+ * 熔断、隔离与重试预算的状态保存在各自实例中，多个请求共用同一个实例才能起作用，通常整个应用或每个下游服务一个
+ * <pre>
+ * HttpGlobalConfig.setResilience(Resilience.create()
+ *     .setRetryPolicy(RetryPolicy.create())
+ *     .setRetryBudget(RetryBudget.create())
+ *     .setCircuitBreaker(CircuitBreaker.create())
+ *     .setBulkhead(new Bulkhead(64, 0))
+ *     .setHedge(0.95, 10));
+ * </pre>
+ * @Date: 2023/5/26 09:30
+ */
+public class Resilience {
+
+    private RetryPolicy retryPolicy;
+
+    private RetryBudget retryBudget;
+
+    private CircuitBreaker circuitBreaker;
+
+    private Bulkhead bulkhead;
+
+    private RouteLatency routeLatency = new RouteLatency();
+
+    private double hedgePercentile;
+
+    private long hedgeMinDelay;
+
+    private Executor hedgeExecutor;
+
+    /**
+     * 创建容错配置，只统计延迟
+     *
+     * @return Resilience
+     */
+    public static Resilience create() {
+        return new Resilience();
+    }
+
+    /**
+     * 设置重试策略
+     *
+     * @param retryPolicy 重试策略，{@code null}表示不重试
+     * @return this
+     */
+    public Resilience setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * 设置重试预算
+     *
+     * @param retryBudget 重试预算，{@code null}表示不限制
+     * @return this
+     */
+    public Resilience setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    /**
+     * 设置熔断器
+     *
+     * @param circuitBreaker 熔断器，{@code null}表示不熔断
+     * @return this
+     */
+    public Resilience setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * 设置并发隔离
+     *
+     * @param bulkhead 并发隔离，{@code null}表示不限制
+     * @return this
+     */
+    public Resilience setBulkhead(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+        return this;
+    }
+
+    /**
+     * 设置按路由的延迟统计
+     *
+     * @param routeLatency 延迟统计，{@code null}表示不统计，此时也不会对冲
+     * @return this
+     */
+    public Resilience setRouteLatency(RouteLatency routeLatency) {
+        this.routeLatency = routeLatency;
+        return this;
+    }
+
+    /**
+     * 设置对冲请求：GET与HEAD请求超过该路由的百分位延迟仍未返回时，再发送一个相同请求，取先返回的响应并断开另一个<br>
+     * 路由的样本不足时不对冲；对冲会增加下游负载，应只用于读取接口
+     *
+     * @param percentile 百分位，如0.95，0或小于0表示不对冲
+     * @param minDelay   最短等待时间，单位：毫秒
+     * @return this
+     */
+    public Resilience setHedge(double percentile, long minDelay) {
+        Assert.isTrue(percentile <= 1, "percentile must not be greater than 1");
+        this.hedgePercentile = percentile;
+        this.hedgeMinDelay = Math.max(0, minDelay);
+        return this;
+    }
+
+    /**
+     * 设置执行对冲请求的执行器
+     *
+     * @param hedgeExecutor 执行器，{@code null}表示使用请求的异步执行器
+     * @return this
+     */
+    public Resilience setHedgeExecutor(Executor hedgeExecutor) {
+        this.hedgeExecutor = hedgeExecutor;
+        return this;
+    }
+
+    /**
+     * 获取重试策略
+     *
+     * @return 重试策略
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * 获取重试预算
+     *
+     * @return 重试预算
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * 获取熔断器
+     *
+     * @return 熔断器
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 获取并发隔离
+     *
+     * @return 并发隔离
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * 获取按路由的延迟统计
+     *
+     * @return 延迟统计
+     */
+    public RouteLatency getRouteLatency() {
+        return routeLatency;
+    }
+
+    /**
+     * 获取对冲的百分位
+     *
+     * @return 百分位，0或小于0表示不对冲
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * 获取对冲的最短等待时间
+     *
+     * @return 等待时间，单位：毫秒
+     */
+    public long getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+
+    /**
+     * 获取执行对冲请求的执行器
+     *
+     * @return 执行器
+     */
+    public Executor getHedgeExecutor() {
+        return hedgeExecutor;
+    }
+}
@@ -0,0 +1,87 @@
+package com.spring.cloud.base.http.resilience;
+
+import com.spring.cloud.base.utils.Assert;
+
+/**
+ * @Author: ls
+ * @Description: 重试预算，限制重试占请求的比例，防止下游故障时重试放大流量
+ * 令牌桶实现：每个请求存入 ratio 个令牌，每次重试取出1个；另按 minRetriesPerSecond 随时间补充令牌，
+ * 保证请求量很小时也能重试；令牌不超过上限，桶空时不再重试<br>
+ * 多个请求共用同一个实例才能起到限制作用
+ * @Date: 2023/5/26 09:30
+ */
+public class RetryBudget {
+
+    private final double ratio;
+
+    private final double minRetriesPerSecond;
+
+    private final double maxTokens;
+
+    private double tokens;
+
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * 创建默认的重试预算：重试不超过请求的10%，每秒至少允许10次重试
+     *
+     * @return RetryBudget
+     */
+    public static RetryBudget create() {
+        return new RetryBudget(0.1, 10);
+    }
+
+    /**
+     * 构造，令牌上限为10秒的最低补充量，至少为1
+     *
+     * @param ratio               重试与请求的比例
+     * @param minRetriesPerSecond 每秒至少允许的重试次数
+     */
+    public RetryBudget(double ratio, double minRetriesPerSecond) {
+        Assert.isTrue(ratio >= 0 && minRetriesPerSecond >= 0, "ratio and minRetriesPerSecond must not be negative");
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxTokens = Math.max(1, minRetriesPerSecond * 10);
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * 记录一次请求，不包括重试
+     */
+    public synchronized void onRequest() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * 尝试取出一次重试的额度
+     *
+     * @return 是否允许重试
+     */
+    public synchronized boolean tryRetry() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * 获取当前可用的重试次数
+     *
+     * @return 可用的重试次数
+     */
+    public synchronized int getAvailable() {
+        refill();
+        return (int) tokens;
+    }
+
+    private void refill() {
+        final long now = System.nanoTime();
+        if (minRetriesPerSecond > 0) {
+            tokens = Math.min(maxTokens, tokens + (now - lastRefill) / 1e9 * minRetriesPerSecond);
+        }
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,146 @@
+package com.spring.cloud.base.http.resilience;
+
+import com.spring.cloud.base.http.HttpStatus;
+import com.spring.cloud.base.http.Method;
+import com.spring.cloud.base.utils.Assert;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @Author: ls
+ * @Description: 重试策略，指数退避并加入随机抖动
+ * 第n次重试前等待 [0, min(maxDelay, baseDelay × 2^(n-1))] 之间的随机时间，避免大量客户端在同一时刻重试；
+ * 连接、读写错误以及408、429、502、503、504状态码时重试，非幂等方法（POST、PATCH）默认不重试
+ * @Date: 2023/5/26 09:30
+ */
+public class RetryPolicy {
+
+    /**
+     * 默认最大尝试次数，包含首次请求
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private long baseDelay = 100;
+
+    private long maxDelay = 5000;
+
+    private boolean retryNonIdempotent;
+
+    private final Set<Integer> retryStatuses = new HashSet<>(Arrays.asList(HttpStatus.HTTP_CLIENT_TIMEOUT,
+            HttpStatus.HTTP_TOO_MANY_REQUESTS, HttpStatus.HTTP_BAD_GATEWAY, HttpStatus.HTTP_UNAVAILABLE, HttpStatus.HTTP_GATEWAY_TIMEOUT));
+
+    /**
+     * 创建默认的重试策略
+     *
+     * @return RetryPolicy
+     */
+    public static RetryPolicy create() {
+        return new RetryPolicy();
+    }
+
+    /**
+     * 设置最大尝试次数，包含首次请求
+     *
+     * @param maxAttempts 最大尝试次数，1表示不重试
+     * @return this
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        Assert.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * 设置退避时间
+     *
+     * @param baseDelay 首次重试的最大等待时间，单位：毫秒
+     * @param maxDelay  等待时间上限，单位：毫秒
+     * @return this
+     */
+    public RetryPolicy setBackoff(long baseDelay, long maxDelay) {
+        Assert.isTrue(baseDelay >= 0 && maxDelay >= baseDelay, "Invalid backoff: [{}, {}]", baseDelay, maxDelay);
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * 设置非幂等方法（POST、PATCH）是否重试，服务端可能已处理请求，开启前应确认接口可重复调用
+     *
+     * @param retryNonIdempotent 是否重试
+     * @return this
+     */
+    public RetryPolicy setRetryNonIdempotent(boolean retryNonIdempotent) {
+        this.retryNonIdempotent = retryNonIdempotent;
+        return this;
+    }
+
+    /**
+     * 设置需要重试的状态码，替换默认值
+     *
+     * @param statuses 状态码
+     * @return this
+     */
+    public RetryPolicy setRetryStatuses(int... statuses) {
+        this.retryStatuses.clear();
+        for (int status : statuses) {
+            this.retryStatuses.add(status);
+        }
+        return this;
+    }
+
+    /**
+     * 获取最大尝试次数
+     *
+     * @return 最大尝试次数，包含首次请求
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * 获取等待时间上限
+     *
+     * @return 等待时间上限，单位：毫秒
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * 方法是否可以重试
+     *
+     * @param method 请求方法
+     * @return 是否可以重试
+     */
+    public boolean isRetryable(Method method) {
+        return retryNonIdempotent || (Method.POST != method && Method.PATCH != method);
+    }
+
+    /**
+     * 状态码是否需要重试
+     *
+     * @param status 状态码
+     * @return 是否需要重试
+     */
+    public boolean isRetryable(int status) {
+        return retryStatuses.contains(status);
+    }
+
+    /**
+     * 计算第n次重试前的等待时间
+     *
+     * @param retry 重试序号，从1开始
+     * @return 等待时间，单位：毫秒
+     */
+    public long backoff(int retry) {
+        // 2^(n-1)在n较大时溢出，此时已超过上限
+        final long ceiling = retry > 31 ? maxDelay : Math.min(maxDelay, baseDelay << (retry - 1));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
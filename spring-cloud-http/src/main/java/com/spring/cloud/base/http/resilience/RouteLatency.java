@@ -0,0 +1,82 @@
+package com.spring.cloud.base.http.resilience;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author: ls
+ * @Description: 按路由统计延迟直方图，路由格式为“方法 scheme://host:port/path”，不含参数
+ * 路径中带ID等变化部分时路由会很多，超过 maxRoutes 后新路由不再记录
+ * @Date: 2023/5/26 09:30
+ */
+public class RouteLatency {
+
+    /**
+     * 默认最大路由数
+     */
+    public static final int DEFAULT_MAX_ROUTES = 1024;
+
+    private final int maxRoutes;
+
+    private final Map<String, LatencyHistogram> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 构造，最大路由数为 {@link #DEFAULT_MAX_ROUTES}
+     */
+    public RouteLatency() {
+        this(DEFAULT_MAX_ROUTES);
+    }
+
+    /**
+     * 构造
+     *
+     * @param maxRoutes 最大路由数
+     */
+    public RouteLatency(int maxRoutes) {
+        this.maxRoutes = maxRoutes;
+    }
+
+    /**
+     * 记录一次请求的延迟
+     *
+     * @param route  路由
+     * @param micros 延迟，单位：微秒
+     */
+    public void record(String route, long micros) {
+        LatencyHistogram histogram = routes.get(route);
+        if (null == histogram) {
+            if (routes.size() >= maxRoutes) {
+                return;
+            }
+            histogram = routes.computeIfAbsent(route, key -> new LatencyHistogram());
+        }
+        histogram.record(micros);
+    }
+
+    /**
+     * 获取路由的延迟直方图
+     *
+     * @param route 路由
+     * @return 直方图，没有记录时返回{@code null}
+     */
+    public LatencyHistogram getHistogram(String route) {
+        return routes.get(route);
+    }
+
+    /**
+     * 获取所有路由的延迟直方图
+     *
+     * @return 路由与直方图，只读
+     */
+    public Map<String, LatencyHistogram> getRoutes() {
+        return Collections.unmodifiableMap(routes);
+    }
+
+    /**
+     * 清空所有路由的记录
+     */
+    public void reset() {
+        routes.clear();
+    }
+}
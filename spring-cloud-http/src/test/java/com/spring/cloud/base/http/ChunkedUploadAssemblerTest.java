@@ -0,0 +1,189 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.http.exception.HttpException;
+import com.spring.cloud.base.http.resilience.Resilience;
+import com.spring.cloud.base.http.resilience.RetryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Author: ls
+ * @Description: 分块上传与服务端合并，基于 SimpleServer
+ * @Date: 2023/5/25 14:20
+ */
+class ChunkedUploadAssemblerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleServer server;
+
+    private String url;
+
+    private ChunkedUploadAssembler assembler;
+
+    private final AtomicReference<byte[]> assembled = new AtomicReference<>();
+
+    private final AtomicReference<String> name = new AtomicReference<>();
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        final File workDir = tempDir.resolve("work").toFile();
+        server = new SimpleServer(new InetSocketAddress("127.0.0.1", 0));
+        assembler = new ChunkedUploadAssembler(workDir, "file", (request, response, form, file) -> {
+            assembled.set(Files.readAllBytes(file.toPath()));
+            name.set(form.getParam("name"));
+            completed.incrementAndGet();
+            Files.delete(file.toPath());
+            response.write("done");
+        });
+        server.addAction("/upload", assembler);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/upload";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.getRawServer().stop(0);
+    }
+
+    @Test
+    void assemblesChunksInOrder() throws IOException {
+        final byte[] content = randomBytes(300_001);
+        final HttpResponse response = HttpRequest.post(url)
+                .form("name", "big")
+                .form("file", write("big.bin", content))
+                .setChunkedUpload(ChunkedUpload.create().setChunkSize(64 * 1024).setParallelism(3))
+                .execute();
+
+        assertEquals(HttpStatus.HTTP_OK, response.getStatus());
+        assertEquals("done", response.body());
+        assertEquals(1, completed.get());
+        assertArrayEquals(content, assembled.get());
+        assertEquals("big", name.get());
+        assertEquals(0, tempDir.resolve("work").toFile().list().length);
+    }
+
+    @Test
+    void savesUnchunkedUpload() throws IOException {
+        final byte[] content = randomBytes(1000);
+        final HttpResponse response = HttpRequest.post(url)
+                .form("file", write("small.bin", content))
+                .setChunkedUpload(ChunkedUpload.create().setChunkSize(64 * 1024))
+                .execute();
+
+        assertEquals(HttpStatus.HTTP_OK, response.getStatus());
+        assertArrayEquals(content, assembled.get());
+    }
+
+    @Test
+    void rejectsInvalidChunkFields() throws IOException {
+        final File file = write("part.bin", randomBytes(10));
+        final HttpResponse traversal = chunk(file, "../escape", 0, 1, 10, 10);
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, traversal.getStatus());
+
+        final HttpResponse outOfRange = chunk(file, "upload1", 2, 2, 10, 20);
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, outOfRange.getStatus());
+
+        final HttpResponse wrongSize = chunk(file, "upload1", 0, 2, 8, 16);
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, wrongSize.getStatus());
+        assertEquals(0, completed.get());
+    }
+
+    @Test
+    void rejectsChunkWithDifferentLayout() throws IOException {
+        final File file = write("part.bin", randomBytes(10));
+        assertEquals(HttpStatus.HTTP_OK, chunk(file, "upload2", 0, 2, 10, 20).getStatus());
+        final HttpResponse conflict = chunk(file, "upload2", 1, 3, 10, 30);
+
+        assertEquals(HttpStatus.HTTP_CONFLICT, conflict.getStatus());
+        assertEquals(0, completed.get());
+    }
+
+    @Test
+    void rejectsOverflowingChunkFields() throws IOException {
+        final File file = write("part.bin", randomBytes(10));
+        // 2^32 + 1 截断为int后是1
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, chunk(file, "upload3", "0", "4294967297", "10", "10").getStatus());
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, chunk(file, "upload3", "4294967296", "1", "10", "10").getStatus());
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, chunk(file, "upload3", "-1", "1", "10", "10").getStatus());
+        // 块数与分块大小的乘积超出long
+        assertEquals(HttpStatus.HTTP_BAD_REQUEST, chunk(file, "upload3", "0", "3", String.valueOf(Long.MAX_VALUE / 2 + 1), "10").getStatus());
+        assertEquals(0, completed.get());
+    }
+
+    @Test
+    void limitsChunksAndConcurrentUploads() throws IOException {
+        final File file = write("part.bin", randomBytes(10));
+        assembler.setMaxChunks(2).setMaxAssemblies(1);
+        assertEquals(HttpStatus.HTTP_ENTITY_TOO_LARGE, chunk(file, "upload4", 0, 3, 10, 30).getStatus());
+
+        assertEquals(HttpStatus.HTTP_OK, chunk(file, "upload5", 0, 2, 10, 20).getStatus());
+        assertEquals(HttpStatus.HTTP_UNAVAILABLE, chunk(file, "upload6", 0, 2, 10, 20).getStatus());
+        // 已开始的上传不受上限影响，完成后可以开始新的上传
+        assertEquals("done", chunk(file, "upload5", 1, 2, 10, 20).body());
+        assertEquals(HttpStatus.HTTP_OK, chunk(file, "upload6", 0, 2, 10, 20).getStatus());
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    void retriesChunksOnlyByChunkedUploadRetries() throws IOException {
+        final AtomicInteger attempts = new AtomicInteger();
+        server.addAction("/unavailable", (request, response) -> {
+            attempts.incrementAndGet();
+            response.sendError(HttpStatus.HTTP_UNAVAILABLE, "unavailable");
+        });
+        final HttpRequest request = HttpRequest.post(url.replace("/upload", "/unavailable"))
+                .form("file", write("big.bin", randomBytes(3 * 1024)))
+                .setChunkedUpload(ChunkedUpload.create().setChunkSize(1024).setParallelism(1).setRetries(1))
+                .setResilience(Resilience.create().setRetryPolicy(
+                        RetryPolicy.create().setMaxAttempts(3).setBackoff(1, 1).setRetryNonIdempotent(true)));
+
+        assertThrows(HttpException.class, request::execute);
+        assertEquals(2, attempts.get());
+    }
+
+    private HttpResponse chunk(File file, String uploadId, int chunk, int chunks, long chunkSize, long totalSize) {
+        return chunk(file, uploadId, String.valueOf(chunk), String.valueOf(chunks), String.valueOf(chunkSize), String.valueOf(totalSize));
+    }
+
+    private HttpResponse chunk(File file, String uploadId, String chunk, String chunks, String chunkSize, String totalSize) {
+        return HttpRequest.post(url)
+                .form(ChunkedUpload.FIELD_UPLOAD_ID, uploadId)
+                .form(ChunkedUpload.FIELD_CHUNK, chunk)
+                .form(ChunkedUpload.FIELD_CHUNKS, chunks)
+                .form(ChunkedUpload.FIELD_CHUNK_SIZE, chunkSize)
+                .form(ChunkedUpload.FIELD_TOTAL_SIZE, totalSize)
+                .form("file", file)
+                .execute();
+    }
+
+    private File write(String fileName, byte[] content) throws IOException {
+        final Path path = tempDir.resolve(fileName);
+        Files.write(path, content);
+        return path.toFile();
+    }
+
+    private static byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,198 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.http.exception.HttpException;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: ls
+ * @Description: 分段并行下载与断点续传，基于 SimpleServer
+ * @Date: 2023/5/24 10:30
+ */
+class RangeDownloaderTest {
+
+    private static final int PART_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleServer server;
+
+    private String url;
+
+    private ExecutorService executor;
+
+    private final byte[] content = randomBytes(4 * PART_SIZE + 123);
+
+    private volatile String etag = "\"v1\"";
+
+    private volatile boolean supportRange = true;
+
+    /**
+     * 分段请求中Content-Range的完整长度与实际长度的差，用于模拟不一致的响应
+     */
+    private volatile int lengthDelta;
+
+    /**
+     * 需要在写出一半后中断的分段请求数
+     */
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * 收到的Range请求头，不含探测请求
+     */
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        server = new SimpleServer(new InetSocketAddress("127.0.0.1", 0));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.addHandler("/files/data.bin", this::serve);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/files/data.bin";
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.getRawServer().stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void downloadsPartsInParallel() throws IOException {
+        final File target = downloader().download(tempDir.resolve("data.bin").toFile());
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(4, ranges.size());
+        assertFalse(new File(target.getPath() + ".download").exists());
+        assertFalse(new File(target.getPath() + ".download.meta").exists());
+    }
+
+    @Test
+    void resumesFromSavedPositions() throws IOException {
+        final File target = tempDir.resolve("data.bin").toFile();
+        failures.set(1);
+        assertThrows(HttpException.class, () -> downloader().setRetries(0).download(target));
+        assertTrue(new File(target.getPath() + ".download.meta").isFile());
+
+        ranges.clear();
+        downloader().download(target);
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        // 只重新请求失败分段中未下载的部分
+        assertEquals(1, ranges.size());
+        final long partSize = (content.length + 3) / 4;
+        final long start = Long.parseLong(ranges.get(0).substring("bytes=".length(), ranges.get(0).indexOf('-')));
+        assertTrue(start % partSize != 0, "resumed at " + ranges.get(0));
+    }
+
+    @Test
+    void retriesInterruptedPart() throws IOException {
+        failures.set(2);
+        final File target = downloader().setRetries(2).download(tempDir.resolve("data.bin").toFile());
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(6, ranges.size());
+    }
+
+    @Test
+    void restartsWhenFileChanged() throws IOException {
+        final File target = tempDir.resolve("data.bin").toFile();
+        failures.set(1);
+        assertThrows(HttpException.class, () -> downloader().setRetries(0).download(target));
+
+        etag = "\"v2\"";
+        ranges.clear();
+        downloader().download(target);
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(4, ranges.size());
+    }
+
+    @Test
+    void rejectsMismatchedContentRange() {
+        lengthDelta = 1;
+        final HttpException e = assertThrows(HttpException.class,
+                () -> downloader().download(tempDir.resolve("data.bin").toFile()));
+        assertTrue(e.getMessage().contains("Content-Range"), e.getMessage());
+    }
+
+    @Test
+    void fallsBackToSingleConnection() throws IOException {
+        supportRange = false;
+        final File target = downloader().download(tempDir.resolve("data.bin").toFile());
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertEquals(0, ranges.size());
+    }
+
+    private RangeDownloader downloader() {
+        return RangeDownloader.of(url).setParts(4).setMinPartSize(PART_SIZE).setExecutor(executor);
+    }
+
+    /**
+     * 支持Range与If-Range的文件响应
+     */
+    private void serve(HttpExchange exchange) throws IOException {
+        try {
+            final String range = exchange.getRequestHeaders().getFirst("Range");
+            final String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (false == supportRange || null == range || (null != ifRange && false == ifRange.equals(etag))) {
+                exchange.sendResponseHeaders(HttpStatus.HTTP_OK, content.length);
+                exchange.getResponseBody().write(content);
+                return;
+            }
+            final String[] bounds = range.substring("bytes=".length()).split("-");
+            final int from = Integer.parseInt(bounds[0]);
+            final int to = Math.min(Integer.parseInt(bounds[1]), content.length - 1);
+            final boolean probe = from == 0 && to == 0;
+            if (false == probe) {
+                ranges.add(range);
+            }
+            final int total = content.length + (probe ? 0 : lengthDelta);
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + from + "-" + to + "/" + total);
+            final int length = to - from + 1;
+            exchange.sendResponseHeaders(HttpStatus.HTTP_PARTIAL, length);
+            final OutputStream out = exchange.getResponseBody();
+            if (false == probe && failures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                // 只写出一半，关闭时长度不足，服务端断开连接
+                out.write(content, from, length / 2);
+                out.flush();
+                return;
+            }
+            out.write(content, from, length);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
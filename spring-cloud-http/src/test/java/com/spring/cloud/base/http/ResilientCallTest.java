@@ -0,0 +1,315 @@
+package com.spring.cloud.base.http;
+
+import com.spring.cloud.base.http.engine.PooledHttpEngine;
+import com.spring.cloud.base.http.exception.BulkheadFullException;
+import com.spring.cloud.base.http.exception.CircuitBreakerOpenException;
+import com.spring.cloud.base.http.exception.HttpException;
+import com.spring.cloud.base.http.resilience.Bulkhead;
+import com.spring.cloud.base.http.resilience.CircuitBreaker;
+import com.spring.cloud.base.http.resilience.Resilience;
+import com.spring.cloud.base.http.resilience.RetryBudget;
+import com.spring.cloud.base.http.resilience.RetryPolicy;
+import com.spring.cloud.base.http.resilience.RouteLatency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: ls
+ * @Description: 重试、熔断、隔离与对冲请求，基于 SimpleServer
+ * @Date: 2023/5/26 09:30
+ */
+class ResilientCallTest {
+
+    /**
+     * 样本足够后开始对冲，与 ResilientCall 中的最少样本数一致
+     */
+    private static final int WARMUP = 20;
+
+    private SimpleServer server;
+
+    private String url;
+
+    private String host;
+
+    private PooledHttpEngine engine;
+
+    private ExecutorService hedgeExecutor;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * 按到达顺序为每个请求指定的响应延迟，没有时立即响应
+     */
+    private final BlockingQueue<Long> delays = new LinkedBlockingQueue<>();
+
+    /**
+     * 按到达顺序为 /status 的每个请求指定的状态码，没有时响应200
+     */
+    private final BlockingQueue<Integer> statuses = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        server = new SimpleServer(new InetSocketAddress("127.0.0.1", 0));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.addAction("/hedge", (request, response) -> {
+            requests.incrementAndGet();
+            final Long delay = delays.poll();
+            if (null != delay) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            response.write("ok");
+        });
+        server.addAction("/status", (request, response) -> {
+            requests.incrementAndGet();
+            final Integer status = statuses.poll();
+            if (null == status) {
+                response.write("ok");
+                return;
+            }
+            response.setHeader(Header.RETRY_AFTER, "1");
+            response.sendError(status, "error");
+        });
+        server.start();
+        host = "http://127.0.0.1:" + server.getAddress().getPort();
+        url = host + "/hedge";
+        engine = PooledHttpEngine.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.getRawServer().stop(0);
+        engine.close();
+        if (null != hedgeExecutor) {
+            hedgeExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotSendHedgeAfterPrimaryCompleted() throws InterruptedException {
+        // 单线程执行器，对冲请求排在原请求之后，开始执行时原请求已返回
+        hedgeExecutor = Executors.newSingleThreadExecutor();
+        final Resilience resilience = warmUp(50);
+
+        delays.add(300L);
+        try (HttpResponse response = get(resilience)) {
+            assertEquals("ok", response.body());
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertEquals(WARMUP + 1, requests.get());
+        awaitReleased();
+    }
+
+    @Test
+    void hedgeWinsAndSlowPrimaryIsReleased() {
+        hedgeExecutor = Executors.newCachedThreadPool();
+        final Resilience resilience = warmUp(50);
+
+        delays.add(2000L);
+        final long start = System.nanoTime();
+        try (HttpResponse response = get(resilience)) {
+            assertEquals("ok", response.body());
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(WARMUP + 2, requests.get());
+        awaitReleased();
+    }
+
+    @Test
+    void closesResponseArrivingAfterCallerGaveUp() throws InterruptedException {
+        hedgeExecutor = Executors.newCachedThreadPool();
+        // 对冲延迟足够长，测试期间只有原请求
+        final Resilience resilience = warmUp(10_000);
+
+        delays.add(300L);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread caller = new Thread(() -> {
+            try {
+                get(resilience).close();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        caller.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+        caller.interrupt();
+        caller.join(2000);
+
+        assertTrue(failure.get() instanceof HttpException);
+        TimeUnit.MILLISECONDS.sleep(400);
+        awaitReleased();
+    }
+
+    @Test
+    void retriesAfterServerDelay() {
+        final Resilience resilience = Resilience.create()
+                .setRetryPolicy(RetryPolicy.create().setMaxAttempts(3).setBackoff(1, 2000));
+
+        statuses.add(HttpStatus.HTTP_UNAVAILABLE);
+        final long start = System.nanoTime();
+        try (HttpResponse response = getStatus(resilience)) {
+            assertEquals("ok", response.body());
+        }
+        // 按Retry-After等待1秒，而不是1毫秒的退避
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 900);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void stopsRetryingWhenBudgetIsExhausted() {
+        // 不按比例存入令牌也不随时间补充，只有初始的1次重试
+        final RetryBudget budget = new RetryBudget(0, 0);
+        final Resilience resilience = Resilience.create()
+                .setRetryPolicy(RetryPolicy.create().setMaxAttempts(3).setBackoff(1, 1))
+                .setRetryBudget(budget);
+
+        for (int i = 0; i < 4; i++) {
+            statuses.add(HttpStatus.HTTP_BAD_GATEWAY);
+        }
+        try (HttpResponse response = getStatus(resilience)) {
+            assertEquals(HttpStatus.HTTP_BAD_GATEWAY, response.getStatus());
+        }
+        assertEquals(2, requests.get());
+        assertEquals(0, budget.getAvailable());
+
+        try (HttpResponse response = getStatus(resilience)) {
+            assertEquals(HttpStatus.HTTP_BAD_GATEWAY, response.getStatus());
+        }
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void opensAndClosesCircuit() throws InterruptedException {
+        final CircuitBreaker breaker = CircuitBreaker.create().setWindow(2, 2).setOpenDuration(200).setHalfOpenCalls(1);
+        final Resilience resilience = Resilience.create().setCircuitBreaker(breaker);
+
+        statuses.add(HttpStatus.HTTP_INTERNAL_ERROR);
+        statuses.add(HttpStatus.HTTP_INTERNAL_ERROR);
+        getStatus(resilience).close();
+        getStatus(resilience).close();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(host));
+        assertThrows(CircuitBreakerOpenException.class, () -> getStatus(resilience));
+        assertEquals(2, requests.get());
+
+        // 半开时试探请求失败，重新打开
+        TimeUnit.MILLISECONDS.sleep(250);
+        statuses.add(HttpStatus.HTTP_INTERNAL_ERROR);
+        getStatus(resilience).close();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(host));
+        assertThrows(CircuitBreakerOpenException.class, () -> getStatus(resilience));
+
+        // 半开时试探请求成功，关闭
+        TimeUnit.MILLISECONDS.sleep(250);
+        try (HttpResponse response = getStatus(resilience)) {
+            assertEquals("ok", response.body());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(host));
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void rejectsWhenBulkheadIsFull() throws InterruptedException {
+        final Bulkhead bulkhead = new Bulkhead(1, 0);
+        final Resilience resilience = Resilience.create().setBulkhead(bulkhead);
+
+        delays.add(500L);
+        final Thread slow = new Thread(() -> get(resilience).close());
+        slow.start();
+        await(() -> 1 == requests.get());
+        assertEquals(0, bulkhead.getAvailable(host));
+        assertThrows(BulkheadFullException.class, () -> get(resilience));
+
+        slow.join(2000);
+        assertEquals(1, bulkhead.getAvailable(host));
+        get(resilience).close();
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void hedgeTakesAndReturnsBulkheadPermit() throws InterruptedException {
+        hedgeExecutor = Executors.newCachedThreadPool();
+        final Bulkhead bulkhead = new Bulkhead(2, 0);
+        final Resilience resilience = warmUp(50).setBulkhead(bulkhead);
+
+        // 原请求先返回，对冲请求仍在执行，随后被断开
+        delays.add(600L);
+        delays.add(2000L);
+        final Thread call = new Thread(() -> get(resilience).close());
+        call.start();
+        await(() -> WARMUP + 2 == requests.get());
+        assertEquals(0, bulkhead.getAvailable(host));
+        call.join(3000);
+        await(() -> 2 == bulkhead.getAvailable(host));
+
+        // 只有一个许可时不对冲
+        final Bulkhead single = new Bulkhead(1, 0);
+        resilience.setBulkhead(single);
+        delays.add(300L);
+        try (HttpResponse response = get(resilience)) {
+            assertEquals("ok", response.body());
+        }
+        assertEquals(WARMUP + 3, requests.get());
+        assertEquals(1, single.getAvailable(host));
+        awaitReleased();
+    }
+
+    /**
+     * 发送足够的请求使路由有延迟样本
+     */
+    private Resilience warmUp(long hedgeMinDelay) {
+        final Resilience resilience = Resilience.create()
+                .setRouteLatency(new RouteLatency())
+                .setHedge(0.5, hedgeMinDelay)
+                .setHedgeExecutor(hedgeExecutor);
+        for (int i = 0; i < WARMUP; i++) {
+            get(resilience).close();
+        }
+        assertEquals(WARMUP, requests.get());
+        return resilience;
+    }
+
+    private HttpResponse get(Resilience resilience) {
+        return HttpRequest.get(url).setEngine(engine).setResilience(resilience).execute();
+    }
+
+    private HttpResponse getStatus(Resilience resilience) {
+        return HttpRequest.get(host + "/status").setEngine(engine).setResilience(resilience).execute();
+    }
+
+    private void awaitReleased() {
+        await(() -> 0 == engine.getStats().getLeased());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (false == condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
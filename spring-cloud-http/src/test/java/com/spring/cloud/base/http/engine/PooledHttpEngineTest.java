@@ -0,0 +1,236 @@
+package com.spring.cloud.base.http.engine;
+
+import com.spring.cloud.base.http.HttpRequest;
+import com.spring.cloud.base.http.HttpResponse;
+import com.spring.cloud.base.http.SimpleServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @Author: ls
+ * @Description: 连接池引擎的连接复用、请求体与响应体、失效连接、等待超时与请求头校验，基于 SimpleServer
+ * @Date: 2023/5/22 10:15
+ */
+class PooledHttpEngineTest {
+
+    private SimpleServer server;
+
+    private String baseUrl;
+
+    private PooledHttpEngine engine;
+
+    private final AtomicReference<String> lastHeader = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        server = startServer(new InetSocketAddress("127.0.0.1", 0));
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        engine = PooledHttpEngine.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.getRawServer().stop(0);
+        engine.close();
+    }
+
+    @Test
+    void reusesKeepAliveConnection() {
+        for (int i = 0; i < 5; i++) {
+            try (HttpResponse response = HttpRequest.get(baseUrl + "/echo").setEngine(engine).execute()) {
+                assertEquals("", response.body());
+            }
+        }
+
+        final PoolStats stats = engine.getStats();
+        assertEquals(1, stats.getCreated());
+        assertEquals(4, stats.getReused());
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    void sendsBufferedFixedLengthAndChunkedBodies() throws IOException {
+        final byte[] content = randomBytes(100_000);
+
+        final HttpURLConnection buffered = open("/echo");
+        buffered.setRequestMethod("POST");
+        buffered.setDoOutput(true);
+        buffered.getOutputStream().write(content);
+        assertArrayEquals(content, readBody(buffered));
+
+        final HttpURLConnection fixed = open("/echo");
+        fixed.setRequestMethod("PUT");
+        fixed.setDoOutput(true);
+        fixed.setFixedLengthStreamingMode(content.length);
+        fixed.getOutputStream().write(content);
+        assertArrayEquals(content, readBody(fixed));
+
+        final HttpURLConnection chunked = open("/chunked");
+        chunked.setRequestMethod("POST");
+        chunked.setDoOutput(true);
+        chunked.setChunkedStreamingMode(4096);
+        try (OutputStream out = chunked.getOutputStream()) {
+            out.write(content, 0, 10);
+            out.write(content, 10, content.length - 10);
+        }
+        assertEquals("chunked", chunked.getHeaderField("Transfer-Encoding"));
+        assertArrayEquals(content, readBody(chunked));
+
+        // 三种请求体与定长、Chunked响应体读完后都复用同一个连接
+        assertEquals(1, engine.getStats().getCreated());
+    }
+
+    @Test
+    void replacesConnectionClosedByServer() throws IOException {
+        // 每次复用前检查与不检查、依靠失败后重试两种方式
+        for (long validateAfterInactivity : new long[]{0, 60_000}) {
+            try (PooledHttpEngine pooled = new PooledHttpEngine(8, 4, 60_000, validateAfterInactivity)) {
+                final String url = baseUrl + "/echo";
+                HttpRequest.get(url).setEngine(pooled).execute().close();
+
+                // 重启服务端，连接池中的空闲连接被服务端关闭
+                final int port = server.getAddress().getPort();
+                server.getRawServer().stop(0);
+                server = startServer(new InetSocketAddress("127.0.0.1", port));
+
+                try (HttpResponse response = HttpRequest.get(url).setEngine(pooled).execute()) {
+                    assertEquals(200, response.getStatus());
+                }
+                assertEquals(2, pooled.getStats().getCreated());
+                assertEquals(1, pooled.getStats().getClosed());
+            }
+        }
+    }
+
+    @Test
+    void timesOutWaitingForConnection() throws IOException {
+        try (PooledHttpEngine pooled = new PooledHttpEngine(8, 1, 60_000, 2000, 200)) {
+            final HttpURLConnection first = (HttpURLConnection) pooled.open(new URL(baseUrl + "/echo?size=100"), null);
+            // 响应体未读完，连接仍被占用
+            final InputStream body = first.getInputStream();
+
+            final HttpURLConnection second = (HttpURLConnection) pooled.open(new URL(baseUrl + "/echo"), null);
+            final long start = System.nanoTime();
+            assertThrows(SocketTimeoutException.class, second::getResponseCode);
+            assertTrue((System.nanoTime() - start) / 1_000_000 >= 150);
+
+            body.close();
+            final HttpURLConnection third = (HttpURLConnection) pooled.open(new URL(baseUrl + "/echo"), null);
+            assertEquals(200, third.getResponseCode());
+            readBody(third);
+            assertEquals(1, pooled.getStats().getCreated());
+        }
+    }
+
+    @Test
+    void rejectsIllegalHeadersAndRequestTarget() throws IOException {
+        final HttpURLConnection connection = open("/echo");
+        assertThrows(IllegalArgumentException.class, () -> connection.setRequestProperty("X-Test", "a\r\nX-Injected: 1"));
+        assertThrows(IllegalArgumentException.class, () -> connection.addRequestProperty("X-Test", "a\nb"));
+        assertThrows(IllegalArgumentException.class, () -> connection.setRequestProperty("X Test", "a"));
+        assertThrows(IllegalArgumentException.class, () -> connection.setRequestProperty("X-Test:", "a"));
+        assertThrows(ProtocolException.class, () -> connection.setRequestMethod("GET / HTTP/1.1\r\n"));
+
+        // 制表符与非控制字符允许出现在值中
+        connection.setRequestProperty("X-Tab", "a\tb");
+        connection.setRequestProperty("X-Test", "value; q=0.5");
+        assertEquals(200, connection.getResponseCode());
+        readBody(connection);
+        assertEquals("value; q=0.5", lastHeader.get());
+
+        final HttpURLConnection target = (HttpURLConnection) engine.open(new URL(baseUrl + "/echo?a=1\r\nX-Injected: 1"), null);
+        assertThrows(MalformedURLException.class, target::getResponseCode);
+        assertEquals(0, engine.getStats().getLeased());
+    }
+
+    @Test
+    void bracketsIpv6HostOnlyInHostHeader() throws IOException {
+        final Route route = new Route(new URL("http://[::1]:8080/"), null, null);
+        assertEquals("::1", route.host);
+        assertEquals("[::1]:8080", route.hostHeader());
+        assertEquals("http://[::1]:8080", route.toString());
+        assertEquals("[::1]", new Route(new URL("http://[::1]/"), null, null).hostHeader());
+
+        final SimpleServer ipv6;
+        try {
+            ipv6 = startServer(new InetSocketAddress("::1", 0));
+        } catch (RuntimeException e) {
+            assumeTrue(false, "IPv6 loopback is not available");
+            return;
+        }
+        try {
+            final AtomicReference<String> host = new AtomicReference<>();
+            ipv6.addAction("/host", (request, response) -> {
+                host.set(request.getHeader("Host"));
+                response.write("ok");
+            });
+            final String url = "http://[::1]:" + ipv6.getAddress().getPort() + "/host";
+            try (HttpResponse response = HttpRequest.get(url).setEngine(engine).execute()) {
+                assertEquals("ok", response.body());
+            }
+            assertEquals("[::1]:" + ipv6.getAddress().getPort(), host.get());
+            assertTrue(engine.getRouteStats().containsKey("http://[::1]:" + ipv6.getAddress().getPort()));
+        } finally {
+            ipv6.getRawServer().stop(0);
+        }
+    }
+
+    /**
+     * /echo 以定长响应返回请求体，带size参数时返回指定长度的数据；/chunked 以Chunked响应返回请求体
+     */
+    private SimpleServer startServer(InetSocketAddress address) {
+        final SimpleServer server = new SimpleServer(address);
+        server.addAction("/echo", (request, response) -> {
+            lastHeader.set(request.getHeader("X-Test"));
+            final String size = request.getParam("size");
+            response.write(null == size ? request.getBodyBytes() : new byte[Integer.parseInt(size)]);
+        });
+        server.addAction("/chunked", (request, response) -> response.write(new ByteArrayInputStream(request.getBodyBytes())));
+        server.start();
+        return server;
+    }
+
+    private HttpURLConnection open(String path) throws IOException {
+        return (HttpURLConnection) engine.open(new URL(baseUrl + path), null);
+    }
+
+    private static byte[] readBody(HttpURLConnection connection) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -84,6 +84,27 @@ public class Claims implements Serializable {
 		this.claimJSON = JSONUtil.parseObj(Base64.decodeStr(tokenPart, charset), CONFIG);
 	}
 
+	/**
+	 * 解析紧凑二进制编码的JWT声明
+	 *
+	 * @param tokenPart JWT载荷的Base64表示
+	 * @see CompactClaims
+	 */
+	public void parseCompact(String tokenPart) {
+		this.claimJSON = CompactClaims.decode(Base64.decode(tokenPart), CONFIG);
+	}
+
+	/**
+	 * 转为紧凑二进制编码
+	 *
+	 * @return 编码后的bytes
+	 * @see CompactClaims
+	 */
+	public byte[] toCompactBytes() {
+		init();
+		return CompactClaims.encode(this.claimJSON);
+	}
+
 	@Override
 	public String toString() {
 		init();
@@ -0,0 +1,484 @@
+package com.spring.cloud.base.jwt;
+
+import com.spring.cloud.base.jwt.exception.JWTException;
+import com.spring.cloud.base.jwt.json.JSONArray;
+import com.spring.cloud.base.jwt.json.JSONConfig;
+import com.spring.cloud.base.jwt.json.JSONNull;
+import com.spring.cloud.base.jwt.json.JSONObject;
+import com.spring.cloud.base.jwt.json.JSONString;
+import com.spring.cloud.base.utils.crypto.NumberUtil;
+import com.spring.cloud.base.utils.date.TemporalAccessorUtil;
+import com.spring.cloud.base.utils.utils.ArrayUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.MonthDay;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: 紧凑的二进制声明编码，用于 {@link JWTHeader#COMPACT_TYPE} 类型的JWT载荷
+ * 格式为1字节版本号加CBOR（RFC 8949）子集：字典中的常用声明名编码为1字节的整数键，字典外重复出现的键编码为对首次出现位置的引用（tag 25），
+ * 整数使用CBOR的变长编码，小数使用十进制分数（tag 4）保证精度，日期与JSON一致编码为秒级时间戳
+ * 字典只允许在末尾追加，已有名称的位置不能改变，否则旧Token无法解码
+ * @Date: 2023/5/18 10:05
+ */
+public class CompactClaims {
+
+    /**
+     * 格式版本
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * 声明名字典，前7个为JWT注册声明，其余为用户、角色、权限模型中的常用字段
+     */
+    private static final String[] DICTIONARY = {
+            JWTPayload.ISSUER, JWTPayload.SUBJECT, JWTPayload.AUDIENCE, JWTPayload.EXPIRES_AT,
+            JWTPayload.NOT_BEFORE, JWTPayload.ISSUED_AT, JWTPayload.JWT_ID,
+            "id", "code", "name", "parentId", "children", "type", "icon",
+            "username", "nickname", "mobile", "gender", "deptId", "deptInfo",
+            "userId", "userName", "userInfo", "sessionId", "tenantId", "clientId", "scope",
+            "roles", "roleInfoList", "resourceInfo", "orgInfo", "permissions", "authorities",
+            "allResourcesList", "allOrgList", "systemCode", "apiList", "showFlag"
+    };
+
+    private static final Map<String, Integer> DICTIONARY_INDEX = new HashMap<>(DICTIONARY.length * 2);
+
+    static {
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            DICTIONARY_INDEX.put(DICTIONARY[i], i);
+        }
+    }
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final int MAJOR_TAG = 6;
+    private static final int MAJOR_SIMPLE = 7;
+
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+    private static final int TAG_KEY_REFERENCE = 25;
+
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int FLOAT32 = 0xfa;
+    private static final int FLOAT64 = 0xfb;
+
+    /**
+     * 编码声明
+     *
+     * @param claims 声明，值的类型与 {@link JSONObject} 中一致
+     * @return 编码后的bytes
+     */
+    public static byte[] encode(Map<String, ?> claims) {
+        final Encoder encoder = new Encoder();
+        encoder.out.write(VERSION);
+        encoder.writeMap(claims);
+        return encoder.out.toByteArray();
+    }
+
+    /**
+     * 解码声明
+     *
+     * @param data   {@link #encode(Map)} 编码后的bytes
+     * @param config 生成的JSONObject使用的配置
+     * @return 声明
+     * @throws JWTException 格式错误
+     */
+    public static JSONObject decode(byte[] data, JSONConfig config) throws JWTException {
+        if (data.length == 0 || data[0] != VERSION) {
+            throw new JWTException("Unsupported compact claims version: {}", data.length == 0 ? null : data[0]);
+        }
+        final Decoder decoder = new Decoder(data, config);
+        decoder.pos = 1;
+        final Object claims;
+        try {
+            claims = decoder.readValue();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new JWTException("Truncated compact claims");
+        }
+        if (false == claims instanceof JSONObject || decoder.pos != data.length) {
+            throw new JWTException("Invalid compact claims");
+        }
+        return (JSONObject) claims;
+    }
+
+    /**
+     * 编码器，记录字典外已出现过的键
+     */
+    private static final class Encoder {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        private void writeMap(Map<?, ?> map) {
+            writeHead(MAJOR_MAP, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeKey(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeKey(String key) {
+            final Integer index = DICTIONARY_INDEX.get(key);
+            if (null != index) {
+                writeHead(MAJOR_UNSIGNED, index);
+                return;
+            }
+            final Integer reference = keys.get(key);
+            if (null != reference) {
+                writeHead(MAJOR_TAG, TAG_KEY_REFERENCE);
+                writeHead(MAJOR_UNSIGNED, reference);
+                return;
+            }
+            keys.put(key, keys.size());
+            writeText(key);
+        }
+
+        /**
+         * 与 JSONWriter 的取值规则保持一致
+         */
+        private void writeValue(Object value) {
+            if (null == value || value instanceof JSONNull) {
+                out.write(NULL);
+            } else if (value instanceof Map) {
+                writeMap((Map<?, ?>) value);
+            } else if (value instanceof Iterable) {
+                final List<Object> list = new ArrayList<>();
+                for (Object item : (Iterable<?>) value) {
+                    list.add(item);
+                }
+                writeArray(list.iterator(), list.size());
+            } else if (value instanceof Iterator) {
+                final List<Object> list = new ArrayList<>();
+                ((Iterator<?>) value).forEachRemaining(list::add);
+                writeArray(list.iterator(), list.size());
+            } else if (ArrayUtil.isArray(value)) {
+                final int length = ArrayUtil.length(value);
+                writeHead(MAJOR_ARRAY, length);
+                for (int i = 0; i < length; i++) {
+                    writeValue(ArrayUtil.get(value, i));
+                }
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                writeLong(((Number) value).longValue());
+            } else if (value instanceof Number) {
+                writeNumber(NumberUtil.toStr((Number) value, true));
+            } else if (value instanceof MonthDay) {
+                writeText(value.toString());
+            } else if (value instanceof Date) {
+                writeLong(((Date) value).getTime() / 1000);
+            } else if (value instanceof Calendar) {
+                writeLong(((Calendar) value).getTimeInMillis() / 1000);
+            } else if (value instanceof TemporalAccessor) {
+                writeLong(TemporalAccessorUtil.toEpochMilli((TemporalAccessor) value) / 1000);
+            } else if (value instanceof Boolean) {
+                out.write((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof JSONString) {
+                writeText(((JSONString) value).toJSONString());
+            } else {
+                writeText(value.toString());
+            }
+        }
+
+        private void writeArray(Iterator<?> items, int size) {
+            writeHead(MAJOR_ARRAY, size);
+            while (items.hasNext()) {
+                writeValue(items.next());
+            }
+        }
+
+        private void writeNumber(String text) {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                if (text.length() < 19) {
+                    writeLong(Long.parseLong(text));
+                } else {
+                    writeBigInteger(new BigInteger(text));
+                }
+                return;
+            }
+            final BigDecimal decimal = new BigDecimal(text);
+            writeHead(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+            writeHead(MAJOR_ARRAY, 2);
+            writeLong(-decimal.scale());
+            writeBigInteger(decimal.unscaledValue());
+        }
+
+        private void writeBigInteger(BigInteger value) {
+            if (value.bitLength() < Long.SIZE) {
+                writeLong(value.longValue());
+                return;
+            }
+            final boolean negative = value.signum() < 0;
+            final byte[] magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+            // 去掉符号位产生的前导0
+            final int offset = magnitude[0] == 0 ? 1 : 0;
+            writeHead(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+            writeHead(MAJOR_BYTES, magnitude.length - offset);
+            out.write(magnitude, offset, magnitude.length - offset);
+        }
+
+        private void writeLong(long value) {
+            if (value >= 0) {
+                writeHead(MAJOR_UNSIGNED, value);
+            } else {
+                writeHead(MAJOR_NEGATIVE, -1 - value);
+            }
+        }
+
+        private void writeText(String text) {
+            final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            writeHead(MAJOR_TEXT, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        /**
+         * 写出类型与长度，值小于24时与类型共用1字节，否则按需使用1、2、4、8字节
+         */
+        private void writeHead(int major, long value) {
+            final int type = major << 5;
+            if (value < 24) {
+                out.write(type | (int) value);
+            } else if (value < 0x100) {
+                out.write(type | 24);
+                out.write((int) value);
+            } else if (value < 0x10000) {
+                out.write(type | 25);
+                writeBytes(value, 2);
+            } else if (value < 0x100000000L) {
+                out.write(type | 26);
+                writeBytes(value, 4);
+            } else {
+                out.write(type | 27);
+                writeBytes(value, 8);
+            }
+        }
+
+        private void writeBytes(long value, int length) {
+            for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+    }
+
+    /**
+     * 解码器，记录字典外已出现过的键
+     */
+    private static final class Decoder {
+
+        private final byte[] data;
+
+        private final JSONConfig config;
+
+        private final List<String> keys = new ArrayList<>();
+
+        private int pos;
+
+        private Decoder(byte[] data, JSONConfig config) {
+            this.data = data;
+            this.config = config;
+        }
+
+        private Object readValue() {
+            final int initial = data[pos] & 0xff;
+            final int major = initial >>> 5;
+            if (major == MAJOR_SIMPLE) {
+                pos++;
+                switch (initial) {
+                    case FALSE:
+                        return Boolean.FALSE;
+                    case TRUE:
+                        return Boolean.TRUE;
+                    case NULL:
+                        return JSONNull.NULL;
+                    case FLOAT32:
+                        return new BigDecimal(Float.toString(Float.intBitsToFloat((int) readBytes(4))));
+                    case FLOAT64:
+                        return new BigDecimal(Double.toString(Double.longBitsToDouble(readBytes(8))));
+                    default:
+                        throw invalid();
+                }
+            }
+            final long value = readHead();
+            switch (major) {
+                case MAJOR_UNSIGNED:
+                    return toNumber(value, false);
+                case MAJOR_NEGATIVE:
+                    return toNumber(value, true);
+                case MAJOR_TEXT:
+                    return readText(value);
+                case MAJOR_ARRAY:
+                    final JSONArray array = new JSONArray(checkLength(value), config);
+                    for (long i = 0; i < value; i++) {
+                        array.add(readValue());
+                    }
+                    return array;
+                case MAJOR_MAP:
+                    final JSONObject object = new JSONObject(checkLength(value), config);
+                    for (long i = 0; i < value; i++) {
+                        final String key = readKey();
+                        object.set(key, readValue());
+                    }
+                    return object;
+                case MAJOR_TAG:
+                    return readTagged(value);
+                default:
+                    throw invalid();
+            }
+        }
+
+        private String readKey() {
+            final int major = (data[pos] & 0xff) >>> 5;
+            final long value = readHead();
+            if (major == MAJOR_UNSIGNED) {
+                if (value >= DICTIONARY.length) {
+                    throw new JWTException("Unknown claim name index: {}", value);
+                }
+                return DICTIONARY[(int) value];
+            }
+            if (major == MAJOR_TAG && value == TAG_KEY_REFERENCE) {
+                // 引用的是已出现键的序号，只受已出现的键数限制，与剩余字节数无关
+                if ((data[pos] & 0xff) >>> 5 != MAJOR_UNSIGNED) {
+                    throw invalid();
+                }
+                final long reference = readHead();
+                if (reference < 0 || reference >= keys.size()) {
+                    throw invalid();
+                }
+                return keys.get((int) reference);
+            }
+            if (major == MAJOR_TEXT) {
+                final String key = readText(value);
+                keys.add(key);
+                return key;
+            }
+            throw invalid();
+        }
+
+        private Object readTagged(long tag) {
+            if (tag == TAG_POSITIVE_BIGNUM || tag == TAG_NEGATIVE_BIGNUM) {
+                // 与JSON解析保持一致，超出long范围的整数返回字符串
+                return readBigInteger(tag).toString();
+            }
+            if (tag == TAG_DECIMAL_FRACTION) {
+                if ((data[pos] & 0xff) != (MAJOR_ARRAY << 5 | 2)) {
+                    throw invalid();
+                }
+                pos++;
+                final Object exponent = readValue();
+                final int mantissaMajor = (data[pos] & 0xff) >>> 5;
+                final BigInteger mantissa;
+                if (mantissaMajor == MAJOR_TAG) {
+                    mantissa = readBigInteger(readHead());
+                } else {
+                    final int mantissaPos = pos;
+                    try {
+                        mantissa = new BigInteger(String.valueOf(readValue()));
+                    } catch (NumberFormatException e) {
+                        throw new JWTException(e, "Invalid compact claims at position {}", mantissaPos);
+                    }
+                }
+                if (false == exponent instanceof Integer) {
+                    throw invalid();
+                }
+                return new BigDecimal(mantissa, -(Integer) exponent);
+            }
+            throw new JWTException("Unsupported tag {} in compact claims", tag);
+        }
+
+        private BigInteger readBigInteger(long tag) {
+            if (tag != TAG_POSITIVE_BIGNUM && tag != TAG_NEGATIVE_BIGNUM) {
+                throw invalid();
+            }
+            if ((data[pos] & 0xff) >>> 5 != MAJOR_BYTES) {
+                throw invalid();
+            }
+            final int length = checkLength(readHead());
+            final byte[] magnitude = new byte[length];
+            System.arraycopy(data, pos, magnitude, 0, length);
+            pos += length;
+            final BigInteger value = new BigInteger(1, magnitude);
+            return tag == TAG_NEGATIVE_BIGNUM ? value.add(BigInteger.ONE).negate() : value;
+        }
+
+        /**
+         * 与JSON解析保持一致，int范围内返回Integer，long范围内返回Long，否则返回字符串
+         */
+        private Object toNumber(long value, boolean negative) {
+            if (value < 0) {
+                // 超过long范围的无符号数
+                final BigInteger unsigned = new BigInteger(Long.toUnsignedString(value));
+                return (negative ? unsigned.add(BigInteger.ONE).negate() : unsigned).toString();
+            }
+            final long signed = negative ? -1 - value : value;
+            if (signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE) {
+                return (int) signed;
+            }
+            return signed;
+        }
+
+        private String readText(long length) {
+            final int size = checkLength(length);
+            final String text = new String(data, pos, size, StandardCharsets.UTF_8);
+            pos += size;
+            return text;
+        }
+
+        private long readHead() {
+            final int info = data[pos++] & 0x1f;
+            if (info < 24) {
+                return info;
+            }
+            switch (info) {
+                case 24:
+                    return readBytes(1);
+                case 25:
+                    return readBytes(2);
+                case 26:
+                    return readBytes(4);
+                case 27:
+                    return readBytes(8);
+                default:
+                    throw invalid();
+            }
+        }
+
+        private long readBytes(int length) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value = value << 8 | (data[pos++] & 0xff);
+            }
+            return value;
+        }
+
+        /**
+         * 长度不会超过剩余字节数，避免恶意数据导致分配过大的集合
+         */
+        private int checkLength(long length) {
+            if (length < 0 || length > data.length - pos) {
+                throw invalid();
+            }
+            return (int) length;
+        }
+
+        private JWTException invalid() {
+            return new JWTException("Invalid compact claims at position {}", pos);
+        }
+    }
+}
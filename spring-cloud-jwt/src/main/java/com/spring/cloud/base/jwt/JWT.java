@@ -17,6 +17,7 @@ import com.spring.cloud.base.utils.str.StrUtil;
 import java.nio.charset.Charset;
 import java.security.Key;
 import java.security.KeyPair;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -83,7 +84,11 @@ public class JWT implements RegisteredPayload<JWT> {
         final List<String> tokens = splitToken(token);
         this.tokens = tokens;
         this.header.parse(tokens.get(0), this.charset);
-        this.payload.parse(tokens.get(1), this.charset);
+        if (isCompact()) {
+            this.payload.parseCompact(tokens.get(1));
+        } else {
+            this.payload.parse(tokens.get(1), this.charset);
+        }
         return this;
     }
 
@@ -98,6 +103,28 @@ public class JWT implements RegisteredPayload<JWT> {
         return this;
     }
 
+    /**
+     * 设置是否使用紧凑二进制编码载荷，通过头部的typ区分，签名算法不变<br>
+     * 载荷中的常用声明名编码为1字节，数字使用变长编码，适用于声明较多的Token，例如携带角色与权限列表
+     *
+     * @param compact 是否使用紧凑编码，true时typ为{@link JWTHeader#COMPACT_TYPE}，false时为JWT
+     * @return this
+     * @see CompactClaims
+     */
+    public JWT setCompact(boolean compact) {
+        this.header.setClaim(JWTHeader.TYPE, compact ? JWTHeader.COMPACT_TYPE : "JWT");
+        return this;
+    }
+
+    /**
+     * 载荷是否使用紧凑二进制编码
+     *
+     * @return 是否使用紧凑编码
+     */
+    public boolean isCompact() {
+        return JWTHeader.COMPACT_TYPE.equals(this.header.getClaim(JWTHeader.TYPE));
+    }
+
     /**
      * 设置密钥，如果头部指定了算法，直接使用，否则默认算法是：HS256(HmacSHA256)
      *
@@ -311,7 +338,9 @@ public class JWT implements RegisteredPayload<JWT> {
         }
 
         final String headerBase64 = Base64.encodeUrlSafe(this.header.toString(), charset);
-        final String payloadBase64 = Base64.encodeUrlSafe(this.payload.toString(), charset);
+        final String payloadBase64 = isCompact()
+                ? Base64.encodeUrlSafe(this.payload.toCompactBytes())
+                : Base64.encodeUrlSafe(this.payload.toString(), charset);
         final String sign = signer.sign(headerBase64, payloadBase64);
 
         return StrUtil.format("{}.{}.{}", headerBase64, payloadBase64, sign);
@@ -381,10 +410,11 @@ public class JWT implements RegisteredPayload<JWT> {
      * @return 三部分内容
      */
     private static List<String> splitToken(String token) {
-        final List<String> tokens = StrUtil.split(token, CharUtil.DOT);
-        if (3 != tokens.size()) {
-            throw new JWTException("The token was expected 3 parts, but got {}.", tokens.size());
+        final int firstDot = token.indexOf(CharUtil.DOT);
+        final int secondDot = firstDot < 0 ? -1 : token.indexOf(CharUtil.DOT, firstDot + 1);
+        if (secondDot < 0 || token.indexOf(CharUtil.DOT, secondDot + 1) >= 0) {
+            throw new JWTException("The token was expected 3 parts, but got {}.", StrUtil.count(token, CharUtil.DOT) + 1);
         }
-        return tokens;
+        return Arrays.asList(token.substring(0, firstDot), token.substring(firstDot + 1, secondDot), token.substring(secondDot + 1));
     }
 }
@@ -0,0 +1,234 @@
+package com.spring.cloud.base.jwt;
+
+import com.spring.cloud.base.jwt.exception.JWTException;
+import com.spring.cloud.base.jwt.utils.AlgorithmUtil;
+import com.spring.cloud.base.utils.Assert;
+import com.spring.cloud.base.utils.base.Base64;
+import com.spring.cloud.base.utils.exception.IORuntimeException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @Author: ls
+ * @Description: 批量签发JWT，适用于批量签发服务Token或发布后集中刷新会话
+ * 头部只在设置变化时编码一次，每个Token只编码载荷并签名；批量签发时并行处理，
+ * 签名器可以共享（线程安全的实现，如HMAC），也可以通过 {@link Supplier} 为每个线程创建一个（如内部加锁的非对称签名器）
+ * 线程安全，设置头部信息应在签发之前完成
+ * @Date: 2023/5/19 10:08
+ */
+public class JWTBatchIssuer {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final ThreadLocal<JWTSigner> signers;
+
+    private final JWTHeader header = new JWTHeader();
+
+    private volatile String headerBase64;
+
+    private boolean compact;
+
+    private ForkJoinPool pool;
+
+    /**
+     * 构造，所有线程共用一个签名器
+     *
+     * @param signer 线程安全的签名器
+     */
+    public JWTBatchIssuer(JWTSigner signer) {
+        this(signer, () -> signer);
+    }
+
+    /**
+     * 构造，每个线程使用各自的签名器
+     *
+     * @param signerSupplier 签名器工厂，每个签发线程调用一次，创建的签名器算法必须一致
+     */
+    public JWTBatchIssuer(Supplier<? extends JWTSigner> signerSupplier) {
+        this(signerSupplier.get(), signerSupplier);
+    }
+
+    private JWTBatchIssuer(JWTSigner signer, Supplier<? extends JWTSigner> signerSupplier) {
+        Assert.notNull(signer, () -> new JWTException("No Signer provided!"));
+        this.signers = ThreadLocal.withInitial(signerSupplier);
+        this.signers.set(signer);
+        this.header.setClaim(JWTHeader.TYPE, "JWT");
+        this.header.setClaim(JWTHeader.ALGORITHM, AlgorithmUtil.getId(signer.getAlgorithm()));
+    }
+
+    /**
+     * 增加“kid”头信息
+     *
+     * @param keyId kid
+     * @return this
+     */
+    public JWTBatchIssuer setKeyId(String keyId) {
+        return setHeader(JWTHeader.KEY_ID, keyId);
+    }
+
+    /**
+     * 设置JWT头信息
+     *
+     * @param name  头名
+     * @param value 头，{@code null}表示移除
+     * @return this
+     */
+    public JWTBatchIssuer setHeader(String name, Object value) {
+        this.header.setClaim(name, value);
+        this.headerBase64 = null;
+        return this;
+    }
+
+    /**
+     * 增加JWT头信息
+     *
+     * @param headers 头信息
+     * @return this
+     */
+    public JWTBatchIssuer addHeaders(Map<String, ?> headers) {
+        this.header.addHeaders(headers);
+        this.headerBase64 = null;
+        return this;
+    }
+
+    /**
+     * 设置是否使用紧凑二进制编码载荷
+     *
+     * @param compact 是否使用紧凑编码
+     * @return this
+     * @see JWT#setCompact(boolean)
+     */
+    public JWTBatchIssuer setCompact(boolean compact) {
+        this.compact = compact;
+        return setHeader(JWTHeader.TYPE, compact ? JWTHeader.COMPACT_TYPE : "JWT");
+    }
+
+    /**
+     * 设置批量签发使用的线程池
+     *
+     * @param pool 线程池，{@code null}表示使用{@link ForkJoinPool#commonPool()}
+     * @return this
+     */
+    public JWTBatchIssuer setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * 签发单个Token
+     *
+     * @param payload 载荷信息
+     * @return JWT Token
+     */
+    public String issue(Map<String, ?> payload) {
+        final String headerBase64 = headerBase64();
+        final JWTPayload claims = new JWTPayload().addPayloads(payload);
+        final String payloadBase64 = this.compact
+                ? Base64.encodeUrlSafe(claims.toCompactBytes())
+                : Base64.encodeUrlSafe(claims.toString(), StandardCharsets.UTF_8);
+        final String sign = this.signers.get().sign(headerBase64, payloadBase64);
+        final StringBuilder token = new StringBuilder(headerBase64.length() + payloadBase64.length() + sign.length() + 2);
+        return token.append(headerBase64).append('.').append(payloadBase64).append('.').append(sign).toString();
+    }
+
+    /**
+     * 并行签发，结果与载荷顺序一致
+     *
+     * @param payloads 载荷信息
+     * @return JWT Token列表
+     */
+    public List<String> issueAll(List<? extends Map<String, ?>> payloads) {
+        return execute(() -> payloads.parallelStream().map(this::issue).collect(Collectors.toList()));
+    }
+
+    /**
+     * 并行签发，有序的流按原顺序回调
+     *
+     * @param payloads 载荷信息
+     * @param consumer Token处理，逐个调用，不会被并发调用
+     * @return 签发的Token数
+     */
+    public long issue(Stream<? extends Map<String, ?>> payloads, Consumer<String> consumer) {
+        final AtomicLong count = new AtomicLong();
+        execute(() -> {
+            payloads.parallel().map(this::issue).forEachOrdered(token -> {
+                consumer.accept(token);
+                count.incrementAndGet();
+            });
+            return null;
+        });
+        return count.get();
+    }
+
+    /**
+     * 并行签发，Token按行写出，有序的流按原顺序写出，不关闭流
+     *
+     * @param payloads 载荷信息
+     * @param out      输出流
+     * @return 签发的Token数
+     * @throws IORuntimeException IO异常
+     */
+    public long issue(Stream<? extends Map<String, ?>> payloads, OutputStream out) throws IORuntimeException {
+        final BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        final long count = issue(payloads, token -> {
+            try {
+                // Token只包含Base64URL字符与"."
+                buffered.write(token.getBytes(StandardCharsets.US_ASCII));
+                buffered.write(NEW_LINE);
+            } catch (IOException e) {
+                throw new IORuntimeException(e);
+            }
+        });
+        try {
+            buffered.flush();
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+        return count;
+    }
+
+    private String headerBase64() {
+        String headerBase64 = this.headerBase64;
+        if (null == headerBase64) {
+            synchronized (this.header) {
+                headerBase64 = Base64.encodeUrlSafe(this.header.toString(), StandardCharsets.UTF_8);
+            }
+            this.headerBase64 = headerBase64;
+        }
+        return headerBase64;
+    }
+
+    /**
+     * 在指定线程池中执行并行流，未指定时直接在commonPool中执行
+     */
+    private <T> T execute(Supplier<T> task) {
+        final ForkJoinPool pool = this.pool;
+        if (null == pool) {
+            return task.get();
+        }
+        try {
+            return pool.submit(task::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JWTException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new JWTException(cause);
+        }
+    }
+}
@@ -26,6 +26,10 @@ public class JWTHeader extends Claims {
 	 * jwk的ID编号
 	 */
 	public static String KEY_ID = "kid";
+	/**
+	 * 载荷为紧凑二进制编码时的声明类型，见 {@link CompactClaims}
+	 */
+	public static String COMPACT_TYPE = "CJWT";
 
 	/**
 	 * 构造，初始化默认(typ=JWT)
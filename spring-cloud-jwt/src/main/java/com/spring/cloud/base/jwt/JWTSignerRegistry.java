@@ -0,0 +1,575 @@
+package com.spring.cloud.base.jwt;
+
+import com.spring.cloud.base.jwt.exception.JWTException;
+import com.spring.cloud.base.jwt.json.JSONArray;
+import com.spring.cloud.base.jwt.json.JSONObject;
+import com.spring.cloud.base.jwt.utils.JSONUtil;
+import com.spring.cloud.base.jwt.utils.JWTSignerUtil;
+import com.spring.cloud.base.utils.Assert;
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+import com.spring.cloud.base.utils.base.Base64;
+import com.spring.cloud.base.utils.crypto.KeyUtil;
+import com.spring.cloud.base.utils.map.ResourceUtil;
+import com.spring.cloud.base.utils.str.StrUtil;
+import com.spring.cloud.base.utils.utils.FileUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: ls
+ * @Description: 多密钥签名器注册中心，用于密钥轮换期间的验签
+ * 按Token头部的kid与alg直接定位预先创建好的签名器，不再逐个密钥尝试；kid与alg必须同时匹配，避免算法混淆
+ * 密钥可以手动注册，也可以从本地JWKS文件或Classpath资源加载并定时重新加载，手动注册的优先
+ * 只用于验签，不实现 {@link JWTSigner}：签名请通过 {@link #getSigner(String, String)} 获取具体的签名器，
+ * 验签使用 {@link #verify(String)}、{@link JWTVerifier#JWTVerifier(JWTSignerRegistry)} 或 {@link JWTValidator#validateAlgorithmByRegistry(JWTSignerRegistry)}
+ * @Date: 2023/5/11 09:36
+ */
+public class JWTSignerRegistry implements Closeable {
+
+    /**
+     * 没有kid的密钥使用的键
+     */
+    private static final String NO_KID = "";
+
+    private static final Map<String, String> EC_CURVES = new HashMap<>(4);
+
+    static {
+        EC_CURVES.put("P-256", "secp256r1");
+        EC_CURVES.put("P-384", "secp384r1");
+        EC_CURVES.put("P-521", "secp521r1");
+    }
+
+    private final Source source;
+
+    private final Map<String, Map<String, Entry>> registered = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Map<String, Entry>> loaded = Collections.emptyMap();
+
+    /**
+     * 手动注册与JWKS加载合并后的只读视图，变更时整体替换
+     */
+    private volatile Map<String, Map<String, Entry>> signers = Collections.emptyMap();
+
+    /**
+     * 密钥集合的版本，每次变更加1
+     */
+    private volatile long version;
+
+    private final LongAdder unknownKeyCount = new LongAdder();
+
+    private final LongAdder reloadCount = new LongAdder();
+
+    private final LongAdder reloadFailureCount = new LongAdder();
+
+    private volatile Exception lastReloadError;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 构造，只使用手动注册的密钥
+     */
+    public JWTSignerRegistry() {
+        this(null);
+    }
+
+    private JWTSignerRegistry(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * 从本地JWKS文件创建，文件修改后重新加载才会生效
+     *
+     * @param file JWKS文件
+     * @return JWTSignerRegistry
+     */
+    public static JWTSignerRegistry ofFile(File file) {
+        final JWTSignerRegistry registry = new JWTSignerRegistry(new FileSource(file));
+        registry.reload();
+        return registry;
+    }
+
+    /**
+     * 从Classpath下的JWKS资源创建
+     *
+     * @param resource 资源路径
+     * @return JWTSignerRegistry
+     */
+    public static JWTSignerRegistry ofClasspath(String resource) {
+        final JWTSignerRegistry registry = new JWTSignerRegistry(new ClasspathSource(resource));
+        registry.reload();
+        return registry;
+    }
+
+    /**
+     * 注册签名器，算法取签名器的算法ID
+     *
+     * @param kid    密钥ID，为null表示头部没有kid的Token
+     * @param signer 签名器
+     * @return this
+     */
+    public JWTSignerRegistry register(String kid, JWTSigner signer) {
+        Assert.notNull(signer, "Signer must be not null!");
+        final String algorithmId = signer.getAlgorithmId();
+        final Entry previous = find(this.signers, kid, algorithmId);
+        final Entry entry = new Entry(kidKey(kid), algorithmId, signer,
+                previous == null ? new KeyMetrics(kidKey(kid), algorithmId) : previous.metrics);
+        this.registered.computeIfAbsent(entry.kid, key -> new ConcurrentHashMap<>(2)).put(algorithmId, entry);
+        refresh();
+        return this;
+    }
+
+    /**
+     * 移除手动注册的签名器
+     *
+     * @param kid 密钥ID
+     * @return this
+     */
+    public JWTSignerRegistry unregister(String kid) {
+        this.registered.remove(kidKey(kid));
+        refresh();
+        return this;
+    }
+
+    /**
+     * 获取签名器
+     *
+     * @param kid         密钥ID
+     * @param algorithmId 算法ID，如RS256
+     * @return 签名器，不存在时返回null
+     */
+    public JWTSigner getSigner(String kid, String algorithmId) {
+        final Entry entry = find(this.signers, kid, algorithmId);
+        return entry == null ? null : entry.signer;
+    }
+
+    /**
+     * 验证Token签名
+     *
+     * @param token JWT Token字符串
+     * @return 签名是否有效
+     */
+    public boolean verify(String token) {
+        final int firstDot = token.indexOf('.');
+        final int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return false;
+        }
+        return verify(token.substring(0, firstDot), token.substring(firstDot + 1, secondDot), token.substring(secondDot + 1));
+    }
+
+    /**
+     * 验证签名，按头部的kid与alg选择签名器
+     *
+     * @param headerBase64  JWT头的JSON字符串Base64表示
+     * @param payloadBase64 JWT载荷的JSON字符串Base64表示
+     * @param signBase64    被验证的签名Base64表示
+     * @return 签名是否有效，找不到签名器时返回false
+     */
+    public boolean verify(String headerBase64, String payloadBase64, String signBase64) {
+        final String kid;
+        final String algorithmId;
+        try {
+            final LazyClaims header = LazyClaims.of(headerBase64);
+            kid = header.getStr(JWTHeader.KEY_ID);
+            algorithmId = header.getStr(JWTHeader.ALGORITHM);
+        } catch (JWTException e) {
+            this.unknownKeyCount.increment();
+            return false;
+        }
+        final Entry entry = find(this.signers, kid, algorithmId);
+        if (entry == null) {
+            this.unknownKeyCount.increment();
+            return false;
+        }
+        final boolean verified = entry.signer.verify(headerBase64, payloadBase64, signBase64);
+        entry.metrics.record(verified);
+        return verified;
+    }
+
+    /**
+     * 重新加载JWKS，内容未变化时跳过
+     *
+     * @return 是否重新加载
+     * @throws JWTException 加载失败，原有的密钥保持不变
+     */
+    public synchronized boolean reload() {
+        if (this.source == null) {
+            return false;
+        }
+        try {
+            final String jwks = this.source.readIfChanged();
+            if (jwks == null) {
+                return false;
+            }
+            this.loaded = parse(jwks, this.signers);
+            refresh();
+            this.source.commit();
+            this.reloadCount.increment();
+            this.lastReloadError = null;
+            return true;
+        } catch (Exception e) {
+            this.reloadFailureCount.increment();
+            this.lastReloadError = e;
+            throw e instanceof JWTException ? (JWTException) e : new JWTException(e, "Load JWKS failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时重新加载JWKS，加载失败时保留原有密钥，错误见 {@link #getLastReloadError()}
+     *
+     * @param period 间隔
+     * @param unit   时间单位
+     * @return this
+     */
+    public synchronized JWTSignerRegistry scheduleReload(long period, TimeUnit unit) {
+        Assert.notNull(this.source, "No JWKS source to reload!");
+        if (this.scheduler == null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    ThreadFactoryBuilder.create().setNamePrefix("jwks-reload-").setDaemon(true).build());
+            this.scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    reload();
+                } catch (JWTException ignored) {
+                    // 已记录到 lastReloadError
+                }
+            }, period, period, unit);
+        }
+        return this;
+    }
+
+    /**
+     * 密钥集合的版本，注册、移除或重新加载密钥后变化，用于使依赖旧密钥的验签缓存失效
+     *
+     * @return 版本
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * 各密钥的验签统计
+     *
+     * @return 统计，包括已被轮换掉但仍在手动注册或JWKS中的密钥
+     */
+    public List<KeyMetrics> getMetrics() {
+        final List<KeyMetrics> metrics = new ArrayList<>();
+        for (Map<String, Entry> byAlgorithm : this.signers.values()) {
+            for (Entry entry : byAlgorithm.values()) {
+                metrics.add(entry.metrics);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * kid或算法找不到对应签名器的次数
+     *
+     * @return 次数
+     */
+    public long getUnknownKeyCount() {
+        return this.unknownKeyCount.sum();
+    }
+
+    /**
+     * JWKS成功重新加载的次数
+     *
+     * @return 次数
+     */
+    public long getReloadCount() {
+        return this.reloadCount.sum();
+    }
+
+    /**
+     * JWKS加载失败的次数
+     *
+     * @return 次数
+     */
+    public long getReloadFailureCount() {
+        return this.reloadFailureCount.sum();
+    }
+
+    /**
+     * 最近一次加载失败的原因，之后成功加载时清空
+     *
+     * @return 异常
+     */
+    public Exception getLastReloadError() {
+        return this.lastReloadError;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    private synchronized void refresh() {
+        final Map<String, Map<String, Entry>> merged = new HashMap<>(this.loaded);
+        for (Map.Entry<String, Map<String, Entry>> kid : this.registered.entrySet()) {
+            final Map<String, Entry> byAlgorithm = new HashMap<>(merged.getOrDefault(kid.getKey(), Collections.emptyMap()));
+            byAlgorithm.putAll(kid.getValue());
+            merged.put(kid.getKey(), byAlgorithm);
+        }
+        this.signers = merged;
+        this.version++;
+    }
+
+    private static Entry find(Map<String, Map<String, Entry>> signers, String kid, String algorithmId) {
+        final Map<String, Entry> byAlgorithm = signers.get(kidKey(kid));
+        return byAlgorithm == null || algorithmId == null ? null : byAlgorithm.get(algorithmId);
+    }
+
+    private static String kidKey(String kid) {
+        return kid == null ? NO_KID : kid;
+    }
+
+    /**
+     * 解析JWKS，只处理用于签名的RSA、EC与oct密钥，其余跳过
+     * kid与算法不变的密钥沿用原有统计
+     */
+    private static Map<String, Map<String, Entry>> parse(String jwks, Map<String, Map<String, Entry>> previous) {
+        final JSONArray keys = JSONUtil.parseObj(jwks).getJSONArray("keys");
+        if (keys == null) {
+            throw new JWTException("JWKS has no 'keys'!");
+        }
+        final Map<String, Map<String, Entry>> result = new HashMap<>(keys.size() * 4 / 3 + 1);
+        for (int i = 0; i < keys.size(); i++) {
+            final JSONObject jwk = keys.getJSONObject(i);
+            final String use = jwk.getStr("use");
+            if (use != null && false == "sig".equals(use)) {
+                continue;
+            }
+            final String kid = kidKey(jwk.getStr("kid"));
+            final String kty = jwk.getStr("kty");
+            String algorithmId = jwk.getStr("alg");
+            final JWTSigner signer;
+            if ("RSA".equals(kty)) {
+                algorithmId = StrUtil.emptyToDefault(algorithmId, "RS256");
+                final PublicKey key = KeyUtil.getRSAPublicKey(unsigned(jwk, "n"), unsigned(jwk, "e"));
+                signer = JWTSignerUtil.createSigner(algorithmId, key);
+            } else if ("EC".equals(kty)) {
+                final String crv = jwk.getStr("crv");
+                algorithmId = StrUtil.emptyToDefault(algorithmId, "P-521".equals(crv) ? "ES512" : "P-384".equals(crv) ? "ES384" : "ES256");
+                signer = JWTSignerUtil.createSigner(algorithmId, ecPublicKey(crv, unsigned(jwk, "x"), unsigned(jwk, "y")));
+            } else if ("oct".equals(kty)) {
+                algorithmId = StrUtil.emptyToDefault(algorithmId, "HS256");
+                signer = JWTSignerUtil.createSigner(algorithmId, Base64.decode(required(jwk, "k")));
+            } else {
+                continue;
+            }
+            final Entry old = find(previous, kid, algorithmId);
+            result.computeIfAbsent(kid, key -> new HashMap<>(2)).put(algorithmId,
+                    new Entry(kid, algorithmId, signer, old == null ? new KeyMetrics(kid, algorithmId) : old.metrics));
+        }
+        return result;
+    }
+
+    private static PublicKey ecPublicKey(String crv, BigInteger x, BigInteger y) {
+        final String curve = EC_CURVES.get(crv);
+        if (curve == null) {
+            throw new JWTException("Unsupported EC curve: {}", crv);
+        }
+        try {
+            final AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec(curve));
+            final ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+            return KeyUtil.generatePublicKey("EC", new ECPublicKeySpec(new ECPoint(x, y), spec));
+        } catch (java.security.GeneralSecurityException e) {
+            throw new JWTException(e);
+        }
+    }
+
+    private static BigInteger unsigned(JSONObject jwk, String name) {
+        return new BigInteger(1, Base64.decode(required(jwk, name)));
+    }
+
+    private static String required(JSONObject jwk, String name) {
+        final String value = jwk.getStr(name);
+        if (StrUtil.isEmpty(value)) {
+            throw new JWTException("JWK '{}' is missing '{}'!", jwk.getStr("kid"), name);
+        }
+        return value;
+    }
+
+    /**
+     * 单个密钥的验签统计
+     */
+    public static class KeyMetrics {
+
+        private final String kid;
+
+        private final String algorithmId;
+
+        private final LongAdder verifications = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        KeyMetrics(String kid, String algorithmId) {
+            this.kid = kid;
+            this.algorithmId = algorithmId;
+        }
+
+        void record(boolean verified) {
+            this.verifications.increment();
+            if (false == verified) {
+                this.failures.increment();
+            }
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public String getAlgorithmId() {
+            return algorithmId;
+        }
+
+        public long getVerifications() {
+            return verifications.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        @Override
+        public String toString() {
+            return StrUtil.format("{}/{}: verifications={}, failures={}", kid, algorithmId, getVerifications(), getFailures());
+        }
+    }
+
+    private static final class Entry {
+
+        private final String kid;
+
+        private final String algorithmId;
+
+        private final JWTSigner signer;
+
+        private final KeyMetrics metrics;
+
+        private Entry(String kid, String algorithmId, JWTSigner signer, KeyMetrics metrics) {
+            this.kid = kid;
+            this.algorithmId = algorithmId;
+            this.signer = signer;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * JWKS来源，读取成功并生效后调用 {@link #commit()} 记录版本
+     */
+    private interface Source {
+
+        String readIfChanged();
+
+        void commit();
+    }
+
+    /**
+     * 本地文件来源，修改时间与大小都未变化时不读取文件，读取后内容与上次相同时不重新加载<br>
+     * 修改时间精度有限，读取时距修改时间不足 {@link #MODIFIED_WINDOW} 的文件之后仍可能被改写而修改时间不变，下次照常读取比较内容
+     */
+    private static final class FileSource implements Source {
+
+        private static final long MODIFIED_WINDOW = 2000L;
+
+        private final File file;
+
+        private long lastModified = -1;
+
+        private long lastLength = -1;
+
+        private boolean settled;
+
+        private String last;
+
+        private long pendingModified;
+
+        private long pendingLength;
+
+        private boolean pendingSettled;
+
+        private String pending;
+
+        private FileSource(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public String readIfChanged() {
+            final long modified = this.file.lastModified();
+            final long length = this.file.length();
+            if (this.settled && modified != 0 && modified == this.lastModified && length == this.lastLength) {
+                return null;
+            }
+            final long readAt = System.currentTimeMillis();
+            final String content = FileUtil.readUtf8String(this.file);
+            this.pendingModified = modified;
+            this.pendingLength = length;
+            this.pendingSettled = readAt - modified >= MODIFIED_WINDOW;
+            this.pending = content;
+            if (content.equals(this.last)) {
+                commit();
+                return null;
+            }
+            return content;
+        }
+
+        @Override
+        public void commit() {
+            this.lastModified = this.pendingModified;
+            this.lastLength = this.pendingLength;
+            this.settled = this.pendingSettled;
+            this.last = this.pending;
+        }
+    }
+
+    private static final class ClasspathSource implements Source {
+
+        private final String resource;
+
+        private String last;
+
+        private String pending;
+
+        private ClasspathSource(String resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public String readIfChanged() {
+            final String content = ResourceUtil.readUtf8Str(this.resource);
+            if (content.equals(this.last)) {
+                return null;
+            }
+            this.pending = content;
+            return content;
+        }
+
+        @Override
+        public void commit() {
+            this.last = this.pending;
+        }
+    }
+}
@@ -67,6 +67,24 @@ public class JWTValidator {
 		return this;
 	}
 
+	/**
+	 * 验证算法，按头部的kid与alg从注册中心选择签名器
+	 *
+	 * @param registry 签名器注册中心
+	 * @return this
+	 * @throws ValidateException 找不到签名器或验证失败
+	 */
+	public JWTValidator validateAlgorithmByRegistry(JWTSignerRegistry registry) throws ValidateException {
+		final Object kid = this.jwt.getHeader(JWTHeader.KEY_ID);
+		final String algorithmId = this.jwt.getAlgorithm();
+		final JWTSigner signer = registry.getSigner(null == kid ? null : kid.toString(), algorithmId);
+		if (null == signer) {
+			throw new ValidateException("No signer registered for kid [{}] and algorithm [{}]!", kid, algorithmId);
+		}
+		validateAlgorithm(this.jwt, signer);
+		return this;
+	}
+
 	/**
 	 * 检查JWT的以下三两个时间：
 	 *
@@ -0,0 +1,348 @@
+package com.spring.cloud.base.jwt;
+
+import com.spring.cloud.base.jwt.exception.JWTException;
+import com.spring.cloud.base.jwt.utils.NoneJWTSigner;
+import com.spring.cloud.base.utils.cache.Cache;
+import com.spring.cloud.base.utils.cache.CacheStats;
+import com.spring.cloud.base.utils.cache.CacheUtil;
+import com.spring.cloud.base.utils.exception.ValidateException;
+import com.spring.cloud.base.utils.str.StrUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @Author: ls
+ * @Description: 带缓存的JWT校验器，适用于网关等反复校验相同Token的场景
+ * 未命中时先验签，通过后才解码声明并校验算法与时间；校验通过的Token按SHA-256摘要缓存，
+ * 缓存在Token自身的过期时间（含容忍空间）失效，没有过期时间的最多缓存 {@link #setMaxTtl(long)}
+ * 校验失败的Token不缓存；使用注册中心时缓存随密钥集合的版本失效，密钥被移除或轮换后不再命中旧的校验结果；
+ * 线程安全，同一个签名器共用一个实例
+ * @Date: 2023/5/10 10:12
+ */
+public class JWTVerifier {
+
+    /**
+     * 默认最多缓存的Token数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 默认最长缓存时间，毫秒
+     */
+    public static final long DEFAULT_MAX_TTL = 10 * 60 * 1000L;
+
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(JWTVerifier::createDigest);
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    private final JWTSigner signer;
+
+    /**
+     * 不为null时按头部的kid与alg从注册中心选择签名器
+     */
+    private final JWTSignerRegistry registry;
+
+    private final Cache<TokenKey, Verified> cache;
+
+    /**
+     * 最近一次看到的注册中心版本，变化时清空缓存
+     */
+    private volatile long registryVersion;
+
+    private long leeway;
+
+    private long maxTtl = DEFAULT_MAX_TTL;
+
+    /**
+     * 构造
+     *
+     * @param signer 签名器
+     */
+    public JWTVerifier(JWTSigner signer) {
+        this(signer, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * 构造
+     *
+     * @param signer      签名器，为null表示不签名的Token
+     * @param maximumSize 最多缓存的Token数，超出时淘汰最近最少使用的
+     */
+    public JWTVerifier(JWTSigner signer, int maximumSize) {
+        this(null == signer ? NoneJWTSigner.NONE : signer, null, maximumSize);
+    }
+
+    /**
+     * 构造，用于密钥轮换
+     *
+     * @param registry 签名器注册中心
+     */
+    public JWTVerifier(JWTSignerRegistry registry) {
+        this(registry, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * 构造，用于密钥轮换
+     *
+     * @param registry    签名器注册中心
+     * @param maximumSize 最多缓存的Token数，超出时淘汰最近最少使用的
+     */
+    public JWTVerifier(JWTSignerRegistry registry, int maximumSize) {
+        this(null, Objects.requireNonNull(registry, "Registry must be not null!"), maximumSize);
+    }
+
+    private JWTVerifier(JWTSigner signer, JWTSignerRegistry registry, int maximumSize) {
+        this.signer = signer;
+        this.registry = registry;
+        this.cache = CacheUtil.newLRUCache(maximumSize);
+    }
+
+    /**
+     * 设置时间校验的容忍空间
+     *
+     * @param leeway 容忍空间，单位：秒
+     * @return this
+     */
+    public JWTVerifier setLeeway(long leeway) {
+        this.leeway = leeway;
+        return this;
+    }
+
+    /**
+     * 设置最长缓存时间，过期时间更晚或没有过期时间的Token最多缓存这么久
+     *
+     * @param maxTtl 最长缓存时间，单位：毫秒，不大于0表示只按Token的过期时间失效
+     * @return this
+     */
+    public JWTVerifier setMaxTtl(long maxTtl) {
+        this.maxTtl = maxTtl;
+        return this;
+    }
+
+    /**
+     * 校验Token，包括签名、算法以及生效、过期、签发时间
+     *
+     * @param token JWT Token字符串
+     * @return 载荷声明
+     * @throws ValidateException 校验不通过
+     */
+    public LazyClaims verify(String token) throws ValidateException {
+        if (StrUtil.isBlank(token)) {
+            throw new ValidateException("Token String must be not blank!");
+        }
+        final TokenKey key = new TokenKey(digest(token));
+        // 在验签之前读取版本，验签期间密钥变化时结果按旧版本缓存，下次命中时失效
+        final long version = currentVersion();
+        final Verified cached = this.cache.get(key);
+        if (cached != null) {
+            if (cached.version == version) {
+                return cached.payload;
+            }
+            this.cache.remove(key);
+        }
+
+        final int firstDot = token.indexOf('.');
+        final int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new ValidateException("The token was expected 3 parts!");
+        }
+        final String headerBase64 = token.substring(0, firstDot);
+        final String payloadBase64 = token.substring(firstDot + 1, secondDot);
+        final String signBase64 = token.substring(secondDot + 1);
+        final boolean verified = null != this.registry
+                ? this.registry.verify(headerBase64, payloadBase64, signBase64)
+                : this.signer.verify(headerBase64, payloadBase64, signBase64);
+        if (false == verified) {
+            throw new ValidateException("Signature verification failed!");
+        }
+
+        final LazyClaims payload;
+        try {
+            final LazyClaims header = LazyClaims.of(headerBase64);
+            validateAlgorithm(header.getStr(JWTHeader.ALGORITHM));
+            payload = JWTHeader.COMPACT_TYPE.equals(header.getStr(JWTHeader.TYPE))
+                    ? LazyClaims.ofCompact(payloadBase64) : LazyClaims.of(payloadBase64);
+            final long timeout = validateDate(payload, System.currentTimeMillis());
+            this.cache.put(key, new Verified(payload, version), timeout);
+        } catch (JWTException e) {
+            throw new ValidateException(e.getMessage(), e);
+        }
+        return payload;
+    }
+
+    /**
+     * Token是否有效
+     *
+     * @param token JWT Token字符串
+     * @return 是否有效
+     * @see #verify(String)
+     */
+    public boolean isValid(String token) {
+        try {
+            verify(token);
+            return true;
+        } catch (ValidateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 移除缓存的Token，例如Token被注销时
+     *
+     * @param token JWT Token字符串
+     */
+    public void invalidate(String token) {
+        this.cache.remove(new TokenKey(digest(token)));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @return {@link CacheStats}
+     */
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    /**
+     * 注册中心的当前版本，与上次不同时清空缓存，固定签名器时为0
+     */
+    private long currentVersion() {
+        if (null == this.registry) {
+            return 0L;
+        }
+        final long version = this.registry.getVersion();
+        if (version != this.registryVersion) {
+            this.registryVersion = version;
+            this.cache.clear();
+        }
+        return version;
+    }
+
+    private void validateAlgorithm(String algorithmId) throws ValidateException {
+        if (null != this.registry) {
+            // 注册中心按头部的kid与alg选择签名器，验签通过即说明算法一致
+            return;
+        }
+        if (StrUtil.isEmpty(algorithmId)) {
+            if (this.signer instanceof NoneJWTSigner) {
+                return;
+            }
+            throw new ValidateException("No algorithm defined in header!");
+        }
+        final String algorithmIdInSigner = this.signer.getAlgorithmId();
+        if (false == StrUtil.equals(algorithmId, algorithmIdInSigner)) {
+            throw new ValidateException("Algorithm [{}] defined in header doesn't match to [{}]!"
+                    , algorithmId, algorithmIdInSigner);
+        }
+    }
+
+    /**
+     * 与 {@link JWTValidator#validateDate(java.util.Date, long)} 规则一致
+     *
+     * @return 缓存时间，单位：毫秒
+     */
+    private long validateDate(LazyClaims payload, long now) throws ValidateException {
+        final long leewayMillis = this.leeway * 1000L;
+        final Long notBefore = payload.getLong(JWTPayload.NOT_BEFORE);
+        if (notBefore != null && notBefore * 1000L > now + leewayMillis) {
+            throw new ValidateException("'{}':[{}] is after now", JWTPayload.NOT_BEFORE, notBefore);
+        }
+        final Long issuedAt = payload.getLong(JWTPayload.ISSUED_AT);
+        if (issuedAt != null && issuedAt * 1000L > now + leewayMillis) {
+            throw new ValidateException("'{}':[{}] is after now", JWTPayload.ISSUED_AT, issuedAt);
+        }
+        final Long expiresAt = payload.getLong(JWTPayload.EXPIRES_AT);
+        if (expiresAt == null) {
+            return this.maxTtl;
+        }
+        final long remaining = expiresAt * 1000L + leewayMillis - now;
+        if (remaining <= 0) {
+            throw new ValidateException("'{}':[{}] is before now", JWTPayload.EXPIRES_AT, expiresAt);
+        }
+        return this.maxTtl > 0 ? Math.min(remaining, this.maxTtl) : remaining;
+    }
+
+    /**
+     * Token只包含ASCII字符，直接写入线程内缓冲区计算摘要
+     */
+    private static byte[] digest(String token) {
+        final MessageDigest digest = DIGESTS.get();
+        final int length = token.length();
+        if (length <= MAX_BUFFER_SIZE) {
+            byte[] buffer = BUFFERS.get();
+            if (buffer.length < length) {
+                buffer = new byte[length];
+                BUFFERS.set(buffer);
+            }
+            int i = 0;
+            for (; i < length; i++) {
+                final char c = token.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                buffer[i] = (byte) c;
+            }
+            if (i == length) {
+                digest.update(buffer, 0, length);
+                return digest.digest();
+            }
+        }
+        return digest.digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new JWTException(e);
+        }
+    }
+
+    private static final class Verified {
+
+        private final LazyClaims payload;
+
+        private final long version;
+
+        private Verified(LazyClaims payload, long version) {
+            this.payload = payload;
+            this.version = version;
+        }
+    }
+
+    private static final class TokenKey {
+
+        private final byte[] digest;
+
+        private final int hash;
+
+        private TokenKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = (digest[0] & 0xff) << 24 | (digest[1] & 0xff) << 16 | (digest[2] & 0xff) << 8 | (digest[3] & 0xff);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof TokenKey && Arrays.equals(this.digest, ((TokenKey) o).digest));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
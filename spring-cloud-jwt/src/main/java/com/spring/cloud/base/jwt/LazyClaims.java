@@ -0,0 +1,421 @@
+package com.spring.cloud.base.jwt;
+
+import com.spring.cloud.base.jwt.config.NumberWithFormat;
+import com.spring.cloud.base.jwt.exception.JWTException;
+import com.spring.cloud.base.jwt.json.JSONConfig;
+import com.spring.cloud.base.jwt.json.JSONNull;
+import com.spring.cloud.base.jwt.json.JSONObject;
+import com.spring.cloud.base.jwt.utils.InternalJSONUtil;
+import com.spring.cloud.base.jwt.utils.JSONUtil;
+import com.spring.cloud.base.utils.base.Base64;
+import com.spring.cloud.base.utils.date.GlobalCustomFormat;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * @Author: ls
+ * @Description: 延迟解析的声明
+ * 直接在解码后的JSON字节上读取顶层字段，首次读取时只建立一次字段位置索引，不构建完整的 {@link JSONObject}；
+ * 字符串、数字、布尔值按需转换，嵌套对象与数组只解析对应片段，类型与 {@link Claims} 保持一致；
+ * 紧凑二进制编码（见 {@link CompactClaims}）的声明在首次读取时整体解码
+ * 线程安全
+ * @Date: 2023/5/10 10:12
+ */
+public class LazyClaims implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final JSONConfig CONFIG = JSONConfig.create().setDateFormat(GlobalCustomFormat.FORMAT_SECONDS);
+
+    private final byte[] json;
+
+    /**
+     * 是否为紧凑二进制编码
+     */
+    private final boolean compact;
+
+    /**
+     * 顶层字段位置，每4个元素为一组：键起始、键结束（不含引号）、值起始、值结束
+     */
+    private transient volatile int[] index;
+
+    private transient volatile JSONObject claimsJson;
+
+    /**
+     * 构造
+     *
+     * @param json UTF-8编码的JSON对象
+     */
+    public LazyClaims(byte[] json) {
+        this(json, false);
+    }
+
+    private LazyClaims(byte[] data, boolean compact) {
+        this.json = data;
+        this.compact = compact;
+    }
+
+    /**
+     * 从JWT的Base64部分创建
+     *
+     * @param tokenPart JWT头或载荷的Base64表示
+     * @return LazyClaims
+     */
+    public static LazyClaims of(String tokenPart) {
+        return new LazyClaims(Base64.decode(tokenPart));
+    }
+
+    /**
+     * 从紧凑二进制编码的JWT载荷创建
+     *
+     * @param tokenPart JWT载荷的Base64表示
+     * @return LazyClaims
+     * @see CompactClaims
+     */
+    public static LazyClaims ofCompact(String tokenPart) {
+        return new LazyClaims(Base64.decode(tokenPart), true);
+    }
+
+    /**
+     * 获取原始字节，不可修改
+     *
+     * @return JSON字节，紧凑编码时为二进制字节
+     */
+    public byte[] getBytes() {
+        return this.json;
+    }
+
+    /**
+     * 是否包含声明
+     *
+     * @param name 声明名称
+     * @return 是否包含
+     */
+    public boolean containsClaim(String name) {
+        if (this.compact) {
+            return getClaimsJson().containsKey(name);
+        }
+        return find(name) >= 0;
+    }
+
+    /**
+     * 获取声明，数字按大小返回Integer、Long或BigDecimal，对象与数组返回JSONObject、JSONArray
+     *
+     * @param name 声明名称
+     * @return 声明值，不存在或为null时返回null
+     */
+    public Object getClaim(String name) {
+        if (this.compact) {
+            final Object value = getClaimsJson().getObj(name);
+            if (value instanceof NumberWithFormat) {
+                // 与JSON载荷一致返回原始数字，不返回带日期格式的包装
+                return ((NumberWithFormat) value).getNumber();
+            }
+            return value == JSONNull.NULL ? null : value;
+        }
+        final int i = find(name);
+        if (i < 0) {
+            return null;
+        }
+        final int[] index = this.index;
+        final int start = index[i + 2];
+        final int end = index[i + 3];
+        final byte first = json[start];
+        if (first == '"') {
+            return decodeString(start + 1, end - 1);
+        }
+        if (first == '{' || first == '[') {
+            return JSONUtil.parse(new String(json, start, end - start, StandardCharsets.UTF_8), CONFIG);
+        }
+        final Object value = InternalJSONUtil.stringToValue(new String(json, start, end - start, StandardCharsets.US_ASCII));
+        return value == JSONNull.NULL ? null : value;
+    }
+
+    /**
+     * 获取字符串声明
+     *
+     * @param name 声明名称
+     * @return 字符串，非字符串类型的值转为其JSON表示
+     */
+    public String getStr(String name) {
+        final Object value = getClaim(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 获取数字声明
+     *
+     * @param name 声明名称
+     * @return 数字，不存在或无法转换时返回null
+     */
+    public Long getLong(String name) {
+        final Object value = getClaim(name);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return new BigDecimal((String) value).longValue();
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取时间声明，JWT中的时间为秒级时间戳
+     *
+     * @param name 声明名称
+     * @return 时间，不存在或无法转换时返回null
+     */
+    public Date getDate(String name) {
+        final Long seconds = getLong(name);
+        return seconds == null ? null : new Date(seconds * 1000L);
+    }
+
+    /**
+     * 解析为完整的JSONObject，只解析一次
+     *
+     * @return JSONObject
+     */
+    public JSONObject getClaimsJson() {
+        JSONObject claimsJson = this.claimsJson;
+        if (claimsJson == null) {
+            claimsJson = this.compact ? CompactClaims.decode(this.json, CONFIG) : JSONUtil.parseObj(toString(), CONFIG);
+            this.claimsJson = claimsJson;
+        }
+        return claimsJson;
+    }
+
+    @Override
+    public String toString() {
+        if (this.compact) {
+            return getClaimsJson().toString();
+        }
+        return new String(this.json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 查找字段，重复的字段以最后一个为准，与完整解析一致
+     *
+     * @return 字段在索引中的位置，不存在时返回-1
+     */
+    private int find(String name) {
+        final int[] index = index();
+        for (int i = index.length - 4; i >= 0; i -= 4) {
+            if (keyEquals(index[i], index[i + 1], name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int start, int end, String name) {
+        final int length = name.length();
+        if (end - start == length) {
+            int i = 0;
+            for (; i < length; i++) {
+                final char c = name.charAt(i);
+                if (c >= 0x80 || c == '\\' || json[start + i] != c) {
+                    break;
+                }
+            }
+            if (i == length) {
+                return true;
+            }
+        }
+        // 含转义或非ASCII字符的键按完整字符串比较
+        for (int i = start; i < end; i++) {
+            if (json[i] == '\\' || json[i] < 0) {
+                return name.equals(decodeString(start, end));
+            }
+        }
+        return false;
+    }
+
+    private int[] index() {
+        int[] index = this.index;
+        if (index == null) {
+            index = buildIndex();
+            this.index = index;
+        }
+        return index;
+    }
+
+    private int[] buildIndex() {
+        int[] index = new int[32];
+        int size = 0;
+        int pos = skipWhitespace(0);
+        expect(pos, '{');
+        pos = skipWhitespace(pos + 1);
+        if (pos < json.length && json[pos] == '}') {
+            return new int[0];
+        }
+        while (true) {
+            expect(pos, '"');
+            final int keyEnd = skipString(pos);
+            final int keyStart = pos + 1;
+            pos = skipWhitespace(keyEnd);
+            expect(pos, ':');
+            final int valueStart = skipWhitespace(pos + 1);
+            final int valueEnd = skipValue(valueStart);
+            if (size + 4 > index.length) {
+                final int[] grown = new int[index.length * 2];
+                System.arraycopy(index, 0, grown, 0, size);
+                index = grown;
+            }
+            index[size++] = keyStart;
+            index[size++] = keyEnd - 1;
+            index[size++] = valueStart;
+            index[size++] = valueEnd;
+            pos = skipWhitespace(valueEnd);
+            if (pos < json.length && json[pos] == ',') {
+                pos = skipWhitespace(pos + 1);
+                continue;
+            }
+            expect(pos, '}');
+            break;
+        }
+        final int[] result = new int[size];
+        System.arraycopy(index, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * @return 字符串结束引号之后的位置
+     */
+    private int skipString(int pos) {
+        for (int i = pos + 1; i < json.length; i++) {
+            final byte b = json[i];
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i + 1;
+            }
+        }
+        throw invalid(pos);
+    }
+
+    private int skipValue(int pos) {
+        if (pos >= json.length) {
+            throw invalid(pos);
+        }
+        final byte first = json[pos];
+        if (first == '"') {
+            return skipString(pos);
+        }
+        if (first == '{' || first == '[') {
+            int depth = 0;
+            for (int i = pos; i < json.length; i++) {
+                final byte b = json[i];
+                if (b == '"') {
+                    i = skipString(i) - 1;
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return i + 1;
+                }
+            }
+            throw invalid(pos);
+        }
+        int i = pos;
+        while (i < json.length) {
+            final byte b = json[i];
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                break;
+            }
+            i++;
+        }
+        if (i == pos) {
+            throw invalid(pos);
+        }
+        return i;
+    }
+
+    private int skipWhitespace(int pos) {
+        while (pos < json.length) {
+            final byte b = json[pos];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private void expect(int pos, char c) {
+        if (pos >= json.length || json[pos] != c) {
+            throw invalid(pos);
+        }
+    }
+
+    private JWTException invalid(int pos) {
+        return new JWTException("Invalid JSON claims at position {}", pos);
+    }
+
+    /**
+     * 解码字符串内容，不含两侧引号
+     */
+    private String decodeString(int start, int end) {
+        int i = start;
+        while (i < end && json[i] != '\\') {
+            i++;
+        }
+        if (i == end) {
+            return new String(json, start, end - start, StandardCharsets.UTF_8);
+        }
+        final StringBuilder builder = new StringBuilder(end - start);
+        builder.append(new String(json, start, i - start, StandardCharsets.UTF_8));
+        while (i < end) {
+            final byte b = json[i];
+            if (b != '\\') {
+                int next = i;
+                while (next < end && json[next] != '\\') {
+                    next++;
+                }
+                builder.append(new String(json, i, next - i, StandardCharsets.UTF_8));
+                i = next;
+                continue;
+            }
+            if (i + 1 >= end) {
+                throw invalid(i);
+            }
+            final byte escaped = json[i + 1];
+            switch (escaped) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 6 > end) {
+                        throw invalid(i);
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(new String(json, i + 2, 4, StandardCharsets.US_ASCII), 16));
+                    } catch (NumberFormatException e) {
+                        throw invalid(i);
+                    }
+                    i += 4;
+                    break;
+                default:
+                    builder.append((char) escaped);
+            }
+            i += 2;
+        }
+        return builder.toString();
+    }
+}
@@ -27,6 +27,15 @@ public class NumberWithFormat extends Number implements TypeConverter {
 		this.format = format;
 	}
 
+	/**
+	 * 获取原始数字
+	 *
+	 * @return 原始数字
+	 */
+	public Number getNumber() {
+		return this.number;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Object convert(Type targetType, Object value) {
@@ -1,22 +1,45 @@
 package com.spring.cloud.base.jwt.utils;
 
 import com.spring.cloud.base.jwt.JWTSigner;
+import com.spring.cloud.base.utils.base.Base64;
+import com.spring.cloud.base.utils.base.Base64Decoder;
+import com.spring.cloud.base.utils.crypto.MacEngine;
+import com.spring.cloud.base.utils.crypto.MacEngineFactory;
+import com.spring.cloud.base.utils.crypto.ThreadLocalMacEngine;
 import com.spring.cloud.base.utils.utils.CharsetUtil;
-import com.spring.cloud.base.utils.crypto.HMac;
-import com.spring.cloud.base.utils.str.StrUtil;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Arrays;
 
 /**
  * @Author: ls
  * @Description: HMac算法签名实现
+ * 线程安全，每个线程复用各自初始化好密钥的引擎，可作为单例在多个线程间共享；
+ * 签名时头部、"."与载荷直接送入引擎，验签时把签名解码到线程内复用的缓冲区后做常量时间比较
  * @Date: 2023/4/25 11:29
  */
 public class HMacJWTSigner implements JWTSigner {
 
+	private static final byte DOT = '.';
+
+	/**
+	 * 超过该长度的输入不放入线程缓冲区，避免长期占用大数组
+	 */
+	private static final int MAX_BUFFER_SIZE = 8192;
+
+	private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
 	private Charset charset = CharsetUtil.CHARSET_UTF_8;
-	private final HMac hMac;
+
+	/**
+	 * 编码是否兼容ASCII，兼容时Base64字符直接按ASCII写入缓冲区
+	 */
+	private boolean asciiCompatible = true;
+
+	private final ThreadLocalMacEngine engine;
 
 	/**
 	 * 构造
@@ -25,7 +48,7 @@ public class HMacJWTSigner implements JWTSigner {
 	 * @param key       密钥
 	 */
 	public HMacJWTSigner(String algorithm, byte[] key) {
-		this.hMac = new HMac(algorithm, key);
+		this(algorithm, new SecretKeySpec(key, algorithm));
 	}
 
 	/**
@@ -35,7 +58,7 @@ public class HMacJWTSigner implements JWTSigner {
 	 * @param key       密钥
 	 */
 	public HMacJWTSigner(String algorithm, Key key) {
-		this.hMac = new HMac(algorithm, key);
+		this.engine = MacEngineFactory.createThreadLocalEngine(algorithm, key, null);
 	}
 
 	/**
@@ -46,24 +69,114 @@ public class HMacJWTSigner implements JWTSigner {
 	 */
 	public HMacJWTSigner setCharset(Charset charset) {
 		this.charset = charset;
+		this.asciiCompatible = StandardCharsets.UTF_8.equals(charset)
+				|| StandardCharsets.US_ASCII.equals(charset)
+				|| StandardCharsets.ISO_8859_1.equals(charset);
 		return this;
 	}
 
 	@Override
 	public String sign(String headerBase64, String payloadBase64) {
-		return hMac.digestBase64(StrUtil.format("{}.{}", headerBase64, payloadBase64), charset, true);
+		final MacEngine engine = this.engine.get();
+		final Buffers buffers = BUFFERS.get();
+		final byte[] result = buffers.result(engine.getMacLength());
+		final int length = digest(engine, buffers, headerBase64, payloadBase64, result);
+		return Base64.encodeUrlSafe(Arrays.copyOf(result, length));
 	}
 
 	@Override
 	public boolean verify(String headerBase64, String payloadBase64, String signBase64) {
-		final String sign = sign(headerBase64, payloadBase64);
-		return hMac.verify(
-				StrUtil.bytes(sign, charset),
-				StrUtil.bytes(signBase64, charset));
+		if (null == signBase64) {
+			return false;
+		}
+		final MacEngine engine = this.engine.get();
+		final Buffers buffers = BUFFERS.get();
+		final int macLength = engine.getMacLength();
+		final byte[] expected = buffers.result(macLength);
+		final byte[] actual = buffers.signature(macLength);
+		// 签名长度由算法决定，不属于需要保密的信息
+		if (Base64Decoder.decodeUrlSafe(signBase64, actual, 0) != macLength) {
+			return false;
+		}
+		digest(engine, buffers, headerBase64, payloadBase64, expected);
+		int diff = 0;
+		for (int i = 0; i < macLength; i++) {
+			diff |= expected[i] ^ actual[i];
+		}
+		return diff == 0;
 	}
 
 	@Override
 	public String getAlgorithm() {
-		return this.hMac.getAlgorithm();
+		return this.engine.getAlgorithm();
+	}
+
+	private int digest(MacEngine engine, Buffers buffers, String headerBase64, String payloadBase64, byte[] out) {
+		try {
+			update(engine, buffers, headerBase64);
+			buffers.input[0] = DOT;
+			engine.update(buffers.input, 0, 1);
+			update(engine, buffers, payloadBase64);
+			return engine.doFinal(out, 0);
+		} catch (RuntimeException e) {
+			engine.reset();
+			throw e;
+		}
+	}
+
+	/**
+	 * Base64编码只包含ASCII字符，兼容ASCII的编码下直接逐字符写入缓冲区，不生成中间数组
+	 */
+	private void update(MacEngine engine, Buffers buffers, String str) {
+		final int length = str.length();
+		if (this.asciiCompatible && length <= MAX_BUFFER_SIZE) {
+			final byte[] input = buffers.input(length);
+			int i = 0;
+			for (; i < length; i++) {
+				final char c = str.charAt(i);
+				if (c >= 0x80) {
+					break;
+				}
+				input[i] = (byte) c;
+			}
+			if (i == length) {
+				engine.update(input, 0, length);
+				return;
+			}
+		}
+		engine.update(str.getBytes(this.charset));
+	}
+
+	/**
+	 * 线程内复用的缓冲区
+	 */
+	private static final class Buffers {
+
+		private byte[] input = new byte[512];
+
+		private byte[] result = new byte[64];
+
+		private byte[] signature = new byte[64];
+
+		private byte[] input(int length) {
+			if (this.input.length < length) {
+				this.input = new byte[length];
+			}
+			return this.input;
+		}
+
+		private byte[] result(int macLength) {
+			if (this.result.length < macLength) {
+				this.result = new byte[macLength];
+			}
+			return this.result;
+		}
+
+		private byte[] signature(int macLength) {
+			if (this.signature.length < macLength) {
+				this.signature = new byte[macLength];
+			}
+			return this.signature;
+		}
 	}
 }
@@ -0,0 +1,166 @@
+package com.spring.cloud.base.jwt;
+
+import com.spring.cloud.base.jwt.exception.JWTException;
+import com.spring.cloud.base.jwt.json.JSONArray;
+import com.spring.cloud.base.jwt.json.JSONConfig;
+import com.spring.cloud.base.jwt.json.JSONObject;
+import com.spring.cloud.base.utils.base.Base64;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: ls
+ * @Description: 紧凑声明编码的往返校验，以及紧凑编码与JSON载荷下 {@link LazyClaims} 的取值一致
+ * @Date: 2023/5/18 10:05
+ */
+class CompactClaimsTest {
+
+    @Test
+    void reusesKeysInNestedObjects() {
+        final Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("c", true);
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("a", 1);
+        claims.put("b", 1);
+        claims.put("c", 1);
+        claims.put("d", nested);
+
+        final JSONObject decoded = roundTrip(claims);
+        assertEquals(1, decoded.getObj("c"));
+        assertEquals(true, decoded.getJSONObject("d").getObj("c"));
+    }
+
+    @Test
+    void reusesKeysBeyondSingleByteReference() {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        for (int i = 0; i < 300; i++) {
+            claims.put("k" + i, i);
+        }
+        final List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 300; i += 7) {
+            final Map<String, Object> item = new LinkedHashMap<>();
+            item.put("k" + i, "v" + i);
+            item.put("k299", i);
+            items.add(item);
+        }
+        claims.put("items", items);
+
+        final JSONObject decoded = roundTrip(claims);
+        assertEquals(299, decoded.getObj("k299"));
+        final JSONArray array = decoded.getJSONArray("items");
+        assertEquals(items.size(), array.size());
+        for (int i = 0; i < array.size(); i++) {
+            final JSONObject item = array.getJSONObject(i);
+            assertEquals("v" + i * 7, item.getObj("k" + i * 7));
+            assertEquals(i * 7, item.getObj("k299"));
+        }
+    }
+
+    @Test
+    void keepsNumberTypesAndPrecision() {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("int", -42);
+        claims.put("long", Long.MAX_VALUE);
+        claims.put("min", Long.MIN_VALUE);
+        claims.put("big", new BigInteger("123456789012345678901234567890"));
+        claims.put("decimal", new BigDecimal("3.14159"));
+        claims.put("negative", new BigDecimal("-0.001"));
+        claims.put("double", 0.1D);
+        claims.put("huge", new BigDecimal("-98765432109876543210.0123456789"));
+
+        final JSONObject decoded = roundTrip(claims);
+        assertEquals(-42, decoded.getObj("int"));
+        assertEquals(Long.MAX_VALUE, decoded.getObj("long"));
+        assertEquals(Long.MIN_VALUE, decoded.getObj("min"));
+        assertEquals("123456789012345678901234567890", decoded.getObj("big"));
+        assertEquals(new BigDecimal("3.14159"), decoded.getObj("decimal"));
+        assertEquals(new BigDecimal("-0.001"), decoded.getObj("negative"));
+        assertEquals(new BigDecimal("0.1"), decoded.getObj("double"));
+        assertEquals(new BigDecimal("-98765432109876543210.0123456789"), decoded.getObj("huge"));
+    }
+
+    @Test
+    void encodesDictionaryNamesAndDates() {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(JWTPayload.SUBJECT, "user");
+        claims.put(JWTPayload.EXPIRES_AT, new Date(1700000000123L));
+        claims.put("roles", Arrays.asList("admin", "user"));
+        claims.put("deptId", null);
+
+        final byte[] encoded = CompactClaims.encode(claims);
+        assertTrue(encoded.length < claims.toString().length());
+        final JSONObject decoded = CompactClaims.decode(encoded, JSONConfig.create());
+        assertEquals("user", decoded.getObj(JWTPayload.SUBJECT));
+        assertEquals(1700000000, decoded.getObj(JWTPayload.EXPIRES_AT));
+        assertEquals(Arrays.asList("admin", "user"), new ArrayList<>(decoded.getJSONArray("roles")));
+        assertTrue(decoded.isNull("deptId"));
+    }
+
+    @Test
+    void rejectsTruncatedInput() {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("name", "truncated");
+        claims.put("decimal", new BigDecimal("1.5"));
+        claims.put("big", new BigInteger("123456789012345678901234567890"));
+        claims.put("extra", 1);
+        claims.put("nested", claims.keySet().toArray());
+        final byte[] encoded = CompactClaims.encode(claims);
+        for (int length = 0; length < encoded.length; length++) {
+            final byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(JWTException.class, () -> CompactClaims.decode(truncated, JSONConfig.create()), "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsInvalidReferencesAndMantissa() {
+        // {"a":1, 引用序号1}
+        final byte[] reference = {CompactClaims.VERSION, (byte) 0xa2, 0x61, 'a', 0x01, (byte) 0xd8, 25, 0x01, 0x01};
+        assertThrows(JWTException.class, () -> CompactClaims.decode(reference, JSONConfig.create()));
+        // {"id": 4([-2, true])}，尾数不是数字
+        final byte[] mantissa = {CompactClaims.VERSION, (byte) 0xa1, 0x07, (byte) 0xc4, (byte) 0x82, 0x21, (byte) 0xf5};
+        assertThrows(JWTException.class, () -> CompactClaims.decode(mantissa, JSONConfig.create()));
+    }
+
+    @Test
+    void lazyClaimsMatchJsonPayload() {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(JWTPayload.ISSUED_AT, 1700000000);
+        claims.put(JWTPayload.EXPIRES_AT, 4102444800L);
+        claims.put("name", "张三 \"quoted\"");
+        claims.put("rate", new BigDecimal("0.75"));
+        claims.put("flag", false);
+        final Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", "nested");
+        claims.put("userInfo", info);
+
+        final LazyClaims compact = LazyClaims.ofCompact(Base64.encodeUrlSafe(CompactClaims.encode(claims)));
+        final LazyClaims json = new LazyClaims(new JSONObject(claims).toString().getBytes(StandardCharsets.UTF_8));
+        for (String name : claims.keySet()) {
+            assertEquals(json.getClaim(name), compact.getClaim(name), name);
+        }
+        assertEquals(1700000000, compact.getClaim(JWTPayload.ISSUED_AT));
+        assertEquals(4102444800L, compact.getClaim(JWTPayload.EXPIRES_AT));
+        assertEquals(new Date(1700000000000L), compact.getDate(JWTPayload.ISSUED_AT));
+        assertEquals(json.getStr("name"), compact.getStr("name"));
+        assertEquals("nested", ((JSONObject) compact.getClaim("userInfo")).getObj("name"));
+        assertNull(compact.getClaim("missing"));
+    }
+
+    private static JSONObject roundTrip(Map<String, Object> claims) {
+        return CompactClaims.decode(CompactClaims.encode(claims), JSONConfig.create());
+    }
+}
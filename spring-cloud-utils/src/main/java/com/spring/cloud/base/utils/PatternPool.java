@@ -1,7 +1,8 @@
 package com.spring.cloud.base.utils;
 
+import com.spring.cloud.base.utils.cache.Cache;
+import com.spring.cloud.base.utils.cache.CacheUtil;
 import com.spring.cloud.base.utils.interf.RegexPool;
-import com.spring.cloud.base.utils.map.WeakConcurrentMap;
 
 import java.util.regex.Pattern;
 /**
@@ -171,9 +172,19 @@ public class PatternPool {
 
 	// -------------------------------------------------------------------------------------------------------------------------------------------------------------------
 	/**
-	 * Pattern池
+	 * Pattern池，默认弱引用键的无界缓存
 	 */
-	private static final WeakConcurrentMap<RegexWithFlag, Pattern> POOL = new WeakConcurrentMap<>();
+	private static volatile Cache<RegexWithFlag, Pattern> POOL = CacheUtil.newWeakCache();
+
+	/**
+	 * 替换Pattern池，例如使用有容量上限的{@link com.spring.cloud.base.utils.cache.LRUCache}，替换后原有缓存被丢弃
+	 *
+	 * @param pool Pattern池
+	 */
+	public static void setPool(Cache<RegexWithFlag, Pattern> pool) {
+		Assert.notNull(pool, "pool must not be null");
+		POOL = pool;
+	}
 
 	/**
 	 * 先从Pattern池中查找正则对应的{@link Pattern}，找不到则编译正则表达式并入池。
@@ -194,7 +205,7 @@ public class PatternPool {
 	 */
 	public static Pattern get(String regex, int flags) {
 		final RegexWithFlag regexWithFlag = new RegexWithFlag(regex, flags);
-		return POOL.computeIfAbsent(regexWithFlag, (key) -> Pattern.compile(regex, flags));
+		return POOL.get(regexWithFlag, () -> Pattern.compile(regex, flags));
 	}
 
 	/**
@@ -222,7 +233,7 @@ public class PatternPool {
 	 *
 	 * @author Looly
 	 */
-	private static class RegexWithFlag {
+	public static final class RegexWithFlag {
 		private final String regex;
 		private final int flag;
 
@@ -5,6 +5,8 @@ import com.spring.cloud.base.utils.interf.Decoder;
 import com.spring.cloud.base.utils.interf.Encoder;
 import com.spring.cloud.base.utils.str.StrUtil;
 
+import java.util.Arrays;
+
 /**
  * @Author: ls
  * @Description: Base16编码解码器
@@ -15,6 +17,22 @@ public class Base16Codec implements Encoder<byte[], char[]>, Decoder<CharSequenc
 	public static final Base16Codec CODEC_LOWER = new Base16Codec(true);
 	public static final Base16Codec CODEC_UPPER = new Base16Codec(false);
 
+	/**
+	 * 十六进制字符对应的值，非十六进制字符为-1
+	 */
+	private static final int[] DIGITS = new int[128];
+
+	static {
+		Arrays.fill(DIGITS, -1);
+		for (int i = 0; i < 10; i++) {
+			DIGITS['0' + i] = i;
+		}
+		for (int i = 0; i < 6; i++) {
+			DIGITS['a' + i] = 10 + i;
+			DIGITS['A' + i] = 10 + i;
+		}
+	}
+
 	private final char[] alphabets;
 
 	/**
@@ -61,6 +79,58 @@ public class Base16Codec implements Encoder<byte[], char[]>, Decoder<CharSequenc
 		return out;
 	}
 
+	/**
+	 * 编码到给定字符数组，不分配新数组
+	 *
+	 * @param data    数据
+	 * @param off     开始位置
+	 * @param len     长度
+	 * @param out     输出数组，剩余空间至少为len * 2
+	 * @param outOff  输出开始位置
+	 * @return 写入的长度
+	 */
+	public int encode(byte[] data, int off, int len, char[] out, int outOff) {
+		if (out.length - outOff < len << 1) {
+			throw new IllegalArgumentException("Output space is not enough for encoded length " + (len << 1));
+		}
+		final char[] alphabets = this.alphabets;
+		for (int i = off, j = outOff, end = off + len; i < end; i++, j += 2) {
+			out[j] = alphabets[(data[i] >>> 4) & 0x0F];
+			out[j + 1] = alphabets[data[i] & 0x0F];
+		}
+		return len << 1;
+	}
+
+	/**
+	 * 严格解码到给定数组，不分配新数组，不去除空白，长度必须为偶数
+	 *
+	 * @param encoded 十六进制字符串
+	 * @param out     输出数组，剩余空间至少为长度的一半
+	 * @param outOff  输出开始位置
+	 * @return 写入的长度
+	 * @throws UtilException 包含非十六进制字符或长度为奇数
+	 */
+	public int decode(CharSequence encoded, byte[] out, int outOff) {
+		final int len = encoded.length();
+		if ((len & 0x01) != 0) {
+			throw new UtilException("Hex length must be even, current length {}", len);
+		}
+		if (out.length - outOff < len >> 1) {
+			throw new IllegalArgumentException("Output space is not enough for decoded length " + (len >> 1));
+		}
+		for (int i = 0, j = outOff; i < len; i += 2, j++) {
+			final char high = encoded.charAt(i);
+			final char low = encoded.charAt(i + 1);
+			// 两个值按位或后只判断一次是否有非法字符
+			final int value = (high < 128 ? DIGITS[high] : -1) << 4 | (low < 128 ? DIGITS[low] : -1);
+			if (value < 0) {
+				throw new UtilException("Illegal hexadecimal character at index {}", DIGITS[high & 0x7f] < 0 || high >= 128 ? i : i + 1);
+			}
+			out[j] = (byte) value;
+		}
+		return len >> 1;
+	}
+
 	/**
 	 * 将指定char值转换为Unicode字符串形式，常用于特殊字符（例如汉字）转Unicode形式<br>
 	 * 转换的字符串如果u后不足4位，则前面用0填充，例如：
@@ -8,6 +8,7 @@ import com.spring.cloud.base.utils.str.StrUtil;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 /**
  * @Author: ls
@@ -314,6 +315,30 @@ public class Base64 {
 		return Base64Decoder.decode(in);
 	}
 
+	/**
+	 * 编码{@link ByteBuffer}，结果写入dest，不换行，不分配新数组
+	 *
+	 * @param src  被编码的数据
+	 * @param dest 输出缓冲区
+	 * @return 写入的长度
+	 * @see Base64Encoder#encode(ByteBuffer, ByteBuffer, boolean)
+	 */
+	public static int encode(ByteBuffer src, ByteBuffer dest) {
+		return Base64Encoder.encode(src, dest, false);
+	}
+
+	/**
+	 * 解码{@link ByteBuffer}，结果写入dest，不分配新数组
+	 *
+	 * @param src  Base64数据
+	 * @param dest 输出缓冲区
+	 * @return 写入的长度
+	 * @see Base64Decoder#decode(ByteBuffer, ByteBuffer)
+	 */
+	public static int decode(ByteBuffer src, ByteBuffer dest) {
+		return Base64Decoder.decode(src, dest);
+	}
+
 	/**
 	 * 检查是否为Base64
 	 *
@@ -4,6 +4,8 @@ import com.spring.cloud.base.utils.utils.ArrayUtil;
 import com.spring.cloud.base.utils.utils.CharsetUtil;
 import com.spring.cloud.base.utils.str.StrUtil;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 
 /**
@@ -32,6 +34,17 @@ public class Base64Decoder {
 			41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51
 	};
 
+	/**
+	 * 严格解码表，共256位，按无符号字节索引，非base64字符与padding均为-1，同时接受标准与URL安全字符
+	 */
+	private static final int[] STRICT_DECODE_TABLE = new int[256];
+
+	static {
+		for (int i = 0; i < STRICT_DECODE_TABLE.length; i++) {
+			STRICT_DECODE_TABLE[i] = i < DECODE_TABLE.length && DECODE_TABLE[i] >= 0 ? DECODE_TABLE[i] : -1;
+		}
+	}
+
 	/**
 	 * base64解码
 	 *
@@ -60,6 +73,14 @@ public class Base64Decoder {
 	 * @return 被加密后的字符串
 	 */
 	public static byte[] decode(CharSequence source) {
+		if (null != source) {
+			// 不含换行等额外字符时直接按字符解码，省去转为byte[]的过程
+			final int end = trimPadding(source, 0, source.length());
+			final byte[] octet = new byte[decodedLength(end)];
+			if (decodeQuads(source, 0, end, octet, 0) >= 0) {
+				return octet;
+			}
+		}
 		return decode(StrUtil.bytes(source, DEFAULT_CHARSET));
 	}
 
@@ -89,6 +110,13 @@ public class Base64Decoder {
 			return in;
 		}
 
+		// 不含换行等额外字符时走逐4字符查表的快速路径，否则按原有方式跳过非法字符
+		final int end = trimPadding(in, pos, pos + length);
+		final byte[] fast = new byte[decodedLength(end - pos)];
+		if (decodeQuads(in, pos, end, fast, 0) >= 0) {
+			return fast;
+		}
+
 		final MutableInt offset = new MutableInt(pos);
 
 		byte sestet0;
@@ -121,6 +149,129 @@ public class Base64Decoder {
 		}
 	}
 
+	/**
+	 * 解码到给定数组，不分配新数组<br>
+	 * 同时接受标准与URL安全字符，末尾的=可有可无；不允许换行等其它字符
+	 *
+	 * @param src     Base64数据
+	 * @param srcOff  开始位置
+	 * @param len     长度
+	 * @param dest    输出数组，剩余空间至少为 {@link #maxDecodedLength(int)}
+	 * @param destOff 输出开始位置
+	 * @return 写入的长度
+	 * @throws IllegalArgumentException 包含非法字符或输出空间不足
+	 */
+	public static int decode(byte[] src, int srcOff, int len, byte[] dest, int destOff) {
+		final int end = trimPadding(src, srcOff, srcOff + len);
+		checkSpace(dest.length - destOff, end - srcOff);
+		return checkDecoded(decodeQuads(src, srcOff, end, dest, destOff));
+	}
+
+	/**
+	 * 解码到给定数组，不分配新数组，规则同 {@link #decode(byte[], int, int, byte[], int)}
+	 *
+	 * @param src     Base64字符串
+	 * @param dest    输出数组
+	 * @param destOff 输出开始位置
+	 * @return 写入的长度
+	 * @throws IllegalArgumentException 包含非法字符或输出空间不足
+	 */
+	public static int decode(CharSequence src, byte[] dest, int destOff) {
+		final int end = trimPadding(src, 0, src.length());
+		checkSpace(dest.length - destOff, end);
+		return checkDecoded(decodeQuads(src, 0, end, dest, destOff));
+	}
+
+	/**
+	 * 解码字符数组到给定数组，不分配新数组，规则同 {@link #decode(byte[], int, int, byte[], int)}
+	 *
+	 * @param src     Base64字符
+	 * @param srcOff  开始位置
+	 * @param len     长度
+	 * @param dest    输出数组
+	 * @param destOff 输出开始位置
+	 * @return 写入的长度
+	 * @throws IllegalArgumentException 包含非法字符或输出空间不足
+	 */
+	public static int decode(char[] src, int srcOff, int len, byte[] dest, int destOff) {
+		return decode(CharBuffer.wrap(src, srcOff, len), dest, destOff);
+	}
+
+	/**
+	 * 解码{@link ByteBuffer}，从src的position读取到limit，结果写入dest的position，两者的position随之移动<br>
+	 * 堆内缓冲区直接读写底层数组，规则同 {@link #decode(byte[], int, int, byte[], int)}
+	 *
+	 * @param src  Base64数据
+	 * @param dest 输出缓冲区
+	 * @return 写入的长度
+	 * @throws IllegalArgumentException 包含非法字符或输出空间不足
+	 */
+	public static int decode(ByteBuffer src, ByteBuffer dest) {
+		final int written;
+		if (src.hasArray() && dest.hasArray()) {
+			written = decode(src.array(), src.arrayOffset() + src.position(), src.remaining(),
+					dest.array(), dest.arrayOffset() + dest.position());
+			src.position(src.limit());
+		} else {
+			final byte[] in = new byte[src.remaining()];
+			src.duplicate().get(in);
+			final int end = trimPadding(in, 0, in.length);
+			checkSpace(dest.remaining(), end);
+			final byte[] out = new byte[decodedLength(end)];
+			written = checkDecoded(decodeQuads(in, 0, end, out, 0));
+			src.position(src.limit());
+			dest.put(out);
+			return written;
+		}
+		dest.position(dest.position() + written);
+		return written;
+	}
+
+	/**
+	 * 解码后的最大长度，用于预先分配输出空间
+	 *
+	 * @param encodedLength Base64数据长度
+	 * @return 最大长度
+	 */
+	public static int maxDecodedLength(int encodedLength) {
+		return decodedLength(encodedLength);
+	}
+
+	/**
+	 * 严格解码不带补位的URL安全Base64到给定数组，不分配新数组<br>
+	 * 只接受URL安全字符，末尾多余的位必须为0，保证每个结果只对应唯一的编码，适用于签名比较
+	 *
+	 * @param source 被解码的base64字符串
+	 * @param out    输出数组
+	 * @param outOff 输出起始位置
+	 * @return 解码后的长度，编码不合法或输出空间不足时返回-1
+	 */
+	public static int decodeUrlSafe(CharSequence source, byte[] out, int outOff) {
+		final int length = source.length();
+		final int remainder = length & 3;
+		final int decodedLength = length / 4 * 3 + (remainder == 0 ? 0 : remainder - 1);
+		if (remainder == 1 || outOff < 0 || decodedLength > out.length - outOff) {
+			return -1;
+		}
+		int pos = outOff;
+		int bits = 0;
+		int bitCount = 0;
+		for (int i = 0; i < length; i++) {
+			final int sestet = urlSafeSestet(source.charAt(i));
+			if (sestet < 0) {
+				return -1;
+			}
+			bits = (bits << 6) | sestet;
+			bitCount += 6;
+			if (bitCount >= 8) {
+				bitCount -= 8;
+				out[pos++] = (byte) (bits >>> bitCount);
+				bits &= (1 << bitCount) - 1;
+			}
+		}
+		return bits == 0 ? decodedLength : -1;
+	}
+
 	/**
 	 * 给定的字符是否为Base64字符
 	 *
@@ -131,6 +282,136 @@ public class Base64Decoder {
 		return octet == '=' || (octet >= 0 && octet < DECODE_TABLE.length && DECODE_TABLE[octet] != -1);
 	}
 
+	/**
+	 * 每次查表4个字符输出3个字节，4个值按位或后只判断一次是否有非法字符
+	 *
+	 * @return 写入的长度，包含非法字符或剩余1个字符时返回-1
+	 */
+	private static int decodeQuads(byte[] src, int off, int end, byte[] dest, int destOff) {
+		final int[] table = STRICT_DECODE_TABLE;
+		final int quadEnd = off + (end - off) / 4 * 4;
+		int d = destOff;
+		for (int s = off; s < quadEnd; s += 4) {
+			final int bits = table[src[s] & 0xff] << 18 | table[src[s + 1] & 0xff] << 12
+					| table[src[s + 2] & 0xff] << 6 | table[src[s + 3] & 0xff];
+			if (bits < 0) {
+				return -1;
+			}
+			dest[d] = (byte) (bits >> 16);
+			dest[d + 1] = (byte) (bits >> 8);
+			dest[d + 2] = (byte) bits;
+			d += 3;
+		}
+		final int left = end - quadEnd;
+		if (left == 1) {
+			return -1;
+		}
+		if (left > 1) {
+			int bits = table[src[quadEnd] & 0xff] << 18 | table[src[quadEnd + 1] & 0xff] << 12;
+			if (left == 3) {
+				bits |= table[src[quadEnd + 2] & 0xff] << 6;
+			}
+			if (bits < 0) {
+				return -1;
+			}
+			dest[d++] = (byte) (bits >> 16);
+			if (left == 3) {
+				dest[d++] = (byte) (bits >> 8);
+			}
+		}
+		return d - destOff;
+	}
+
+	/**
+	 * 同 {@link #decodeQuads(byte[], int, int, byte[], int)}，按字符读取
+	 */
+	private static int decodeQuads(CharSequence src, int off, int end, byte[] dest, int destOff) {
+		final int quadEnd = off + (end - off) / 4 * 4;
+		int d = destOff;
+		for (int s = off; s < quadEnd; s += 4) {
+			final int bits = sestet(src.charAt(s)) << 18 | sestet(src.charAt(s + 1)) << 12
+					| sestet(src.charAt(s + 2)) << 6 | sestet(src.charAt(s + 3));
+			if (bits < 0) {
+				return -1;
+			}
+			dest[d] = (byte) (bits >> 16);
+			dest[d + 1] = (byte) (bits >> 8);
+			dest[d + 2] = (byte) bits;
+			d += 3;
+		}
+		final int left = end - quadEnd;
+		if (left == 1) {
+			return -1;
+		}
+		if (left > 1) {
+			int bits = sestet(src.charAt(quadEnd)) << 18 | sestet(src.charAt(quadEnd + 1)) << 12;
+			if (left == 3) {
+				bits |= sestet(src.charAt(quadEnd + 2)) << 6;
+			}
+			if (bits < 0) {
+				return -1;
+			}
+			dest[d++] = (byte) (bits >> 16);
+			if (left == 3) {
+				dest[d++] = (byte) (bits >> 8);
+			}
+		}
+		return d - destOff;
+	}
+
+	/**
+	 * @return 字符对应的6位值，非Base64字符与=返回-1
+	 */
+	static int sestet(char c) {
+		return c < 256 ? STRICT_DECODE_TABLE[c] : -1;
+	}
+
+	/**
+	 * @return 去掉末尾=之后的结束位置
+	 */
+	private static int trimPadding(byte[] src, int off, int end) {
+		while (end > off && src[end - 1] == '=') {
+			end--;
+		}
+		return end;
+	}
+
+	private static int trimPadding(CharSequence src, int off, int end) {
+		while (end > off && src.charAt(end - 1) == '=') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * @param length 去掉末尾=之后的长度
+	 * @return 解码后的长度，剩余1个字符时按0计算
+	 */
+	private static int decodedLength(int length) {
+		final int left = length & 3;
+		return length / 4 * 3 + (left > 1 ? left - 1 : 0);
+	}
+
+	private static void checkSpace(int space, int length) {
+		if (space < decodedLength(length)) {
+			throw new IllegalArgumentException("Output space is not enough for decoded length " + decodedLength(length));
+		}
+	}
+
+	private static int checkDecoded(int written) {
+		if (written < 0) {
+			throw new IllegalArgumentException("Illegal base64 data");
+		}
+		return written;
+	}
+
+	private static int urlSafeSestet(char c) {
+		if (c == '+' || c == '/' || c >= DECODE_TABLE.length) {
+			return -1;
+		}
+		return DECODE_TABLE[c];
+	}
+
 	/**
 	 * 获取下一个有效的byte字符
 	 *
@@ -3,6 +3,7 @@ package com.spring.cloud.base.utils.base;
 import com.spring.cloud.base.utils.utils.CharsetUtil;
 import com.spring.cloud.base.utils.str.StrUtil;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 /**
@@ -159,6 +160,11 @@ public class Base64Encoder {
 		if (len == 0) {
 			return new byte[0];
 		}
+		if (false == isMultiLine) {
+			final byte[] dest = new byte[encodedLength(len, isUrlSafe)];
+			encode(arr, 0, len, dest, 0, isUrlSafe);
+			return dest;
+		}
 
 		int evenLen = (len / 3) * 3;
 		int cnt = ((len - 1) / 3 + 1) << 2;
@@ -206,4 +212,146 @@ public class Base64Encoder {
 		}
 		return dest;
 	}
+
+	/**
+	 * 计算编码后的长度，不含换行
+	 *
+	 * @param length    被编码的数据长度
+	 * @param isUrlSafe 是否URL安全，URL安全模式下不补充=
+	 * @return 编码后的长度
+	 */
+	public static int encodedLength(int length, boolean isUrlSafe) {
+		if (isUrlSafe) {
+			final int left = length % 3;
+			return length / 3 * 4 + (left == 0 ? 0 : left + 1);
+		}
+		return (length + 2) / 3 * 4;
+	}
+
+	/**
+	 * 编码到给定数组，不换行，不分配新数组<br>
+	 * 每次处理3个字节，通过查表输出4个字符，循环内没有逐字节的分支
+	 *
+	 * @param src       被编码的数组
+	 * @param srcOff    开始位置
+	 * @param len       长度
+	 * @param dest      输出数组，剩余空间至少为 {@link #encodedLength(int, boolean)}
+	 * @param destOff   输出开始位置
+	 * @param isUrlSafe 是否使用URL安全字符，URL安全模式下不补充=
+	 * @return 写入的长度
+	 */
+	public static int encode(byte[] src, int srcOff, int len, byte[] dest, int destOff, boolean isUrlSafe) {
+		checkSpace(dest.length - destOff, len, isUrlSafe);
+		final byte[] table = isUrlSafe ? URL_SAFE_ENCODE_TABLE : STANDARD_ENCODE_TABLE;
+		final int evenEnd = srcOff + len / 3 * 3;
+		int s = srcOff;
+		int d = destOff;
+		while (s < evenEnd) {
+			final int i = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | (src[s + 2] & 0xff);
+			dest[d] = table[i >>> 18];
+			dest[d + 1] = table[(i >>> 12) & 0x3f];
+			dest[d + 2] = table[(i >>> 6) & 0x3f];
+			dest[d + 3] = table[i & 0x3f];
+			s += 3;
+			d += 4;
+		}
+		final int left = srcOff + len - evenEnd;
+		if (left > 0) {
+			final int i = (src[evenEnd] & 0xff) << 10 | (left == 2 ? (src[evenEnd + 1] & 0xff) << 2 : 0);
+			dest[d++] = table[i >> 12];
+			dest[d++] = table[(i >>> 6) & 0x3f];
+			if (left == 2) {
+				dest[d++] = table[i & 0x3f];
+			} else if (false == isUrlSafe) {
+				dest[d++] = '=';
+			}
+			if (false == isUrlSafe) {
+				dest[d++] = '=';
+			}
+		}
+		return d - destOff;
+	}
+
+	/**
+	 * 编码到给定字符数组，不换行，不分配新数组
+	 *
+	 * @param src       被编码的数组
+	 * @param srcOff    开始位置
+	 * @param len       长度
+	 * @param dest      输出数组，剩余空间至少为 {@link #encodedLength(int, boolean)}
+	 * @param destOff   输出开始位置
+	 * @param isUrlSafe 是否使用URL安全字符，URL安全模式下不补充=
+	 * @return 写入的长度
+	 */
+	public static int encode(byte[] src, int srcOff, int len, char[] dest, int destOff, boolean isUrlSafe) {
+		checkSpace(dest.length - destOff, len, isUrlSafe);
+		final byte[] table = isUrlSafe ? URL_SAFE_ENCODE_TABLE : STANDARD_ENCODE_TABLE;
+		final int evenEnd = srcOff + len / 3 * 3;
+		int s = srcOff;
+		int d = destOff;
+		while (s < evenEnd) {
+			final int i = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | (src[s + 2] & 0xff);
+			dest[d] = (char) table[i >>> 18];
+			dest[d + 1] = (char) table[(i >>> 12) & 0x3f];
+			dest[d + 2] = (char) table[(i >>> 6) & 0x3f];
+			dest[d + 3] = (char) table[i & 0x3f];
+			s += 3;
+			d += 4;
+		}
+		final int left = srcOff + len - evenEnd;
+		if (left > 0) {
+			final int i = (src[evenEnd] & 0xff) << 10 | (left == 2 ? (src[evenEnd + 1] & 0xff) << 2 : 0);
+			dest[d++] = (char) table[i >> 12];
+			dest[d++] = (char) table[(i >>> 6) & 0x3f];
+			if (left == 2) {
+				dest[d++] = (char) table[i & 0x3f];
+			} else if (false == isUrlSafe) {
+				dest[d++] = '=';
+			}
+			if (false == isUrlSafe) {
+				dest[d++] = '=';
+			}
+		}
+		return d - destOff;
+	}
+
+	/**
+	 * 编码{@link ByteBuffer}，从src的position读取到limit，结果写入dest的position，两者的position随之移动<br>
+	 * 堆内缓冲区直接读写底层数组，不产生中间数组
+	 *
+	 * @param src       被编码的数据
+	 * @param dest      输出缓冲区，剩余空间至少为 {@link #encodedLength(int, boolean)}
+	 * @param isUrlSafe 是否使用URL安全字符，URL安全模式下不补充=
+	 * @return 写入的长度
+	 */
+	public static int encode(ByteBuffer src, ByteBuffer dest, boolean isUrlSafe) {
+		final int len = src.remaining();
+		checkSpace(dest.remaining(), len, isUrlSafe);
+		if (src.hasArray() && dest.hasArray()) {
+			final int written = encode(src.array(), src.arrayOffset() + src.position(), len,
+					dest.array(), dest.arrayOffset() + dest.position(), isUrlSafe);
+			src.position(src.limit());
+			dest.position(dest.position() + written);
+			return written;
+		}
+		// 直接缓冲区分块编码，每块为3的整数倍，只有最后一块会产生补位
+		final byte[] in = new byte[Math.min(len, 3072)];
+		final byte[] out = new byte[encodedLength(in.length, isUrlSafe)];
+		int written = 0;
+		for (int remaining = len; remaining > 0; ) {
+			final int chunk = Math.min(remaining, in.length);
+			src.get(in, 0, chunk);
+			final int encoded = encode(in, 0, chunk, out, 0, isUrlSafe);
+			dest.put(out, 0, encoded);
+			remaining -= chunk;
+			written += encoded;
+		}
+		return written;
+	}
+
+	private static void checkSpace(int space, int len, boolean isUrlSafe) {
+		if (space < encodedLength(len, isUrlSafe)) {
+			throw new IllegalArgumentException("Output space is not enough for encoded length " + encodedLength(len, isUrlSafe));
+		}
+	}
 }
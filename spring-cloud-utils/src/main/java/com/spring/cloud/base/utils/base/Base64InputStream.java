@@ -0,0 +1,144 @@
+package com.spring.cloud.base.utils.base;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @Author: ls
+ * @Description: Base64解码输入流
+ * 从被包装的流中读取Base64数据并解码，适用于任意大小的数据；
+ * 同时接受标准与URL安全字符，忽略换行、空白与末尾的=，遇到其它字符时抛出IOException
+ * @Date: 2023/5/15 10:20
+ */
+public class Base64InputStream extends FilterInputStream {
+
+	private static final int BUFFER_SIZE = 4096;
+
+	private final byte[] encoded = new byte[BUFFER_SIZE];
+
+	/**
+	 * 已解码未读取的数据
+	 */
+	private final byte[] decoded = new byte[BUFFER_SIZE / 4 * 3 + 3];
+
+	private final byte[] single = new byte[1];
+
+	private int decodedPos;
+
+	private int decodedLimit;
+
+	private int bits;
+
+	private int bitCount;
+
+	private boolean padding;
+
+	private boolean eof;
+
+	/**
+	 * 构造
+	 *
+	 * @param in 被包装的Base64输入流
+	 */
+	public Base64InputStream(InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		while (decodedPos == decodedLimit) {
+			if (eof) {
+				return -1;
+			}
+			fill();
+		}
+		final int n = Math.min(len, decodedLimit - decodedPos);
+		System.arraycopy(decoded, decodedPos, b, off, n);
+		decodedPos += n;
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		final byte[] skipped = new byte[(int) Math.min(n, BUFFER_SIZE)];
+		long total = 0;
+		while (total < n) {
+			final int read = read(skipped, 0, (int) Math.min(n - total, skipped.length));
+			if (read < 0) {
+				break;
+			}
+			total += read;
+		}
+		return total;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return decodedLimit - decodedPos;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		// 不支持
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset not supported");
+	}
+
+	private void fill() throws IOException {
+		decodedPos = 0;
+		decodedLimit = 0;
+		final int read = in.read(encoded, 0, encoded.length);
+		if (read < 0) {
+			eof = true;
+			// 剩余不足8位的部分为补位，按宽松规则忽略
+			return;
+		}
+		int bits = this.bits;
+		int bitCount = this.bitCount;
+		int d = 0;
+		for (int i = 0; i < read; i++) {
+			final byte c = encoded[i];
+			if (c == '=') {
+				padding = true;
+				continue;
+			}
+			if (c == '\r' || c == '\n' || c == ' ' || c == '\t') {
+				continue;
+			}
+			final int sestet = Base64Decoder.sestet((char) (c & 0xff));
+			if (sestet < 0 || padding) {
+				throw new IOException("Illegal base64 character: " + (char) (c & 0xff));
+			}
+			bits = bits << 6 | sestet;
+			bitCount += 6;
+			if (bitCount >= 8) {
+				bitCount -= 8;
+				decoded[d++] = (byte) (bits >>> bitCount);
+				bits &= (1 << bitCount) - 1;
+			}
+		}
+		this.bits = bits;
+		this.bitCount = bitCount;
+		decodedLimit = d;
+	}
+}
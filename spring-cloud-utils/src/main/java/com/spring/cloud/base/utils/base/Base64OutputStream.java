@@ -0,0 +1,111 @@
+package com.spring.cloud.base.utils.base;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @Author: ls
+ * @Description: Base64编码输出流
+ * 写入的数据按3字节一组编码后写出到被包装的流，不换行，适用于任意大小的数据；
+ * 不足3字节的部分在 {@link #close()} 时写出，因此必须关闭才能得到完整结果
+ * @Date: 2023/5/15 10:20
+ */
+public class Base64OutputStream extends FilterOutputStream {
+
+	/**
+	 * 每次编码的字节数，必须为3的整数倍
+	 */
+	private static final int CHUNK_SIZE = 3072;
+
+	private final boolean isUrlSafe;
+
+	private final byte[] pending = new byte[3];
+
+	private int pendingLength;
+
+	private final byte[] buffer;
+
+	private boolean closed;
+
+	/**
+	 * 构造，使用标准字符
+	 *
+	 * @param out 被包装的输出流
+	 */
+	public Base64OutputStream(OutputStream out) {
+		this(out, false);
+	}
+
+	/**
+	 * 构造
+	 *
+	 * @param out       被包装的输出流
+	 * @param isUrlSafe 是否使用URL安全字符，URL安全模式下不补充=
+	 */
+	public Base64OutputStream(OutputStream out, boolean isUrlSafe) {
+		super(out);
+		this.isUrlSafe = isUrlSafe;
+		this.buffer = new byte[Base64Encoder.encodedLength(CHUNK_SIZE, isUrlSafe)];
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		pending[pendingLength++] = (byte) b;
+		if (pendingLength == 3) {
+			out.write(buffer, 0, Base64Encoder.encode(pending, 0, 3, buffer, 0, isUrlSafe));
+			pendingLength = 0;
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+			throw new IndexOutOfBoundsException();
+		}
+		// 先补齐上次剩余的不足3字节的部分
+		while (pendingLength > 0 && len > 0) {
+			write(b[off++]);
+			len--;
+		}
+		final int evenLen = len / 3 * 3;
+		for (int end = off + evenLen; off < end; ) {
+			final int chunk = Math.min(CHUNK_SIZE, end - off);
+			out.write(buffer, 0, Base64Encoder.encode(b, off, chunk, buffer, 0, isUrlSafe));
+			off += chunk;
+		}
+		for (int i = evenLen; i < len; i++) {
+			pending[pendingLength++] = b[off++];
+		}
+	}
+
+	/**
+	 * 写出剩余部分并关闭被包装的流
+	 *
+	 * @throws IOException IO异常
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (pendingLength > 0) {
+				out.write(buffer, 0, Base64Encoder.encode(pending, 0, pendingLength, buffer, 0, isUrlSafe));
+				pendingLength = 0;
+			}
+			out.flush();
+		} finally {
+			out.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+	}
+}
@@ -2,12 +2,13 @@ package com.spring.cloud.base.utils.base;
 
 import com.spring.cloud.base.utils.*;
 import com.spring.cloud.base.utils.abstra.Alias;
+import com.spring.cloud.base.utils.cache.Cache;
+import com.spring.cloud.base.utils.cache.CacheUtil;
 import com.spring.cloud.base.utils.exception.InvocationTargetRuntimeException;
 import com.spring.cloud.base.utils.exception.UtilException;
 import com.spring.cloud.base.utils.interf.Filter;
 import com.spring.cloud.base.utils.map.ClassUtil;
 import com.spring.cloud.base.utils.map.NullWrapperBean;
-import com.spring.cloud.base.utils.map.WeakConcurrentMap;
 import com.spring.cloud.base.utils.str.StrUtil;
 import com.spring.cloud.base.utils.utils.ArrayUtil;
 import com.spring.cloud.base.utils.utils.CollUtil;
@@ -26,15 +27,45 @@ public class ReflectUtil {
 	/**
 	 * 构造对象缓存
 	 */
-	private static final WeakConcurrentMap<Class<?>, Constructor<?>[]> CONSTRUCTORS_CACHE = new WeakConcurrentMap<>();
+	private static volatile Cache<Class<?>, Constructor<?>[]> CONSTRUCTORS_CACHE = CacheUtil.newWeakCache();
 	/**
 	 * 字段缓存
 	 */
-	private static final WeakConcurrentMap<Class<?>, Field[]> FIELDS_CACHE = new WeakConcurrentMap<>();
+	private static volatile Cache<Class<?>, Field[]> FIELDS_CACHE = CacheUtil.newWeakCache();
 	/**
 	 * 方法缓存
 	 */
-	private static final WeakConcurrentMap<Class<?>, Method[]> METHODS_CACHE = new WeakConcurrentMap<>();
+	private static volatile Cache<Class<?>, Method[]> METHODS_CACHE = CacheUtil.newWeakCache();
+
+	/**
+	 * 替换构造对象缓存，默认弱引用键的无界缓存
+	 *
+	 * @param cache 缓存
+	 */
+	public static void setConstructorsCache(Cache<Class<?>, Constructor<?>[]> cache) {
+		Assert.notNull(cache, "cache must not be null");
+		CONSTRUCTORS_CACHE = cache;
+	}
+
+	/**
+	 * 替换字段缓存，默认弱引用键的无界缓存
+	 *
+	 * @param cache 缓存
+	 */
+	public static void setFieldsCache(Cache<Class<?>, Field[]> cache) {
+		Assert.notNull(cache, "cache must not be null");
+		FIELDS_CACHE = cache;
+	}
+
+	/**
+	 * 替换方法缓存，默认弱引用键的无界缓存
+	 *
+	 * @param cache 缓存
+	 */
+	public static void setMethodsCache(Cache<Class<?>, Method[]> cache) {
+		Assert.notNull(cache, "cache must not be null");
+		METHODS_CACHE = cache;
+	}
 
 	/**
 	 * 查找类中的指定参数的构造方法，如果找到构造方法，会自动设置可访问为true
@@ -74,7 +105,7 @@ public class ReflectUtil {
 	@SuppressWarnings("unchecked")
 	public static <T> Constructor<T>[] getConstructors(Class<T> beanClass) throws SecurityException {
 		Assert.notNull(beanClass);
-		return (Constructor<T>[]) CONSTRUCTORS_CACHE.computeIfAbsent(beanClass, () -> getConstructorsDirectly(beanClass));
+		return (Constructor<T>[]) CONSTRUCTORS_CACHE.get(beanClass, () -> getConstructorsDirectly(beanClass));
 	}
 
 	/**
@@ -130,7 +161,7 @@ public class ReflectUtil {
 	 */
 	public static Field[] getFields(Class<?> beanClass) throws SecurityException {
 		Assert.notNull(beanClass);
-		return FIELDS_CACHE.computeIfAbsent(beanClass, () -> getFieldsDirectly(beanClass, true));
+		return FIELDS_CACHE.get(beanClass, () -> getFieldsDirectly(beanClass, true));
 	}
 
 	/**
@@ -550,7 +581,7 @@ public class ReflectUtil {
 	 */
 	public static Method[] getMethods(Class<?> beanClass) throws SecurityException {
 		Assert.notNull(beanClass);
-		return METHODS_CACHE.computeIfAbsent(beanClass,
+		return METHODS_CACHE.get(beanClass,
 				() -> getMethodsDirectly(beanClass, true, true));
 	}
 
@@ -0,0 +1,400 @@
+package com.spring.cloud.base.utils.cache;
+
+import com.spring.cloud.base.utils.map.Func0;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @Author: ls
+ * @Description: 分段锁缓存基类
+ * 键按哈希分布到多个分段，每个分段有独立的锁、容量与淘汰顺序，不同分段的读写互不阻塞
+ * 容量按分段均分，淘汰策略在分段内生效，整体上是对全局策略的近似
+ * 每个分段记录最早的过期时间，写入已满分段或定时清理时只有最早过期时间已到才扫描分段
+ * @Date: 2023/4/13 16:11
+ */
+public abstract class AbstractCache<K, V> implements Cache<K, V> {
+
+	/**
+	 * 最大分段数
+	 */
+	private static final int MAX_SEGMENTS = 16;
+
+	/**
+	 * 每个分段至少容纳的对象数，容量较小时减少分段数，避免淘汰顺序过于分散
+	 */
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+
+	protected final int capacity;
+
+	protected final long timeout;
+
+	private final Segment<K, V>[] segments;
+
+	private final int segmentMask;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder loadCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expiredCount = new LongAdder();
+
+	private volatile CacheListener<K, V> listener;
+
+	private ScheduledFuture<?> pruneJob;
+
+	/**
+	 * 构造
+	 *
+	 * @param capacity 容量，{@code 0}表示无大小限制
+	 * @param timeout  默认失效时长，单位毫秒，{@code 0}表示不过期
+	 */
+	@SuppressWarnings("unchecked")
+	protected AbstractCache(int capacity, long timeout) {
+		this.capacity = Math.max(capacity, 0);
+		this.timeout = Math.max(timeout, 0L);
+		int count = 1;
+		while (count < MAX_SEGMENTS && (this.capacity == 0 || this.capacity / (count << 1) >= MIN_SEGMENT_CAPACITY)) {
+			count <<= 1;
+		}
+		this.segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+		for (int i = 0; i < count; i++) {
+			int segmentCapacity = this.capacity == 0 ? 0 : this.capacity / count + (i < this.capacity % count ? 1 : 0);
+			this.segments[i] = new Segment<>(segmentCapacity, this.createMap(segmentCapacity));
+		}
+		this.segmentMask = count - 1;
+	}
+
+	/**
+	 * 创建分段内的存储，遍历顺序即淘汰时的候选顺序
+	 *
+	 * @param segmentCapacity 分段容量，{@code 0}表示无大小限制
+	 * @return 存储
+	 */
+	protected abstract Map<K, CacheObj<K, V>> createMap(int segmentCapacity);
+
+	/**
+	 * 分段已满时选出被淘汰的对象，调用时已持有分段锁
+	 * 默认淘汰遍历顺序中的第一个
+	 *
+	 * @param map 分段内的存储
+	 * @return 被淘汰的对象
+	 */
+	protected CacheObj<K, V> selectVictim(Map<K, CacheObj<K, V>> map) {
+		Iterator<CacheObj<K, V>> iterator = map.values().iterator();
+		return iterator.hasNext() ? iterator.next() : null;
+	}
+
+	/**
+	 * 对象被访问后的回调，调用时已持有分段锁
+	 *
+	 * @param map      分段内的存储
+	 * @param cacheObj 被访问的对象
+	 */
+	protected void onAccess(Map<K, CacheObj<K, V>> map, CacheObj<K, V> cacheObj) {
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public long timeout() {
+		return this.timeout;
+	}
+
+	@Override
+	public void put(K key, V object) {
+		this.put(key, object, this.timeout);
+	}
+
+	@Override
+	public void put(K key, V object, long timeout) {
+		if (object == null) {
+			return;
+		}
+		this.putInternal(key, new CacheObj<>(key, object, timeout, System.currentTimeMillis()), false);
+	}
+
+	@Override
+	public V get(K key) {
+		Segment<K, V> segment = this.segmentFor(key);
+		long now = System.currentTimeMillis();
+		CacheObj<K, V> expired = null;
+		V value = null;
+		segment.lock.lock();
+		try {
+			CacheObj<K, V> cacheObj = segment.map.get(key);
+			if (cacheObj != null) {
+				if (cacheObj.isExpired(now)) {
+					segment.map.remove(key);
+					expired = cacheObj;
+				} else {
+					this.onAccess(segment.map, cacheObj);
+					value = cacheObj.obj;
+				}
+			}
+		} finally {
+			segment.lock.unlock();
+		}
+		if (value != null) {
+			this.hitCount.increment();
+			return value;
+		}
+		this.missCount.increment();
+		if (expired != null) {
+			this.expiredCount.increment();
+			this.notifyRemove(expired);
+		}
+		return null;
+	}
+
+	@Override
+	public V get(K key, Func0<V> supplier) {
+		V value = this.get(key);
+		if (value != null || supplier == null) {
+			return value;
+		}
+		value = CacheUtil.load(supplier);
+		this.loadCount.increment();
+		if (value == null) {
+			return null;
+		}
+		return this.putInternal(key, new CacheObj<>(key, value, this.timeout, System.currentTimeMillis()), true);
+	}
+
+	@Override
+	public V remove(K key) {
+		Segment<K, V> segment = this.segmentFor(key);
+		CacheObj<K, V> removed;
+		segment.lock.lock();
+		try {
+			removed = segment.map.remove(key);
+		} finally {
+			segment.lock.unlock();
+		}
+		if (removed == null) {
+			return null;
+		}
+		this.notifyRemove(removed);
+		return removed.obj;
+	}
+
+	@Override
+	public void clear() {
+		for (Segment<K, V> segment : this.segments) {
+			segment.lock.lock();
+			try {
+				segment.map.clear();
+				segment.minExpireAt = Long.MAX_VALUE;
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public int prune() {
+		long now = System.currentTimeMillis();
+		int count = 0;
+		for (Segment<K, V> segment : this.segments) {
+			List<CacheObj<K, V>> expired;
+			segment.lock.lock();
+			try {
+				expired = this.pruneExpired(segment, now);
+			} finally {
+				segment.lock.unlock();
+			}
+			if (expired.isEmpty()) {
+				continue;
+			}
+			count += expired.size();
+			expired.forEach(this::notifyRemove);
+		}
+		this.expiredCount.add(count);
+		return count;
+	}
+
+	@Override
+	public boolean isFull() {
+		return this.capacity > 0 && this.size() >= this.capacity;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : this.segments) {
+			segment.lock.lock();
+			try {
+				size += segment.map.size();
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(K key) {
+		Segment<K, V> segment = this.segmentFor(key);
+		segment.lock.lock();
+		try {
+			CacheObj<K, V> cacheObj = segment.map.get(key);
+			return cacheObj != null && !cacheObj.isExpired(System.currentTimeMillis());
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	@Override
+	public CacheStats stats() {
+		return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.loadCount.sum(),
+				this.evictionCount.sum(), this.expiredCount.sum());
+	}
+
+	@Override
+	public AbstractCache<K, V> setListener(CacheListener<K, V> listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * 定时清理过期对象，重复调用时替换之前的定时任务
+	 *
+	 * @param delay 间隔时长，单位毫秒
+	 * @return this
+	 */
+	public synchronized AbstractCache<K, V> schedulePrune(long delay) {
+		this.cancelPruneSchedule();
+		this.pruneJob = GlobalPruneTimer.INSTANCE.schedule(this::prune, delay);
+		return this;
+	}
+
+	/**
+	 * 取消定时清理
+	 */
+	public synchronized void cancelPruneSchedule() {
+		if (this.pruneJob != null) {
+			this.pruneJob.cancel(false);
+			this.pruneJob = null;
+		}
+	}
+
+	/**
+	 * 写入对象，分段已满且存在已过期对象时先清理过期对象，仍然已满再按策略淘汰
+	 *
+	 * @param onlyIfAbsent 已存在未过期对象时保留原对象
+	 * @return 缓存中的对象
+	 */
+	private V putInternal(K key, CacheObj<K, V> cacheObj, boolean onlyIfAbsent) {
+		Segment<K, V> segment = this.segmentFor(key);
+		long now = System.currentTimeMillis();
+		List<CacheObj<K, V>> expired = null;
+		CacheObj<K, V> removed = null;
+		CacheObj<K, V> evicted = null;
+		V result = cacheObj.obj;
+		segment.lock.lock();
+		try {
+			CacheObj<K, V> existing = segment.map.get(key);
+			if (existing != null && onlyIfAbsent && !existing.isExpired(now)) {
+				result = existing.obj;
+			} else {
+				if (existing != null) {
+					segment.map.remove(key);
+					removed = existing;
+				} else if (segment.capacity > 0 && segment.map.size() >= segment.capacity) {
+					expired = this.pruneExpired(segment, now);
+					if (segment.map.size() >= segment.capacity) {
+						evicted = this.selectVictim(segment.map);
+						if (evicted != null) {
+							segment.map.remove(evicted.key);
+						}
+					}
+				}
+				segment.map.put(key, cacheObj);
+				if (cacheObj.expireAt != 0L && cacheObj.expireAt < segment.minExpireAt) {
+					segment.minExpireAt = cacheObj.expireAt;
+				}
+			}
+		} finally {
+			segment.lock.unlock();
+		}
+		if (removed != null && removed.obj != cacheObj.obj) {
+			this.notifyRemove(removed);
+		}
+		if (expired != null && !expired.isEmpty()) {
+			this.expiredCount.add(expired.size());
+			expired.forEach(this::notifyRemove);
+		}
+		if (evicted != null) {
+			this.evictionCount.increment();
+			this.notifyRemove(evicted);
+		}
+		return result;
+	}
+
+	/**
+	 * 清理分段内的过期对象并重新计算最早过期时间，最早过期时间未到时不扫描
+	 */
+	private List<CacheObj<K, V>> pruneExpired(Segment<K, V> segment, long now) {
+		if (segment.minExpireAt > now) {
+			return Collections.emptyList();
+		}
+		List<CacheObj<K, V>> expired = new ArrayList<>();
+		long minExpireAt = Long.MAX_VALUE;
+		Iterator<CacheObj<K, V>> iterator = segment.map.values().iterator();
+		while (iterator.hasNext()) {
+			CacheObj<K, V> cacheObj = iterator.next();
+			if (cacheObj.isExpired(now)) {
+				iterator.remove();
+				expired.add(cacheObj);
+			} else if (cacheObj.expireAt != 0L && cacheObj.expireAt < minExpireAt) {
+				minExpireAt = cacheObj.expireAt;
+			}
+		}
+		segment.minExpireAt = minExpireAt;
+		return expired;
+	}
+
+	private void notifyRemove(CacheObj<K, V> cacheObj) {
+		CacheListener<K, V> current = this.listener;
+		if (current != null) {
+			current.onRemove(cacheObj.key, cacheObj.obj);
+		}
+	}
+
+	private Segment<K, V> segmentFor(K key) {
+		int hash = key == null ? 0 : key.hashCode();
+		return this.segments[(hash ^ (hash >>> 16)) & this.segmentMask];
+	}
+
+	private static final class Segment<K, V> {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final int capacity;
+
+		private final Map<K, CacheObj<K, V>> map;
+
+		/**
+		 * 分段内最早的过期时间，只在写入时变小、清理时重新计算，对象被删除后可能早于实际值
+		 */
+		private long minExpireAt = Long.MAX_VALUE;
+
+		private Segment(int capacity, Map<K, CacheObj<K, V>> map) {
+			this.capacity = capacity;
+			this.map = map;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.spring.cloud.base.utils.cache;
+
+import com.spring.cloud.base.utils.map.Func0;
+
+/**
+ * @Author: ls
+ * @Description: 缓存接口
+ * @Date: 2023/4/13 16:11
+ */
+public interface Cache<K, V> {
+
+	/**
+	 * 返回缓存容量，{@code 0}表示无大小限制
+	 *
+	 * @return 返回缓存容量，{@code 0}表示无大小限制
+	 */
+	int capacity();
+
+	/**
+	 * 缓存失效时长， {@code 0} 表示没有设置，单位毫秒
+	 *
+	 * @return 缓存失效时长，单位毫秒
+	 */
+	long timeout();
+
+	/**
+	 * 将对象加入到缓存，使用默认失效时长
+	 *
+	 * @param key    键
+	 * @param object 缓存的对象，{@code null}时不缓存
+	 */
+	void put(K key, V object);
+
+	/**
+	 * 将对象加入到缓存，使用指定失效时长
+	 *
+	 * @param key     键
+	 * @param object  缓存的对象，{@code null}时不缓存
+	 * @param timeout 失效时长，单位毫秒，{@code 0}表示不过期
+	 */
+	void put(K key, V object, long timeout);
+
+	/**
+	 * 从缓存中获得对象，对象不存在或已过期返回{@code null}
+	 *
+	 * @param key 键
+	 * @return 键对应的对象
+	 */
+	V get(K key);
+
+	/**
+	 * 从缓存中获得对象，不存在或已过期时调用加载函数并将结果加入缓存
+	 * 加载在锁外执行，并发加载同一个键时以先写入的结果为准
+	 *
+	 * @param key      键
+	 * @param supplier 加载函数
+	 * @return 键对应的对象
+	 */
+	V get(K key, Func0<V> supplier);
+
+	/**
+	 * 从缓存中移除对象
+	 *
+	 * @param key 键
+	 * @return 被移除的对象，不存在时返回{@code null}
+	 */
+	V remove(K key);
+
+	/**
+	 * 清空缓存
+	 */
+	void clear();
+
+	/**
+	 * 清理过期对象
+	 *
+	 * @return 清理的缓存对象个数
+	 */
+	int prune();
+
+	/**
+	 * 缓存是否已满，仅用于有空间限制的缓存对象
+	 *
+	 * @return 缓存是否已满
+	 */
+	boolean isFull();
+
+	/**
+	 * 缓存的对象数量，可能包含尚未清理的过期对象
+	 *
+	 * @return 缓存的对象数量
+	 */
+	int size();
+
+	/**
+	 * 缓存是否为空
+	 *
+	 * @return 缓存是否为空
+	 */
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * 是否包含未过期的键
+	 *
+	 * @param key 键
+	 * @return 是否包含键
+	 */
+	boolean containsKey(K key);
+
+	/**
+	 * 命中、未命中、加载、淘汰等统计的快照
+	 *
+	 * @return 统计
+	 */
+	CacheStats stats();
+
+	/**
+	 * 设置对象被淘汰、过期或移除时的监听
+	 *
+	 * @param listener 监听
+	 * @return this
+	 */
+	Cache<K, V> setListener(CacheListener<K, V> listener);
+}
@@ -0,0 +1,18 @@
+package com.spring.cloud.base.utils.cache;
+
+/**
+ * @Author: ls
+ * @Description: 缓存对象移除监听，在持有分段锁之外回调
+ * @Date: 2023/4/13 16:11
+ */
+@FunctionalInterface
+public interface CacheListener<K, V> {
+
+	/**
+	 * 对象被淘汰、过期或移除时回调
+	 *
+	 * @param key         键
+	 * @param cachedObject 被移除的对象
+	 */
+	void onRemove(K key, V cachedObject);
+}
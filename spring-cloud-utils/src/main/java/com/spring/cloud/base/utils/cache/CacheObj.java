@@ -0,0 +1,38 @@
+package com.spring.cloud.base.utils.cache;
+
+/**
+ * @Author: ls
+ * @Description: 缓存对象，除创建外只在所属分段的锁内读写
+ * @Date: 2023/4/13 16:11
+ */
+final class CacheObj<K, V> {
+
+	final K key;
+
+	final V obj;
+
+	/**
+	 * 过期时间点，{@code 0}表示不过期
+	 */
+	final long expireAt;
+
+	/**
+	 * 访问次数，LFU使用
+	 */
+	long accessCount;
+
+	/**
+	 * 写入顺序，LFU访问次数相同时使用
+	 */
+	long sequence;
+
+	CacheObj(K key, V obj, long timeout, long now) {
+		this.key = key;
+		this.obj = obj;
+		this.expireAt = timeout > 0 ? now + timeout : 0L;
+	}
+
+	boolean isExpired(long now) {
+		return expireAt != 0L && expireAt <= now;
+	}
+}
@@ -0,0 +1,80 @@
+package com.spring.cloud.base.utils.cache;
+
+import java.io.Serializable;
+
+/**
+ * @Author: ls
+ * @Description: 缓存统计快照
+ * @Date: 2023/4/13 16:11
+ */
+public class CacheStats implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long loadCount;
+
+	private final long evictionCount;
+
+	private final long expiredCount;
+
+	public CacheStats(long hitCount, long missCount, long loadCount, long evictionCount, long expiredCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadCount = loadCount;
+		this.evictionCount = evictionCount;
+		this.expiredCount = expiredCount;
+	}
+
+	/**
+	 * @return 命中次数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return 未命中次数，包含已过期
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return 加载函数调用次数
+	 */
+	public long getLoadCount() {
+		return loadCount;
+	}
+
+	/**
+	 * @return 因容量淘汰的次数
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return 过期清理的次数
+	 */
+	public long getExpiredCount() {
+		return expiredCount;
+	}
+
+	/**
+	 * @return 命中率，没有请求时为1
+	 */
+	public double getHitRate() {
+		long requestCount = hitCount + missCount;
+		return requestCount == 0 ? 1.0D : (double) hitCount / requestCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", loadCount=" + loadCount
+				+ ", evictionCount=" + evictionCount + ", expiredCount=" + expiredCount + '}';
+	}
+}
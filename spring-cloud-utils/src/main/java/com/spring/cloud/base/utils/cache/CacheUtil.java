@@ -0,0 +1,130 @@
+package com.spring.cloud.base.utils.cache;
+
+import com.spring.cloud.base.utils.map.Func0;
+import com.spring.cloud.base.utils.map.SafeConcurrentHashMap;
+import com.spring.cloud.base.utils.map.WeakConcurrentMap;
+
+/**
+ * @Author: ls
+ * @Description: 缓存工具类
+ * @Date: 2023/4/13 16:11
+ */
+public class CacheUtil {
+
+	/**
+	 * 创建FIFO(first in first out) 先进先出缓存
+	 *
+	 * @param capacity 容量
+	 * @param timeout  过期时长，单位毫秒
+	 * @return {@link FIFOCache}
+	 */
+	public static <K, V> FIFOCache<K, V> newFIFOCache(int capacity, long timeout) {
+		return new FIFOCache<>(capacity, timeout);
+	}
+
+	/**
+	 * 创建FIFO(first in first out) 先进先出缓存
+	 *
+	 * @param capacity 容量
+	 * @return {@link FIFOCache}
+	 */
+	public static <K, V> FIFOCache<K, V> newFIFOCache(int capacity) {
+		return new FIFOCache<>(capacity);
+	}
+
+	/**
+	 * 创建LFU(least frequently used) 最少使用率缓存
+	 *
+	 * @param capacity 容量
+	 * @param timeout  过期时长，单位毫秒
+	 * @return {@link LFUCache}
+	 */
+	public static <K, V> LFUCache<K, V> newLFUCache(int capacity, long timeout) {
+		return new LFUCache<>(capacity, timeout);
+	}
+
+	/**
+	 * 创建LFU(least frequently used) 最少使用率缓存
+	 *
+	 * @param capacity 容量
+	 * @return {@link LFUCache}
+	 */
+	public static <K, V> LFUCache<K, V> newLFUCache(int capacity) {
+		return new LFUCache<>(capacity);
+	}
+
+	/**
+	 * 创建LRU (least recently used)最近最久未使用缓存
+	 *
+	 * @param capacity 容量
+	 * @param timeout  过期时长，单位毫秒
+	 * @return {@link LRUCache}
+	 */
+	public static <K, V> LRUCache<K, V> newLRUCache(int capacity, long timeout) {
+		return new LRUCache<>(capacity, timeout);
+	}
+
+	/**
+	 * 创建LRU (least recently used)最近最久未使用缓存
+	 *
+	 * @param capacity 容量
+	 * @return {@link LRUCache}
+	 */
+	public static <K, V> LRUCache<K, V> newLRUCache(int capacity) {
+		return new LRUCache<>(capacity);
+	}
+
+	/**
+	 * 创建定时缓存
+	 *
+	 * @param timeout 过期时长，单位毫秒
+	 * @return {@link TimedCache}
+	 */
+	public static <K, V> TimedCache<K, V> newTimedCache(long timeout) {
+		return new TimedCache<>(timeout);
+	}
+
+	/**
+	 * 创建定时缓存，并按间隔定时清理过期对象
+	 *
+	 * @param timeout    过期时长，单位毫秒
+	 * @param pruneDelay 清理间隔，单位毫秒
+	 * @return {@link TimedCache}
+	 */
+	public static <K, V> TimedCache<K, V> newTimedCache(long timeout, long pruneDelay) {
+		TimedCache<K, V> cache = new TimedCache<>(timeout);
+		cache.schedulePrune(pruneDelay);
+		return cache;
+	}
+
+	/**
+	 * 创建弱引用键的无界缓存，键被回收后对象随之移除
+	 *
+	 * @return {@link MapCache}
+	 */
+	public static <K, V> MapCache<K, V> newWeakCache() {
+		return new MapCache<>(new WeakConcurrentMap<>());
+	}
+
+	/**
+	 * 创建强引用的无界缓存
+	 *
+	 * @return {@link MapCache}
+	 */
+	public static <K, V> MapCache<K, V> newUnboundedCache() {
+		return new MapCache<>(new SafeConcurrentHashMap<>());
+	}
+
+	/**
+	 * 执行加载函数，运行时异常原样抛出，受检异常包装为{@link RuntimeException}
+	 */
+	static <V> V load(Func0<V> supplier) {
+		try {
+			return supplier.call();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
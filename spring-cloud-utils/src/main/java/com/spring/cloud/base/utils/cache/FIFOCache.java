@@ -0,0 +1,37 @@
+package com.spring.cloud.base.utils.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: FIFO(first in first out) 先进先出缓存
+ * 分段内按写入顺序排列，已满时淘汰最早写入的对象
+ * @Date: 2023/4/13 16:11
+ */
+public class FIFOCache<K, V> extends AbstractCache<K, V> {
+
+	/**
+	 * 构造，默认不过期
+	 *
+	 * @param capacity 容量
+	 */
+	public FIFOCache(int capacity) {
+		this(capacity, 0);
+	}
+
+	/**
+	 * 构造
+	 *
+	 * @param capacity 容量
+	 * @param timeout  默认失效时长，单位毫秒
+	 */
+	public FIFOCache(int capacity, long timeout) {
+		super(capacity, timeout);
+	}
+
+	@Override
+	protected Map<K, CacheObj<K, V>> createMap(int segmentCapacity) {
+		return new LinkedHashMap<>(LRUCache.initialCapacity(segmentCapacity), 0.75F, false);
+	}
+}
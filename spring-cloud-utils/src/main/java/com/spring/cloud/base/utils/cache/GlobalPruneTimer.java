@@ -0,0 +1,42 @@
+package com.spring.cloud.base.utils.cache;
+
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author: ls
+ * @Description: 全局缓存清理定时器，所有缓存共用一个守护线程
+ * @Date: 2023/4/13 16:11
+ */
+public enum GlobalPruneTimer {
+
+	/**
+	 * 单例
+	 */
+	INSTANCE;
+
+	private final ScheduledExecutorService pruneTimer;
+
+	GlobalPruneTimer() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+				ThreadFactoryBuilder.create().setNamePrefix("prune-timer-cache-").setDaemon(true).build());
+		// 取消的任务立即移出队列，避免缓存被定时器引用无法回收
+		executor.setRemoveOnCancelPolicy(true);
+		this.pruneTimer = executor;
+	}
+
+	/**
+	 * 按固定间隔执行清理任务
+	 *
+	 * @param task  任务
+	 * @param delay 间隔时长，单位毫秒
+	 * @return {@link ScheduledFuture}
+	 */
+	public ScheduledFuture<?> schedule(Runnable task, long delay) {
+		return this.pruneTimer.scheduleAtFixedRate(task, delay, delay, TimeUnit.MILLISECONDS);
+	}
+}
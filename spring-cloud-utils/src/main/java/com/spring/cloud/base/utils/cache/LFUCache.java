@@ -0,0 +1,177 @@
+package com.spring.cloud.base.utils.cache;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * @Author: ls
+ * @Description: LFU(least frequently used) 最少使用率缓存
+ * 已满时淘汰分段内访问次数最少的对象，次数相同时淘汰较早写入的；新写入的对象从上一次被淘汰对象的次数起算，避免历史热点长期占用
+ * 分段内按 (访问次数, 写入顺序) 维护有序索引，访问与淘汰均为 O(log n)
+ * @Date: 2023/4/13 16:11
+ */
+public class LFUCache<K, V> extends AbstractCache<K, V> {
+
+	/**
+	 * 构造，默认不过期
+	 *
+	 * @param capacity 容量
+	 */
+	public LFUCache(int capacity) {
+		this(capacity, 0);
+	}
+
+	/**
+	 * 构造
+	 *
+	 * @param capacity 容量
+	 * @param timeout  默认失效时长，单位毫秒
+	 */
+	public LFUCache(int capacity, long timeout) {
+		super(capacity, timeout);
+	}
+
+	@Override
+	protected Map<K, CacheObj<K, V>> createMap(int segmentCapacity) {
+		return new FrequencyMap<>(LRUCache.initialCapacity(segmentCapacity));
+	}
+
+	@Override
+	protected void onAccess(Map<K, CacheObj<K, V>> map, CacheObj<K, V> cacheObj) {
+		((FrequencyMap<K, V>) map).access(cacheObj);
+	}
+
+	@Override
+	protected CacheObj<K, V> selectVictim(Map<K, CacheObj<K, V>> map) {
+		return ((FrequencyMap<K, V>) map).victim();
+	}
+
+	/**
+	 * 带访问次数索引的存储，所有修改都同步维护索引，包括迭代器删除
+	 */
+	private static final class FrequencyMap<K, V> extends AbstractMap<K, CacheObj<K, V>> {
+
+		private static final Comparator<CacheObj<?, ?>> ORDER = Comparator
+				.comparingLong((CacheObj<?, ?> cacheObj) -> cacheObj.accessCount)
+				.thenComparingLong(cacheObj -> cacheObj.sequence);
+
+		private final Map<K, CacheObj<K, V>> map;
+
+		private final TreeSet<CacheObj<K, V>> index = new TreeSet<>(ORDER);
+
+		private final Set<Entry<K, CacheObj<K, V>>> entrySet = new EntrySet();
+
+		private long sequence;
+
+		/**
+		 * 上一次被淘汰对象的访问次数，新对象从此处起算，等价于淘汰时把其余对象的次数减去该值
+		 */
+		private long floor;
+
+		private FrequencyMap(int initialCapacity) {
+			this.map = new HashMap<>(initialCapacity);
+		}
+
+		void access(CacheObj<K, V> cacheObj) {
+			this.index.remove(cacheObj);
+			cacheObj.accessCount++;
+			this.index.add(cacheObj);
+		}
+
+		CacheObj<K, V> victim() {
+			if (this.index.isEmpty()) {
+				return null;
+			}
+			CacheObj<K, V> victim = this.index.first();
+			this.floor = victim.accessCount;
+			return victim;
+		}
+
+		@Override
+		public CacheObj<K, V> get(Object key) {
+			return this.map.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return this.map.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return this.map.size();
+		}
+
+		@Override
+		public CacheObj<K, V> put(K key, CacheObj<K, V> cacheObj) {
+			CacheObj<K, V> previous = this.map.put(key, cacheObj);
+			if (previous != null) {
+				this.index.remove(previous);
+			}
+			cacheObj.sequence = this.sequence++;
+			cacheObj.accessCount = Math.max(cacheObj.accessCount, this.floor);
+			this.index.add(cacheObj);
+			return previous;
+		}
+
+		@Override
+		public CacheObj<K, V> remove(Object key) {
+			CacheObj<K, V> removed = this.map.remove(key);
+			if (removed != null) {
+				this.index.remove(removed);
+			}
+			return removed;
+		}
+
+		@Override
+		public void clear() {
+			this.map.clear();
+			this.index.clear();
+		}
+
+		@Override
+		public Set<Entry<K, CacheObj<K, V>>> entrySet() {
+			return this.entrySet;
+		}
+
+		private final class EntrySet extends AbstractSet<Entry<K, CacheObj<K, V>>> {
+
+			@Override
+			public Iterator<Entry<K, CacheObj<K, V>>> iterator() {
+				Iterator<Entry<K, CacheObj<K, V>>> iterator = map.entrySet().iterator();
+				return new Iterator<Entry<K, CacheObj<K, V>>>() {
+
+					private Entry<K, CacheObj<K, V>> current;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<K, CacheObj<K, V>> next() {
+						this.current = iterator.next();
+						return this.current;
+					}
+
+					@Override
+					public void remove() {
+						iterator.remove();
+						index.remove(this.current.getValue());
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return map.size();
+			}
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.spring.cloud.base.utils.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: LRU (least recently used)最近最久未使用缓存
+ * 分段内按访问顺序排列，已满时淘汰最久未访问的对象
+ * @Date: 2023/4/13 16:11
+ */
+public class LRUCache<K, V> extends AbstractCache<K, V> {
+
+	/**
+	 * 构造，默认不过期
+	 *
+	 * @param capacity 容量
+	 */
+	public LRUCache(int capacity) {
+		this(capacity, 0);
+	}
+
+	/**
+	 * 构造
+	 *
+	 * @param capacity 容量
+	 * @param timeout  默认失效时长，单位毫秒
+	 */
+	public LRUCache(int capacity, long timeout) {
+		super(capacity, timeout);
+	}
+
+	@Override
+	protected Map<K, CacheObj<K, V>> createMap(int segmentCapacity) {
+		return new LinkedHashMap<>(initialCapacity(segmentCapacity), 0.75F, true);
+	}
+
+	static int initialCapacity(int segmentCapacity) {
+		return segmentCapacity == 0 ? 16 : Math.min(segmentCapacity, 1 << 12) * 4 / 3 + 1;
+	}
+}
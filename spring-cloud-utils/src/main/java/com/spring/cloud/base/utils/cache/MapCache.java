@@ -0,0 +1,133 @@
+package com.spring.cloud.base.utils.cache;
+
+import com.spring.cloud.base.utils.map.Func0;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Author: ls
+ * @Description: 基于{@link ConcurrentMap}的无界缓存，没有容量限制与失效时长，读取不加锁
+ * 传入 {@link com.spring.cloud.base.utils.map.WeakConcurrentMap} 时键被回收后对象随之移除，用于各工具类缓存的默认实现
+ * @Date: 2023/4/13 16:11
+ */
+public class MapCache<K, V> implements Cache<K, V> {
+
+	private final ConcurrentMap<K, V> map;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder loadCount = new LongAdder();
+
+	private volatile CacheListener<K, V> listener;
+
+	/**
+	 * 构造
+	 *
+	 * @param map 存储
+	 */
+	public MapCache(ConcurrentMap<K, V> map) {
+		this.map = map;
+	}
+
+	@Override
+	public int capacity() {
+		return 0;
+	}
+
+	@Override
+	public long timeout() {
+		return 0;
+	}
+
+	@Override
+	public void put(K key, V object) {
+		if (object != null) {
+			this.map.put(key, object);
+		}
+	}
+
+	/**
+	 * 不支持失效时长，timeout被忽略
+	 */
+	@Override
+	public void put(K key, V object, long timeout) {
+		this.put(key, object);
+	}
+
+	@Override
+	public V get(K key) {
+		V value = this.map.get(key);
+		if (value != null) {
+			this.hitCount.increment();
+		} else {
+			this.missCount.increment();
+		}
+		return value;
+	}
+
+	/**
+	 * 加载函数在{@link ConcurrentMap#computeIfAbsent}中执行，同一个键只加载一次
+	 */
+	@Override
+	public V get(K key, Func0<V> supplier) {
+		V value = this.map.get(key);
+		if (value != null) {
+			this.hitCount.increment();
+			return value;
+		}
+		this.missCount.increment();
+		return this.map.computeIfAbsent(key, k -> {
+			this.loadCount.increment();
+			return CacheUtil.load(supplier);
+		});
+	}
+
+	@Override
+	public V remove(K key) {
+		V removed = this.map.remove(key);
+		CacheListener<K, V> current = this.listener;
+		if (removed != null && current != null) {
+			current.onRemove(key, removed);
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		this.map.clear();
+	}
+
+	@Override
+	public int prune() {
+		return 0;
+	}
+
+	@Override
+	public boolean isFull() {
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return this.map.size();
+	}
+
+	@Override
+	public boolean containsKey(K key) {
+		return this.map.containsKey(key);
+	}
+
+	@Override
+	public CacheStats stats() {
+		return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.loadCount.sum(), 0, 0);
+	}
+
+	@Override
+	public MapCache<K, V> setListener(CacheListener<K, V> listener) {
+		this.listener = listener;
+		return this;
+	}
+}
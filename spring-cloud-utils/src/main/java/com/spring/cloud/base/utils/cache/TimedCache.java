@@ -0,0 +1,27 @@
+package com.spring.cloud.base.utils.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Author: ls
+ * @Description: 定时缓存
+ * 无容量限制，对象过期后在访问或清理时移除，可通过 {@link #schedulePrune(long)} 定时清理
+ * @Date: 2023/4/13 16:11
+ */
+public class TimedCache<K, V> extends AbstractCache<K, V> {
+
+	/**
+	 * 构造
+	 *
+	 * @param timeout 默认失效时长，单位毫秒
+	 */
+	public TimedCache(long timeout) {
+		super(0, timeout);
+	}
+
+	@Override
+	protected Map<K, CacheObj<K, V>> createMap(int segmentCapacity) {
+		return new HashMap<>(16);
+	}
+}
@@ -10,6 +10,8 @@ import javax.crypto.IllegalBlockSizeException;
 import java.io.IOException;
 import java.security.*;
 import java.security.spec.AlgorithmParameterSpec;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @Author: ls
@@ -32,6 +34,10 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 	 * 解密的块大小
 	 */
 	protected int decryptBlockSize = -1;
+	/**
+	 * 加解密对象池，为null时所有操作共用一个{@link Cipher}并加锁
+	 */
+	private transient CryptoPool<Cipher> cipherPool;
 
 	/**
 	 * 构造，创建新的私钥公钥对
@@ -199,61 +205,113 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 		return this;
 	}
 
+	/**
+	 * 设置加解密对象池大小<br>
+	 * 大于0时加解密各自从池中借用{@link Cipher}，不再共用一把锁，适合多线程共享同一个实例的场景
+	 *
+	 * @param poolSize 最多保留的空闲{@link Cipher}数，通常取并发线程数，不大于0表示关闭对象池
+	 * @return this
+	 */
+	public AsymmetricCrypto setPoolSize(int poolSize) {
+		final String algorithm = this.algorithm;
+		this.cipherPool = poolSize > 0 ? new CryptoPool<>(() -> SecureUtil.createCipher(algorithm), poolSize) : null;
+		return this;
+	}
+
 	@Override
 	public AsymmetricCrypto init(String algorithm, PrivateKey privateKey, PublicKey publicKey) {
 		super.init(algorithm, privateKey, publicKey);
 		initCipher();
+		if (null != this.cipherPool) {
+			setPoolSize(this.cipherPool.getMaxIdle());
+		}
 		return this;
 	}
 
 	@Override
 	public byte[] encrypt(byte[] data, KeyType keyType) {
 		final Key key = getKeyByType(keyType);
-		lock.lock();
+		Cipher cipher = null;
 		try {
-			final Cipher cipher = initMode(Cipher.ENCRYPT_MODE, key);
-
-			if (this.encryptBlockSize < 0) {
-				// 在引入BC库情况下，自动获取块大小
-				final int blockSize = cipher.getBlockSize();
-				if (blockSize > 0) {
-					this.encryptBlockSize = blockSize;
-				}
-			}
+			cipher = acquire(Cipher.ENCRYPT_MODE, key);
+			return doFinal(cipher, data, encryptBlockSize(cipher, data));
+		} catch (Exception e) {
+			throw new CryptoException(e);
+		} finally {
+			release(cipher);
+		}
+	}
 
-			return doFinal(data, this.encryptBlockSize < 0 ? data.length : this.encryptBlockSize);
+	/**
+	 * 批量加密，整批数据只借用并初始化一次{@link Cipher}，结果与逐条调用 {@link #encrypt(byte[], KeyType)} 相同
+	 *
+	 * @param dataList 被加密的数据列表
+	 * @param keyType  私钥或公钥 {@link KeyType}
+	 * @return 加密后的数据列表，顺序与输入一致
+	 */
+	public List<byte[]> encryptAll(List<byte[]> dataList, KeyType keyType) {
+		final Key key = getKeyByType(keyType);
+		final List<byte[]> result = new ArrayList<>(dataList.size());
+		if (dataList.isEmpty()) {
+			return result;
+		}
+		Cipher cipher = null;
+		try {
+			cipher = acquire(Cipher.ENCRYPT_MODE, key);
+			for (byte[] data : dataList) {
+				result.add(doFinal(cipher, data, encryptBlockSize(cipher, data)));
+			}
+			return result;
 		} catch (Exception e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
+			release(cipher);
 		}
 	}
 
 	@Override
 	public byte[] decrypt(byte[] data, KeyType keyType) {
 		final Key key = getKeyByType(keyType);
-		lock.lock();
+		Cipher cipher = null;
 		try {
-			final Cipher cipher = initMode(Cipher.DECRYPT_MODE, key);
-
-			if (this.decryptBlockSize < 0) {
-				// 在引入BC库情况下，自动获取块大小
-				final int blockSize = cipher.getBlockSize();
-				if (blockSize > 0) {
-					this.decryptBlockSize = blockSize;
-				}
-			}
+			cipher = acquire(Cipher.DECRYPT_MODE, key);
+			return doFinal(cipher, data, decryptBlockSize(cipher, data));
+		} catch (Exception e) {
+			throw new CryptoException(e);
+		} finally {
+			release(cipher);
+		}
+	}
 
-			return doFinal(data, this.decryptBlockSize < 0 ? data.length : this.decryptBlockSize);
+	/**
+	 * 批量解密，整批数据只借用并初始化一次{@link Cipher}，结果与逐条调用 {@link #decrypt(byte[], KeyType)} 相同
+	 *
+	 * @param dataList 被解密的数据列表
+	 * @param keyType  私钥或公钥 {@link KeyType}
+	 * @return 解密后的数据列表，顺序与输入一致
+	 */
+	public List<byte[]> decryptAll(List<byte[]> dataList, KeyType keyType) {
+		final Key key = getKeyByType(keyType);
+		final List<byte[]> result = new ArrayList<>(dataList.size());
+		if (dataList.isEmpty()) {
+			return result;
+		}
+		Cipher cipher = null;
+		try {
+			cipher = acquire(Cipher.DECRYPT_MODE, key);
+			for (byte[] data : dataList) {
+				result.add(doFinal(cipher, data, decryptBlockSize(cipher, data)));
+			}
+			return result;
 		} catch (Exception e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
+			release(cipher);
 		}
 	}
 
 	/**
-	 * 获得加密或解密器
+	 * 获得加密或解密器，开启对象池时加解密不使用此对象
 	 *
 	 * @return 加密或解密
 	 * 
@@ -271,9 +329,44 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 		this.cipherWrapper = new CipherWrapper(this.algorithm);
 	}
 
+	/**
+	 * 获取加密分段大小，未设置时在引入BC库情况下自动获取块大小
+	 *
+	 * @param cipher 已初始化的{@link Cipher}
+	 * @param data   数据
+	 * @return 分段大小
+	 */
+	private int encryptBlockSize(Cipher cipher, byte[] data) {
+		if (this.encryptBlockSize < 0) {
+			final int blockSize = cipher.getBlockSize();
+			if (blockSize > 0) {
+				this.encryptBlockSize = blockSize;
+			}
+		}
+		return this.encryptBlockSize < 0 ? data.length : this.encryptBlockSize;
+	}
+
+	/**
+	 * 获取解密分段大小，未设置时在引入BC库情况下自动获取块大小
+	 *
+	 * @param cipher 已初始化的{@link Cipher}
+	 * @param data   数据
+	 * @return 分段大小
+	 */
+	private int decryptBlockSize(Cipher cipher, byte[] data) {
+		if (this.decryptBlockSize < 0) {
+			final int blockSize = cipher.getBlockSize();
+			if (blockSize > 0) {
+				this.decryptBlockSize = blockSize;
+			}
+		}
+		return this.decryptBlockSize < 0 ? data.length : this.decryptBlockSize;
+	}
+
 	/**
 	 * 加密或解密
 	 *
+	 * @param cipher       已初始化的{@link Cipher}
 	 * @param data         被加密或解密的内容数据
 	 * @param maxBlockSize 最大块（分段）大小
 	 * @return 加密或解密后的数据
@@ -281,22 +374,23 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 	 * @throws BadPaddingException       padding错误异常
 	 * @throws IOException               IO异常，不会被触发
 	 */
-	private byte[] doFinal(byte[] data, int maxBlockSize) throws IllegalBlockSizeException, BadPaddingException, IOException {
+	private byte[] doFinal(Cipher cipher, byte[] data, int maxBlockSize) throws IllegalBlockSizeException, BadPaddingException, IOException {
 		// 模长
 		final int dataLength = data.length;
 
 		// 不足分段
 		if (dataLength <= maxBlockSize) {
-			return getCipher().doFinal(data, 0, dataLength);
+			return cipher.doFinal(data, 0, dataLength);
 		}
 
 		// 分段解密
-		return doFinalWithBlock(data, maxBlockSize);
+		return doFinalWithBlock(cipher, data, maxBlockSize);
 	}
 
 	/**
 	 * 分段加密或解密
 	 *
+	 * @param cipher       已初始化的{@link Cipher}
 	 * @param data         数据
 	 * @param maxBlockSize 最大分段的段大小，不能为小于1
 	 * @return 加密或解密后的数据
@@ -304,7 +398,7 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 	 * @throws BadPaddingException       padding错误异常
 	 * @throws IOException               IO异常，不会被触发
 	 */
-	private byte[] doFinalWithBlock(byte[] data, int maxBlockSize) throws IllegalBlockSizeException, BadPaddingException, IOException {
+	private byte[] doFinalWithBlock(Cipher cipher, byte[] data, int maxBlockSize) throws IllegalBlockSizeException, BadPaddingException, IOException {
 		final int dataLength = data.length;
 		@SuppressWarnings("resource") final FastByteArrayOutputStream out = new FastByteArrayOutputStream();
 
@@ -315,7 +409,7 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 		// 对数据分段处理
 		while (remainLength > 0) {
 			blockSize = Math.min(remainLength, maxBlockSize);
-			out.write(getCipher().doFinal(data, offSet, blockSize));
+			out.write(cipher.doFinal(data, offSet, blockSize));
 
 			offSet += blockSize;
 			remainLength = dataLength - offSet;
@@ -336,4 +430,53 @@ public class AsymmetricCrypto extends AbstractAsymmetricCrypto<AsymmetricCrypto>
 	private Cipher initMode(int mode, Key key) throws InvalidAlgorithmParameterException, InvalidKeyException {
 		return this.cipherWrapper.initMode(mode, key).getCipher();
 	}
+
+	/**
+	 * 获取并初始化{@link Cipher}，开启对象池时从池中借用，否则加锁后使用共享的{@link Cipher}<br>
+	 * 获取成功后必须调用 {@link #release(Cipher)}
+	 *
+	 * @param mode 模式，可选{@link Cipher#ENCRYPT_MODE}或者{@link Cipher#DECRYPT_MODE}
+	 * @param key  密钥
+	 * @return {@link Cipher}
+	 * @throws InvalidAlgorithmParameterException 异常算法错误
+	 * @throws InvalidKeyException                异常KEY错误
+	 */
+	private Cipher acquire(int mode, Key key) throws InvalidAlgorithmParameterException, InvalidKeyException {
+		final CryptoPool<Cipher> pool = this.cipherPool;
+		if (null == pool) {
+			lock.lock();
+			try {
+				return initMode(mode, key);
+			} catch (InvalidAlgorithmParameterException | InvalidKeyException | RuntimeException e) {
+				lock.unlock();
+				throw e;
+			}
+		}
+		final Cipher cipher = pool.borrow();
+		try {
+			return this.cipherWrapper.initMode(cipher, mode, key);
+		} catch (InvalidAlgorithmParameterException | InvalidKeyException | RuntimeException e) {
+			pool.release(cipher);
+			throw e;
+		}
+	}
+
+	/**
+	 * 释放 {@link #acquire(int, Key)} 获取的{@link Cipher}
+	 *
+	 * @param cipher {@link Cipher}，为null时忽略
+	 */
+	private void release(Cipher cipher) {
+		if (null == cipher) {
+			return;
+		}
+		if (cipher == this.cipherWrapper.getCipher()) {
+			lock.unlock();
+			return;
+		}
+		final CryptoPool<Cipher> pool = this.cipherPool;
+		if (null != pool) {
+			pool.release(cipher);
+		}
+	}
 }
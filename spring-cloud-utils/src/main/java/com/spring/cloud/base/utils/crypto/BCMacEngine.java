@@ -57,6 +57,11 @@ public class BCMacEngine implements MacEngine {
 		return result;
 	}
 
+	@Override
+	public int doFinal(byte[] out, int outOff) {
+		return this.mac.doFinal(out, outOff);
+	}
+
 	@Override
 	public void reset() {
 		this.mac.reset();
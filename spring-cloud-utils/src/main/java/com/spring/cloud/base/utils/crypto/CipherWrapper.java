@@ -94,7 +94,22 @@ public class CipherWrapper {
 	 */
 	public CipherWrapper initMode(int mode, Key key)
 			throws InvalidKeyException, InvalidAlgorithmParameterException {
-		final Cipher cipher = this.cipher;
+		initMode(this.cipher, mode, key);
+		return this;
+	}
+
+	/**
+	 * 使用当前的算法参数与随机数生成器初始化另一个同算法的{@link Cipher}，用于对象池中的实例
+	 *
+	 * @param cipher {@link Cipher}
+	 * @param mode   模式，见{@link Cipher#ENCRYPT_MODE} 或 {@link Cipher#DECRYPT_MODE}
+	 * @param key    密钥
+	 * @return 传入的{@link Cipher}
+	 * @throws InvalidKeyException                无效key
+	 * @throws InvalidAlgorithmParameterException 无效算法
+	 */
+	public Cipher initMode(Cipher cipher, int mode, Key key)
+			throws InvalidKeyException, InvalidAlgorithmParameterException {
 		final AlgorithmParameterSpec params = this.params;
 		final SecureRandom random = this.random;
 		if (null != params) {
@@ -110,6 +125,6 @@ public class CipherWrapper {
 				cipher.init(mode, key);
 			}
 		}
-		return this;
+		return cipher;
 	}
 }
@@ -0,0 +1,86 @@
+package com.spring.cloud.base.utils.crypto;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * @Author: ls
+ * @Description: 加解密对象池，用于 {@link javax.crypto.Cipher}、SM2引擎等非线程安全对象
+ * 借出时优先复用空闲对象，没有空闲对象时直接新建，从不阻塞；归还时空闲对象超过上限的直接丢弃
+ * 对象池只负责复用实例，每次借出后仍需按需初始化密钥与模式
+ * @Date: 2023/5/12 10:05
+ */
+public class CryptoPool<T> {
+
+	private final Supplier<T> factory;
+
+	private final int maxIdle;
+
+	private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	/**
+	 * 构造
+	 *
+	 * @param factory 对象工厂
+	 * @param maxIdle 最多保留的空闲对象数，通常取并发线程数
+	 */
+	public CryptoPool(Supplier<T> factory, int maxIdle) {
+		if (maxIdle <= 0) {
+			throw new IllegalArgumentException("maxIdle must be greater than 0, current maxIdle " + maxIdle);
+		}
+		this.factory = factory;
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * 借出对象，使用完毕后必须调用 {@link #release(Object)} 归还
+	 *
+	 * @return 对象
+	 */
+	public T borrow() {
+		final T obj = this.idle.poll();
+		if (null == obj) {
+			return this.factory.get();
+		}
+		this.idleCount.decrementAndGet();
+		return obj;
+	}
+
+	/**
+	 * 归还对象，出现异常的对象也可以归还，下次借出时会重新初始化
+	 *
+	 * @param obj 对象
+	 */
+	public void release(T obj) {
+		if (null == obj) {
+			return;
+		}
+		if (this.idleCount.incrementAndGet() <= this.maxIdle) {
+			this.idle.offer(obj);
+		} else {
+			this.idleCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * 最多保留的空闲对象数
+	 *
+	 * @return 数量
+	 */
+	public int getMaxIdle() {
+		return this.maxIdle;
+	}
+
+	/**
+	 * 当前空闲对象数
+	 *
+	 * @return 数量
+	 */
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+}
@@ -4,6 +4,7 @@ import com.spring.cloud.base.utils.exception.CryptoException;
 
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.Key;
 import java.security.spec.AlgorithmParameterSpec;
@@ -50,6 +51,15 @@ public class DefaultHMacEngine implements MacEngine {
 		init(algorithm, key, spec);
 	}
 
+	/**
+	 * 构造，使用已初始化的 {@link Mac}
+	 *
+	 * @param mac 已初始化密钥的 {@link Mac}
+	 */
+	public DefaultHMacEngine(Mac mac) {
+		this.mac = mac;
+	}
+
 	/**
 	 * 初始化
 	 *
@@ -124,6 +134,16 @@ public class DefaultHMacEngine implements MacEngine {
 		return this.mac.doFinal();
 	}
 
+	@Override
+	public int doFinal(byte[] out, int outOff) {
+		try {
+			this.mac.doFinal(out, outOff);
+		} catch (ShortBufferException e) {
+			throw new CryptoException(e);
+		}
+		return this.mac.getMacLength();
+	}
+
 	@Override
 	public void reset() {
 		this.mac.reset();
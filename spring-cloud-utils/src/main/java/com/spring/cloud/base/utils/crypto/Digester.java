@@ -1,18 +1,29 @@
 package com.spring.cloud.base.utils.crypto;
 
+import com.spring.cloud.base.utils.Assert;
 import com.spring.cloud.base.utils.exception.CryptoException;
 import com.spring.cloud.base.utils.exception.IORuntimeException;
 import com.spring.cloud.base.utils.str.StrUtil;
 import com.spring.cloud.base.utils.utils.*;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @Author: ls
@@ -22,6 +33,16 @@ import java.security.Provider;
 public class Digester implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * 树形摘要默认的分块大小，8MB
+	 */
+	public static final int DEFAULT_TREE_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * 读取文件时直接缓冲区的大小
+	 */
+	static final int READ_BUFFER_SIZE = 256 * 1024;
+
 	private MessageDigest digest;
 	/**
 	 * 盐值
@@ -219,13 +240,23 @@ public class Digester implements Serializable {
 
 	/**
 	 * 生成文件摘要<br>
-	 * 使用默认缓存大小，见 {@link IoUtil#DEFAULT_BUFFER_SIZE}
+	 * 未设置盐值时通过 {@link FileChannel} 读取到直接缓冲区，否则使用默认缓存大小读取，见 {@link IoUtil#DEFAULT_BUFFER_SIZE}
 	 *
 	 * @param file 被摘要文件
 	 * @return 摘要bytes
 	 * @throws CryptoException Cause by IOException
 	 */
 	public byte[] digest(File file) throws CryptoException {
+		if (ArrayUtil.isEmpty(this.salt)) {
+			// 无盐值时读取到直接缓冲区，避免经过流的堆内存复制；不使用内存映射，映射区域要等GC才能释放
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				forEachBlock(channel, 0, channel.size(), this.digest::update);
+				return resetAndRepeatDigest(this.digest.digest());
+			} catch (IOException e) {
+				reset();
+				throw new IORuntimeException(e);
+			}
+		}
 		InputStream in = null;
 		try {
 			in = FileUtil.getInputStream(file);
@@ -246,6 +277,87 @@ public class Digester implements Serializable {
 		return HexUtil.encodeHexStr(digest(file));
 	}
 
+	/**
+	 * 生成文件的树形摘要，使用默认分块大小 {@link #DEFAULT_TREE_CHUNK_SIZE} 和公共的 {@link ForkJoinPool}
+	 *
+	 * @param file 被摘要文件
+	 * @return 摘要bytes
+	 * @see #digestTree(File, int, ForkJoinPool)
+	 */
+	public byte[] digestTree(File file) {
+		return digestTree(file, DEFAULT_TREE_CHUNK_SIZE, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 生成文件的树形摘要，并转为16进制字符串
+	 *
+	 * @param file      被摘要文件
+	 * @param chunkSize 分块大小
+	 * @return 摘要
+	 * @see #digestTree(File, int, ForkJoinPool)
+	 */
+	public String digestTreeHex(File file, int chunkSize) {
+		return HexUtil.encodeHexStr(digestTree(file, chunkSize, ForkJoinPool.commonPool()));
+	}
+
+	/**
+	 * 生成文件的树形摘要<br>
+	 * 文件按chunkSize分块，各块在线程池中并行计算摘要，再对所有分块摘要依次拼接后的结果计算一次摘要，即：
+	 *
+	 * <pre>
+	 * H(H(chunk0) + H(chunk1) + ... + H(chunkN))
+	 * </pre>
+	 * <p>
+	 * 结果与 {@link #digest(File)} 不同，只能与同样分块大小的树形摘要比较；使用MD5时与S3分片上传的ETag计算方式一致<br>
+	 * 树形摘要不支持加盐，重复摘要次数作用于最终结果
+	 *
+	 * @param file      被摘要文件
+	 * @param chunkSize 分块大小
+	 * @param pool      计算分块摘要的线程池
+	 * @return 摘要bytes
+	 * @throws CryptoException 设置了盐值
+	 */
+	public byte[] digestTree(File file, int chunkSize, ForkJoinPool pool) throws CryptoException {
+		if (ArrayUtil.isNotEmpty(this.salt)) {
+			throw new CryptoException("Tree digest does not support salt!");
+		}
+		for (byte[] chunkDigest : digestChunks(file, chunkSize, pool)) {
+			this.digest.update(chunkDigest);
+		}
+		return resetAndRepeatDigest(this.digest.digest());
+	}
+
+	/**
+	 * 并行计算文件各分块的摘要，不考虑盐值和重复摘要次数<br>
+	 * 可用于分片上传时逐片校验，最后一块可能小于chunkSize
+	 *
+	 * @param file      被摘要文件
+	 * @param chunkSize 分块大小
+	 * @param pool      计算分块摘要的线程池
+	 * @return 按顺序排列的分块摘要
+	 * @throws IORuntimeException IO异常
+	 */
+	public List<byte[]> digestChunks(File file, int chunkSize, ForkJoinPool pool) throws IORuntimeException {
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than 0");
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final long size = channel.size();
+			final int count = (int) ((size + chunkSize - 1) / chunkSize);
+			return pool.submit(() -> IntStream.range(0, count).parallel()
+					.mapToObj(i -> digestRange(channel, (long) i * chunkSize, Math.min(chunkSize, size - (long) i * chunkSize)))
+					.collect(Collectors.toList())).get();
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CryptoException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new CryptoException(e.getCause());
+		}
+	}
+
 	/**
 	 * 生成摘要，考虑加盐和重复摘要次数
 	 *
@@ -419,6 +531,58 @@ public class Digester implements Serializable {
 		return this.digest.digest();
 	}
 
+	/**
+	 * 使用独立的{@link MessageDigest}计算文件指定范围的摘要，供并行计算使用
+	 *
+	 * @param channel  文件通道
+	 * @param position 开始位置
+	 * @param length   长度
+	 * @return 摘要bytes
+	 */
+	private byte[] digestRange(FileChannel channel, long position, long length) {
+		final MessageDigest rangeDigest;
+		try {
+			rangeDigest = MessageDigest.getInstance(this.digest.getAlgorithm(), this.digest.getProvider());
+		} catch (NoSuchAlgorithmException e) {
+			throw new CryptoException(e);
+		}
+		try {
+			forEachBlock(channel, position, length, rangeDigest::update);
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+		return rangeDigest.digest();
+	}
+
+	/**
+	 * 按 {@link #READ_BUFFER_SIZE} 分段读取文件指定范围到同一个直接缓冲区，依次交给action处理<br>
+	 * 按位置读取，不改变通道的position，可在多个线程中读取同一通道；action不能在返回后继续持有buffer
+	 *
+	 * @param channel  文件通道
+	 * @param position 开始位置
+	 * @param length   长度
+	 * @param action   读取后的buffer处理
+	 * @throws IOException IO异常，文件在读取过程中变短时抛出 {@link EOFException}
+	 */
+	static void forEachBlock(FileChannel channel, long position, long length, Consumer<ByteBuffer> action) throws IOException {
+		if (length <= 0) {
+			return;
+		}
+		final ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(READ_BUFFER_SIZE, length));
+		final long end = position + length;
+		while (position < end) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), end - position));
+			final int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of file at position " + position);
+			}
+			position += read;
+			buffer.flip();
+			action.accept(buffer);
+		}
+	}
+
 	/**
 	 * 生成摘要
 	 *
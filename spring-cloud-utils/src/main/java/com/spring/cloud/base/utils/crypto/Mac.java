@@ -1,23 +1,25 @@
 package com.spring.cloud.base.utils.crypto;
 
 import com.spring.cloud.base.utils.utils.CharsetUtil;
-import com.spring.cloud.base.utils.utils.FileUtil;
 import com.spring.cloud.base.utils.utils.HexUtil;
 import com.spring.cloud.base.utils.utils.IoUtil;
 import com.spring.cloud.base.utils.base.Base64;
 import com.spring.cloud.base.utils.exception.CryptoException;
 import com.spring.cloud.base.utils.str.StrUtil;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 
 /**
  * @Author: ls
  * @Description: MAC摘要算法
+ * 非线程安全，多线程共享时使用 {@link MacEngineFactory#createThreadLocalEngine} 创建的引擎
  * @Date: 2023/4/13 15:56
  */
 public class Mac implements Serializable {
@@ -111,19 +113,28 @@ public class Mac implements Serializable {
 
 	/**
 	 * 生成文件摘要<br>
-	 * 使用默认缓存大小，见 {@link IoUtil#DEFAULT_BUFFER_SIZE}
+	 * 通过 {@link FileChannel} 读取到直接缓冲区，不受堆内存大小限制
 	 *
 	 * @param file 被摘要文件
 	 * @return 摘要bytes
 	 * @throws CryptoException Cause by IOException
 	 */
 	public byte[] digest(File file) throws CryptoException {
-		InputStream in = null;
-		try {
-			in = FileUtil.getInputStream(file);
-			return digest(in);
+		// 读取到直接缓冲区，每次复制一段到堆内存交给引擎处理
+		final byte[] buffer = new byte[IoUtil.DEFAULT_LARGE_BUFFER_SIZE];
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			Digester.forEachBlock(channel, 0, channel.size(), block -> {
+				while (block.hasRemaining()) {
+					final int length = Math.min(buffer.length, block.remaining());
+					block.get(buffer, 0, length);
+					this.engine.update(buffer, 0, length);
+				}
+			});
+			return this.engine.doFinal();
+		} catch (IOException e) {
+			throw new CryptoException(e);
 		} finally {
-			IoUtil.close(in);
+			this.engine.reset();
 		}
 	}
 
@@ -145,7 +156,12 @@ public class Mac implements Serializable {
 	 * @return 摘要bytes
 	 */
 	public byte[] digest(byte[] data) {
-		return digest(new ByteArrayInputStream(data), -1);
+		try {
+			this.engine.update(data);
+			return this.engine.doFinal();
+		} finally {
+			this.engine.reset();
+		}
 	}
 
 	/**
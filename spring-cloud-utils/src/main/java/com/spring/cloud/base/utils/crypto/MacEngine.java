@@ -40,6 +40,19 @@ public interface MacEngine {
 	 */
 	byte[] doFinal();
 
+	/**
+	 * 结束并将摘要写入给定数组，避免每次分配新的结果数组
+	 *
+	 * @param out    输出数组
+	 * @param outOff 输出起始位置
+	 * @return 写入的长度
+	 */
+	default int doFinal(byte[] out, int outOff) {
+		final byte[] result = doFinal();
+		System.arraycopy(result, 0, out, outOff, result.length);
+		return result.length;
+	}
+
 	/**
 	 * 重置
 	 *
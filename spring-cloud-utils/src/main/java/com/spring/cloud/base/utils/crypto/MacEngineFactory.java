@@ -36,4 +36,33 @@ public class MacEngineFactory {
 		}
 		return new DefaultHMacEngine(algorithm, key, spec);
 	}
+
+	/**
+	 * 根据给定算法和密钥生成线程安全的{@link MacEngine}，可在多个线程间共享
+	 * JDK实现的引擎从初始化好密钥的原型克隆，不再重复初始化密钥
+	 *
+	 * @param algorithm 算法，见{@link HmacAlgorithm}
+	 * @param key       密钥，为null时随机生成，所有线程共用
+	 * @param spec      spec
+	 * @return {@link ThreadLocalMacEngine}
+	 */
+	public static ThreadLocalMacEngine createThreadLocalEngine(String algorithm, Key key, AlgorithmParameterSpec spec) {
+		final Key sharedKey = (null == key) ? SecureUtil.generateKey(algorithm) : key;
+		final MacEngine prototype = createEngine(algorithm, sharedKey, spec);
+		return new ThreadLocalMacEngine(() -> copyEngine(prototype, algorithm, sharedKey, spec));
+	}
+
+	private static MacEngine copyEngine(MacEngine prototype, String algorithm, Key key, AlgorithmParameterSpec spec) {
+		if (prototype instanceof DefaultHMacEngine) {
+			// 原型只用于克隆，从不参与摘要计算
+			synchronized (prototype) {
+				try {
+					return new DefaultHMacEngine((javax.crypto.Mac) ((DefaultHMacEngine) prototype).getMac().clone());
+				} catch (CloneNotSupportedException ignored) {
+					// 部分Provider不支持克隆，退回重新初始化
+				}
+			}
+		}
+		return createEngine(algorithm, key, spec);
+	}
 }
@@ -0,0 +1,374 @@
+package com.spring.cloud.base.utils.crypto;
+
+import com.spring.cloud.base.utils.ExecutorBuilder;
+import com.spring.cloud.base.utils.ThreadFactoryBuilder;
+import com.spring.cloud.base.utils.base.Base64;
+import com.spring.cloud.base.utils.exception.CryptoException;
+import com.spring.cloud.base.utils.str.StrUtil;
+
+import javax.crypto.spec.PBEKeySpec;
+import java.io.Closeable;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * @Author: ls
+ * @Description: 密码哈希服务
+ * BCrypt与PBKDF2在独立的有界线程池中计算并返回 {@link CompletableFuture}，不占用调用方（如Servlet）线程；
+ * 等待队列已满时立即以 {@link RejectedExecutionException} 失败，由调用方决定限流或重试，而不是无限堆积；
+ * 批量重新哈希在按CPU核数并行的work-stealing线程池中执行，与登录请求使用的线程池互不占用
+ * PBKDF2密文格式为：pbkdf2-sha256$迭代次数$盐Base64$哈希Base64
+ * @Date: 2023/5/12 15:40
+ */
+public class PasswordHashingService implements Closeable {
+
+	/**
+	 * PBKDF2密文前缀
+	 */
+	public static final String PBKDF2_PREFIX = "pbkdf2-sha256$";
+
+	/**
+	 * 默认的PBKDF2迭代次数
+	 */
+	public static final int DEFAULT_PBKDF2_ITERATIONS = 310000;
+
+	/**
+	 * 默认的BCrypt强度，校准结果不会低于此值
+	 */
+	public static final int DEFAULT_LOG_ROUNDS = 10;
+
+	private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+
+	private static final int PBKDF2_SALT_LENGTH = 16;
+
+	private static final int PBKDF2_KEY_LENGTH = 256;
+
+	/**
+	 * 校准时使用的强度，耗时足够稳定又不会拖慢启动
+	 */
+	private static final int CALIBRATION_LOG_ROUNDS = 6;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ForkJoinPool batchPool;
+
+	private final SecureRandom random = new SecureRandom();
+
+	private volatile int logRounds = DEFAULT_LOG_ROUNDS;
+
+	private volatile int minLogRounds = DEFAULT_LOG_ROUNDS;
+
+	private volatile int pbkdf2Iterations = DEFAULT_PBKDF2_ITERATIONS;
+
+	private final LongAdder hashCount = new LongAdder();
+
+	private final LongAdder hashNanos = new LongAdder();
+
+	private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0L);
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	/**
+	 * 构造，线程数为CPU核数，等待队列容量为 {@link ExecutorBuilder#DEFAULT_QUEUE_CAPACITY}
+	 */
+	public PasswordHashingService() {
+		this(Runtime.getRuntime().availableProcessors(), ExecutorBuilder.DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * 构造
+	 *
+	 * @param threads       计算线程数，通常不超过CPU核数
+	 * @param queueCapacity 等待队列容量，超出时拒绝新的请求
+	 */
+	public PasswordHashingService(int threads, int queueCapacity) {
+		this.executor = ExecutorBuilder.create()
+				.setCorePoolSize(threads)
+				.setMaxPoolSize(threads)
+				.useArrayBlockingQueue(queueCapacity)
+				.setThreadFactory(ThreadFactoryBuilder.create().setNamePrefix("password-hash-").setDaemon(true).build())
+				.setHandler(new ThreadPoolExecutor.AbortPolicy())
+				.build();
+		this.batchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * 创建并按目标耗时校准BCrypt强度
+	 *
+	 * @param targetMillis 单次哈希的目标耗时，单位：毫秒
+	 * @return PasswordHashingService
+	 * @see #calibrate(long)
+	 */
+	public static PasswordHashingService calibrated(long targetMillis) {
+		final PasswordHashingService service = new PasswordHashingService();
+		service.calibrate(targetMillis);
+		return service;
+	}
+
+	/**
+	 * 测量本机的BCrypt速度，选择耗时最接近且不超过目标的强度<br>
+	 * BCrypt的强度每加1耗时翻倍，因此只需测量一个较低强度再推算；结果不低于 {@link #setMinLogRounds(int)}
+	 *
+	 * @param targetMillis 单次哈希的目标耗时，单位：毫秒
+	 * @return 选择的强度
+	 */
+	public int calibrate(long targetMillis) {
+		final String salt = BCrypt.gensalt(CALIBRATION_LOG_ROUNDS, this.random);
+		// 预热后取最快的一次，排除JIT编译与调度的干扰
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < 8; i++) {
+			final long start = System.nanoTime();
+			BCrypt.hashpw("calibration", salt);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		int rounds = CALIBRATION_LOG_ROUNDS;
+		final long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+		while (rounds < 30 && best * 2 <= targetNanos) {
+			best *= 2;
+			rounds++;
+		}
+		this.logRounds = Math.max(rounds, this.minLogRounds);
+		return this.logRounds;
+	}
+
+	/**
+	 * 设置BCrypt强度
+	 *
+	 * @param logRounds 强度，4~30
+	 * @return this
+	 */
+	public PasswordHashingService setLogRounds(int logRounds) {
+		if (logRounds < 4 || logRounds > 30) {
+			throw new IllegalArgumentException("logRounds must be between 4 and 30, current logRounds " + logRounds);
+		}
+		this.logRounds = logRounds;
+		return this;
+	}
+
+	/**
+	 * 设置校准结果的最低强度
+	 *
+	 * @param minLogRounds 最低强度
+	 * @return this
+	 */
+	public PasswordHashingService setMinLogRounds(int minLogRounds) {
+		this.minLogRounds = minLogRounds;
+		return this;
+	}
+
+	/**
+	 * 设置PBKDF2迭代次数
+	 *
+	 * @param pbkdf2Iterations 迭代次数
+	 * @return this
+	 */
+	public PasswordHashingService setPbkdf2Iterations(int pbkdf2Iterations) {
+		this.pbkdf2Iterations = pbkdf2Iterations;
+		return this;
+	}
+
+	/**
+	 * 当前使用的BCrypt强度
+	 *
+	 * @return 强度
+	 */
+	public int getLogRounds() {
+		return this.logRounds;
+	}
+
+	/**
+	 * 使用BCrypt生成密文
+	 *
+	 * @param password 明文密码
+	 * @return 密文，队列已满时以 {@link RejectedExecutionException} 失败
+	 */
+	public CompletableFuture<String> hash(String password) {
+		final int logRounds = this.logRounds;
+		return submit(() -> BCrypt.hashpw(password, BCrypt.gensalt(logRounds, this.random)));
+	}
+
+	/**
+	 * 使用PBKDF2生成密文
+	 *
+	 * @param password 明文密码
+	 * @return 密文，队列已满时以 {@link RejectedExecutionException} 失败
+	 */
+	public CompletableFuture<String> hashPbkdf2(String password) {
+		final int iterations = this.pbkdf2Iterations;
+		return submit(() -> pbkdf2(password, iterations));
+	}
+
+	/**
+	 * 校验密码，根据密文格式自动选择BCrypt或PBKDF2
+	 *
+	 * @param password 明文密码
+	 * @param hashed   密文
+	 * @return 是否匹配，队列已满时以 {@link RejectedExecutionException} 失败
+	 */
+	public CompletableFuture<Boolean> verify(String password, String hashed) {
+		return submit(() -> matches(password, hashed));
+	}
+
+	/**
+	 * 批量生成BCrypt密文，例如迁移旧密文时，在所有CPU核上并行计算，不受等待队列容量限制
+	 *
+	 * @param passwords 明文密码列表
+	 * @return 密文列表，顺序与输入一致
+	 */
+	public CompletableFuture<List<String>> hashAll(List<String> passwords) {
+		final int logRounds = this.logRounds;
+		return CompletableFuture.supplyAsync(() -> passwords.parallelStream()
+				.map(password -> timed(() -> BCrypt.hashpw(password, BCrypt.gensalt(logRounds, this.random))))
+				.collect(Collectors.toList()), this.batchPool);
+	}
+
+	/**
+	 * 密文是否需要重新哈希，即不是BCrypt密文或强度低于当前强度，通常在登录校验通过后判断
+	 *
+	 * @param hashed 密文
+	 * @return 是否需要重新哈希
+	 */
+	public boolean needsRehash(String hashed) {
+		if (null == hashed || false == hashed.startsWith("$2")) {
+			return true;
+		}
+		try {
+			final int off = hashed.charAt(3) == '$' ? 4 : 3;
+			return Integer.parseInt(hashed.substring(off, off + 2)) < this.logRounds;
+		} catch (RuntimeException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * 等待队列中的任务数
+	 *
+	 * @return 任务数
+	 */
+	public int getQueueDepth() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * 正在计算的任务数
+	 *
+	 * @return 任务数
+	 */
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+	/**
+	 * 因队列已满被拒绝的次数
+	 *
+	 * @return 次数
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * 已完成的哈希次数，包括校验与批量任务
+	 *
+	 * @return 次数
+	 */
+	public long getHashCount() {
+		return this.hashCount.sum();
+	}
+
+	/**
+	 * 平均哈希耗时，不含排队时间
+	 *
+	 * @return 耗时，单位：毫秒
+	 */
+	public double getAverageHashMillis() {
+		final long count = this.hashCount.sum();
+		return count == 0 ? 0 : this.hashNanos.sum() / 1e6 / count;
+	}
+
+	/**
+	 * 最长哈希耗时，不含排队时间
+	 *
+	 * @return 耗时，单位：毫秒
+	 */
+	public double getMaxHashMillis() {
+		return this.maxHashNanos.get() / 1e6;
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdown();
+		this.batchPool.shutdown();
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> task) {
+		try {
+			return CompletableFuture.supplyAsync(() -> timed(task), this.executor);
+		} catch (RejectedExecutionException e) {
+			this.rejectedCount.increment();
+			final CompletableFuture<T> future = new CompletableFuture<>();
+			future.completeExceptionally(e);
+			return future;
+		}
+	}
+
+	private <T> T timed(Supplier<T> task) {
+		final long start = System.nanoTime();
+		try {
+			return task.get();
+		} finally {
+			final long elapsed = System.nanoTime() - start;
+			this.hashCount.increment();
+			this.hashNanos.add(elapsed);
+			this.maxHashNanos.accumulate(elapsed);
+		}
+	}
+
+	private static boolean matches(String password, String hashed) {
+		if (StrUtil.startWith(hashed, PBKDF2_PREFIX)) {
+			final String[] parts = hashed.substring(PBKDF2_PREFIX.length()).split("\\$");
+			if (parts.length != 3) {
+				return false;
+			}
+			final byte[] expected;
+			final byte[] actual;
+			try {
+				expected = Base64.decode(parts[2]);
+				actual = pbkdf2(password, Base64.decode(parts[1]), Integer.parseInt(parts[0]), expected.length * 8);
+			} catch (RuntimeException e) {
+				return false;
+			}
+			return MessageDigest.isEqual(expected, actual);
+		}
+		return BCrypt.checkpw(password, hashed);
+	}
+
+	private String pbkdf2(String password, int iterations) {
+		final byte[] salt = new byte[PBKDF2_SALT_LENGTH];
+		this.random.nextBytes(salt);
+		final byte[] hash = pbkdf2(password, salt, iterations, PBKDF2_KEY_LENGTH);
+		return PBKDF2_PREFIX + iterations + '$' + Base64.encode(salt) + '$' + Base64.encode(hash);
+	}
+
+	private static byte[] pbkdf2(String password, byte[] salt, int iterations, int keyLength) {
+		final PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyLength);
+		try {
+			return KeyUtil.getSecretKeyFactory(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new CryptoException(e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+}
@@ -9,6 +9,7 @@ import java.security.PublicKey;
 import java.security.interfaces.RSAKey;
 import java.security.spec.RSAPrivateKeySpec;
 import java.security.spec.RSAPublicKeySpec;
+import java.util.List;
 
 /**
  * @Author: ls
@@ -143,22 +144,49 @@ public class RSA extends AsymmetricCrypto {
 
 	@Override
 	public byte[] encrypt(byte[] data, KeyType keyType) {
-		// 在非使用BC库情况下，blockSize使用默认的算法
+		initEncryptBlockSize(keyType);
+		return super.encrypt(data, keyType);
+	}
+
+	@Override
+	public List<byte[]> encryptAll(List<byte[]> dataList, KeyType keyType) {
+		initEncryptBlockSize(keyType);
+		return super.encryptAll(dataList, keyType);
+	}
+
+	@Override
+	public byte[] decrypt(byte[] bytes, KeyType keyType) {
+		initDecryptBlockSize(keyType);
+		return super.decrypt(bytes, keyType);
+	}
+
+	@Override
+	public List<byte[]> decryptAll(List<byte[]> dataList, KeyType keyType) {
+		initDecryptBlockSize(keyType);
+		return super.decryptAll(dataList, keyType);
+	}
+
+	/**
+	 * 在非使用BC库情况下，加密blockSize使用默认的算法
+	 *
+	 * @param keyType 私钥或公钥 {@link KeyType}
+	 */
+	private void initEncryptBlockSize(KeyType keyType) {
 		if (this.encryptBlockSize < 0 && null == GlobalBouncyCastleProvider.INSTANCE.getProvider()) {
 			// 加密数据长度 <= 模长-11
 			this.encryptBlockSize = ((RSAKey) getKeyByType(keyType)).getModulus().bitLength() / 8 - 11;
 		}
-		return super.encrypt(data, keyType);
 	}
 
-	@Override
-	public byte[] decrypt(byte[] bytes, KeyType keyType) {
-		// 在非使用BC库情况下，blockSize使用默认的算法
+	/**
+	 * 在非使用BC库情况下，解密blockSize使用默认的算法
+	 *
+	 * @param keyType 私钥或公钥 {@link KeyType}
+	 */
+	private void initDecryptBlockSize(KeyType keyType) {
 		if (this.decryptBlockSize < 0 && null == GlobalBouncyCastleProvider.INSTANCE.getProvider()) {
-			// 加密数据长度 <= 模长-11
 			this.decryptBlockSize = ((RSAKey) getKeyByType(keyType)).getModulus().bitLength() / 8;
 		}
-		return super.decrypt(bytes, keyType);
 	}
 
 	@Override
@@ -0,0 +1,284 @@
+package com.spring.cloud.base.utils.crypto;
+
+import com.spring.cloud.base.utils.exception.CryptoException;
+import com.spring.cloud.base.utils.exception.IORuntimeException;
+import com.spring.cloud.base.utils.utils.HexUtil;
+import com.spring.cloud.base.utils.utils.IoUtil;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.EncodableDigest;
+import org.bouncycastle.crypto.digests.MD5Digest;
+import org.bouncycastle.crypto.digests.SHA1Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA384Digest;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.util.Memoable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @Author: ls
+ * @Description: 可断点续算的增量摘要
+ * 摘要的中间状态可以通过 {@link #checkpoint()} 导出并持久化，之后通过 {@link #restore(byte[])} 恢复后继续追加数据，
+ * 适用于分片上传时边接收边校验，服务重启后从已校验的位置继续<br>
+ * 基于Bouncy Castle实现，支持MD5、SHA-1、SHA-256、SHA-384、SHA-512，非线程安全
+ * @Date: 2023/5/16 10:12
+ */
+public class ResumableDigester {
+
+	/**
+	 * 检查点格式版本
+	 */
+	private static final byte VERSION = 1;
+
+	private final DigestAlgorithm algorithm;
+
+	private final Digest digest;
+
+	/**
+	 * 已处理的字节数
+	 */
+	private long position;
+
+	/**
+	 * 构造
+	 *
+	 * @param algorithm 算法，不支持MD2
+	 */
+	public ResumableDigester(DigestAlgorithm algorithm) {
+		this(algorithm, createDigest(algorithm, null), 0);
+	}
+
+	private ResumableDigester(DigestAlgorithm algorithm, Digest digest, long position) {
+		this.algorithm = algorithm;
+		this.digest = digest;
+		this.position = position;
+	}
+
+	/**
+	 * 从检查点恢复
+	 *
+	 * @param checkpoint {@link #checkpoint()} 导出的检查点
+	 * @return ResumableDigester
+	 * @throws CryptoException 检查点格式错误或被截断
+	 */
+	public static ResumableDigester restore(byte[] checkpoint) throws CryptoException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(checkpoint))) {
+			final byte version = in.readByte();
+			if (VERSION != version) {
+				throw new CryptoException("Unsupported checkpoint version: {}", version);
+			}
+			final DigestAlgorithm algorithm = DigestAlgorithm.valueOf(in.readUTF());
+			final long position = in.readLong();
+			final int length = in.readInt();
+			// 长度先与剩余数据比较，避免按损坏的长度分配数组
+			if (position < 0 || length < 0 || length > in.available()) {
+				throw new CryptoException("Invalid checkpoint!");
+			}
+			final byte[] state = new byte[length];
+			in.readFully(state);
+			return new ResumableDigester(algorithm, createDigest(algorithm, state), position);
+		} catch (IOException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new CryptoException(e, "Invalid checkpoint!");
+		}
+	}
+
+	/**
+	 * 追加数据
+	 *
+	 * @param data 数据
+	 * @return this
+	 */
+	public ResumableDigester update(byte[] data) {
+		return update(data, 0, data.length);
+	}
+
+	/**
+	 * 追加数据
+	 *
+	 * @param data   数据
+	 * @param offset 开始位置
+	 * @param length 长度
+	 * @return this
+	 */
+	public ResumableDigester update(byte[] data, int offset, int length) {
+		this.digest.update(data, offset, length);
+		this.position += length;
+		return this;
+	}
+
+	/**
+	 * 追加buffer中剩余的数据，处理后buffer的position移动到limit
+	 *
+	 * @param data 数据
+	 * @return this
+	 */
+	public ResumableDigester update(ByteBuffer data) {
+		if (data.hasArray()) {
+			final int length = data.remaining();
+			update(data.array(), data.arrayOffset() + data.position(), length);
+			data.position(data.limit());
+			return this;
+		}
+		final byte[] buffer = new byte[Math.min(data.remaining(), IoUtil.DEFAULT_LARGE_BUFFER_SIZE)];
+		while (data.hasRemaining()) {
+			final int length = Math.min(buffer.length, data.remaining());
+			data.get(buffer, 0, length);
+			update(buffer, 0, length);
+		}
+		return this;
+	}
+
+	/**
+	 * 追加流中的全部数据，不关闭流
+	 *
+	 * @param in 数据流
+	 * @return 本次读取的字节数
+	 * @throws IORuntimeException IO异常
+	 */
+	public long update(InputStream in) throws IORuntimeException {
+		final byte[] buffer = new byte[IoUtil.DEFAULT_BUFFER_SIZE];
+		long total = 0;
+		try {
+			for (int read; (read = in.read(buffer)) > -1; ) {
+				update(buffer, 0, read);
+				total += read;
+			}
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+		return total;
+	}
+
+	/**
+	 * 从 {@link #getPosition()} 处继续读取文件直到末尾，文件读取到直接缓冲区后分段追加<br>
+	 * 用于校验不断追加写入的文件，例如分片上传中的临时文件
+	 *
+	 * @param file 文件
+	 * @return 本次读取的字节数
+	 * @throws IORuntimeException IO异常
+	 */
+	public long resume(File file) throws IORuntimeException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final long start = this.position;
+			final long size = channel.size();
+			if (size < start) {
+				throw new CryptoException("File [{}] is shorter than digested position {}", file, start);
+			}
+			final byte[] buffer = new byte[IoUtil.DEFAULT_LARGE_BUFFER_SIZE];
+			Digester.forEachBlock(channel, start, size - start, block -> {
+				while (block.hasRemaining()) {
+					final int length = Math.min(buffer.length, block.remaining());
+					block.get(buffer, 0, length);
+					update(buffer, 0, length);
+				}
+			});
+			return size - start;
+		} catch (IOException e) {
+			throw new IORuntimeException(e);
+		}
+	}
+
+	/**
+	 * 导出当前中间状态，可持久化后通过 {@link #restore(byte[])} 恢复
+	 *
+	 * @return 检查点
+	 */
+	public byte[] checkpoint() {
+		final byte[] state = ((EncodableDigest) this.digest).getEncodedState();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(state.length + 32);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(VERSION);
+			out.writeUTF(this.algorithm.name());
+			out.writeLong(this.position);
+			out.writeInt(state.length);
+			out.write(state);
+		} catch (IOException e) {
+			// ByteArrayOutputStream不会抛出IO异常
+			throw new IORuntimeException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * 计算目前为止已追加数据的摘要，不影响中间状态，之后可继续追加数据
+	 *
+	 * @return 摘要bytes
+	 */
+	public byte[] digest() {
+		final Digest copy = (Digest) ((Memoable) this.digest).copy();
+		final byte[] result = new byte[copy.getDigestSize()];
+		copy.doFinal(result, 0);
+		return result;
+	}
+
+	/**
+	 * 计算目前为止已追加数据的摘要，并转为16进制字符串
+	 *
+	 * @return 摘要
+	 */
+	public String digestHex() {
+		return HexUtil.encodeHexStr(digest());
+	}
+
+	/**
+	 * 重置为初始状态
+	 *
+	 * @return this
+	 */
+	public ResumableDigester reset() {
+		this.digest.reset();
+		this.position = 0;
+		return this;
+	}
+
+	/**
+	 * 已处理的字节数
+	 *
+	 * @return 字节数
+	 */
+	public long getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * 获取算法
+	 *
+	 * @return 算法
+	 */
+	public DigestAlgorithm getAlgorithm() {
+		return this.algorithm;
+	}
+
+	/**
+	 * 创建Bouncy Castle摘要对象
+	 *
+	 * @param algorithm 算法
+	 * @param state     中间状态，null表示新建
+	 * @return 摘要对象
+	 */
+	private static Digest createDigest(DigestAlgorithm algorithm, byte[] state) {
+		switch (algorithm) {
+			case MD5:
+				return null == state ? new MD5Digest() : new MD5Digest(state);
+			case SHA1:
+				return null == state ? new SHA1Digest() : new SHA1Digest(state);
+			case SHA256:
+				return null == state ? new SHA256Digest() : new SHA256Digest(state);
+			case SHA384:
+				return null == state ? new SHA384Digest() : new SHA384Digest(state);
+			case SHA512:
+				return null == state ? new SHA512Digest() : new SHA512Digest(state);
+			default:
+				throw new CryptoException("Unsupported resumable digest algorithm: {}", algorithm.getValue());
+		}
+	}
+}
@@ -8,6 +8,8 @@ import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.InvalidCipherTextException;
 import org.bouncycastle.crypto.digests.SM3Digest;
 import org.bouncycastle.crypto.engines.SM2Engine;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECKeyParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.crypto.params.ParametersWithID;
@@ -16,12 +18,21 @@ import org.bouncycastle.crypto.signers.DSAEncoding;
 import org.bouncycastle.crypto.signers.PlainDSAEncoding;
 import org.bouncycastle.crypto.signers.SM2Signer;
 import org.bouncycastle.crypto.signers.StandardDSAEncoding;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.math.ec.WNafUtil;
 import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.Memoable;
 import org.bouncycastle.util.encoders.Hex;
 
 import java.math.BigInteger;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * @Author: ls
@@ -46,6 +57,12 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	private Digest digest = new SM3Digest();
 	private SM2Engine.Mode mode = SM2Engine.Mode.C1C3C2;
 
+	/**
+	 * 引擎与签名器对象池，为null时共用一个引擎与签名器并加锁
+	 */
+	private transient CryptoPool<SM2Engine> enginePool;
+	private transient CryptoPool<PreparedSigner> signerPool;
+
 	// ------------------------------------------------------------------ Constructor start
 
 	/**
@@ -136,8 +153,8 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 */
 	public SM2(ECPrivateKeyParameters privateKeyParams, ECPublicKeyParameters publicKeyParams) {
 		super(ALGORITHM_SM2, null, null);
-		this.privateKeyParams = privateKeyParams;
-		this.publicKeyParams = publicKeyParams;
+		this.privateKeyParams = toSm2Domain(privateKeyParams);
+		this.publicKeyParams = toSm2Domain(publicKeyParams);
 		this.init();
 	}
 
@@ -153,8 +170,56 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	public SM2 init() {
 		if (null == this.privateKeyParams && null == this.publicKeyParams) {
 			super.initKeys();
-			this.privateKeyParams = BCUtil.toParams(this.privateKey);
-			this.publicKeyParams = BCUtil.toParams(this.publicKey);
+			this.privateKeyParams = toSm2Domain(BCUtil.toParams(this.privateKey));
+			this.publicKeyParams = toSm2Domain(BCUtil.toParams(this.publicKey));
+		}
+		return this;
+	}
+
+	/**
+	 * 设置引擎与签名器对象池大小<br>
+	 * 大于0时加解密、签名验签各自从池中借用{@link SM2Engine}、{@link SM2Signer}，每个对象持有独立的摘要，不再共用一把锁；
+	 * 池中的签名器会记住初始化时的密钥和ID，参数不变时不再重复初始化，省去签名时每次根据私钥计算公钥点与Z值的开销；
+	 * 摘要算法必须实现{@link Memoable}才能复制，默认的SM3满足要求
+	 *
+	 * @param poolSize 最多保留的空闲对象数，通常取并发线程数，不大于0表示关闭对象池
+	 * @return this
+	 */
+	public SM2 setPoolSize(int poolSize) {
+		if (poolSize <= 0) {
+			this.enginePool = null;
+			this.signerPool = null;
+			return this;
+		}
+		Assert.notNull(this.digest, "digest must be not null !");
+		if (false == this.digest instanceof Memoable) {
+			throw new CryptoException("Digest [{}] can not be copied for pooling!", this.digest.getAlgorithmName());
+		}
+		// 复制一份从不使用的摘要作为原型，避免与其它线程中的摘要状态互相影响
+		final Memoable prototype = ((Memoable) this.digest).copy();
+		((Digest) prototype).reset();
+		final SM2Engine.Mode mode = this.mode;
+		final DSAEncoding encoding = this.encoding;
+		this.enginePool = new CryptoPool<>(() -> new SM2Engine((Digest) prototype.copy(), mode), poolSize);
+		this.signerPool = new CryptoPool<>(() -> new PreparedSigner(new SM2Signer(encoding, (Digest) prototype.copy())), poolSize);
+		return this;
+	}
+
+	/**
+	 * 预计算基点G与公钥Q的定点乘法表<br>
+	 * BC会在同一个点被多次使用后才建立较大的预计算表并切换到定点算法，此方法提前完成这一过程，
+	 * 使首次签名、验签即可使用预计算表；基点的预计算表由所有使用SM2推荐曲线的对象共享<br>
+	 * 配合{@link #setPoolSize(int)}使用即为高性能模式，适合长期持有同一密钥并频繁签名验签的场景
+	 *
+	 * @return this
+	 */
+	public SM2 precompute() {
+		final ECKeyParameters keyParams = null != this.publicKeyParams ? this.publicKeyParams : this.privateKeyParams;
+		Assert.notNull(keyParams, "PublicKey or PrivateKey must be not null !");
+		final ECDomainParameters domainParams = keyParams.getParameters();
+		precompute(domainParams.getG(), domainParams.getN());
+		if (null != this.publicKeyParams) {
+			precompute(this.publicKeyParams.getQ(), domainParams.getN());
 		}
 		return this;
 	}
@@ -224,16 +289,18 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 *
 	 */
 	public byte[] encrypt(byte[] data, CipherParameters pubKeyParameters) throws CryptoException {
-		lock.lock();
-		final SM2Engine engine = getEngine();
-		try {
-			engine.init(true, pubKeyParameters);
-			return engine.processBlock(data, 0, data.length);
-		} catch (InvalidCipherTextException e) {
-			throw new CryptoException(e);
-		} finally {
-			lock.unlock();
-		}
+		return process(true, Collections.singletonList(data), pubKeyParameters).get(0);
+	}
+
+	/**
+	 * 使用公钥批量加密，整批数据只借用并初始化一次引擎，每条数据使用独立的随机数
+	 *
+	 * @param dataList 被加密的数据列表
+	 * @return 加密后的数据列表，顺序与输入一致
+	 * @throws CryptoException 包括InvalidKeyException和InvalidCipherTextException的包装异常
+	 */
+	public List<byte[]> encryptAll(List<byte[]> dataList) throws CryptoException {
+		return process(true, dataList, new ParametersWithRandom(getCipherParameters(KeyType.PublicKey)));
 	}
 
 	// --------------------------------------------------------------------------------- Decrypt
@@ -275,16 +342,18 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 * 
 	 */
 	public byte[] decrypt(byte[] data, CipherParameters privateKeyParameters) throws CryptoException {
-		lock.lock();
-		final SM2Engine engine = getEngine();
-		try {
-			engine.init(false, privateKeyParameters);
-			return engine.processBlock(data, 0, data.length);
-		} catch (InvalidCipherTextException e) {
-			throw new CryptoException(e);
-		} finally {
-			lock.unlock();
-		}
+		return process(false, Collections.singletonList(data), privateKeyParameters).get(0);
+	}
+
+	/**
+	 * 使用私钥批量解密，整批数据只借用并初始化一次引擎
+	 *
+	 * @param dataList SM2密文列表
+	 * @return 解密后的数据列表，顺序与输入一致
+	 * @throws CryptoException 包括InvalidKeyException和InvalidCipherTextException的包装异常
+	 */
+	public List<byte[]> decryptAll(List<byte[]> dataList) throws CryptoException {
+		return process(false, dataList, getCipherParameters(KeyType.PrivateKey));
 	}
 	// --------------------------------------------------------------------------------- Sign and Verify
 
@@ -329,20 +398,32 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 * @return 签名
 	 */
 	public byte[] sign(byte[] data, byte[] id) {
-		lock.lock();
-		final SM2Signer signer = getSigner();
+		final CipherParameters keyParams = getCipherParameters(KeyType.PrivateKey);
+		final CryptoPool<PreparedSigner> pool = this.signerPool;
+		final PreparedSigner prepared = null == pool ? null : pool.borrow();
+		final SM2Signer signer;
+		if (null == prepared) {
+			lock.lock();
+			signer = getSigner();
+		} else {
+			signer = prepared.signer;
+		}
 		try {
-			CipherParameters param = new ParametersWithRandom(getCipherParameters(KeyType.PrivateKey));
-			if (id != null) {
-				param = new ParametersWithID(param, id);
+			if (null == prepared) {
+				signer.init(true, withId(new ParametersWithRandom(keyParams), id));
+			} else {
+				prepared.prepare(true, (ECKeyParameters) keyParams, id);
 			}
-			signer.init(true, param);
 			signer.update(data, 0, data.length);
 			return signer.generateSignature();
 		} catch (org.bouncycastle.crypto.CryptoException e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
+			if (null == prepared) {
+				lock.unlock();
+			} else {
+				pool.release(prepared);
+			}
 		}
 	}
 
@@ -391,19 +472,63 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 * @return 是否验证通过
 	 */
 	public boolean verify(byte[] data, byte[] sign, byte[] id) {
-		lock.lock();
-		final SM2Signer signer = getSigner();
+		final CipherParameters keyParams = getCipherParameters(KeyType.PublicKey);
+		final CryptoPool<PreparedSigner> pool = this.signerPool;
+		final PreparedSigner prepared = null == pool ? null : pool.borrow();
+		final SM2Signer signer;
+		if (null == prepared) {
+			lock.lock();
+			signer = getSigner();
+		} else {
+			signer = prepared.signer;
+		}
 		try {
-			CipherParameters param = getCipherParameters(KeyType.PublicKey);
-			if (id != null) {
-				param = new ParametersWithID(param, id);
+			if (null == prepared) {
+				signer.init(false, withId(keyParams, id));
+			} else {
+				prepared.prepare(false, (ECKeyParameters) keyParams, id);
 			}
-			signer.init(false, param);
 			signer.update(data, 0, data.length);
 			return signer.verifySignature(sign);
 		} finally {
-			lock.unlock();
+			if (null == prepared) {
+				lock.unlock();
+			} else {
+				pool.release(prepared);
+			}
+		}
+	}
+
+	/**
+	 * 用公钥批量检验数字签名的合法性，使用默认ID
+	 *
+	 * @param dataList 签名后的数据列表
+	 * @param signList 签名列表，与数据一一对应
+	 * @return 每条签名是否验证通过，顺序与输入一致
+	 * @see #verifyAll(List, List, byte[])
+	 */
+	public boolean[] verifyAll(List<byte[]> dataList, List<byte[]> signList) {
+		return verifyAll(dataList, signList, null);
+	}
+
+	/**
+	 * 用公钥批量检验数字签名的合法性<br>
+	 * 开启对象池时在公共{@link java.util.concurrent.ForkJoinPool}中并行校验，充分利用多核；未开启时各线程会争用同一把锁，因此依次校验
+	 *
+	 * @param dataList 签名后的数据列表
+	 * @param signList 签名列表，与数据一一对应
+	 * @param id       可以为null，若为null，则默认withId为字节数组:"1234567812345678".getBytes()
+	 * @return 每条签名是否验证通过，顺序与输入一致
+	 */
+	public boolean[] verifyAll(List<byte[]> dataList, List<byte[]> signList, byte[] id) {
+		Assert.isTrue(dataList.size() == signList.size(), "Size of data list {} and sign list {} not match!", dataList.size(), signList.size());
+		final boolean[] result = new boolean[dataList.size()];
+		IntStream indexes = IntStream.range(0, result.length);
+		if (null != this.signerPool) {
+			indexes = indexes.parallel();
 		}
+		indexes.forEach(i -> result[i] = verify(dataList.get(i), signList.get(i), id));
+		return result;
 	}
 
 	@Override
@@ -411,7 +536,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 		super.setPrivateKey(privateKey);
 
 		// 重新初始化密钥参数，防止重新设置密钥时导致密钥无法更新
-		this.privateKeyParams = BCUtil.toParams(privateKey);
+		this.privateKeyParams = toSm2Domain(BCUtil.toParams(privateKey));
 
 		return this;
 	}
@@ -424,7 +549,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 * 
 	 */
 	public SM2 setPrivateKeyParams(ECPrivateKeyParameters privateKeyParams) {
-		this.privateKeyParams = privateKeyParams;
+		this.privateKeyParams = toSm2Domain(privateKeyParams);
 		return this;
 	}
 
@@ -433,7 +558,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 		super.setPublicKey(publicKey);
 
 		// 重新初始化密钥参数，防止重新设置密钥时导致密钥无法更新
-		this.publicKeyParams = BCUtil.toParams(publicKey);
+		this.publicKeyParams = toSm2Domain(BCUtil.toParams(publicKey));
 
 		return this;
 	}
@@ -445,7 +570,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	 * @return this
 	 */
 	public SM2 setPublicKeyParams(ECPublicKeyParameters publicKeyParams) {
-		this.publicKeyParams = publicKeyParams;
+		this.publicKeyParams = toSm2Domain(publicKeyParams);
 		return this;
 	}
 
@@ -469,6 +594,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	public SM2 setEncoding(DSAEncoding encoding) {
 		this.encoding = encoding;
 		this.signer = null;
+		resetPool();
 		return this;
 	}
 
@@ -483,6 +609,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 		this.digest = digest;
 		this.engine = null;
 		this.signer = null;
+		resetPool();
 		return this;
 	}
 
@@ -495,6 +622,7 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 	public SM2 setMode(SM2Engine.Mode mode) {
 		this.mode = mode;
 		this.engine = null;
+		resetPool();
 		return this;
 	}
 
@@ -560,6 +688,116 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 		return null;
 	}
 
+	/**
+	 * 为密钥参数附加用户ID
+	 *
+	 * @param param 密钥参数
+	 * @param id    用户ID，null表示使用默认ID
+	 * @return 密钥参数
+	 */
+	private static CipherParameters withId(CipherParameters param, byte[] id) {
+		return null == id ? param : new ParametersWithID(param, id);
+	}
+
+	/**
+	 * 使用SM2推荐曲线的私钥参数统一替换为{@link SmUtil#SM2_DOMAIN_PARAMS}，
+	 * 从PKCS#8等格式解码的密钥各自持有曲线与基点的副本，替换后基点的预计算表可在所有对象间共享
+	 *
+	 * @param params 私钥参数
+	 * @return 私钥参数
+	 */
+	private static ECPrivateKeyParameters toSm2Domain(ECPrivateKeyParameters params) {
+		if (null == params || false == isSm2Domain(params.getParameters())) {
+			return params;
+		}
+		return new ECPrivateKeyParameters(params.getD(), SmUtil.SM2_DOMAIN_PARAMS);
+	}
+
+	/**
+	 * 使用SM2推荐曲线的公钥参数统一替换为{@link SmUtil#SM2_DOMAIN_PARAMS}
+	 *
+	 * @param params 公钥参数
+	 * @return 公钥参数
+	 */
+	private static ECPublicKeyParameters toSm2Domain(ECPublicKeyParameters params) {
+		if (null == params || false == isSm2Domain(params.getParameters())) {
+			return params;
+		}
+		return new ECPublicKeyParameters(SmUtil.SM2_DOMAIN_PARAMS.getCurve().importPoint(params.getQ()), SmUtil.SM2_DOMAIN_PARAMS);
+	}
+
+	/**
+	 * 是否为SM2推荐曲线，且不是{@link SmUtil#SM2_DOMAIN_PARAMS}本身
+	 *
+	 * @param domainParams 曲线参数
+	 * @return 是否需要替换
+	 */
+	private static boolean isSm2Domain(ECDomainParameters domainParams) {
+		final ECDomainParameters sm2 = SmUtil.SM2_DOMAIN_PARAMS;
+		return sm2 != domainParams
+				&& sm2.getCurve().equals(domainParams.getCurve())
+				&& sm2.getG().equals(domainParams.getG());
+	}
+
+	/**
+	 * 建立点的定点乘法表，并提前完成BC对WNAF预计算表的晋升
+	 *
+	 * @param point 点
+	 * @param order 阶
+	 */
+	private static void precompute(ECPoint point, BigInteger order) {
+		FixedPointUtil.precompute(point);
+		final int width = WNafUtil.getWindowSize(order.bitLength(), 8);
+		// BC在同一个点第5次预计算时晋升，多次调用不会重复计算
+		for (int i = 0; i < 8 && false == WNafUtil.precompute(point, width, true).isPromoted(); i++) {
+			// 继续
+		}
+	}
+
+	/**
+	 * 使用同一个引擎依次加密或解密，开启对象池时从池中借用引擎，否则加锁后使用共享的引擎
+	 *
+	 * @param forEncryption 是否加密
+	 * @param dataList      数据列表
+	 * @param params        密钥参数
+	 * @return 结果列表
+	 */
+	private List<byte[]> process(boolean forEncryption, List<byte[]> dataList, CipherParameters params) {
+		final List<byte[]> result = new ArrayList<>(dataList.size());
+		final CryptoPool<SM2Engine> pool = this.enginePool;
+		final SM2Engine engine;
+		if (null == pool) {
+			lock.lock();
+			engine = getEngine();
+		} else {
+			engine = pool.borrow();
+		}
+		try {
+			engine.init(forEncryption, params);
+			for (byte[] data : dataList) {
+				result.add(engine.processBlock(data, 0, data.length));
+			}
+			return result;
+		} catch (InvalidCipherTextException e) {
+			throw new CryptoException(e);
+		} finally {
+			if (null == pool) {
+				lock.unlock();
+			} else {
+				pool.release(engine);
+			}
+		}
+	}
+
+	/**
+	 * 摘要、模式或编码变化后按原大小重建对象池
+	 */
+	private void resetPool() {
+		if (null != this.enginePool) {
+			setPoolSize(this.enginePool.getMaxIdle());
+		}
+	}
+
 	/**
 	 * 获取{@link SM2Engine}，此对象为懒加载模式
 	 *
@@ -588,4 +826,39 @@ public class SM2 extends AbstractAsymmetricCrypto<SM2> {
 		return this.signer;
 	}
 	// ------------------------------------------------------------------------------------------------------------------------- Private method end
+
+	/**
+	 * 对象池中的签名器，记录初始化时的参数，参数不变时只重置摘要而不重新初始化
+	 */
+	private static class PreparedSigner {
+		private final SM2Signer signer;
+		private boolean forSigning;
+		private ECKeyParameters keyParams;
+		private byte[] id;
+
+		PreparedSigner(SM2Signer signer) {
+			this.signer = signer;
+		}
+
+		/**
+		 * 按需初始化签名器
+		 *
+		 * @param forSigning 是否签名
+		 * @param keyParams  密钥参数
+		 * @param id         用户ID
+		 */
+		void prepare(boolean forSigning, ECKeyParameters keyParams, byte[] id) {
+			if (forSigning == this.forSigning && keyParams == this.keyParams && Arrays.equals(id, this.id)) {
+				// 签名或验签结束后签名器会自动重置，这里再次重置以清除异常中断时残留的数据
+				this.signer.reset();
+				return;
+			}
+			// 初始化失败时不保留旧参数
+			this.keyParams = null;
+			this.signer.init(forSigning, withId(forSigning ? new ParametersWithRandom(keyParams) : keyParams, id));
+			this.forSigning = forSigning;
+			this.keyParams = keyParams;
+			this.id = null == id ? null : id.clone();
+		}
+	}
 }
@@ -40,6 +40,10 @@ public class SmUtil {
      * SM2国密算法公钥参数的Oid标识
      */
     public static final ASN1ObjectIdentifier ID_SM2_PUBLIC_KEY_PARAM = new ASN1ObjectIdentifier("1.2.156.10197.1.301");
+    /**
+     * 每个线程复用的SM3对象，避免每次摘要都重新查找Provider创建MessageDigest
+     */
+    private static final ThreadLocal<SM3> SM3_HOLDER = ThreadLocal.withInitial(SM3::new);
 
     /**
      * 创建SM2算法对象<br>
@@ -90,6 +94,21 @@ public class SmUtil {
         return new SM2(privateKey, publicKey);
     }
 
+    /**
+     * 创建高性能模式的SM2算法对象，开启引擎与签名器对象池并预计算基点与公钥的定点乘法表，适合长期持有并在多线程中频繁签名验签<br>
+     * 私钥和公钥可以单独传入一个，如此则只能使用此钥匙来做加密（签名）或者解密（验签）
+     *
+     * @param privateKey 私钥，可以使用PKCS#8、D值或PKCS#1规范
+     * @param publicKey  公钥，可以使用X509、Q值或PKCS#1规范
+     * @param poolSize   对象池大小，通常取并发线程数
+     * @return {@link SM2}
+     * @see SM2#setPoolSize(int)
+     * @see SM2#precompute()
+     */
+    public static SM2 sm2Performance(byte[] privateKey, byte[] publicKey, int poolSize) {
+        return new SM2(privateKey, publicKey).setPoolSize(poolSize).precompute();
+    }
+
     /**
      * 创建SM2算法对象<br>
      * 私钥和公钥同时为空时生成一对新的私钥和公钥<br>
@@ -134,7 +153,7 @@ public class SmUtil {
      * @return SM3字符串
      */
     public static String sm3(String data) {
-        return sm3().digestHex(data);
+        return localSm3().digestHex(data);
     }
 
     /**
@@ -144,7 +163,7 @@ public class SmUtil {
      * @return SM3字符串
      */
     public static String sm3(InputStream data) {
-        return sm3().digestHex(data);
+        return localSm3().digestHex(data);
     }
 
     /**
@@ -154,7 +173,7 @@ public class SmUtil {
      * @return SM3字符串
      */
     public static String sm3(File dataFile) {
-        return sm3().digestHex(dataFile);
+        return localSm3().digestHex(dataFile);
     }
 
     /**
@@ -188,6 +207,20 @@ public class SmUtil {
         return new SM4(key);
     }
 
+    /**
+     * SM4加密，开启Cipher对象池，适合长期持有并在多线程中频繁加解密
+     *
+     * @param key      密钥
+     * @param poolSize 对象池大小，通常取并发线程数
+     * @return {@link SM4}
+     * @see SymmetricCrypto#setPoolSize(int)
+     */
+    public static SM4 sm4(byte[] key, int poolSize) {
+        final SM4 sm4 = new SM4(key);
+        sm4.setPoolSize(poolSize);
+        return sm4;
+    }
+
     /**
      * bc加解密使用旧标c1||c2||c3，此方法在加密后调用，将结果转化为c1||c3||c2
      *
@@ -267,6 +300,18 @@ public class SmUtil {
         return new HMac(HmacAlgorithm.HmacSM3, key);
     }
 
+    /**
+     * 获取当前线程复用的SM3对象
+     *
+     * @return {@link SM3}
+     */
+    private static SM3 localSm3() {
+        final SM3 sm3 = SM3_HOLDER.get();
+        // 上次摘要异常中断时可能残留数据
+        sm3.reset();
+        return sm3;
+    }
+
     /**
      * BigInteger转固定长度bytes
      *
@@ -19,10 +19,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -44,6 +47,14 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 	 */
 	private boolean isZeroPadding;
 	private final Lock lock = new ReentrantLock();
+	/**
+	 * 实际使用的算法，ZeroPadding已替换为NoPadding
+	 */
+	private String algorithm;
+	/**
+	 * 加解密对象池，为null时所有操作共用一个{@link Cipher}并加锁
+	 */
+	private transient CryptoPool<Cipher> cipherPool;
 
 	// ------------------------------------------------------------------ Constructor start
 
@@ -136,7 +147,25 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 			this.isZeroPadding = true;
 		}
 
+		this.algorithm = algorithm;
 		this.cipherWrapper = new CipherWrapper(algorithm);
+		if (null != this.cipherPool) {
+			setPoolSize(this.cipherPool.getMaxIdle());
+		}
+		return this;
+	}
+
+	/**
+	 * 设置加解密对象池大小<br>
+	 * 大于0时 {@link #encrypt(byte[])}、{@link #decrypt(byte[])} 等方法各自从池中借用{@link Cipher}，不再共用一把锁，
+	 * 适合多线程共享同一个实例的场景；{@link #setMode(CipherMode)}与{@link #update(byte[])}是有状态操作，仍使用 {@link #getCipher()}
+	 *
+	 * @param poolSize 最多保留的空闲{@link Cipher}数，通常取并发线程数，不大于0表示关闭对象池
+	 * @return this
+	 */
+	public SymmetricCrypto setPoolSize(int poolSize) {
+		final String algorithm = this.algorithm;
+		this.cipherPool = poolSize > 0 ? new CryptoPool<>(() -> SecureUtil.createCipher(algorithm), poolSize) : null;
 		return this;
 	}
 
@@ -150,7 +179,7 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 	}
 
 	/**
-	 * 获得加密或解密器
+	 * 获得加密或解密器，开启对象池时加解密不使用此对象
 	 *
 	 * @return 加密或解密
 	 */
@@ -258,23 +287,79 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 
 	@Override
 	public byte[] encrypt(byte[] data) {
-		lock.lock();
+		CipherLease lease = null;
 		try {
-			final Cipher cipher = initMode(Cipher.ENCRYPT_MODE);
+			lease = acquire(Cipher.ENCRYPT_MODE);
+			final Cipher cipher = lease.cipher;
 			return cipher.doFinal(paddingDataWithZero(data, cipher.getBlockSize()));
 		} catch (Exception e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
+			release(lease);
+		}
+	}
+
+	/**
+	 * 批量加密，整批数据只借用并初始化一次{@link Cipher}，每条数据单独加密，结果与逐条调用 {@link #encrypt(byte[])} 相同
+	 *
+	 * @param dataList 被加密的数据列表
+	 * @return 加密后的数据列表，顺序与输入一致
+	 */
+	public List<byte[]> encryptAll(List<byte[]> dataList) {
+		final List<byte[]> result = new ArrayList<>(dataList.size());
+		if (dataList.isEmpty()) {
+			return result;
+		}
+		CipherLease lease = null;
+		try {
+			lease = acquire(Cipher.ENCRYPT_MODE);
+			final Cipher cipher = lease.cipher;
+			final int blockSize = cipher.getBlockSize();
+			for (byte[] data : dataList) {
+				// doFinal之后Cipher恢复到初始化时的状态，无需重新初始化
+				result.add(cipher.doFinal(paddingDataWithZero(data, blockSize)));
+			}
+			return result;
+		} catch (Exception e) {
+			throw new CryptoException(e);
+		} finally {
+			release(lease);
+		}
+	}
+
+	/**
+	 * 加密{@link ByteBuffer}，从input的position读取到limit，结果写入output的position，不产生中间数组
+	 *
+	 * @param input  被加密的数据
+	 * @param output 输出缓冲区，剩余空间不足时抛出异常
+	 * @return 写入output的字节数
+	 */
+	public int encrypt(ByteBuffer input, ByteBuffer output) {
+		CipherLease lease = null;
+		try {
+			lease = acquire(Cipher.ENCRYPT_MODE);
+			final Cipher cipher = lease.cipher;
+			final int blockSize = cipher.getBlockSize();
+			final int remainLength = blockSize > 0 ? input.remaining() % blockSize : 0;
+			if (this.isZeroPadding && remainLength > 0) {
+				final int length = cipher.update(input, output);
+				return length + cipher.doFinal(ByteBuffer.wrap(new byte[blockSize - remainLength]), output);
+			}
+			return cipher.doFinal(input, output);
+		} catch (Exception e) {
+			throw new CryptoException(e);
+		} finally {
+			release(lease);
 		}
 	}
 
 	@Override
 	public void encrypt(InputStream data, OutputStream out, boolean isClose) throws IORuntimeException {
-		lock.lock();
+		CipherLease lease = null;
 		CipherOutputStream cipherOutputStream = null;
 		try {
-			final Cipher cipher = initMode(Cipher.ENCRYPT_MODE);
+			lease = acquire(Cipher.ENCRYPT_MODE);
+			final Cipher cipher = lease.cipher;
 			cipherOutputStream = new CipherOutputStream(out, cipher);
 			long length = IoUtil.copy(data, cipherOutputStream);
 			if (this.isZeroPadding) {
@@ -294,10 +379,10 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 		} catch (Exception e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
 			// issue#I4EMST@Gitee
-			// CipherOutputStream必须关闭，才能完全写出
+			// CipherOutputStream必须关闭，才能完全写出，关闭时仍会使用Cipher，之后才能释放
 			IoUtil.close(cipherOutputStream);
+			release(lease);
 			if (isClose) {
 				IoUtil.close(data);
 			}
@@ -311,26 +396,85 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 		final int blockSize;
 		final byte[] decryptData;
 
-		lock.lock();
+		CipherLease lease = null;
 		try {
-			final Cipher cipher = initMode(Cipher.DECRYPT_MODE);
+			lease = acquire(Cipher.DECRYPT_MODE);
+			final Cipher cipher = lease.cipher;
 			blockSize = cipher.getBlockSize();
 			decryptData = cipher.doFinal(bytes);
 		} catch (Exception e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
+			release(lease);
 		}
 
 		return removePadding(decryptData, blockSize);
 	}
 
+	/**
+	 * 批量解密，整批数据只借用并初始化一次{@link Cipher}，结果与逐条调用 {@link #decrypt(byte[])} 相同
+	 *
+	 * @param dataList 被解密的数据列表
+	 * @return 解密后的数据列表，顺序与输入一致
+	 */
+	public List<byte[]> decryptAll(List<byte[]> dataList) {
+		final List<byte[]> result = new ArrayList<>(dataList.size());
+		if (dataList.isEmpty()) {
+			return result;
+		}
+		CipherLease lease = null;
+		try {
+			lease = acquire(Cipher.DECRYPT_MODE);
+			final Cipher cipher = lease.cipher;
+			final int blockSize = cipher.getBlockSize();
+			for (byte[] data : dataList) {
+				result.add(removePadding(cipher.doFinal(data), blockSize));
+			}
+			return result;
+		} catch (Exception e) {
+			throw new CryptoException(e);
+		} finally {
+			release(lease);
+		}
+	}
+
+	/**
+	 * 解密{@link ByteBuffer}，从input的position读取到limit，结果写入output的position，不产生中间数组
+	 *
+	 * @param input  被解密的数据
+	 * @param output 输出缓冲区，剩余空间不足时抛出异常
+	 * @return 写入output的字节数，ZeroPadding模式下不含末尾补位的0
+	 */
+	public int decrypt(ByteBuffer input, ByteBuffer output) {
+		CipherLease lease = null;
+		try {
+			lease = acquire(Cipher.DECRYPT_MODE);
+			final Cipher cipher = lease.cipher;
+			final int start = output.position();
+			final int length = cipher.doFinal(input, output);
+			if (this.isZeroPadding && cipher.getBlockSize() > 0) {
+				int end = start + length;
+				while (end > start && 0 == output.get(end - 1)) {
+					end--;
+				}
+				output.position(end);
+				return end - start;
+			}
+			return length;
+		} catch (Exception e) {
+			throw new CryptoException(e);
+		} finally {
+			release(lease);
+		}
+	}
+
 	@Override
 	public void decrypt(InputStream data, OutputStream out, boolean isClose) throws IORuntimeException {
-		lock.lock();
+		CipherLease lease = null;
 		CipherInputStream cipherInputStream = null;
 		try {
-			final Cipher cipher = initMode(Cipher.DECRYPT_MODE);
+			lease = acquire(Cipher.DECRYPT_MODE);
+			final Cipher cipher = lease.cipher;
 			cipherInputStream = new CipherInputStream(data, cipher);
 			if (this.isZeroPadding) {
 				final int blockSize = cipher.getBlockSize();
@@ -347,10 +491,10 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 		} catch (Exception e) {
 			throw new CryptoException(e);
 		} finally {
-			lock.unlock();
 			// issue#I4EMST@Gitee
 			// CipherOutputStream必须关闭，才能完全写出
 			IoUtil.close(cipherInputStream);
+			release(lease);
 			if (isClose) {
 				IoUtil.close(data);
 			}
@@ -404,6 +548,51 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 		return this.cipherWrapper.initMode(mode, this.secretKey).getCipher();
 	}
 
+	/**
+	 * 获取并初始化{@link Cipher}，开启对象池时从池中借用，否则加锁后使用共享的{@link Cipher}<br>
+	 * 获取成功后必须调用 {@link #release(CipherLease)}，归还方式在获取时确定，期间开启或关闭对象池不影响归还
+	 *
+	 * @param mode 模式，见{@link Cipher#ENCRYPT_MODE} 或 {@link Cipher#DECRYPT_MODE}
+	 * @return {@link CipherLease}
+	 * @throws InvalidKeyException                无效key
+	 * @throws InvalidAlgorithmParameterException 无效算法
+	 */
+	private CipherLease acquire(int mode) throws InvalidKeyException, InvalidAlgorithmParameterException {
+		final CryptoPool<Cipher> pool = this.cipherPool;
+		if (null == pool) {
+			lock.lock();
+			try {
+				return new CipherLease(initMode(mode), null);
+			} catch (InvalidKeyException | InvalidAlgorithmParameterException | RuntimeException e) {
+				lock.unlock();
+				throw e;
+			}
+		}
+		final Cipher cipher = pool.borrow();
+		try {
+			return new CipherLease(this.cipherWrapper.initMode(cipher, mode, this.secretKey), pool);
+		} catch (InvalidKeyException | InvalidAlgorithmParameterException | RuntimeException e) {
+			pool.release(cipher);
+			throw e;
+		}
+	}
+
+	/**
+	 * 释放 {@link #acquire(int)} 获取的{@link Cipher}，借自对象池的归还到原对象池，否则解锁
+	 *
+	 * @param lease {@link CipherLease}，为null时忽略
+	 */
+	private void release(CipherLease lease) {
+		if (null == lease) {
+			return;
+		}
+		if (null == lease.pool) {
+			lock.unlock();
+		} else {
+			lease.pool.release(lease.cipher);
+		}
+	}
+
 	/**
 	 * 数据按照blockSize的整数倍长度填充填充0
 	 *
@@ -497,4 +686,22 @@ public class SymmetricCrypto implements SymmetricEncryptor, SymmetricDecryptor,
 		out.flush();
 	}
 	// --------------------------------------------------------------------------------- Private method end
+
+	/**
+	 * {@link #acquire(int)} 获取的{@link Cipher}及其来源
+	 */
+	private static final class CipherLease {
+
+		private final Cipher cipher;
+
+		/**
+		 * 借出的对象池，为null表示加锁使用共享的{@link Cipher}
+		 */
+		private final CryptoPool<Cipher> pool;
+
+		private CipherLease(Cipher cipher, CryptoPool<Cipher> pool) {
+			this.cipher = cipher;
+			this.pool = pool;
+		}
+	}
 }
@@ -0,0 +1,76 @@
+package com.spring.cloud.base.utils.crypto;
+
+import java.util.function.Supplier;
+
+/**
+ * @Author: ls
+ * @Description: 线程安全的MAC算法引擎
+ * 每个线程首次使用时从工厂获取独立的引擎并一直复用，密钥只在创建引擎时初始化一次；
+ * 单个线程内的 update/doFinal 调用序列与普通引擎一致，不同线程之间互不影响
+ * @Date: 2023/5/9 14:20
+ */
+public class ThreadLocalMacEngine implements MacEngine {
+
+	private final ThreadLocal<MacEngine> engines;
+
+	private final int macLength;
+
+	private final String algorithm;
+
+	/**
+	 * 构造
+	 *
+	 * @param factory 引擎工厂，每个线程调用一次，返回的引擎必须使用相同的算法与密钥
+	 */
+	public ThreadLocalMacEngine(Supplier<MacEngine> factory) {
+		final MacEngine engine = factory.get();
+		this.macLength = engine.getMacLength();
+		this.algorithm = engine.getAlgorithm();
+		this.engines = ThreadLocal.withInitial(factory);
+		this.engines.set(engine);
+	}
+
+	/**
+	 * 获取当前线程的引擎
+	 *
+	 * @return {@link MacEngine}
+	 */
+	public MacEngine get() {
+		return this.engines.get();
+	}
+
+	@Override
+	public void update(byte[] in) {
+		get().update(in);
+	}
+
+	@Override
+	public void update(byte[] in, int inOff, int len) {
+		get().update(in, inOff, len);
+	}
+
+	@Override
+	public byte[] doFinal() {
+		return get().doFinal();
+	}
+
+	@Override
+	public int doFinal(byte[] out, int outOff) {
+		return get().doFinal(out, outOff);
+	}
+
+	@Override
+	public void reset() {
+		get().reset();
+	}
+
+	@Override
+	public int getMacLength() {
+		return this.macLength;
+	}
+
+	@Override
+	public String getAlgorithm() {
+		return this.algorithm;
+	}
+}
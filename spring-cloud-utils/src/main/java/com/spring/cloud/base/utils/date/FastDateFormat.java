@@ -2,6 +2,7 @@ package com.spring.cloud.base.utils.date;
 
 import com.spring.cloud.base.utils.FastDateParser;
 import com.spring.cloud.base.utils.FastDatePrinter;
+import com.spring.cloud.base.utils.cache.Cache;
 
 import java.text.FieldPosition;
 import java.text.Format;
@@ -27,6 +28,15 @@ public class FastDateFormat extends Format implements DateParser, DatePrinter {
 	};
 	private static final long serialVersionUID = -4489822869119953562L;
 
+	/**
+	 * 替换格式化器缓存，默认无界缓存，键为 (pattern, timeZone, locale)
+	 *
+	 * @param cache 缓存，例如{@link com.spring.cloud.base.utils.cache.LRUCache}
+	 */
+	public static void setCache(Cache<Tuple, FastDateFormat> cache) {
+		CACHE.setInstanceCache(cache);
+	}
+
 	private final FastDatePrinter printer;
 
 	private final FastDateParser parser;
@@ -1,6 +1,8 @@
 package com.spring.cloud.base.utils.date;
 
 import com.spring.cloud.base.utils.Assert;
+import com.spring.cloud.base.utils.cache.Cache;
+import com.spring.cloud.base.utils.cache.MapCache;
 import com.spring.cloud.base.utils.map.SafeConcurrentHashMap;
 
 import java.text.DateFormat;
@@ -19,7 +21,7 @@ abstract class FormatCache<F extends Format> {
 
 	static final int NONE = -1;
 
-	private final ConcurrentMap<Tuple, F> cInstanceCache = new SafeConcurrentHashMap<>(7);
+	private volatile Cache<Tuple, F> cInstanceCache = new MapCache<>(new SafeConcurrentHashMap<>(7));
 
 	private static final ConcurrentMap<Tuple, String> C_DATE_TIME_INSTANCE_CACHE = new SafeConcurrentHashMap<>(7);
 
@@ -50,17 +52,19 @@ abstract class FormatCache<F extends Format> {
 			locale = Locale.getDefault();
 		}
 		final Tuple key = new Tuple(pattern, timeZone, locale);
-		F format = cInstanceCache.get(key);
-		if (format == null) {
-			format = createInstance(pattern, timeZone, locale);
-			final F previousValue = cInstanceCache.putIfAbsent(key, format);
-			if (previousValue != null) {
-				// another thread snuck in and did the same work
-				// we should return the instance that is in ConcurrentMap
-				format = previousValue;
-			}
-		}
-		return format;
+		final TimeZone finalTimeZone = timeZone;
+		final Locale finalLocale = locale;
+		return cInstanceCache.get(key, () -> createInstance(pattern, finalTimeZone, finalLocale));
+	}
+
+	/**
+	 * 替换格式化器缓存，默认无界缓存
+	 *
+	 * @param cache 缓存
+	 */
+	void setInstanceCache(Cache<Tuple, F> cache) {
+		Assert.notNull(cache, "cache must not be null");
+		this.cInstanceCache = cache;
 	}
 
 	/**
@@ -76,6 +76,21 @@ public class HexUtil {
 		return (toLowerCase ? Base16Codec.CODEC_LOWER : Base16Codec.CODEC_UPPER).encode(data);
 	}
 
+	/**
+	 * 将字节数组的一部分编码到给定的字符数组，不分配新数组
+	 *
+	 * @param data        byte[]
+	 * @param off         开始位置
+	 * @param len         长度
+	 * @param out         输出数组，剩余空间至少为len * 2
+	 * @param outOff      输出开始位置
+	 * @param toLowerCase {@code true} 传换成小写格式 ， {@code false} 传换成大写格式
+	 * @return 写入的长度
+	 */
+	public static int encodeHex(byte[] data, int off, int len, char[] out, int outOff, boolean toLowerCase) {
+		return (toLowerCase ? Base16Codec.CODEC_LOWER : Base16Codec.CODEC_UPPER).encode(data, off, len, out, outOff);
+	}
+
 	/**
 	 * 将字节数组转换为十六进制字符串
 	 *
@@ -118,6 +133,18 @@ public class HexUtil {
 		return new String(encodeHex(data, toLowerCase));
 	}
 
+	/**
+	 * 将十六进制字符串解码到给定数组，不分配新数组，不去除空白，长度必须为偶数
+	 *
+	 * @param hexData 十六进制字符串
+	 * @param out     输出数组，剩余空间至少为长度的一半
+	 * @param outOff  输出开始位置
+	 * @return 写入的长度
+	 */
+	public static int decodeHex(CharSequence hexData, byte[] out, int outOff) {
+		return Base16Codec.CODEC_LOWER.decode(hexData, out, outOff);
+	}
+
 	/**
 	 * 将十六进制字符数组转换为字符串，默认编码UTF-8
 	 *
@@ -1,11 +1,13 @@
 package com.spring.cloud.base.utils.utils;
 
+import com.spring.cloud.base.utils.Assert;
 import com.spring.cloud.base.utils.base.ReflectUtil;
+import com.spring.cloud.base.utils.cache.Cache;
+import com.spring.cloud.base.utils.cache.CacheUtil;
 import com.spring.cloud.base.utils.bean.BeanUtil;
 import com.spring.cloud.base.utils.crypto.Func1;
 import com.spring.cloud.base.utils.map.ClassUtil;
 import com.spring.cloud.base.utils.map.Func0;
-import com.spring.cloud.base.utils.map.WeakConcurrentMap;
 import com.spring.cloud.base.utils.str.StrUtil;
 
 import java.io.Serializable;
@@ -19,7 +21,17 @@ import java.lang.invoke.SerializedLambda;
  */
 public class LambdaUtil {
 
-	private static final WeakConcurrentMap<String, SerializedLambda> cache = new WeakConcurrentMap<>();
+	private static volatile Cache<String, SerializedLambda> cache = CacheUtil.newWeakCache();
+
+	/**
+	 * 替换lambda解析结果的缓存，默认弱引用键的无界缓存
+	 *
+	 * @param lambdaCache 缓存
+	 */
+	public static void setCache(Cache<String, SerializedLambda> lambdaCache) {
+		Assert.notNull(lambdaCache, "cache must not be null");
+		cache = lambdaCache;
+	}
 
 	/**
 	 * 通过对象的方法或类的静态方法引用，获取lambda实现类
@@ -200,6 +212,6 @@ public class LambdaUtil {
 	 * @return 返回解析后的结果
 	 */
 	private static SerializedLambda _resolve(Serializable func) {
-		return cache.computeIfAbsent(func.getClass().getName(), (key) -> ReflectUtil.invoke(func, "writeReplace"));
+		return cache.get(func.getClass().getName(), () -> ReflectUtil.invoke(func, "writeReplace"));
 	}
 }
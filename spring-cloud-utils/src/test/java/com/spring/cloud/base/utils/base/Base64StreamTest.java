@@ -0,0 +1,164 @@
+package com.spring.cloud.base.utils.base;
+
+import com.spring.cloud.base.utils.exception.UtilException;
+import com.spring.cloud.base.utils.utils.HexUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Author: ls
+ * @Description: Base64流与缓冲区编解码的往返校验，以JDK的实现为准
+ * @Date: 2023/5/15 10:20
+ */
+class Base64StreamTest {
+
+	/**
+	 * 覆盖空数据、不足一组、跨越输出流分块边界与多块的长度
+	 */
+	private static final int[] LENGTHS = {0, 1, 2, 3, 4, 5, 3071, 3072, 3073, 3074, 100_000};
+
+	@Test
+	void outputStreamMatchesJdk() throws IOException {
+		for (int length : LENGTHS) {
+			final byte[] data = randomBytes(length);
+			assertEquals(Base64.getEncoder().encodeToString(data), encodeStream(data, false), "length " + length);
+			assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(data), encodeStream(data, true), "length " + length);
+		}
+	}
+
+	@Test
+	void inputStreamRoundTrip() throws IOException {
+		for (int length : LENGTHS) {
+			final byte[] data = randomBytes(length);
+			assertArrayEquals(data, decodeStream(Base64.getEncoder().encode(data)), "length " + length);
+			assertArrayEquals(data, decodeStream(Base64.getUrlEncoder().withoutPadding().encode(data)), "length " + length);
+			assertArrayEquals(data, decodeStream(Base64.getMimeEncoder().encode(data)), "length " + length);
+		}
+	}
+
+	@Test
+	void inputStreamReadsSingleBytes() throws IOException {
+		final byte[] data = randomBytes(1000);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = new Base64InputStream(new ByteArrayInputStream(Base64.getEncoder().encode(data)))) {
+			int b;
+			while ((b = in.read()) != -1) {
+				out.write(b);
+			}
+		}
+		assertArrayEquals(data, out.toByteArray());
+	}
+
+	@Test
+	void inputStreamRejectsIllegalCharacters() {
+		final byte[] invalid = "QUJD*EVG".getBytes(StandardCharsets.US_ASCII);
+		assertThrows(IOException.class, () -> decodeStream(invalid));
+		final byte[] afterPadding = "QQ==QUJD".getBytes(StandardCharsets.US_ASCII);
+		assertThrows(IOException.class, () -> decodeStream(afterPadding));
+	}
+
+	@Test
+	void bufferRoundTrip() {
+		for (int length : LENGTHS) {
+			final byte[] data = randomBytes(length);
+			final String expected = Base64.getEncoder().encodeToString(data);
+
+			final byte[] encoded = new byte[Base64Encoder.encodedLength(length, false)];
+			assertEquals(encoded.length, Base64Encoder.encode(data, 0, length, encoded, 0, false));
+			assertEquals(expected, new String(encoded, StandardCharsets.US_ASCII));
+
+			final char[] chars = new char[encoded.length];
+			Base64Encoder.encode(data, 0, length, chars, 0, false);
+			assertEquals(expected, new String(chars));
+
+			final byte[] decoded = new byte[Base64Decoder.maxDecodedLength(encoded.length)];
+			assertEquals(length, Base64Decoder.decode(encoded, 0, encoded.length, decoded, 0));
+			assertArrayEquals(data, copyOf(decoded, length));
+
+			// 直接缓冲区走分块路径
+			final ByteBuffer direct = ByteBuffer.allocateDirect(encoded.length);
+			Base64Encoder.encode(ByteBuffer.wrap(data), direct, false);
+			direct.flip();
+			assertEquals(ByteBuffer.wrap(encoded), direct);
+			final ByteBuffer plain = ByteBuffer.allocateDirect(Math.max(length, 1));
+			assertEquals(length, Base64Decoder.decode(direct, plain));
+			plain.flip();
+			assertEquals(ByteBuffer.wrap(data), plain);
+		}
+	}
+
+	@Test
+	void decodeRejectsIllegalCharacters() {
+		final byte[] out = new byte[16];
+		assertThrows(IllegalArgumentException.class, () -> Base64Decoder.decode("QUJD\nREVG", out, 0));
+		assertThrows(IllegalArgumentException.class, () -> Base64Decoder.decode("QUJDREVGSA", new byte[2], 0));
+	}
+
+	@Test
+	void hexRoundTrip() {
+		final byte[] data = randomBytes(257);
+		final char[] hex = new char[data.length * 2];
+		assertEquals(hex.length, HexUtil.encodeHex(data, 0, data.length, hex, 0, false));
+		assertEquals(new String(HexUtil.encodeHex(data, false)), new String(hex));
+
+		final byte[] decoded = new byte[data.length];
+		assertEquals(data.length, HexUtil.decodeHex(new String(hex), decoded, 0));
+		assertArrayEquals(data, decoded);
+		assertThrows(UtilException.class, () -> HexUtil.decodeHex("abc", decoded, 0));
+		assertThrows(UtilException.class, () -> HexUtil.decodeHex("0g", decoded, 0));
+	}
+
+	private static String encodeStream(byte[] data, boolean isUrlSafe) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final Random random = new Random(data.length);
+		try (Base64OutputStream encoder = new Base64OutputStream(out, isUrlSafe)) {
+			// 单字节与任意长度的写入交替，覆盖剩余不足3字节的拼接
+			for (int off = 0; off < data.length; ) {
+				if (random.nextInt(4) == 0) {
+					encoder.write(data[off++]);
+				} else {
+					final int len = Math.min(random.nextInt(5000), data.length - off);
+					encoder.write(data, off, len);
+					off += len;
+				}
+			}
+		}
+		return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	private static byte[] decodeStream(byte[] encoded) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (InputStream in = new Base64InputStream(new ByteArrayInputStream(encoded))) {
+			final byte[] buffer = new byte[777];
+			int n;
+			while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+				out.write(buffer, 0, n);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] copyOf(byte[] bytes, int length) {
+		final byte[] copy = new byte[length];
+		System.arraycopy(bytes, 0, copy, 0, length);
+		return copy;
+	}
+
+	private static byte[] randomBytes(int length) {
+		final byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+}
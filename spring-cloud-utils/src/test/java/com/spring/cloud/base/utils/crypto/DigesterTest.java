@@ -0,0 +1,138 @@
+package com.spring.cloud.base.utils.crypto;
+
+import com.spring.cloud.base.utils.exception.CryptoException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @Author: ls
+ * @Description: 文件摘要、树形摘要与可续算摘要，以JDK的实现为准
+ * @Date: 2023/5/16 10:12
+ */
+class DigesterTest {
+
+	/**
+	 * 覆盖空文件、单个读取块内与跨越多个读取块的长度
+	 */
+	private static final int[] LENGTHS = {0, 1, Digester.READ_BUFFER_SIZE - 1, Digester.READ_BUFFER_SIZE + 1, 3 * Digester.READ_BUFFER_SIZE + 7};
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void fileDigestMatchesJdk() throws Exception {
+		final Digester digester = new Digester(DigestAlgorithm.SHA256);
+		for (int length : LENGTHS) {
+			final byte[] data = randomBytes(length);
+			final File file = write(data);
+			assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data), digester.digest(file), "length " + length);
+			// 同一对象可连续使用
+			assertArrayEquals(digester.digest(data), digester.digest(file), "length " + length);
+		}
+	}
+
+	@Test
+	void saltedFileDigestMatchesBytes() throws IOException {
+		final Digester digester = new Digester(DigestAlgorithm.MD5).setSalt("salt".getBytes(StandardCharsets.UTF_8));
+		final byte[] data = randomBytes(Digester.READ_BUFFER_SIZE + 1);
+		assertArrayEquals(digester.digest(data), digester.digest(write(data)));
+	}
+
+	@Test
+	void treeDigestCombinesChunkDigests() throws Exception {
+		final int chunkSize = 100_000;
+		final byte[] data = randomBytes(3 * chunkSize + 17);
+		final File file = write(data);
+		final Digester digester = new Digester(DigestAlgorithm.MD5);
+
+		final List<byte[]> chunks = digester.digestChunks(file, chunkSize, ForkJoinPool.commonPool());
+		assertEquals(4, chunks.size());
+		final MessageDigest combined = MessageDigest.getInstance("MD5");
+		for (int i = 0; i < chunks.size(); i++) {
+			final byte[] chunk = Arrays.copyOfRange(data, i * chunkSize, Math.min(data.length, (i + 1) * chunkSize));
+			assertArrayEquals(MessageDigest.getInstance("MD5").digest(chunk), chunks.get(i));
+			combined.update(chunks.get(i));
+		}
+		assertArrayEquals(combined.digest(), digester.digestTree(file, chunkSize, new ForkJoinPool(3)));
+	}
+
+	@Test
+	void macFileDigestMatchesJdk() throws Exception {
+		final byte[] key = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+		final HMac mac = new HMac(HmacAlgorithm.HmacSHA256, key);
+		for (int length : LENGTHS) {
+			final byte[] data = randomBytes(length);
+			final javax.crypto.Mac expected = javax.crypto.Mac.getInstance("HmacSHA256");
+			expected.init(new SecretKeySpec(key, "HmacSHA256"));
+			assertArrayEquals(expected.doFinal(data), mac.digest(write(data)), "length " + length);
+		}
+	}
+
+	@Test
+	void resumesFromCheckpoint() throws Exception {
+		final byte[] data = randomBytes(2 * Digester.READ_BUFFER_SIZE + 3);
+		final int split = 12345;
+		final ResumableDigester first = new ResumableDigester(DigestAlgorithm.SHA512);
+		first.update(data, 0, split);
+		final byte[] checkpoint = first.checkpoint();
+
+		final ResumableDigester restored = ResumableDigester.restore(checkpoint);
+		assertEquals(split, restored.getPosition());
+		assertEquals(data.length - split, restored.resume(write(data)));
+		assertArrayEquals(MessageDigest.getInstance("SHA-512").digest(data), restored.digest());
+		assertEquals(data.length, restored.getPosition());
+	}
+
+	@Test
+	void rejectsInvalidCheckpoint() throws IOException {
+		final byte[] checkpoint = new ResumableDigester(DigestAlgorithm.SHA256).update(randomBytes(100)).checkpoint();
+		assertThrows(CryptoException.class, () -> ResumableDigester.restore(Arrays.copyOf(checkpoint, checkpoint.length - 1)));
+		assertThrows(CryptoException.class, () -> ResumableDigester.restore(checkpoint(-1)));
+		assertThrows(CryptoException.class, () -> ResumableDigester.restore(checkpoint(Integer.MAX_VALUE)));
+	}
+
+	/**
+	 * 构造状态长度为给定值的检查点
+	 */
+	private static byte[] checkpoint(int stateLength) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(1);
+			out.writeUTF(DigestAlgorithm.SHA256.name());
+			out.writeLong(0);
+			out.writeInt(stateLength);
+			out.write(new byte[16]);
+		}
+		return bytes.toByteArray();
+	}
+
+	private File write(byte[] data) throws IOException {
+		final Path path = Files.createTempFile(tempDir, "digest", ".bin");
+		Files.write(path, data);
+		return path.toFile();
+	}
+
+	private static byte[] randomBytes(int length) {
+		final byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+}
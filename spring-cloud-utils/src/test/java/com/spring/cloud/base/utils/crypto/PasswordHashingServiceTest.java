@@ -0,0 +1,85 @@
+package com.spring.cloud.base.utils.crypto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author: ls
+ * @Description: 密码哈希服务的往返校验与限流
+ * @Date: 2023/5/12 15:40
+ */
+class PasswordHashingServiceTest {
+
+	private PasswordHashingService service;
+
+	@AfterEach
+	void tearDown() {
+		if (service != null) {
+			service.close();
+		}
+	}
+
+	@Test
+	void hashesAndVerifiesBcrypt() throws Exception {
+		service = new PasswordHashingService(2, 8).setLogRounds(4);
+		final String hashed = service.hash("secret").get();
+
+		assertTrue(hashed.startsWith("$2a$04$"));
+		assertTrue(service.verify("secret", hashed).get());
+		assertFalse(service.verify("Secret", hashed).get());
+		assertFalse(service.needsRehash(hashed));
+		assertTrue(service.setLogRounds(5).needsRehash(hashed));
+		// 一次哈希与两次校验
+		assertEquals(3, service.getHashCount());
+	}
+
+	@Test
+	void hashesAndVerifiesPbkdf2() throws Exception {
+		service = new PasswordHashingService(2, 8).setPbkdf2Iterations(1000);
+		final String hashed = service.hashPbkdf2("secret").get();
+
+		assertTrue(hashed.startsWith(PasswordHashingService.PBKDF2_PREFIX + "1000$"));
+		assertTrue(service.verify("secret", hashed).get());
+		assertFalse(service.verify("secret2", hashed).get());
+		assertFalse(service.verify("secret", hashed.substring(0, hashed.lastIndexOf('$'))).get());
+		assertTrue(service.needsRehash(hashed));
+	}
+
+	@Test
+	void hashesBatchInOrder() throws Exception {
+		service = new PasswordHashingService(1, 1).setLogRounds(4);
+		final List<String> passwords = Arrays.asList("a", "b", "c", "d", "e");
+		final List<String> hashed = service.hashAll(passwords).get();
+
+		assertEquals(passwords.size(), hashed.size());
+		for (int i = 0; i < passwords.size(); i++) {
+			assertTrue(BCrypt.checkpw(passwords.get(i), hashed.get(i)));
+		}
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		// 一个计算线程、一个排队位置，第三个请求在前两个完成前提交
+		service = new PasswordHashingService(1, 1).setLogRounds(12);
+		final CompletableFuture<String> running = service.hash("a");
+		final CompletableFuture<String> queued = service.hash("b");
+		final CompletableFuture<String> rejected = service.hash("c");
+
+		final ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+		assertTrue(e.getCause() instanceof RejectedExecutionException);
+		assertEquals(1, service.getRejectedCount());
+		assertTrue(BCrypt.checkpw("a", running.get()));
+		assertTrue(BCrypt.checkpw("b", queued.get()));
+	}
+}